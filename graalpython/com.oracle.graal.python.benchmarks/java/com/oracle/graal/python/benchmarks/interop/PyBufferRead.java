@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2023, 2023, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.benchmarks.interop;
+
+import java.nio.ByteOrder;
+
+import org.graalvm.polyglot.Value;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.infra.Blackhole;
+
+public class PyBufferRead extends BenchRunner {
+
+    @Param({"100"}) public int arg1;
+
+    private Value payload;
+    private Value doubles;
+    private Value view;
+
+    @Setup
+    public void setup() {
+        System.out.println("### setup ...");
+        this.payload = this.context.eval("python", "bytes(i & 0xff for i in range(1 << 20))");
+        this.doubles = this.context.eval("python", "import array\narray.array('d', (i * 0.5 for i in range(1 << 17)))");
+        this.view = this.context.eval("python", "memoryview(bytearray(range(256)) * 4096)");
+    }
+
+    @Benchmark
+    public long bufferRead(Blackhole bh) {
+        long total = 0;
+        for (int i = 0; i < arg1; i++) {
+            total += bulkBytes(payload);
+            total += bulkBytes(view);
+            total += (long) sumDoubles(doubles);
+            bh.consume(total);
+        }
+        System.out.println("total: " + total);
+        return total;
+    }
+
+    private static long bulkBytes(Value buffer) {
+        int size = (int) buffer.getBufferSize();
+        byte[] data = new byte[size];
+        buffer.readBuffer(0, data, 0, size);
+        long sum = 0;
+        for (byte b : data) {
+            sum += b & 0xff;
+        }
+        // mix in a few element-wise reads so both paths stay hot
+        for (int i = 0; i < size; i += 4096) {
+            sum += buffer.readBufferByte(i);
+        }
+        return sum;
+    }
+
+    private static double sumDoubles(Value buffer) {
+        long size = buffer.getBufferSize();
+        double sum = 0;
+        for (long offset = 0; offset < size; offset += Double.BYTES) {
+            sum += buffer.readBufferDouble(ByteOrder.nativeOrder(), offset);
+        }
+        return sum;
+    }
+}
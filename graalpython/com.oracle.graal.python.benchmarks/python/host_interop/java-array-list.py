@@ -0,0 +1,89 @@
+# Copyright (c) 2023, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+
+# Converts Java primitive arrays and lists into Python lists and back.
+
+import java
+import jarray
+from java.util import ArrayList
+
+SZ = 10000
+
+INTS = jarray.array(list(range(SZ)), 'i')
+LONGS = jarray.array([i << 33 for i in range(SZ)], 'l')
+DOUBLES = jarray.array([i * 0.5 for i in range(SZ)], 'd')
+DOUBLE_LIST = ArrayList()
+for i in range(SZ):
+    DOUBLE_LIST.add(i * 0.25)
+
+
+def roundtrip():
+    ints = list(INTS)
+    longs = list(LONGS)
+    doubles = list(DOUBLES)
+    boxed = list(DOUBLE_LIST)
+    jarray.array(ints, 'i')
+    jarray.array(longs, 'l')
+    jarray.array(doubles, 'd')
+    jarray.array(boxed, 'd')
+    return ints[-1] + longs[-1] + doubles[-1] + boxed[-1]
+
+
+def measure(num):
+    result = 0
+    for i in range(num):
+        result = roundtrip()
+    return result
+
+
+def __benchmark__(num=1000):
+    return measure(num)
+
+
+if __name__ == '__main__':
+    import sys
+    import time
+    start = time.time()
+    if len(sys.argv) >= 2:
+        num = int(sys.argv[1])
+        result = __benchmark__(num)
+    else:
+        result = __benchmark__(2)
+    print(result)
+    print("%s took %s s" % (__file__, time.time() - start))
@@ -0,0 +1,170 @@
+# Copyright (c) 2023, 2023, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+
+code = """
+#include "Python.h"
+
+typedef struct {
+    PyObject_HEAD;
+    long value;
+} NativePointObject;
+
+static PyObject* np_identity(PyObject* self, PyObject* arg) {
+    Py_INCREF(arg);
+    return arg;
+}
+
+static PyObject* np_first_of(PyObject* self, PyObject* args) {
+    PyObject* a;
+    PyObject* b;
+    PyObject* c;
+    if (!PyArg_UnpackTuple(args, "first_of", 3, 3, &a, &b, &c)) {
+        return NULL;
+    }
+    Py_INCREF(a);
+    return a;
+}
+
+static struct PyMethodDef np_functions[] = {
+    {"identity", (PyCFunction)np_identity, METH_O, ""},
+    {"first_of", (PyCFunction)np_first_of, METH_VARARGS, ""},
+    {NULL, NULL, 0, NULL}
+};
+
+static PyTypeObject NativePointType = {
+    PyVarObject_HEAD_INIT(NULL, 0)
+        "c_transitions_module.NativePoint",
+    sizeof(NativePointObject),  /* tp_basicsize */
+    0,                          /* tp_itemsize */
+    0,                          /* tp_dealloc */
+    0,
+    0,
+    0,
+    0,                          /* tp_reserved */
+    0,
+    0,
+    0,
+    0,
+    0,
+    0,
+    0,
+    0,
+    0,
+    0,
+    Py_TPFLAGS_DEFAULT,
+    0,
+    0,                          /* tp_traverse */
+    0,                          /* tp_clear */
+    0,                          /* tp_richcompare */
+    0,                          /* tp_weaklistoffset */
+    0,                          /* tp_iter */
+    0,                          /* tp_iternext */
+    0,                          /* tp_methods */
+    NULL,                       /* tp_members */
+    0,                          /* tp_getset */
+    0,                          /* tp_base */
+    0,                          /* tp_dict */
+    0,                          /* tp_descr_get */
+    0,                          /* tp_descr_set */
+    0,                          /* tp_dictoffset */
+    0,                          /* tp_init */
+    PyType_GenericAlloc,        /* tp_alloc */
+    PyType_GenericNew,          /* tp_new */
+    PyObject_Del,               /* tp_free */
+};
+
+static PyModuleDef c_transitions_module = {
+    PyModuleDef_HEAD_INIT,
+    "c_transitions_module",
+    "",
+    -1,
+    np_functions,
+    NULL, NULL, NULL, NULL
+};
+
+PyMODINIT_FUNC
+PyInit_c_transitions_module(void)
+{
+    PyObject* m;
+
+    if (PyType_Ready(&NativePointType) < 0)
+        return NULL;
+
+    m = PyModule_Create(&c_transitions_module);
+    if (m == NULL)
+        return NULL;
+
+    Py_INCREF(&NativePointType);
+    PyModule_AddObject(m, "NativePoint", (PyObject *)&NativePointType);
+    return m;
+}
+
+"""
+
+
+ccompile("c_transitions_module", code)
+from c_transitions_module import NativePoint, identity, first_of
+
+
+class ManagedPoint:
+    pass
+
+
+def transitions(num):
+    # objects allocated in native memory are resolved through the native lookup table on the way
+    # back, managed objects get a handle which is released again once the temporaries die
+    natives = [NativePoint() for i in range(1024)]
+    managed = [ManagedPoint() for i in range(1024)]
+    hits = 0
+    for i in range(num):
+        idx = i & 1023
+        n = natives[idx]
+        if identity(n) is n:
+            hits += 1
+        if first_of(managed[idx], n, ManagedPoint()) is managed[idx]:
+            hits += 1
+    return hits
+
+
+def measure(num):
+    result = transitions(num)
+    print("hits = " + str(result))
+
+
+def __benchmark__(num=1000000):
+    measure(num)
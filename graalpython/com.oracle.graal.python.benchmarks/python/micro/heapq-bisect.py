@@ -0,0 +1,75 @@
+# Copyright (c) 2023, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+
+import heapq
+from bisect import bisect_left, insort
+
+
+def measure(num):
+    ints = [(i * 7919) % 10007 for i in range(5000)]
+    floats = [x / 3.0 for x in ints]
+    tasks = [(x % 97, x, 'task') for x in ints[:1000]]
+    m = 0
+    for i in range(num):
+        heap = []
+        for x in ints:
+            heapq.heappush(heap, x)
+        while heap:
+            m += heapq.heappop(heap)
+
+        heap = list(floats)
+        heapq.heapify(heap)
+        for x in floats[:1000]:
+            m += heapq.heappushpop(heap, x)
+
+        heap = list(tasks)
+        heapq.heapify(heap)
+        while heap:
+            m += heapq.heappop(heap)[0]
+
+        sorted_ints = []
+        for x in ints[:2000]:
+            insort(sorted_ints, x)
+        for x in ints:
+            m += bisect_left(sorted_ints, x)
+    print(m)
+
+
+def __benchmark__(num=1000000):
+    measure(num)
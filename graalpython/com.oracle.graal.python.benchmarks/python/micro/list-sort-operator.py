@@ -0,0 +1,71 @@
+# Copyright (c) 2023, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+
+from operator import itemgetter, attrgetter, methodcaller
+
+
+class C:
+    def __init__(self, i):
+        self.i = i
+        self.inner = self
+
+    def key(self):
+        return self.i
+
+
+rows = [(x % 7, x, str(x), -x) for x in range(-300, 300, 3)]
+objects = [C(-x if x % 2 else x) for x in range(-300, 300, 3)]
+
+
+def measure(num):
+    by_col = itemgetter(1)
+    by_cols = itemgetter(0, 3)
+    by_attr = attrgetter('inner.i')
+    by_method = methodcaller('key')
+    m = 0
+    for i in range(num):
+        m += sorted(rows, key=by_col)[-1][1]
+        m += sorted(rows, key=by_cols)[0][1]
+        m += sorted(objects, key=by_attr)[-1].i
+        m += sorted(objects, key=by_method)[0].i
+    print(m)
+
+
+def __benchmark__(num=1000000):
+    measure(num)
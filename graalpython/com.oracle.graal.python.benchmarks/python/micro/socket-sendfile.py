@@ -0,0 +1,97 @@
+# Copyright (c) 2023, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+
+import os
+import socket
+import tempfile
+import threading
+
+# streams a 64 MiB file over a local socket with socket.sendfile
+SIZE = 64 * 1024 * 1024
+
+path = None
+
+
+def __setup__(num=10):
+    global path
+    fd, path = tempfile.mkstemp()
+    with os.fdopen(fd, "wb") as f:
+        chunk = bytes(range(256)) * 4096
+        for i in range(SIZE // len(chunk)):
+            f.write(chunk)
+
+
+def drain(sock, result):
+    total = 0
+    buf = bytearray(1024 * 1024)
+    while True:
+        n = sock.recv_into(buf)
+        if n == 0:
+            break
+        total += n
+    result.append(total)
+
+
+def measure(num):
+    total = 0
+    for i in range(num):
+        server = socket.socket(socket.AF_INET, socket.SOCK_STREAM)
+        server.bind(("127.0.0.1", 0))
+        server.listen(1)
+        client = socket.create_connection(server.getsockname())
+        conn, _ = server.accept()
+        result = []
+        reader = threading.Thread(target=drain, args=(conn, result))
+        reader.start()
+        with open(path, "rb") as f:
+            client.sendfile(f)
+        client.close()
+        reader.join()
+        conn.close()
+        server.close()
+        total += result[0]
+    return total
+
+
+def __benchmark__(num=10):
+    return measure(num)
+
+
+def __teardown__():
+    os.remove(path)
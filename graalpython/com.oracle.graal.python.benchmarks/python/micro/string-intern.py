@@ -0,0 +1,85 @@
+# Copyright (c) 2023, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+import json
+
+MODULE_SOURCE = """
+class Record:
+    def __init__(self, value):
+        self.value = value
+        self.weight = 2
+
+    def total(self, other):
+        return self.value * self.weight + other.value
+
+def from_dict(d):
+    return d['value'] + d['weight']
+"""
+
+MODULE_COUNT = 50
+
+
+def load_modules():
+    # simulates importing many modules that use the same attribute names
+    modules = []
+    for i in range(MODULE_COUNT):
+        ns = {}
+        exec(compile(MODULE_SOURCE, "module%d" % i, "exec"), ns)
+        modules.append(ns)
+    return modules
+
+
+def lookups(modules, num):
+    rows = json.loads(json.dumps([{"value": i, "weight": 3} for i in range(MODULE_COUNT)]))
+    records = [ns['Record'](i) for i, ns in enumerate(modules)]
+    total = 0
+    for i in range(num):
+        j = i % MODULE_COUNT
+        ns = modules[j]
+        total += records[j].total(records[MODULE_COUNT - 1 - j])
+        total += ns['from_dict'](rows[j])
+    return total
+
+
+def measure(num):
+    modules = load_modules()
+    print(lookups(modules, num))
+
+
+def __benchmark__(num=1000000):
+    measure(num)
@@ -0,0 +1,76 @@
+# Copyright (c) 2023, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+
+ROW = "2023-05-17,10:42:11,worker-17,GET,/api/v1/items/\xe9t\xe9,200,12ms\n"
+
+
+def make_document(size):
+    return ROW * (size // len(ROW))
+
+
+def tokenize(doc):
+    # many small results: fields of every line
+    fields = 0
+    for line in doc.split("\n"):
+        fields += len(line.split(","))
+    return fields
+
+
+def chunk(doc, chunk_size):
+    # few large results that are all kept alive: slices, halves and stripped blocks
+    chunks = []
+    for i in range(0, len(doc), chunk_size):
+        block = doc[i:i + chunk_size]
+        head, sep, rest = block.partition("\n")
+        chunks.append(rest.strip())
+    return sum(len(c) for c in chunks)
+
+
+def measure(num, size=16 * 1024 * 1024):
+    doc = make_document(size)
+    total = 0
+    for i in range(num):
+        total += tokenize(doc)
+        total += chunk(doc, len(doc) // 8)
+        total += len(doc[len(doc) // 3:].rsplit("\n", 4)[0])
+    print(total)
+
+
+def __benchmark__(num=5):
+    measure(num)
@@ -0,0 +1,3142 @@
+/*
+ * Copyright (c) 2023, 2023, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+/*
+ * Native implementation of the DB-API 2.0 interface to SQLite that backs the
+ * '_sqlite3' module. The Python level module in 'lib-graalpython/modules'
+ * re-exports everything defined here.
+ *
+ * The hot paths are kept in C on purpose: prepared statements are held in a
+ * per-connection LRU cache, 'executemany' loops over the parameter sets and
+ * rebinds the same statement without going back to Python, and rows are
+ * materialized into tuples straight from the SQLite column accessors.
+ */
+
+#define PY_SSIZE_T_CLEAN
+
+#include "Python.h"
+#include "structmember.h"         // PyMemberDef
+
+#include <sqlite3.h>
+
+#define MODULE_NAME "sqlite3"
+#define PYSQLITE_VERSION "2.6.0"
+
+#define PARSE_DECLTYPES 1
+#define PARSE_COLNAMES 2
+
+/* The module is never instantiated more than once per context, so its state
+ * lives in globals. */
+static PyObject *Warning;
+static PyObject *Error;
+static PyObject *InterfaceError;
+static PyObject *DatabaseError;
+static PyObject *InternalError;
+static PyObject *OperationalError;
+static PyObject *ProgrammingError;
+static PyObject *IntegrityError;
+static PyObject *DataError;
+static PyObject *NotSupportedError;
+
+static PyTypeObject *ConnectionType;
+static PyTypeObject *CursorType;
+static PyTypeObject *RowType;
+static PyTypeObject *StatementType;
+static PyTypeObject *PrepareProtocolType;
+
+static PyObject *adapters;      /* (type, protocol) -> adapter */
+static PyObject *converters;    /* upper-cased type name -> converter */
+static int base_type_adapted;   /* an adapter was registered for int, float, str, bytes or bytearray */
+static int enable_callback_tracebacks;
+static PyObject *get_ident;     /* _thread.get_ident */
+
+/* ------------------------------------------------------------------------ */
+/* Objects                                                                  */
+/* ------------------------------------------------------------------------ */
+
+typedef struct {
+    PyObject_HEAD
+    sqlite3_stmt *st;
+    int is_dml;
+    int in_use;
+} pysqlite_Statement;
+
+typedef struct {
+    PyObject_HEAD
+    sqlite3 *db;
+    int initialized;
+    int detect_types;
+    int check_same_thread;
+    PyThreadState *thread_state;    /* identifies the creating thread */
+    PyObject *thread_ident;         /* only used in error messages */
+    PyObject *isolation_level;      /* None or str */
+    const char *begin_statement;    /* NULL in autocommit mode */
+    PyObject *statement_cache;      /* dict in LRU order, oldest entry first */
+    int cache_size;
+    PyObject *row_factory;
+    PyObject *text_factory;
+    PyObject *hooks;                /* keeps callables without a destructor alive */
+    PyObject *cursors;              /* weak references to the cursors, reset on rollback */
+    int created_cursors;
+    PyObject *weakreflist;
+} pysqlite_Connection;
+
+typedef struct {
+    PyObject_HEAD
+    pysqlite_Connection *connection;
+    PyObject *description;
+    PyObject *row_cast_map;         /* list of converters, NULL if no column is converted */
+    PyObject *lastrowid;
+    PyObject *row_factory;
+    pysqlite_Statement *statement;  /* statement positioned after 'next_row' or NULL */
+    PyObject *next_row;             /* pre-fetched row tuple or NULL */
+    long rowcount;
+    int arraysize;
+    int initialized;
+    int closed;
+    int locked;
+    int reset;
+    PyObject *weakreflist;
+} pysqlite_Cursor;
+
+typedef struct {
+    PyObject_HEAD
+    PyObject *data;
+    PyObject *description;
+} pysqlite_Row;
+
+typedef struct {
+    PyObject_HEAD
+} pysqlite_PrepareProtocol;
+
+/* ------------------------------------------------------------------------ */
+/* Errors                                                                   */
+/* ------------------------------------------------------------------------ */
+
+static void
+set_error_from_db(sqlite3 *db)
+{
+    int errorcode = sqlite3_errcode(db);
+    PyObject *exc_class;
+    switch (errorcode & 0xff) {
+        case SQLITE_OK:
+            PyErr_Clear();
+            return;
+        case SQLITE_INTERNAL:
+        case SQLITE_NOTFOUND:
+            exc_class = InternalError;
+            break;
+        case SQLITE_NOMEM:
+            (void) PyErr_NoMemory();
+            return;
+        case SQLITE_ERROR:
+        case SQLITE_PERM:
+        case SQLITE_ABORT:
+        case SQLITE_BUSY:
+        case SQLITE_LOCKED:
+        case SQLITE_READONLY:
+        case SQLITE_INTERRUPT:
+        case SQLITE_IOERR:
+        case SQLITE_FULL:
+        case SQLITE_CANTOPEN:
+        case SQLITE_PROTOCOL:
+        case SQLITE_EMPTY:
+        case SQLITE_SCHEMA:
+            exc_class = OperationalError;
+            break;
+        case SQLITE_CORRUPT:
+            exc_class = DatabaseError;
+            break;
+        case SQLITE_TOOBIG:
+            exc_class = DataError;
+            break;
+        case SQLITE_CONSTRAINT:
+        case SQLITE_MISMATCH:
+            exc_class = IntegrityError;
+            break;
+        case SQLITE_MISUSE:
+        case SQLITE_RANGE:
+            exc_class = InterfaceError;
+            break;
+        default:
+            exc_class = DatabaseError;
+            break;
+    }
+    /* an exception raised by a callback takes precedence */
+    if (!PyErr_Occurred()) {
+        PyErr_SetString(exc_class, sqlite3_errmsg(db));
+    }
+}
+
+static void
+report_callback_error(void)
+{
+    if (enable_callback_tracebacks) {
+        PyErr_Print();
+    } else {
+        PyErr_Clear();
+    }
+}
+
+/* ------------------------------------------------------------------------ */
+/* Statement                                                                */
+/* ------------------------------------------------------------------------ */
+
+static const char *
+skip_whitespace_and_comments(const char *p)
+{
+    for (;;) {
+        switch (*p) {
+            case ' ':
+            case '\t':
+            case '\n':
+            case '\r':
+            case '\f':
+                p++;
+                continue;
+            case '-':
+                if (p[1] != '-') {
+                    return p;
+                }
+                while (*p != '\0' && *p != '\n') {
+                    p++;
+                }
+                continue;
+            case '/':
+                if (p[1] != '*') {
+                    return p;
+                }
+                p += 2;
+                while (*p != '\0' && !(p[0] == '*' && p[1] == '/')) {
+                    p++;
+                }
+                if (*p != '\0') {
+                    p += 2;
+                }
+                continue;
+            default:
+                return p;
+        }
+    }
+}
+
+/* ASCII case-insensitive comparison of at most 'n' characters, 'lower' must be lower case. */
+static int
+ascii_equals_lower(const char *s, const char *lower, size_t n)
+{
+    for (size_t i = 0; i < n; i++) {
+        char c = s[i];
+        if (c >= 'A' && c <= 'Z') {
+            c += 'a' - 'A';
+        }
+        if (c != lower[i]) {
+            return 0;
+        }
+        if (c == '\0') {
+            return 1;
+        }
+    }
+    return 1;
+}
+
+static int
+ascii_equals_ignore_case(const char *a, const char *b, size_t n)
+{
+    for (size_t i = 0; i < n; i++) {
+        char ca = a[i];
+        char cb = b[i];
+        if (ca >= 'A' && ca <= 'Z') {
+            ca += 'a' - 'A';
+        }
+        if (cb >= 'A' && cb <= 'Z') {
+            cb += 'a' - 'A';
+        }
+        if (ca != cb) {
+            return 0;
+        }
+    }
+    return 1;
+}
+
+static int
+starts_with_keyword(const char *p, const char *keyword)
+{
+    return ascii_equals_lower(p, keyword, strlen(keyword));
+}
+
+static pysqlite_Statement *
+statement_create(pysqlite_Connection *connection, PyObject *sql)
+{
+    Py_ssize_t size;
+    const char *sql_cstr = PyUnicode_AsUTF8AndSize(sql, &size);
+    if (sql_cstr == NULL) {
+        return NULL;
+    }
+    if (strlen(sql_cstr) != (size_t) size) {
+        PyErr_SetString(PyExc_ValueError, "the query contains a null character");
+        return NULL;
+    }
+
+    sqlite3_stmt *st;
+    const char *tail;
+    int rc;
+    Py_BEGIN_ALLOW_THREADS
+    rc = sqlite3_prepare_v2(connection->db, sql_cstr, (int) size + 1, &st, &tail);
+    Py_END_ALLOW_THREADS
+    if (rc != SQLITE_OK) {
+        set_error_from_db(connection->db);
+        return NULL;
+    }
+    if (*skip_whitespace_and_comments(tail) != '\0') {
+        sqlite3_finalize(st);
+        PyErr_SetString(Warning, "You can only execute one statement at a time.");
+        return NULL;
+    }
+
+    pysqlite_Statement *self = PyObject_New(pysqlite_Statement, StatementType);
+    if (self == NULL) {
+        sqlite3_finalize(st);
+        return NULL;
+    }
+    /* 'st' is NULL if the query was empty or only contained comments */
+    self->st = st;
+    self->in_use = 0;
+    const char *p = skip_whitespace_and_comments(sql_cstr);
+    self->is_dml = starts_with_keyword(p, "insert") || starts_with_keyword(p, "update") ||
+                   starts_with_keyword(p, "delete") || starts_with_keyword(p, "replace");
+    return self;
+}
+
+static void
+statement_reset(pysqlite_Statement *self)
+{
+    if (self->st != NULL) {
+        sqlite3_reset(self->st);
+    }
+    self->in_use = 0;
+}
+
+static void
+statement_dealloc(pysqlite_Statement *self)
+{
+    PyTypeObject *tp = Py_TYPE(self);
+    if (self->st != NULL) {
+        sqlite3_finalize(self->st);
+    }
+    PyObject_Free(self);
+    Py_DECREF(tp);
+}
+
+static PyType_Slot statement_slots[] = {
+    {Py_tp_dealloc, statement_dealloc},
+    {0, NULL},
+};
+
+static PyType_Spec statement_spec = {
+    .name = MODULE_NAME ".Statement",
+    .basicsize = sizeof(pysqlite_Statement),
+    .flags = Py_TPFLAGS_DEFAULT | Py_TPFLAGS_DISALLOW_INSTANTIATION,
+    .slots = statement_slots,
+};
+
+/* ------------------------------------------------------------------------ */
+/* Adaptation and value conversion                                          */
+/* ------------------------------------------------------------------------ */
+
+/* Returns a new reference to the attribute or NULL with no exception set if it does not exist. */
+static PyObject *
+lookup_attr(PyObject *obj, const char *name)
+{
+    PyObject *attr = PyObject_GetAttrString(obj, name);
+    if (attr == NULL && PyErr_ExceptionMatches(PyExc_AttributeError)) {
+        PyErr_Clear();
+    }
+    return attr;
+}
+
+/* Implements PEP 246 style adaptation like the '_sqlite3.adapt' function.
+ * Returns a new reference to 'alt' if no adapter applies and 'alt' is given. */
+static PyObject *
+microprotocols_adapt(PyObject *obj, PyObject *proto, PyObject *alt)
+{
+    PyObject *key = PyTuple_Pack(2, (PyObject *) Py_TYPE(obj), proto);
+    if (key == NULL) {
+        return NULL;
+    }
+    PyObject *adapter = PyDict_GetItemWithError(adapters, key);
+    Py_DECREF(key);
+    if (adapter != NULL) {
+        return PyObject_CallOneArg(adapter, obj);
+    }
+    if (PyErr_Occurred()) {
+        return NULL;
+    }
+
+    PyObject *adapt = lookup_attr(proto, "__adapt__");
+    if (adapt == NULL && PyErr_Occurred()) {
+        return NULL;
+    }
+    if (adapt != NULL) {
+        PyObject *adapted = PyObject_CallOneArg(adapt, obj);
+        Py_DECREF(adapt);
+        if (adapted == NULL) {
+            if (!PyErr_ExceptionMatches(PyExc_TypeError)) {
+                return NULL;
+            }
+            PyErr_Clear();
+        } else if (adapted != Py_None) {
+            return adapted;
+        } else {
+            Py_DECREF(adapted);
+        }
+    }
+
+    PyObject *conform = lookup_attr(obj, "__conform__");
+    if (conform == NULL && PyErr_Occurred()) {
+        return NULL;
+    }
+    if (conform != NULL) {
+        PyObject *adapted = PyObject_CallOneArg(conform, proto);
+        Py_DECREF(conform);
+        if (adapted == NULL) {
+            if (!PyErr_ExceptionMatches(PyExc_TypeError)) {
+                return NULL;
+            }
+            PyErr_Clear();
+        } else if (adapted != Py_None) {
+            return adapted;
+        } else {
+            Py_DECREF(adapted);
+        }
+    }
+
+    if (alt != NULL) {
+        Py_INCREF(alt);
+        return alt;
+    }
+    PyErr_SetString(ProgrammingError, "can't adapt");
+    return NULL;
+}
+
+static int
+long_as_int64(PyObject *value, sqlite3_int64 *result)
+{
+    int overflow;
+    long long v = PyLong_AsLongLongAndOverflow(value, &overflow);
+    if (v == -1 && PyErr_Occurred()) {
+        return -1;
+    }
+    if (overflow) {
+        PyErr_SetString(PyExc_OverflowError, "Python int too large to convert to SQLite INTEGER");
+        return -1;
+    }
+    *result = v;
+    return 0;
+}
+
+static int
+get_blob_buffer(PyObject *value, Py_buffer *view)
+{
+    if (PyObject_GetBuffer(value, view, PyBUF_SIMPLE) != 0) {
+        PyErr_SetString(PyExc_ValueError, "could not convert BLOB to buffer");
+        return -1;
+    }
+    return 0;
+}
+
+static inline int
+need_adapt(PyObject *obj)
+{
+    if (base_type_adapted) {
+        return 1;
+    }
+    return !(PyLong_CheckExact(obj) || PyFloat_CheckExact(obj) || PyUnicode_CheckExact(obj) ||
+             PyBytes_CheckExact(obj) || PyByteArray_CheckExact(obj) || obj == Py_None);
+}
+
+/* Binds a single value. Returns a SQLite result code or -1 if the type is not supported,
+ * in which case no Python exception is set unless the conversion itself failed. */
+static int
+bind_value(sqlite3_stmt *st, int pos, PyObject *value)
+{
+    if (value == Py_None) {
+        return sqlite3_bind_null(st, pos);
+    } else if (PyLong_Check(value)) {
+        sqlite3_int64 v;
+        if (long_as_int64(value, &v) < 0) {
+            return -1;
+        }
+        return sqlite3_bind_int64(st, pos, v);
+    } else if (PyFloat_Check(value)) {
+        double v = PyFloat_AsDouble(value);
+        if (v == -1.0 && PyErr_Occurred()) {
+            return -1;
+        }
+        return sqlite3_bind_double(st, pos, v);
+    } else if (PyUnicode_Check(value)) {
+        Py_ssize_t size;
+        const char *text = PyUnicode_AsUTF8AndSize(value, &size);
+        if (text == NULL) {
+            return -1;
+        }
+        if (size > INT_MAX) {
+            PyErr_SetString(DataError, "string longer than INT_MAX bytes");
+            return -1;
+        }
+        return sqlite3_bind_text(st, pos, text, (int) size, SQLITE_TRANSIENT);
+    } else if (PyObject_CheckBuffer(value)) {
+        Py_buffer view;
+        if (get_blob_buffer(value, &view) < 0) {
+            return -1;
+        }
+        if (view.len > INT_MAX) {
+            PyBuffer_Release(&view);
+            PyErr_SetString(DataError, "BLOB longer than INT_MAX bytes");
+            return -1;
+        }
+        int rc = sqlite3_bind_blob(st, pos, view.buf, (int) view.len, SQLITE_TRANSIENT);
+        PyBuffer_Release(&view);
+        return rc;
+    }
+    return -1;
+}
+
+static int
+bind_adapted(pysqlite_Connection *connection, sqlite3_stmt *st, int pos, PyObject *value)
+{
+    PyObject *adapted;
+    if (need_adapt(value)) {
+        adapted = microprotocols_adapt(value, (PyObject *) PrepareProtocolType, value);
+        if (adapted == NULL) {
+            return -1;
+        }
+    } else {
+        adapted = value;
+        Py_INCREF(adapted);
+    }
+    int rc = bind_value(st, pos, adapted);
+    Py_DECREF(adapted);
+    if (rc != SQLITE_OK) {
+        if (!PyErr_Occurred()) {
+            if (rc == -1) {
+                PyErr_Format(InterfaceError, "Error binding parameter %d - probably unsupported type.", pos - 1);
+            } else {
+                set_error_from_db(connection->db);
+            }
+        }
+        return -1;
+    }
+    return 0;
+}
+
+static int
+bind_parameters(pysqlite_Connection *connection, sqlite3_stmt *st, PyObject *parameters)
+{
+    int num_params_needed = sqlite3_bind_parameter_count(st);
+
+    if (PyTuple_CheckExact(parameters) || PyList_CheckExact(parameters) ||
+                    (!PyDict_Check(parameters) && PySequence_Check(parameters))) {
+        Py_ssize_t num_params = PySequence_Size(parameters);
+        if (num_params < 0) {
+            return -1;
+        }
+        if (num_params != num_params_needed) {
+            PyErr_Format(ProgrammingError,
+                         "Incorrect number of bindings supplied. The current statement uses %d, and there are %zd supplied.",
+                         num_params_needed, num_params);
+            return -1;
+        }
+        for (int i = 0; i < num_params_needed; i++) {
+            PyObject *value;
+            if (PyTuple_CheckExact(parameters)) {
+                value = PyTuple_GET_ITEM(parameters, i);
+                Py_INCREF(value);
+            } else if (PyList_CheckExact(parameters) && i < PyList_GET_SIZE(parameters)) {
+                /* the size is re-checked because an adapter may mutate the list */
+                value = PyList_GET_ITEM(parameters, i);
+                Py_INCREF(value);
+            } else {
+                value = PySequence_GetItem(parameters, i);
+                if (value == NULL) {
+                    return -1;
+                }
+            }
+            int rc = bind_adapted(connection, st, i + 1, value);
+            Py_DECREF(value);
+            if (rc != 0) {
+                return -1;
+            }
+        }
+        return 0;
+    } else if (PyDict_Check(parameters) || PyMapping_Check(parameters)) {
+        for (int i = 1; i <= num_params_needed; i++) {
+            const char *name = sqlite3_bind_parameter_name(st, i);
+            if (name == NULL) {
+                PyErr_Format(ProgrammingError, "Binding %d has no name, but you supplied a dictionary (which has only names).", i);
+                return -1;
+            }
+            /* skip the ':', '@' or '$' prefix */
+            name++;
+            PyObject *key = PyUnicode_FromString(name);
+            if (key == NULL) {
+                return -1;
+            }
+            PyObject *value;
+            if (PyDict_CheckExact(parameters)) {
+                value = PyDict_GetItemWithError(parameters, key);
+                Py_XINCREF(value);
+            } else {
+                value = PyObject_GetItem(parameters, key);
+            }
+            Py_DECREF(key);
+            if (value == NULL) {
+                if (!PyErr_Occurred() || PyErr_ExceptionMatches(PyExc_LookupError)) {
+                    PyErr_Format(ProgrammingError, "You did not supply a value for binding parameter :%s.", name);
+                }
+                return -1;
+            }
+            int rc = bind_adapted(connection, st, i, value);
+            Py_DECREF(value);
+            if (rc != 0) {
+                return -1;
+            }
+        }
+        return 0;
+    }
+    PyErr_SetString(PyExc_ValueError, "parameters are of unsupported type");
+    return -1;
+}
+
+static PyObject *
+value_to_object(sqlite3_value *value)
+{
+    switch (sqlite3_value_type(value)) {
+        case SQLITE_INTEGER:
+            return PyLong_FromLongLong(sqlite3_value_int64(value));
+        case SQLITE_FLOAT:
+            return PyFloat_FromDouble(sqlite3_value_double(value));
+        case SQLITE_TEXT: {
+            const char *text = (const char *) sqlite3_value_text(value);
+            if (text == NULL) {
+                return PyErr_NoMemory();
+            }
+            return PyUnicode_FromStringAndSize(text, sqlite3_value_bytes(value));
+        }
+        case SQLITE_BLOB:
+            return PyBytes_FromStringAndSize(sqlite3_value_blob(value), sqlite3_value_bytes(value));
+        default:
+            Py_RETURN_NONE;
+    }
+}
+
+static PyObject *
+values_to_tuple(int argc, sqlite3_value **argv)
+{
+    PyObject *args = PyTuple_New(argc);
+    if (args == NULL) {
+        return NULL;
+    }
+    for (int i = 0; i < argc; i++) {
+        PyObject *item = value_to_object(argv[i]);
+        if (item == NULL) {
+            Py_DECREF(args);
+            return NULL;
+        }
+        PyTuple_SET_ITEM(args, i, item);
+    }
+    return args;
+}
+
+static int
+set_result(sqlite3_context *context, PyObject *result)
+{
+    if (result == Py_None) {
+        sqlite3_result_null(context);
+    } else if (PyLong_Check(result)) {
+        sqlite3_int64 v;
+        if (long_as_int64(result, &v) < 0) {
+            return -1;
+        }
+        sqlite3_result_int64(context, v);
+    } else if (PyFloat_Check(result)) {
+        double v = PyFloat_AsDouble(result);
+        if (v == -1.0 && PyErr_Occurred()) {
+            return -1;
+        }
+        sqlite3_result_double(context, v);
+    } else if (PyUnicode_Check(result)) {
+        Py_ssize_t size;
+        const char *text = PyUnicode_AsUTF8AndSize(result, &size);
+        if (text == NULL) {
+            return -1;
+        }
+        sqlite3_result_text64(context, text, (sqlite3_uint64) size, SQLITE_TRANSIENT, SQLITE_UTF8);
+    } else if (PyObject_CheckBuffer(result)) {
+        Py_buffer view;
+        if (get_blob_buffer(result, &view) < 0) {
+            return -1;
+        }
+        sqlite3_result_blob64(context, view.buf, (sqlite3_uint64) view.len, SQLITE_TRANSIENT);
+        PyBuffer_Release(&view);
+    } else {
+        PyErr_Format(PyExc_TypeError, "unsupported result type '%s'", Py_TYPE(result)->tp_name);
+        return -1;
+    }
+    return 0;
+}
+
+/* ------------------------------------------------------------------------ */
+/* Connection                                                               */
+/* ------------------------------------------------------------------------ */
+
+static int
+check_thread(pysqlite_Connection *self)
+{
+    if (self->check_same_thread && PyThreadState_Get() != self->thread_state) {
+        PyObject *current_ident = PyObject_CallNoArgs(get_ident);
+        if (current_ident != NULL) {
+            PyErr_Format(ProgrammingError,
+                         "SQLite objects created in a thread can only be used in that same thread. "
+                         "The object was created in thread id %S and this is thread id %S.",
+                         self->thread_ident, current_ident);
+            Py_DECREF(current_ident);
+        }
+        return 0;
+    }
+    return 1;
+}
+
+static int
+check_connection(pysqlite_Connection *self)
+{
+    if (!self->initialized) {
+        PyErr_SetString(ProgrammingError, "Base Connection.__init__ not called.");
+        return 0;
+    }
+    if (self->db == NULL) {
+        PyErr_SetString(ProgrammingError, "Cannot operate on a closed database.");
+        return 0;
+    }
+    return 1;
+}
+
+static int
+check_connection_and_thread(pysqlite_Connection *self)
+{
+    return check_thread(self) && check_connection(self);
+}
+
+/* Runs a statement that produces no rows, like 'BEGIN' or 'COMMIT'. */
+static int
+connection_exec(pysqlite_Connection *self, const char *sql)
+{
+    int rc;
+    Py_BEGIN_ALLOW_THREADS
+    rc = sqlite3_exec(self->db, sql, NULL, NULL, NULL);
+    Py_END_ALLOW_THREADS
+    if (rc != SQLITE_OK) {
+        set_error_from_db(self->db);
+        return -1;
+    }
+    return 0;
+}
+
+static int
+set_isolation_level(pysqlite_Connection *self, PyObject *level)
+{
+    static const char *const begin_statements[] = {
+        "BEGIN ", "BEGIN DEFERRED", "BEGIN IMMEDIATE", "BEGIN EXCLUSIVE", NULL
+    };
+    static const char *const levels[] = {"", "deferred", "immediate", "exclusive", NULL};
+    if (level == Py_None) {
+        /* switching to autocommit mode ends a pending transaction */
+        if (self->db != NULL && !sqlite3_get_autocommit(self->db) && connection_exec(self, "COMMIT") < 0) {
+            return -1;
+        }
+        self->begin_statement = NULL;
+    } else if (PyUnicode_Check(level)) {
+        Py_ssize_t size;
+        const char *cstr = PyUnicode_AsUTF8AndSize(level, &size);
+        if (cstr == NULL) {
+            return -1;
+        }
+        if (strlen(cstr) != (size_t) size) {
+            PyErr_SetString(PyExc_ValueError, "embedded null character");
+            return -1;
+        }
+        const char *selected = NULL;
+        for (int i = 0; levels[i] != NULL; i++) {
+            if (ascii_equals_lower(cstr, levels[i], strlen(levels[i]) + 1)) {
+                selected = begin_statements[i];
+                break;
+            }
+        }
+        if (selected == NULL) {
+            PyErr_SetString(PyExc_ValueError, "isolation_level string must be '', 'DEFERRED', 'IMMEDIATE', or 'EXCLUSIVE'");
+            return -1;
+        }
+        self->begin_statement = selected;
+    } else {
+        PyErr_SetString(PyExc_TypeError, "isolation_level must be a string or None");
+        return -1;
+    }
+    Py_INCREF(level);
+    Py_XSETREF(self->isolation_level, level);
+    return 0;
+}
+
+static int
+connection_init(pysqlite_Connection *self, PyObject *args, PyObject *kwargs)
+{
+    static char *kwlist[] = {
+        "database", "timeout", "detect_types", "isolation_level", "check_same_thread",
+        "factory", "cached_statements", "uri", NULL
+    };
+    PyObject *database;
+    double timeout = 5.0;
+    int detect_types = 0;
+    PyObject *isolation_level = NULL;
+    int check_same_thread = 1;
+    PyObject *factory = NULL;
+    int cached_statements = 128;
+    int uri = 0;
+
+    if (!PyArg_ParseTupleAndKeywords(args, kwargs, "O&|diOiOip:Connection", kwlist,
+                                     PyUnicode_FSConverter, &database, &timeout, &detect_types,
+                                     &isolation_level, &check_same_thread, &factory,
+                                     &cached_statements, &uri)) {
+        return -1;
+    }
+
+    if (self->db != NULL) {
+        /* re-initialization closes the previous database */
+        Py_CLEAR(self->statement_cache);
+        sqlite3_close_v2(self->db);
+        self->db = NULL;
+    }
+    self->initialized = 0;
+
+    sqlite3 *db;
+    int rc;
+    Py_BEGIN_ALLOW_THREADS
+    rc = sqlite3_open_v2(PyBytes_AS_STRING(database), &db,
+                         SQLITE_OPEN_READWRITE | SQLITE_OPEN_CREATE | (uri ? SQLITE_OPEN_URI : 0), NULL);
+    if (rc == SQLITE_OK) {
+        (void) sqlite3_busy_timeout(db, (int) (timeout * 1000));
+    }
+    Py_END_ALLOW_THREADS
+    Py_DECREF(database);
+    if (db == NULL && rc == SQLITE_NOMEM) {
+        PyErr_NoMemory();
+        return -1;
+    }
+    if (rc != SQLITE_OK) {
+        set_error_from_db(db);
+        sqlite3_close_v2(db);
+        return -1;
+    }
+
+    self->db = db;
+    self->detect_types = detect_types;
+    self->check_same_thread = check_same_thread;
+    self->thread_state = PyThreadState_Get();
+    Py_XSETREF(self->thread_ident, PyObject_CallNoArgs(get_ident));
+    if (self->thread_ident == NULL) {
+        return -1;
+    }
+    self->cache_size = cached_statements;
+    self->statement_cache = PyDict_New();
+    if (self->statement_cache == NULL) {
+        return -1;
+    }
+    Py_XSETREF(self->cursors, PyList_New(0));
+    if (self->cursors == NULL) {
+        return -1;
+    }
+    self->created_cursors = 0;
+    Py_INCREF(Py_None);
+    Py_XSETREF(self->row_factory, Py_None);
+    Py_INCREF(&PyUnicode_Type);
+    Py_XSETREF(self->text_factory, (PyObject *) &PyUnicode_Type);
+
+    if (isolation_level == NULL) {
+        isolation_level = PyUnicode_FromString("");
+        if (isolation_level == NULL) {
+            return -1;
+        }
+    } else {
+        Py_INCREF(isolation_level);
+    }
+    rc = set_isolation_level(self, isolation_level);
+    Py_DECREF(isolation_level);
+    if (rc < 0) {
+        return -1;
+    }
+    self->initialized = 1;
+    return 0;
+}
+
+/* Returns a new reference to a statement for 'sql' that is not in use by
+ * another cursor. Statements are shared through the LRU cache. */
+static pysqlite_Statement *
+connection_get_statement(pysqlite_Connection *self, PyObject *sql)
+{
+    pysqlite_Statement *statement = NULL;
+    if (self->cache_size > 0) {
+        statement = (pysqlite_Statement *) PyDict_GetItemWithError(self->statement_cache, sql);
+        if (statement != NULL) {
+            if (!statement->in_use) {
+                /* move to the most recently used end */
+                Py_INCREF(statement);
+                if (PyDict_DelItem(self->statement_cache, sql) < 0 ||
+                                PyDict_SetItem(self->statement_cache, sql, (PyObject *) statement) < 0) {
+                    Py_DECREF(statement);
+                    return NULL;
+                }
+                return statement;
+            }
+            /* the cached one is still used by another cursor */
+            return statement_create(self, sql);
+        } else if (PyErr_Occurred()) {
+            return NULL;
+        }
+    }
+
+    statement = statement_create(self, sql);
+    if (statement == NULL || self->cache_size <= 0) {
+        return statement;
+    }
+    while (PyDict_GET_SIZE(self->statement_cache) >= self->cache_size) {
+        Py_ssize_t pos = 0;
+        PyObject *oldest_key;
+        PyObject *oldest_value;
+        if (!PyDict_Next(self->statement_cache, &pos, &oldest_key, &oldest_value) ||
+                        PyDict_DelItem(self->statement_cache, oldest_key) < 0) {
+            break;
+        }
+    }
+    if (PyDict_SetItem(self->statement_cache, sql, (PyObject *) statement) < 0) {
+        Py_DECREF(statement);
+        return NULL;
+    }
+    return statement;
+}
+
+static PyObject *
+connection_cursor_impl(pysqlite_Connection *self, PyObject *factory)
+{
+    if (!check_connection_and_thread(self)) {
+        return NULL;
+    }
+    PyObject *cursor = PyObject_CallOneArg(factory, (PyObject *) self);
+    if (cursor == NULL) {
+        return NULL;
+    }
+    if (!PyObject_TypeCheck(cursor, CursorType)) {
+        PyErr_Format(PyExc_TypeError, "factory must return a cursor, not %.100s", Py_TYPE(cursor)->tp_name);
+        Py_DECREF(cursor);
+        return NULL;
+    }
+    if (self->row_factory != Py_None) {
+        Py_INCREF(self->row_factory);
+        Py_XSETREF(((pysqlite_Cursor *) cursor)->row_factory, self->row_factory);
+    }
+    return cursor;
+}
+
+static PyObject *
+connection_cursor(pysqlite_Connection *self, PyObject *args, PyObject *kwargs)
+{
+    static char *kwlist[] = {"factory", NULL};
+    PyObject *factory = (PyObject *) CursorType;
+    if (!PyArg_ParseTupleAndKeywords(args, kwargs, "|O:cursor", kwlist, &factory)) {
+        return NULL;
+    }
+    return connection_cursor_impl(self, factory);
+}
+
+/* Keeps a weak reference to the cursor so that a rollback can reset it. Dead
+ * references are purged every now and then. */
+static int
+connection_register_cursor(pysqlite_Connection *self, PyObject *cursor)
+{
+    if (self->cursors == NULL) {
+        return 0;
+    }
+    if (++self->created_cursors >= 200) {
+        self->created_cursors = 0;
+        PyObject *alive = PyList_New(0);
+        if (alive == NULL) {
+            return -1;
+        }
+        for (Py_ssize_t i = 0; i < PyList_GET_SIZE(self->cursors); i++) {
+            PyObject *ref = PyList_GET_ITEM(self->cursors, i);
+            if (PyWeakref_GetObject(ref) != Py_None && PyList_Append(alive, ref) < 0) {
+                Py_DECREF(alive);
+                return -1;
+            }
+        }
+        Py_SETREF(self->cursors, alive);
+    }
+    PyObject *ref = PyWeakref_NewRef(cursor, NULL);
+    if (ref == NULL) {
+        return -1;
+    }
+    int rc = PyList_Append(self->cursors, ref);
+    Py_DECREF(ref);
+    return rc;
+}
+
+static PyObject *cursor_execute_impl(pysqlite_Cursor *self, int multiple, PyObject *sql, PyObject *parameters);
+static PyObject *cursor_executescript(pysqlite_Cursor *self, PyObject *script);
+
+static PyObject *
+connection_new_cursor(pysqlite_Connection *self)
+{
+    PyObject *cursor = connection_cursor_impl(self, (PyObject *) CursorType);
+    if (cursor != NULL && !((pysqlite_Cursor *) cursor)->initialized) {
+        PyErr_SetString(ProgrammingError, "Base Cursor.__init__ not called.");
+        Py_CLEAR(cursor);
+    }
+    return cursor;
+}
+
+static PyObject *
+connection_execute(pysqlite_Connection *self, PyObject *args)
+{
+    PyObject *sql;
+    PyObject *parameters = NULL;
+    if (!PyArg_ParseTuple(args, "U|O:execute", &sql, &parameters)) {
+        return NULL;
+    }
+    PyObject *cursor = connection_new_cursor(self);
+    if (cursor == NULL) {
+        return NULL;
+    }
+    PyObject *result = cursor_execute_impl((pysqlite_Cursor *) cursor, 0, sql, parameters);
+    if (result == NULL) {
+        Py_DECREF(cursor);
+        return NULL;
+    }
+    Py_DECREF(result);
+    return cursor;
+}
+
+static PyObject *
+connection_executemany(pysqlite_Connection *self, PyObject *args)
+{
+    PyObject *sql;
+    PyObject *parameters;
+    if (!PyArg_ParseTuple(args, "UO:executemany", &sql, &parameters)) {
+        return NULL;
+    }
+    PyObject *cursor = connection_new_cursor(self);
+    if (cursor == NULL) {
+        return NULL;
+    }
+    PyObject *result = cursor_execute_impl((pysqlite_Cursor *) cursor, 1, sql, parameters);
+    if (result == NULL) {
+        Py_DECREF(cursor);
+        return NULL;
+    }
+    Py_DECREF(result);
+    return cursor;
+}
+
+static PyObject *
+connection_executescript(pysqlite_Connection *self, PyObject *script)
+{
+    PyObject *cursor = connection_new_cursor(self);
+    if (cursor == NULL) {
+        return NULL;
+    }
+    PyObject *result = cursor_executescript((pysqlite_Cursor *) cursor, script);
+    if (result == NULL) {
+        Py_DECREF(cursor);
+        return NULL;
+    }
+    Py_DECREF(result);
+    return cursor;
+}
+
+static PyObject *
+connection_call(pysqlite_Connection *self, PyObject *args, PyObject *kwargs)
+{
+    PyObject *sql;
+    if (!check_connection_and_thread(self)) {
+        return NULL;
+    }
+    if (kwargs != NULL && PyDict_GET_SIZE(kwargs) > 0) {
+        PyErr_SetString(PyExc_TypeError, MODULE_NAME ".Connection() takes no keyword arguments");
+        return NULL;
+    }
+    if (!PyArg_ParseTuple(args, "U", &sql)) {
+        return NULL;
+    }
+    return (PyObject *) statement_create(self, sql);
+}
+
+static PyObject *
+connection_commit(pysqlite_Connection *self, PyObject *Py_UNUSED(ignored))
+{
+    if (!check_connection_and_thread(self)) {
+        return NULL;
+    }
+    if (!sqlite3_get_autocommit(self->db) && connection_exec(self, "COMMIT") < 0) {
+        return NULL;
+    }
+    Py_RETURN_NONE;
+}
+
+static void cursor_reset_for_rollback(PyObject *cursor);
+
+static PyObject *
+connection_rollback(pysqlite_Connection *self, PyObject *Py_UNUSED(ignored))
+{
+    if (!check_connection_and_thread(self)) {
+        return NULL;
+    }
+    if (!sqlite3_get_autocommit(self->db)) {
+        for (Py_ssize_t i = 0; i < PyList_GET_SIZE(self->cursors); i++) {
+            PyObject *cursor = PyWeakref_GetObject(PyList_GET_ITEM(self->cursors, i));
+            if (cursor != Py_None) {
+                cursor_reset_for_rollback(cursor);
+            }
+        }
+        if (connection_exec(self, "ROLLBACK") < 0) {
+            return NULL;
+        }
+    }
+    Py_RETURN_NONE;
+}
+
+static PyObject *
+connection_close(pysqlite_Connection *self, PyObject *Py_UNUSED(ignored))
+{
+    if (!check_thread(self)) {
+        return NULL;
+    }
+    if (!self->initialized) {
+        PyErr_SetString(ProgrammingError, "Base Connection.__init__ not called.");
+        return NULL;
+    }
+    if (self->db != NULL) {
+        /* statements still held by cursors are finalized later; close_v2
+         * defers releasing the database handle until then */
+        Py_CLEAR(self->statement_cache);
+        Py_BEGIN_ALLOW_THREADS
+        sqlite3_close_v2(self->db);
+        Py_END_ALLOW_THREADS
+        self->db = NULL;
+    }
+    Py_RETURN_NONE;
+}
+
+static PyObject *
+connection_interrupt(pysqlite_Connection *self, PyObject *Py_UNUSED(ignored))
+{
+    if (!check_connection(self)) {
+        return NULL;
+    }
+    sqlite3_interrupt(self->db);
+    Py_RETURN_NONE;
+}
+
+static PyObject *
+connection_enter(pysqlite_Connection *self, PyObject *Py_UNUSED(ignored))
+{
+    if (!check_connection(self)) {
+        return NULL;
+    }
+    Py_INCREF(self);
+    return (PyObject *) self;
+}
+
+static PyObject *
+connection_exit(pysqlite_Connection *self, PyObject *args)
+{
+    PyObject *exc_type;
+    PyObject *exc_value;
+    PyObject *exc_tb;
+    if (!PyArg_ParseTuple(args, "OOO:__exit__", &exc_type, &exc_value, &exc_tb)) {
+        return NULL;
+    }
+    int commit = exc_type == Py_None && exc_value == Py_None && exc_tb == Py_None;
+    PyObject *result = commit ? connection_commit(self, NULL) : connection_rollback(self, NULL);
+    if (result == NULL) {
+        if (commit) {
+            /* commit failed, roll back but keep the commit error */
+            PyObject *type, *value, *tb;
+            PyErr_Fetch(&type, &value, &tb);
+            Py_XDECREF(connection_rollback(self, NULL));
+            PyErr_Restore(type, value, tb);
+        }
+        return NULL;
+    }
+    Py_DECREF(result);
+    Py_RETURN_FALSE;
+}
+
+static PyObject *
+connection_iterdump(pysqlite_Connection *self, PyObject *Py_UNUSED(ignored))
+{
+    if (!check_connection(self)) {
+        return NULL;
+    }
+    PyObject *module = PyImport_ImportModule("sqlite3.dump");
+    if (module == NULL) {
+        return NULL;
+    }
+    PyObject *result = PyObject_CallMethod(module, "_iterdump", "O", self);
+    Py_DECREF(module);
+    return result;
+}
+
+/* User defined functions, aggregates, collations and hooks */
+
+static void
+destroy_callable(void *callable)
+{
+    PyGILState_STATE gilstate = PyGILState_Ensure();
+    Py_DECREF((PyObject *) callable);
+    PyGILState_Release(gilstate);
+}
+
+static void
+func_callback(sqlite3_context *context, int argc, sqlite3_value **argv)
+{
+    PyGILState_STATE gilstate = PyGILState_Ensure();
+    PyObject *result = NULL;
+    PyObject *args = values_to_tuple(argc, argv);
+    if (args != NULL) {
+        result = PyObject_Call((PyObject *) sqlite3_user_data(context), args, NULL);
+        Py_DECREF(args);
+    }
+    if (result == NULL || set_result(context, result) < 0) {
+        report_callback_error();
+        sqlite3_result_error(context, "user-defined function raised exception", -1);
+    }
+    Py_XDECREF(result);
+    PyGILState_Release(gilstate);
+}
+
+static void
+step_callback(sqlite3_context *context, int argc, sqlite3_value **argv)
+{
+    PyGILState_STATE gilstate = PyGILState_Ensure();
+    PyObject **aggregate_instance = (PyObject **) sqlite3_aggregate_context(context, sizeof(PyObject *));
+    if (aggregate_instance == NULL) {
+        sqlite3_result_error_nomem(context);
+        goto done;
+    }
+    if (*aggregate_instance == NULL) {
+        *aggregate_instance = PyObject_CallNoArgs((PyObject *) sqlite3_user_data(context));
+        if (*aggregate_instance == NULL) {
+            report_callback_error();
+            sqlite3_result_error(context, "user-defined aggregate's '__init__' method raised error", -1);
+            goto done;
+        }
+    }
+    PyObject *stepmethod = PyObject_GetAttrString(*aggregate_instance, "step");
+    if (stepmethod == NULL) {
+        /* a missing step method is reported as the AttributeError */
+        sqlite3_result_error(context, "user-defined aggregate's 'step' method raised error", -1);
+        goto done;
+    }
+    PyObject *result = NULL;
+    PyObject *args = values_to_tuple(argc, argv);
+    if (args != NULL) {
+        result = PyObject_Call(stepmethod, args, NULL);
+        Py_DECREF(args);
+    }
+    Py_DECREF(stepmethod);
+    if (result == NULL) {
+        report_callback_error();
+        sqlite3_result_error(context, "user-defined aggregate's 'step' method raised error", -1);
+    }
+    Py_XDECREF(result);
+done:
+    PyGILState_Release(gilstate);
+}
+
+static void
+final_callback(sqlite3_context *context)
+{
+    PyGILState_STATE gilstate = PyGILState_Ensure();
+    PyObject **aggregate_instance = (PyObject **) sqlite3_aggregate_context(context, 0);
+    if (aggregate_instance == NULL || *aggregate_instance == NULL) {
+        /* either the step method failed or no rows were aggregated and the
+         * instance was never created; in the former case the error is set */
+        goto done;
+    }
+    /* keep an exception raised by the step method */
+    PyObject *type, *value, *tb;
+    PyErr_Fetch(&type, &value, &tb);
+    PyObject *result = PyObject_CallMethod(*aggregate_instance, "finalize", NULL);
+    Py_CLEAR(*aggregate_instance);
+    if (result == NULL || set_result(context, result) < 0) {
+        report_callback_error();
+        sqlite3_result_error(context, "user-defined aggregate's 'finalize' method raised error", -1);
+    }
+    Py_XDECREF(result);
+    PyErr_Restore(type, value, tb);
+done:
+    PyGILState_Release(gilstate);
+}
+
+static int
+collation_callback(void *callable, int len1, const void *str1, int len2, const void *str2)
+{
+    PyGILState_STATE gilstate = PyGILState_Ensure();
+    int result = 0;
+    PyObject *s1 = PyUnicode_FromStringAndSize((const char *) str1, len1);
+    PyObject *s2 = s1 != NULL ? PyUnicode_FromStringAndSize((const char *) str2, len2) : NULL;
+    if (s2 != NULL) {
+        PyObject *retval = PyObject_CallFunctionObjArgs((PyObject *) callable, s1, s2, NULL);
+        if (retval != NULL) {
+            long longval = PyLong_AsLong(retval);
+            if (longval != -1 || !PyErr_Occurred()) {
+                result = longval > 0 ? 1 : (longval < 0 ? -1 : 0);
+            }
+            Py_DECREF(retval);
+        }
+    }
+    Py_XDECREF(s1);
+    Py_XDECREF(s2);
+    if (PyErr_Occurred()) {
+        report_callback_error();
+    }
+    PyGILState_Release(gilstate);
+    return result;
+}
+
+static PyObject *
+connection_create_function(pysqlite_Connection *self, PyObject *args, PyObject *kwargs)
+{
+    static char *kwlist[] = {"name", "narg", "func", "deterministic", NULL};
+    const char *name;
+    int narg;
+    PyObject *func;
+    int deterministic = 0;
+    if (!PyArg_ParseTupleAndKeywords(args, kwargs, "siO|$p:create_function", kwlist,
+                                     &name, &narg, &func, &deterministic)) {
+        return NULL;
+    }
+    if (!check_connection_and_thread(self)) {
+        return NULL;
+    }
+    int flags = SQLITE_UTF8 | (deterministic ? SQLITE_DETERMINISTIC : 0);
+    int rc;
+    if (func == Py_None) {
+        rc = sqlite3_create_function_v2(self->db, name, narg, flags, NULL, NULL, NULL, NULL, NULL);
+    } else {
+        Py_INCREF(func);
+        rc = sqlite3_create_function_v2(self->db, name, narg, flags, func, func_callback, NULL, NULL, destroy_callable);
+    }
+    if (rc != SQLITE_OK) {
+        PyErr_SetString(OperationalError, "Error creating function");
+        return NULL;
+    }
+    Py_RETURN_NONE;
+}
+
+static PyObject *
+connection_create_aggregate(pysqlite_Connection *self, PyObject *args, PyObject *kwargs)
+{
+    static char *kwlist[] = {"name", "n_arg", "aggregate_class", NULL};
+    const char *name;
+    int n_arg;
+    PyObject *aggregate_class;
+    if (!PyArg_ParseTupleAndKeywords(args, kwargs, "siO:create_aggregate", kwlist,
+                                     &name, &n_arg, &aggregate_class)) {
+        return NULL;
+    }
+    if (!check_connection_and_thread(self)) {
+        return NULL;
+    }
+    int rc;
+    if (aggregate_class == Py_None) {
+        rc = sqlite3_create_function_v2(self->db, name, n_arg, SQLITE_UTF8, NULL, NULL, NULL, NULL, NULL);
+    } else {
+        Py_INCREF(aggregate_class);
+        rc = sqlite3_create_function_v2(self->db, name, n_arg, SQLITE_UTF8, aggregate_class, NULL,
+                                        step_callback, final_callback, destroy_callable);
+    }
+    if (rc != SQLITE_OK) {
+        PyErr_SetString(OperationalError, "Error creating aggregate");
+        return NULL;
+    }
+    Py_RETURN_NONE;
+}
+
+static PyObject *
+connection_create_collation(pysqlite_Connection *self, PyObject *args)
+{
+    PyObject *name_obj;
+    PyObject *callable;
+    if (!PyArg_ParseTuple(args, "UO:create_collation", &name_obj, &callable)) {
+        return NULL;
+    }
+    if (!check_connection_and_thread(self)) {
+        return NULL;
+    }
+    const char *name = PyUnicode_AsUTF8(name_obj);
+    if (name == NULL) {
+        PyErr_Clear();
+        name = "\x80";
+    }
+    for (const char *p = name; *p != '\0'; p++) {
+        if (!((*p >= '0' && *p <= '9') || (*p >= 'A' && *p <= 'Z') || (*p >= 'a' && *p <= 'z') || *p == '_')) {
+            PyErr_SetString(ProgrammingError, "invalid character in collation name");
+            return NULL;
+        }
+    }
+    int rc;
+    if (callable == Py_None) {
+        rc = sqlite3_create_collation_v2(self->db, name, SQLITE_UTF8, NULL, NULL, NULL);
+    } else {
+        if (!PyCallable_Check(callable)) {
+            PyErr_SetString(PyExc_TypeError, "parameter must be callable");
+            return NULL;
+        }
+        Py_INCREF(callable);
+        rc = sqlite3_create_collation_v2(self->db, name, SQLITE_UTF8, callable, collation_callback, destroy_callable);
+        if (rc != SQLITE_OK) {
+            /* the destructor is not invoked if registration fails */
+            Py_DECREF(callable);
+        }
+    }
+    if (rc != SQLITE_OK) {
+        set_error_from_db(self->db);
+        return NULL;
+    }
+    Py_RETURN_NONE;
+}
+
+static int
+authorizer_callback(void *callable, int action, const char *arg1, const char *arg2,
+                    const char *dbname, const char *access_attempt_source)
+{
+    PyGILState_STATE gilstate = PyGILState_Ensure();
+    int rc = SQLITE_DENY;
+    PyObject *ret = PyObject_CallFunction((PyObject *) callable, "issss", action, arg1, arg2, dbname, access_attempt_source);
+    if (ret == NULL) {
+        report_callback_error();
+    } else {
+        if (PyLong_Check(ret)) {
+            long value = PyLong_AsLong(ret);
+            rc = (int) value;
+            if ((value == -1 && PyErr_Occurred()) || value != rc) {
+                report_callback_error();
+                rc = SQLITE_DENY;
+            }
+        }
+        Py_DECREF(ret);
+    }
+    PyGILState_Release(gilstate);
+    return rc;
+}
+
+static int
+progress_callback(void *callable)
+{
+    PyGILState_STATE gilstate = PyGILState_Ensure();
+    int rc;
+    PyObject *ret = PyObject_CallNoArgs((PyObject *) callable);
+    if (ret == NULL) {
+        /* abort the query */
+        report_callback_error();
+        rc = -1;
+    } else {
+        rc = PyObject_IsTrue(ret);
+        if (rc < 0) {
+            report_callback_error();
+        }
+        Py_DECREF(ret);
+    }
+    PyGILState_Release(gilstate);
+    return rc;
+}
+
+static int
+trace_callback(unsigned int type, void *callable, void *stmt, void *unused)
+{
+    if (type != SQLITE_TRACE_STMT) {
+        return 0;
+    }
+    PyGILState_STATE gilstate = PyGILState_Ensure();
+    char *expanded = sqlite3_expanded_sql((sqlite3_stmt *) stmt);
+    PyObject *sql = PyUnicode_FromString(expanded != NULL ? expanded : sqlite3_sql((sqlite3_stmt *) stmt));
+    sqlite3_free(expanded);
+    if (sql != NULL) {
+        PyObject *ret = PyObject_CallOneArg((PyObject *) callable, sql);
+        Py_DECREF(sql);
+        Py_XDECREF(ret);
+    }
+    if (PyErr_Occurred()) {
+        report_callback_error();
+    }
+    PyGILState_Release(gilstate);
+    return 0;
+}
+
+/* Hooks registered with sqlite3_set_authorizer and friends have no destructor,
+ * so the connection keeps the callables alive. */
+static int
+pin_callback(pysqlite_Connection *self, const char *key, PyObject *callable)
+{
+    if (self->hooks == NULL) {
+        self->hooks = PyDict_New();
+        if (self->hooks == NULL) {
+            return -1;
+        }
+    }
+    return PyDict_SetItemString(self->hooks, key, callable);
+}
+
+static PyObject *
+connection_set_authorizer(pysqlite_Connection *self, PyObject *args, PyObject *kwargs)
+{
+    static char *kwlist[] = {"authorizer_callback", NULL};
+    PyObject *callable;
+    if (!PyArg_ParseTupleAndKeywords(args, kwargs, "O:set_authorizer", kwlist, &callable)) {
+        return NULL;
+    }
+    if (!check_connection_and_thread(self)) {
+        return NULL;
+    }
+    if (pin_callback(self, "_authorizer_callback", callable) < 0) {
+        return NULL;
+    }
+    int rc = callable == Py_None ? sqlite3_set_authorizer(self->db, NULL, NULL)
+                                 : sqlite3_set_authorizer(self->db, authorizer_callback, callable);
+    if (rc != SQLITE_OK) {
+        PyErr_SetString(OperationalError, "Error setting authorizer callback");
+        return NULL;
+    }
+    Py_RETURN_NONE;
+}
+
+static PyObject *
+connection_set_progress_handler(pysqlite_Connection *self, PyObject *args, PyObject *kwargs)
+{
+    static char *kwlist[] = {"progress_handler", "n", NULL};
+    PyObject *callable;
+    int n;
+    if (!PyArg_ParseTupleAndKeywords(args, kwargs, "Oi:set_progress_handler", kwlist, &callable, &n)) {
+        return NULL;
+    }
+    if (!check_connection_and_thread(self)) {
+        return NULL;
+    }
+    if (pin_callback(self, "_progress_handler", callable) < 0) {
+        return NULL;
+    }
+    if (callable == Py_None) {
+        sqlite3_progress_handler(self->db, 0, NULL, NULL);
+    } else {
+        sqlite3_progress_handler(self->db, n, progress_callback, callable);
+    }
+    Py_RETURN_NONE;
+}
+
+static PyObject *
+connection_set_trace_callback(pysqlite_Connection *self, PyObject *args, PyObject *kwargs)
+{
+    static char *kwlist[] = {"trace_callback", NULL};
+    PyObject *callable;
+    if (!PyArg_ParseTupleAndKeywords(args, kwargs, "O:set_trace_callback", kwlist, &callable)) {
+        return NULL;
+    }
+    if (!check_connection_and_thread(self)) {
+        return NULL;
+    }
+    if (pin_callback(self, "_trace_callback", callable) < 0) {
+        return NULL;
+    }
+    if (callable == Py_None) {
+        sqlite3_trace_v2(self->db, 0, NULL, NULL);
+    } else {
+        sqlite3_trace_v2(self->db, SQLITE_TRACE_STMT, trace_callback, callable);
+    }
+    Py_RETURN_NONE;
+}
+
+static PyObject *
+connection_backup(pysqlite_Connection *self, PyObject *args, PyObject *kwargs)
+{
+    static char *kwlist[] = {"target", "pages", "progress", "name", "sleep", NULL};
+    PyObject *target;
+    int pages = -1;
+    PyObject *progress = Py_None;
+    const char *name = "main";
+    double sleep_secs = 0.250;
+    if (!PyArg_ParseTupleAndKeywords(args, kwargs, "O!|$iOsd:backup", kwlist, ConnectionType, &target,
+                                     &pages, &progress, &name, &sleep_secs)) {
+        return NULL;
+    }
+    pysqlite_Connection *target_connection = (pysqlite_Connection *) target;
+    if (!check_connection_and_thread(self) || !check_connection(target_connection)) {
+        return NULL;
+    }
+    if (target_connection == self) {
+        PyErr_SetString(PyExc_ValueError, "target cannot be the same connection instance");
+        return NULL;
+    }
+    if (progress != Py_None && !PyCallable_Check(progress)) {
+        PyErr_SetString(PyExc_TypeError, "progress argument must be a callable");
+        return NULL;
+    }
+    if (pages == 0) {
+        pages = -1;
+    }
+
+    sqlite3_backup *backup;
+    Py_BEGIN_ALLOW_THREADS
+    backup = sqlite3_backup_init(target_connection->db, "main", self->db, name);
+    Py_END_ALLOW_THREADS
+    if (backup == NULL) {
+        set_error_from_db(target_connection->db);
+        return NULL;
+    }
+
+    int rc;
+    do {
+        Py_BEGIN_ALLOW_THREADS
+        rc = sqlite3_backup_step(backup, pages);
+        Py_END_ALLOW_THREADS
+        if (progress != Py_None) {
+            PyObject *res = PyObject_CallFunction(progress, "iii", rc, sqlite3_backup_remaining(backup),
+                                                  sqlite3_backup_pagecount(backup));
+            if (res == NULL) {
+                sqlite3_backup_finish(backup);
+                return NULL;
+            }
+            Py_DECREF(res);
+        }
+        if (rc == SQLITE_BUSY || rc == SQLITE_LOCKED) {
+            Py_BEGIN_ALLOW_THREADS
+            sqlite3_sleep((int) (sleep_secs * 1000.0));
+            Py_END_ALLOW_THREADS
+        }
+    } while (rc == SQLITE_OK || rc == SQLITE_BUSY || rc == SQLITE_LOCKED);
+
+    Py_BEGIN_ALLOW_THREADS
+    rc = sqlite3_backup_finish(backup);
+    Py_END_ALLOW_THREADS
+    if (rc != SQLITE_OK) {
+        set_error_from_db(target_connection->db);
+        return NULL;
+    }
+    Py_RETURN_NONE;
+}
+
+/* Connection attributes */
+
+static PyObject *
+connection_get_isolation_level(pysqlite_Connection *self, void *Py_UNUSED(closure))
+{
+    if (!check_connection(self)) {
+        return NULL;
+    }
+    Py_INCREF(self->isolation_level);
+    return self->isolation_level;
+}
+
+static int
+connection_set_isolation_level(pysqlite_Connection *self, PyObject *value, void *Py_UNUSED(closure))
+{
+    if (value == NULL) {
+        PyErr_SetString(PyExc_AttributeError, "cannot delete attribute");
+        return -1;
+    }
+    if (!check_connection(self)) {
+        return -1;
+    }
+    return set_isolation_level(self, value);
+}
+
+static PyObject *
+connection_get_total_changes(pysqlite_Connection *self, void *Py_UNUSED(closure))
+{
+    if (!check_connection(self)) {
+        return NULL;
+    }
+    return PyLong_FromLong(sqlite3_total_changes(self->db));
+}
+
+static PyObject *
+connection_get_in_transaction(pysqlite_Connection *self, void *Py_UNUSED(closure))
+{
+    if (!check_connection(self)) {
+        return NULL;
+    }
+    return PyBool_FromLong(!sqlite3_get_autocommit(self->db));
+}
+
+static PyObject *
+connection_get_exception(pysqlite_Connection *self, void *closure)
+{
+    PyObject *exc = *(PyObject **) closure;
+    Py_INCREF(exc);
+    return exc;
+}
+
+static int
+connection_traverse(pysqlite_Connection *self, visitproc visit, void *arg)
+{
+    Py_VISIT(Py_TYPE(self));
+    Py_VISIT(self->isolation_level);
+    Py_VISIT(self->statement_cache);
+    Py_VISIT(self->row_factory);
+    Py_VISIT(self->text_factory);
+    Py_VISIT(self->hooks);
+    Py_VISIT(self->cursors);
+    Py_VISIT(self->thread_ident);
+    return 0;
+}
+
+static int
+connection_clear(pysqlite_Connection *self)
+{
+    if (self->db != NULL) {
+        /* the hooks must not be released while the database can still call them */
+        Py_CLEAR(self->statement_cache);
+        sqlite3_close_v2(self->db);
+        self->db = NULL;
+    }
+    Py_CLEAR(self->isolation_level);
+    Py_CLEAR(self->statement_cache);
+    Py_CLEAR(self->row_factory);
+    Py_CLEAR(self->text_factory);
+    Py_CLEAR(self->hooks);
+    Py_CLEAR(self->cursors);
+    Py_CLEAR(self->thread_ident);
+    return 0;
+}
+
+static void
+connection_dealloc(pysqlite_Connection *self)
+{
+    PyTypeObject *tp = Py_TYPE(self);
+    PyObject_GC_UnTrack(self);
+    if (self->weakreflist != NULL) {
+        PyObject_ClearWeakRefs((PyObject *) self);
+    }
+    connection_clear(self);
+    tp->tp_free(self);
+    Py_DECREF(tp);
+}
+
+static PyMethodDef connection_methods[] = {
+    {"cursor", (PyCFunction)(void(*)(void)) connection_cursor, METH_VARARGS | METH_KEYWORDS, PyDoc_STR("Return a cursor for the connection.")},
+    {"execute", (PyCFunction) connection_execute, METH_VARARGS, PyDoc_STR("Executes an SQL statement.")},
+    {"executemany", (PyCFunction) connection_executemany, METH_VARARGS, PyDoc_STR("Repeatedly executes an SQL statement.")},
+    {"executescript", (PyCFunction) connection_executescript, METH_O, PyDoc_STR("Executes multiple SQL statements at once.")},
+    {"commit", (PyCFunction) connection_commit, METH_NOARGS, PyDoc_STR("Commit the current transaction.")},
+    {"rollback", (PyCFunction) connection_rollback, METH_NOARGS, PyDoc_STR("Roll back the current transaction.")},
+    {"close", (PyCFunction) connection_close, METH_NOARGS, PyDoc_STR("Closes the connection.")},
+    {"interrupt", (PyCFunction) connection_interrupt, METH_NOARGS, PyDoc_STR("Abort any pending database operation.")},
+    {"create_function", (PyCFunction)(void(*)(void)) connection_create_function, METH_VARARGS | METH_KEYWORDS, PyDoc_STR("Creates a new function.")},
+    {"create_aggregate", (PyCFunction)(void(*)(void)) connection_create_aggregate, METH_VARARGS | METH_KEYWORDS, PyDoc_STR("Creates a new aggregate.")},
+    {"create_collation", (PyCFunction) connection_create_collation, METH_VARARGS, PyDoc_STR("Creates a collation function.")},
+    {"set_authorizer", (PyCFunction)(void(*)(void)) connection_set_authorizer, METH_VARARGS | METH_KEYWORDS, PyDoc_STR("Sets authorizer callback.")},
+    {"set_progress_handler", (PyCFunction)(void(*)(void)) connection_set_progress_handler, METH_VARARGS | METH_KEYWORDS, PyDoc_STR("Sets progress handler callback.")},
+    {"set_trace_callback", (PyCFunction)(void(*)(void)) connection_set_trace_callback, METH_VARARGS | METH_KEYWORDS, PyDoc_STR("Sets a trace callback called for each SQL statement.")},
+    {"backup", (PyCFunction)(void(*)(void)) connection_backup, METH_VARARGS | METH_KEYWORDS, PyDoc_STR("Makes a backup of the database.")},
+    {"iterdump", (PyCFunction) connection_iterdump, METH_NOARGS, PyDoc_STR("Returns iterator to the dump of the database in an SQL text format.")},
+    {"__enter__", (PyCFunction) connection_enter, METH_NOARGS, PyDoc_STR("Called when the connection is used as a context manager.")},
+    {"__exit__", (PyCFunction) connection_exit, METH_VARARGS, PyDoc_STR("Called when the connection is used as a context manager.")},
+    {NULL, NULL}
+};
+
+static PyGetSetDef connection_getset[] = {
+    {"isolation_level", (getter) connection_get_isolation_level, (setter) connection_set_isolation_level},
+    {"total_changes", (getter) connection_get_total_changes, NULL},
+    {"in_transaction", (getter) connection_get_in_transaction, NULL},
+    {"Warning", (getter) connection_get_exception, NULL, NULL, &Warning},
+    {"Error", (getter) connection_get_exception, NULL, NULL, &Error},
+    {"InterfaceError", (getter) connection_get_exception, NULL, NULL, &InterfaceError},
+    {"DatabaseError", (getter) connection_get_exception, NULL, NULL, &DatabaseError},
+    {"DataError", (getter) connection_get_exception, NULL, NULL, &DataError},
+    {"OperationalError", (getter) connection_get_exception, NULL, NULL, &OperationalError},
+    {"IntegrityError", (getter) connection_get_exception, NULL, NULL, &IntegrityError},
+    {"InternalError", (getter) connection_get_exception, NULL, NULL, &InternalError},
+    {"ProgrammingError", (getter) connection_get_exception, NULL, NULL, &ProgrammingError},
+    {"NotSupportedError", (getter) connection_get_exception, NULL, NULL, &NotSupportedError},
+    {NULL}
+};
+
+static PyMemberDef connection_members[] = {
+    {"row_factory", T_OBJECT, offsetof(pysqlite_Connection, row_factory)},
+    {"text_factory", T_OBJECT, offsetof(pysqlite_Connection, text_factory)},
+    {"__weaklistoffset__", T_PYSSIZET, offsetof(pysqlite_Connection, weakreflist), READONLY},
+    {NULL}
+};
+
+static PyType_Slot connection_slots[] = {
+    {Py_tp_dealloc, connection_dealloc},
+    {Py_tp_doc, (void *) PyDoc_STR("SQLite database connection object.")},
+    {Py_tp_methods, connection_methods},
+    {Py_tp_members, connection_members},
+    {Py_tp_getset, connection_getset},
+    {Py_tp_init, connection_init},
+    {Py_tp_call, connection_call},
+    {Py_tp_traverse, connection_traverse},
+    {Py_tp_clear, connection_clear},
+    {0, NULL},
+};
+
+static PyType_Spec connection_spec = {
+    .name = MODULE_NAME ".Connection",
+    .basicsize = sizeof(pysqlite_Connection),
+    .flags = Py_TPFLAGS_DEFAULT | Py_TPFLAGS_BASETYPE | Py_TPFLAGS_HAVE_GC,
+    .slots = connection_slots,
+};
+
+/* ------------------------------------------------------------------------ */
+/* Cursor                                                                   */
+/* ------------------------------------------------------------------------ */
+
+static int
+check_cursor(pysqlite_Cursor *self)
+{
+    if (!self->initialized) {
+        PyErr_SetString(ProgrammingError, "Base Cursor.__init__ not called.");
+        return 0;
+    }
+    if (self->closed) {
+        PyErr_SetString(ProgrammingError, "Cannot operate on a closed cursor.");
+        return 0;
+    }
+    if (self->locked) {
+        PyErr_SetString(ProgrammingError, "Recursive use of cursors not allowed.");
+        return 0;
+    }
+    return check_connection_and_thread(self->connection);
+}
+
+static void
+cursor_release_statement(pysqlite_Cursor *self)
+{
+    if (self->statement != NULL) {
+        statement_reset(self->statement);
+        Py_CLEAR(self->statement);
+    }
+    Py_CLEAR(self->next_row);
+}
+
+static void
+cursor_reset_for_rollback(PyObject *cursor)
+{
+    pysqlite_Cursor *self = (pysqlite_Cursor *) cursor;
+    cursor_release_statement(self);
+    self->reset = 1;
+}
+
+static int
+cursor_init(pysqlite_Cursor *self, PyObject *args, PyObject *kwargs)
+{
+    PyObject *connection;
+    if (!PyArg_ParseTuple(args, "O!:Cursor", ConnectionType, &connection)) {
+        return -1;
+    }
+    if (self->locked) {
+        PyErr_SetString(ProgrammingError, "Recursive use of cursors not allowed.");
+        return -1;
+    }
+    Py_INCREF(connection);
+    Py_XSETREF(self->connection, (pysqlite_Connection *) connection);
+    cursor_release_statement(self);
+    Py_CLEAR(self->row_cast_map);
+    Py_INCREF(Py_None);
+    Py_XSETREF(self->description, Py_None);
+    Py_INCREF(Py_None);
+    Py_XSETREF(self->lastrowid, Py_None);
+    Py_INCREF(Py_None);
+    Py_XSETREF(self->row_factory, Py_None);
+    self->arraysize = 1;
+    self->rowcount = -1L;
+    self->closed = 0;
+    self->reset = 0;
+    if (!check_thread(self->connection) || connection_register_cursor(self->connection, (PyObject *) self) < 0) {
+        return -1;
+    }
+    self->initialized = 1;
+    return 0;
+}
+
+/* Extracts the type name from a column name of the form 'name [type]'. */
+static PyObject *
+converter_for_colname(const char *colname)
+{
+    const char *start = strchr(colname, '[');
+    if (start == NULL) {
+        Py_RETURN_NONE;
+    }
+    start++;
+    const char *end = strchr(start, ']');
+    if (end == NULL) {
+        Py_RETURN_NONE;
+    }
+    PyObject *name = PyUnicode_FromStringAndSize(start, end - start);
+    if (name == NULL) {
+        return NULL;
+    }
+    PyObject *upper = PyObject_CallMethod(name, "upper", NULL);
+    Py_DECREF(name);
+    if (upper == NULL) {
+        return NULL;
+    }
+    PyObject *converter = PyDict_GetItemWithError(converters, upper);
+    Py_DECREF(upper);
+    if (converter == NULL) {
+        if (PyErr_Occurred()) {
+            return NULL;
+        }
+        converter = Py_None;
+    }
+    Py_INCREF(converter);
+    return converter;
+}
+
+/* Looks up the converter for the first word of a declared column type. */
+static PyObject *
+converter_for_decltype(const char *decltype)
+{
+    size_t len = 0;
+    while (decltype[len] != '\0' && decltype[len] != ' ' && decltype[len] != '(') {
+        len++;
+    }
+    PyObject *name = PyUnicode_FromStringAndSize(decltype, (Py_ssize_t) len);
+    if (name == NULL) {
+        return NULL;
+    }
+    PyObject *upper = PyObject_CallMethod(name, "upper", NULL);
+    Py_DECREF(name);
+    if (upper == NULL) {
+        return NULL;
+    }
+    PyObject *converter = PyDict_GetItemWithError(converters, upper);
+    Py_DECREF(upper);
+    if (converter == NULL) {
+        if (PyErr_Occurred()) {
+            return NULL;
+        }
+        converter = Py_None;
+    }
+    Py_INCREF(converter);
+    return converter;
+}
+
+static int
+cursor_build_row_cast_map(pysqlite_Cursor *self, sqlite3_stmt *st, int numcols)
+{
+    Py_CLEAR(self->row_cast_map);
+    int detect_types = self->connection->detect_types;
+    if (!detect_types) {
+        return 0;
+    }
+    PyObject *map = PyList_New(numcols);
+    if (map == NULL) {
+        return -1;
+    }
+    int any = 0;
+    for (int i = 0; i < numcols; i++) {
+        PyObject *converter = NULL;
+        if (detect_types & PARSE_COLNAMES) {
+            const char *colname = sqlite3_column_name(st, i);
+            if (colname == NULL) {
+                Py_DECREF(map);
+                PyErr_NoMemory();
+                return -1;
+            }
+            converter = converter_for_colname(colname);
+            if (converter == NULL) {
+                Py_DECREF(map);
+                return -1;
+            }
+        }
+        if ((converter == NULL || converter == Py_None) && (detect_types & PARSE_DECLTYPES)) {
+            const char *decltype = sqlite3_column_decltype(st, i);
+            if (decltype != NULL) {
+                Py_XDECREF(converter);
+                converter = converter_for_decltype(decltype);
+                if (converter == NULL) {
+                    Py_DECREF(map);
+                    return -1;
+                }
+            }
+        }
+        if (converter == NULL) {
+            converter = Py_None;
+            Py_INCREF(converter);
+        }
+        any |= converter != Py_None;
+        PyList_SET_ITEM(map, i, converter);
+    }
+    if (any) {
+        self->row_cast_map = map;
+    } else {
+        Py_DECREF(map);
+    }
+    return 0;
+}
+
+static PyObject *
+build_column_name(pysqlite_Cursor *self, const char *colname)
+{
+    if (self->connection->detect_types & PARSE_COLNAMES) {
+        /* strip the ' [type]' suffix */
+        const char *pos = colname;
+        while (*pos != '\0' && *pos != '[') {
+            pos++;
+        }
+        if (*pos == '[') {
+            if (pos > colname && pos[-1] == ' ') {
+                pos--;
+            }
+            return PyUnicode_FromStringAndSize(colname, pos - colname);
+        }
+    }
+    return PyUnicode_FromString(colname);
+}
+
+static PyObject *
+cursor_build_description(pysqlite_Cursor *self, sqlite3_stmt *st, int numcols)
+{
+    PyObject *description = PyTuple_New(numcols);
+    if (description == NULL) {
+        return NULL;
+    }
+    for (int i = 0; i < numcols; i++) {
+        const char *colname = sqlite3_column_name(st, i);
+        if (colname == NULL) {
+            Py_DECREF(description);
+            return PyErr_NoMemory();
+        }
+        PyObject *name = build_column_name(self, colname);
+        if (name == NULL) {
+            Py_DECREF(description);
+            return NULL;
+        }
+        PyObject *column = PyTuple_Pack(7, name, Py_None, Py_None, Py_None, Py_None, Py_None, Py_None);
+        Py_DECREF(name);
+        if (column == NULL) {
+            Py_DECREF(description);
+            return NULL;
+        }
+        PyTuple_SET_ITEM(description, i, column);
+    }
+    return description;
+}
+
+static int
+step_statement(sqlite3_stmt *st)
+{
+    int rc;
+    Py_BEGIN_ALLOW_THREADS
+    rc = sqlite3_step(st);
+    Py_END_ALLOW_THREADS
+    return rc;
+}
+
+static PyObject *cursor_fetch_row(pysqlite_Cursor *self, sqlite3_stmt *st);
+
+static PyObject *
+cursor_execute_impl(pysqlite_Cursor *self, int multiple, PyObject *sql, PyObject *parameters)
+{
+    if (!check_cursor(self)) {
+        return NULL;
+    }
+    pysqlite_Connection *connection = self->connection;
+
+    PyObject *parameters_iter = NULL;
+    if (multiple) {
+        if (PyIter_Check(parameters)) {
+            Py_INCREF(parameters);
+            parameters_iter = parameters;
+        } else {
+            parameters_iter = PyObject_GetIter(parameters);
+            if (parameters_iter == NULL) {
+                return NULL;
+            }
+        }
+    }
+
+    self->locked = 1;
+    self->reset = 0;
+    cursor_release_statement(self);
+    Py_INCREF(Py_None);
+    Py_XSETREF(self->description, Py_None);
+    Py_CLEAR(self->row_cast_map);
+    self->rowcount = -1L;
+
+    pysqlite_Statement *statement = connection_get_statement(connection, sql);
+    if (statement == NULL) {
+        goto error;
+    }
+    sqlite3_stmt *st = statement->st;
+    statement->in_use = 1;
+    if (multiple && st != NULL && !statement->is_dml && sqlite3_column_count(st) > 0) {
+        PyErr_SetString(ProgrammingError, "executemany() can only execute DML statements.");
+        goto error;
+    }
+    if (statement->is_dml && connection->begin_statement != NULL && sqlite3_get_autocommit(connection->db)) {
+        if (connection_exec(connection, connection->begin_statement) < 0) {
+            goto error;
+        }
+    }
+    if (st == NULL) {
+        /* empty statement */
+        statement->in_use = 0;
+        Py_DECREF(statement);
+        statement = NULL;
+        goto done;
+    }
+    self->rowcount = statement->is_dml ? 0L : -1L;
+
+    int rc = SQLITE_DONE;
+    if (multiple) {
+        /* The whole batch runs here without returning to Python between the
+         * rows. The GIL stays held while stepping, each row only touches the
+         * page cache and releasing and re-acquiring it per row would cost
+         * more than the insert itself. */
+        PyObject *params;
+        while ((params = PyIter_Next(parameters_iter)) != NULL) {
+            sqlite3_reset(st);
+            int bound = bind_parameters(connection, st, params);
+            Py_DECREF(params);
+            if (bound < 0) {
+                goto error;
+            }
+            rc = sqlite3_step(st);
+            if (rc != SQLITE_DONE) {
+                if (rc == SQLITE_ROW) {
+                    PyErr_SetString(ProgrammingError, "executemany() can only execute DML statements.");
+                } else {
+                    sqlite3_reset(st);
+                    set_error_from_db(connection->db);
+                }
+                goto error;
+            }
+            if (statement->is_dml) {
+                self->rowcount += (long) sqlite3_changes(connection->db);
+            }
+        }
+        if (PyErr_Occurred()) {
+            goto error;
+        }
+    } else {
+        sqlite3_reset(st);
+        if (parameters != NULL && bind_parameters(connection, st, parameters) < 0) {
+            goto error;
+        }
+        if (parameters == NULL && sqlite3_bind_parameter_count(st) > 0) {
+            PyErr_Format(ProgrammingError,
+                         "Incorrect number of bindings supplied. The current statement uses %d, and there are 0 supplied.",
+                         sqlite3_bind_parameter_count(st));
+            goto error;
+        }
+        rc = step_statement(st);
+        if (rc != SQLITE_DONE && rc != SQLITE_ROW) {
+            sqlite3_reset(st);
+            set_error_from_db(connection->db);
+            goto error;
+        }
+        if (statement->is_dml) {
+            self->rowcount = (long) sqlite3_changes(connection->db);
+        }
+        Py_XSETREF(self->lastrowid, PyLong_FromLongLong(sqlite3_last_insert_rowid(connection->db)));
+        if (self->lastrowid == NULL) {
+            goto error;
+        }
+    }
+
+    int numcols = sqlite3_column_count(st);
+    if (numcols > 0) {
+        PyObject *description = cursor_build_description(self, st, numcols);
+        if (description == NULL) {
+            goto error;
+        }
+        Py_XSETREF(self->description, description);
+        if (cursor_build_row_cast_map(self, st, numcols) < 0) {
+            goto error;
+        }
+    }
+
+    if (rc == SQLITE_ROW) {
+        /* pre-fetch the first row, the statement stays positioned after it */
+        self->next_row = cursor_fetch_row(self, st);
+        if (self->next_row == NULL) {
+            goto error;
+        }
+        self->statement = statement;
+        statement = NULL;
+    } else {
+        statement_reset(statement);
+        Py_CLEAR(statement);
+    }
+
+done:
+    Py_XDECREF(parameters_iter);
+    self->locked = 0;
+    Py_INCREF(self);
+    return (PyObject *) self;
+
+error:
+    if (statement != NULL) {
+        statement_reset(statement);
+        Py_DECREF(statement);
+    }
+    Py_XDECREF(parameters_iter);
+    self->rowcount = -1L;
+    self->locked = 0;
+    return NULL;
+}
+
+static PyObject *
+cursor_execute(pysqlite_Cursor *self, PyObject *args)
+{
+    PyObject *sql;
+    PyObject *parameters = NULL;
+    if (!PyArg_ParseTuple(args, "U|O:execute", &sql, &parameters)) {
+        return NULL;
+    }
+    return cursor_execute_impl(self, 0, sql, parameters);
+}
+
+static PyObject *
+cursor_executemany(pysqlite_Cursor *self, PyObject *args)
+{
+    PyObject *sql;
+    PyObject *parameters;
+    if (!PyArg_ParseTuple(args, "UO:executemany", &sql, &parameters)) {
+        return NULL;
+    }
+    return cursor_execute_impl(self, 1, sql, parameters);
+}
+
+static PyObject *
+cursor_executescript(pysqlite_Cursor *self, PyObject *script)
+{
+    if (!PyUnicode_Check(script)) {
+        PyErr_SetString(PyExc_ValueError, "script argument must be unicode.");
+        return NULL;
+    }
+    if (!check_cursor(self)) {
+        return NULL;
+    }
+    pysqlite_Connection *connection = self->connection;
+    Py_ssize_t size;
+    const char *sql = PyUnicode_AsUTF8AndSize(script, &size);
+    if (sql == NULL) {
+        return NULL;
+    }
+    if (strlen(sql) != (size_t) size) {
+        PyErr_SetString(PyExc_ValueError, "embedded null character");
+        return NULL;
+    }
+
+    /* a script always runs outside of the implicit transaction handling */
+    if (!sqlite3_get_autocommit(connection->db) && connection_exec(connection, "COMMIT") < 0) {
+        return NULL;
+    }
+    cursor_release_statement(self);
+
+    sqlite3 *db = connection->db;
+    int rc = SQLITE_OK;
+    Py_BEGIN_ALLOW_THREADS
+    while (*sql != '\0') {
+        sqlite3_stmt *st;
+        const char *tail;
+        rc = sqlite3_prepare_v2(db, sql, -1, &st, &tail);
+        if (rc != SQLITE_OK) {
+            break;
+        }
+        if (st != NULL) {
+            do {
+                rc = sqlite3_step(st);
+            } while (rc == SQLITE_ROW);
+            rc = sqlite3_finalize(st);
+            if (rc != SQLITE_OK) {
+                break;
+            }
+        }
+        sql = tail;
+    }
+    Py_END_ALLOW_THREADS
+    if (rc != SQLITE_OK) {
+        set_error_from_db(db);
+        return NULL;
+    }
+    Py_INCREF(self);
+    return (PyObject *) self;
+}
+
+static PyObject *
+convert_text(pysqlite_Cursor *self, sqlite3_stmt *st, int i)
+{
+    const char *text = (const char *) sqlite3_column_text(st, i);
+    int nbytes = sqlite3_column_bytes(st, i);
+    if (text == NULL) {
+        return PyErr_NoMemory();
+    }
+    PyObject *text_factory = self->connection->text_factory;
+    if (text_factory == (PyObject *) &PyUnicode_Type) {
+        PyObject *value = PyUnicode_FromStringAndSize(text, nbytes);
+        if (value == NULL && PyErr_ExceptionMatches(PyExc_UnicodeDecodeError)) {
+            PyErr_Clear();
+            const char *colname = sqlite3_column_name(st, i);
+            PyErr_Format(OperationalError, "Could not decode to UTF-8 column '%s' with text '%s'",
+                         colname != NULL ? colname : "<unknown column name>", text);
+        }
+        return value;
+    } else if (text_factory == (PyObject *) &PyBytes_Type) {
+        return PyBytes_FromStringAndSize(text, nbytes);
+    } else if (text_factory == (PyObject *) &PyByteArray_Type) {
+        return PyByteArray_FromStringAndSize(text, nbytes);
+    }
+    PyObject *bytes = PyBytes_FromStringAndSize(text, nbytes);
+    if (bytes == NULL) {
+        return NULL;
+    }
+    PyObject *value = PyObject_CallOneArg(text_factory, bytes);
+    Py_DECREF(bytes);
+    return value;
+}
+
+/* Builds the tuple for the row the statement is positioned on. */
+static PyObject *
+cursor_fetch_row(pysqlite_Cursor *self, sqlite3_stmt *st)
+{
+    int numcols = sqlite3_data_count(st);
+    PyObject *row = PyTuple_New(numcols);
+    if (row == NULL) {
+        return NULL;
+    }
+    PyObject *row_cast_map = self->row_cast_map;
+    for (int i = 0; i < numcols; i++) {
+        PyObject *value;
+        PyObject *converter = row_cast_map != NULL ? PyList_GET_ITEM(row_cast_map, i) : Py_None;
+        int coltype = sqlite3_column_type(st, i);
+        if (converter != Py_None) {
+            const void *blob = coltype != SQLITE_NULL ? sqlite3_column_blob(st, i) : NULL;
+            if (blob == NULL) {
+                /* also zero-sized blobs */
+                value = Py_None;
+                Py_INCREF(value);
+            } else {
+                int nbytes = sqlite3_column_bytes(st, i);
+                PyObject *bytes = PyBytes_FromStringAndSize(blob, nbytes);
+                if (bytes == NULL) {
+                    Py_DECREF(row);
+                    return NULL;
+                }
+                value = PyObject_CallOneArg(converter, bytes);
+                Py_DECREF(bytes);
+            }
+        } else {
+            switch (coltype) {
+                case SQLITE_INTEGER:
+                    value = PyLong_FromLongLong(sqlite3_column_int64(st, i));
+                    break;
+                case SQLITE_FLOAT:
+                    value = PyFloat_FromDouble(sqlite3_column_double(st, i));
+                    break;
+                case SQLITE_TEXT:
+                    value = convert_text(self, st, i);
+                    break;
+                case SQLITE_BLOB: {
+                    const void *blob = sqlite3_column_blob(st, i);
+                    int nbytes = sqlite3_column_bytes(st, i);
+                    if (blob == NULL && nbytes > 0) {
+                        value = PyErr_NoMemory();
+                    } else {
+                        value = PyBytes_FromStringAndSize(blob, nbytes);
+                    }
+                    break;
+                }
+                default:
+                    value = Py_None;
+                    Py_INCREF(value);
+                    break;
+            }
+        }
+        if (value == NULL) {
+            Py_DECREF(row);
+            return NULL;
+        }
+        PyTuple_SET_ITEM(row, i, value);
+    }
+    return row;
+}
+
+/* Returns a new reference to the next row, or NULL with no exception set if
+ * the result set is exhausted. */
+static PyObject *
+cursor_next_row(pysqlite_Cursor *self)
+{
+    if (!check_cursor(self)) {
+        return NULL;
+    }
+    if (self->reset) {
+        PyErr_SetString(InterfaceError, "Cursor needed to be reset because of commit/rollback and can no longer be fetched from.");
+        return NULL;
+    }
+    PyObject *row = self->next_row;
+    if (row == NULL) {
+        return NULL;
+    }
+    self->next_row = NULL;
+
+    sqlite3_stmt *st = self->statement->st;
+    self->locked = 1;
+    int rc = step_statement(st);
+    if (rc == SQLITE_ROW) {
+        self->next_row = cursor_fetch_row(self, st);
+        if (self->next_row == NULL) {
+            cursor_release_statement(self);
+            Py_DECREF(row);
+            self->locked = 0;
+            return NULL;
+        }
+    } else {
+        cursor_release_statement(self);
+        if (rc != SQLITE_DONE) {
+            set_error_from_db(self->connection->db);
+            Py_DECREF(row);
+            self->locked = 0;
+            return NULL;
+        }
+    }
+    self->locked = 0;
+
+    if (self->row_factory != Py_None) {
+        Py_SETREF(row, PyObject_CallFunctionObjArgs(self->row_factory, (PyObject *) self, row, NULL));
+    }
+    return row;
+}
+
+static PyObject *
+cursor_iternext(pysqlite_Cursor *self)
+{
+    return cursor_next_row(self);
+}
+
+static PyObject *
+cursor_fetchone(pysqlite_Cursor *self, PyObject *Py_UNUSED(ignored))
+{
+    PyObject *row = cursor_next_row(self);
+    if (row == NULL && !PyErr_Occurred()) {
+        Py_RETURN_NONE;
+    }
+    return row;
+}
+
+static PyObject *
+cursor_fetchmany(pysqlite_Cursor *self, PyObject *args, PyObject *kwargs)
+{
+    static char *kwlist[] = {"size", NULL};
+    int maxrows = self->arraysize;
+    if (!PyArg_ParseTupleAndKeywords(args, kwargs, "|i:fetchmany", kwlist, &maxrows)) {
+        return NULL;
+    }
+    PyObject *list = PyList_New(0);
+    if (list == NULL) {
+        return NULL;
+    }
+    for (int counter = 0; counter < maxrows; counter++) {
+        PyObject *row = cursor_next_row(self);
+        if (row == NULL) {
+            break;
+        }
+        int rc = PyList_Append(list, row);
+        Py_DECREF(row);
+        if (rc < 0) {
+            break;
+        }
+    }
+    if (PyErr_Occurred()) {
+        Py_DECREF(list);
+        return NULL;
+    }
+    return list;
+}
+
+static PyObject *
+cursor_fetchall(pysqlite_Cursor *self, PyObject *Py_UNUSED(ignored))
+{
+    PyObject *list = PyList_New(0);
+    if (list == NULL) {
+        return NULL;
+    }
+    PyObject *row;
+    while ((row = cursor_next_row(self)) != NULL) {
+        int rc = PyList_Append(list, row);
+        Py_DECREF(row);
+        if (rc < 0) {
+            break;
+        }
+    }
+    if (PyErr_Occurred()) {
+        Py_DECREF(list);
+        return NULL;
+    }
+    return list;
+}
+
+static PyObject *
+cursor_close(pysqlite_Cursor *self, PyObject *Py_UNUSED(ignored))
+{
+    if (!self->connection) {
+        PyErr_SetString(ProgrammingError, "Base Cursor.__init__ not called.");
+        return NULL;
+    }
+    if (self->locked) {
+        PyErr_SetString(ProgrammingError, "Recursive use of cursors not allowed.");
+        return NULL;
+    }
+    if (!check_connection_and_thread(self->connection)) {
+        return NULL;
+    }
+    cursor_release_statement(self);
+    self->closed = 1;
+    Py_RETURN_NONE;
+}
+
+static PyObject *
+cursor_noop(pysqlite_Cursor *self, PyObject *Py_UNUSED(args))
+{
+    Py_RETURN_NONE;
+}
+
+static int
+cursor_traverse(pysqlite_Cursor *self, visitproc visit, void *arg)
+{
+    Py_VISIT(Py_TYPE(self));
+    Py_VISIT(self->connection);
+    Py_VISIT(self->description);
+    Py_VISIT(self->row_cast_map);
+    Py_VISIT(self->lastrowid);
+    Py_VISIT(self->row_factory);
+    Py_VISIT(self->statement);
+    Py_VISIT(self->next_row);
+    return 0;
+}
+
+static int
+cursor_clear(pysqlite_Cursor *self)
+{
+    Py_CLEAR(self->connection);
+    Py_CLEAR(self->description);
+    Py_CLEAR(self->row_cast_map);
+    Py_CLEAR(self->lastrowid);
+    Py_CLEAR(self->row_factory);
+    cursor_release_statement(self);
+    return 0;
+}
+
+static void
+cursor_dealloc(pysqlite_Cursor *self)
+{
+    PyTypeObject *tp = Py_TYPE(self);
+    PyObject_GC_UnTrack(self);
+    if (self->weakreflist != NULL) {
+        PyObject_ClearWeakRefs((PyObject *) self);
+    }
+    cursor_clear(self);
+    tp->tp_free(self);
+    Py_DECREF(tp);
+}
+
+static PyMethodDef cursor_methods[] = {
+    {"execute", (PyCFunction) cursor_execute, METH_VARARGS, PyDoc_STR("Executes an SQL statement.")},
+    {"executemany", (PyCFunction) cursor_executemany, METH_VARARGS, PyDoc_STR("Repeatedly executes an SQL statement.")},
+    {"executescript", (PyCFunction) cursor_executescript, METH_O, PyDoc_STR("Executes multiple SQL statements at once.")},
+    {"fetchone", (PyCFunction) cursor_fetchone, METH_NOARGS, PyDoc_STR("Fetches one row from the resultset.")},
+    {"fetchmany", (PyCFunction)(void(*)(void)) cursor_fetchmany, METH_VARARGS | METH_KEYWORDS, PyDoc_STR("Fetches several rows from the resultset.")},
+    {"fetchall", (PyCFunction) cursor_fetchall, METH_NOARGS, PyDoc_STR("Fetches all rows from the resultset.")},
+    {"close", (PyCFunction) cursor_close, METH_NOARGS, PyDoc_STR("Closes the cursor.")},
+    {"setinputsizes", (PyCFunction) cursor_noop, METH_O, PyDoc_STR("Required by DB-API. Does nothing in sqlite3.")},
+    {"setoutputsize", (PyCFunction) cursor_noop, METH_VARARGS, PyDoc_STR("Required by DB-API. Does nothing in sqlite3.")},
+    {NULL, NULL}
+};
+
+static PyMemberDef cursor_members[] = {
+    {"connection", T_OBJECT, offsetof(pysqlite_Cursor, connection), READONLY},
+    {"description", T_OBJECT, offsetof(pysqlite_Cursor, description), READONLY},
+    {"arraysize", T_INT, offsetof(pysqlite_Cursor, arraysize), 0},
+    {"lastrowid", T_OBJECT, offsetof(pysqlite_Cursor, lastrowid), READONLY},
+    {"rowcount", T_LONG, offsetof(pysqlite_Cursor, rowcount), READONLY},
+    {"row_factory", T_OBJECT, offsetof(pysqlite_Cursor, row_factory), 0},
+    {"__weaklistoffset__", T_PYSSIZET, offsetof(pysqlite_Cursor, weakreflist), READONLY},
+    {NULL}
+};
+
+static PyType_Slot cursor_slots[] = {
+    {Py_tp_dealloc, cursor_dealloc},
+    {Py_tp_doc, (void *) PyDoc_STR("SQLite database cursor class.")},
+    {Py_tp_iter, PyObject_SelfIter},
+    {Py_tp_iternext, cursor_iternext},
+    {Py_tp_methods, cursor_methods},
+    {Py_tp_members, cursor_members},
+    {Py_tp_init, cursor_init},
+    {Py_tp_traverse, cursor_traverse},
+    {Py_tp_clear, cursor_clear},
+    {0, NULL},
+};
+
+static PyType_Spec cursor_spec = {
+    .name = MODULE_NAME ".Cursor",
+    .basicsize = sizeof(pysqlite_Cursor),
+    .flags = Py_TPFLAGS_DEFAULT | Py_TPFLAGS_BASETYPE | Py_TPFLAGS_HAVE_GC,
+    .slots = cursor_slots,
+};
+
+/* ------------------------------------------------------------------------ */
+/* Row                                                                      */
+/* ------------------------------------------------------------------------ */
+
+static PyObject *
+row_new(PyTypeObject *type, PyObject *args, PyObject *kwargs)
+{
+    PyObject *cursor;
+    PyObject *data;
+    if (kwargs != NULL && PyDict_GET_SIZE(kwargs) > 0) {
+        PyErr_SetString(PyExc_TypeError, "Row() takes no keyword arguments");
+        return NULL;
+    }
+    if (!PyArg_ParseTuple(args, "O!O!:Row", CursorType, &cursor, &PyTuple_Type, &data)) {
+        return NULL;
+    }
+    pysqlite_Row *self = (pysqlite_Row *) type->tp_alloc(type, 0);
+    if (self == NULL) {
+        return NULL;
+    }
+    Py_INCREF(data);
+    self->data = data;
+    self->description = ((pysqlite_Cursor *) cursor)->description;
+    Py_INCREF(self->description);
+    return (PyObject *) self;
+}
+
+static int
+row_traverse(pysqlite_Row *self, visitproc visit, void *arg)
+{
+    Py_VISIT(Py_TYPE(self));
+    Py_VISIT(self->data);
+    Py_VISIT(self->description);
+    return 0;
+}
+
+static int
+row_clear(pysqlite_Row *self)
+{
+    Py_CLEAR(self->data);
+    Py_CLEAR(self->description);
+    return 0;
+}
+
+static void
+row_dealloc(pysqlite_Row *self)
+{
+    PyTypeObject *tp = Py_TYPE(self);
+    PyObject_GC_UnTrack(self);
+    row_clear(self);
+    tp->tp_free(self);
+    Py_DECREF(tp);
+}
+
+static PyObject *
+row_item(pysqlite_Row *self, Py_ssize_t i)
+{
+    if (i < 0 || i >= PyTuple_GET_SIZE(self->data)) {
+        PyErr_SetString(PyExc_IndexError, "tuple index out of range");
+        return NULL;
+    }
+    PyObject *item = PyTuple_GET_ITEM(self->data, i);
+    Py_INCREF(item);
+    return item;
+}
+
+static PyObject *
+row_subscript(pysqlite_Row *self, PyObject *idx)
+{
+    if (PyLong_Check(idx)) {
+        Py_ssize_t i = PyNumber_AsSsize_t(idx, PyExc_IndexError);
+        if (i == -1 && PyErr_Occurred()) {
+            return NULL;
+        }
+        if (i < 0) {
+            i += PyTuple_GET_SIZE(self->data);
+        }
+        if (i < 0 || i >= PyTuple_GET_SIZE(self->data)) {
+            PyErr_SetString(PyExc_IndexError, "tuple index out of range");
+            return NULL;
+        }
+        PyObject *item = PyTuple_GET_ITEM(self->data, i);
+        Py_INCREF(item);
+        return item;
+    } else if (PyUnicode_Check(idx)) {
+        if (self->description == Py_None) {
+            PyErr_SetString(PyExc_IndexError, "No item with that key");
+            return NULL;
+        }
+        Py_ssize_t key_len;
+        const char *key = PyUnicode_AsUTF8AndSize(idx, &key_len);
+        if (key == NULL) {
+            return NULL;
+        }
+        Py_ssize_t nitems = PyTuple_Size(self->description);
+        for (Py_ssize_t i = 0; i < nitems; i++) {
+            PyObject *name = PyTuple_GET_ITEM(PyTuple_GET_ITEM(self->description, i), 0);
+            Py_ssize_t name_len;
+            const char *name_cstr = PyUnicode_AsUTF8AndSize(name, &name_len);
+            if (name_cstr == NULL) {
+                return NULL;
+            }
+            /* column names are matched ASCII case-insensitively */
+            if (name_len == key_len && ascii_equals_ignore_case(name_cstr, key, (size_t) key_len)) {
+                PyObject *item = PyTuple_GET_ITEM(self->data, i);
+                Py_INCREF(item);
+                return item;
+            }
+        }
+        PyErr_SetString(PyExc_IndexError, "No item with that key");
+        return NULL;
+    } else if (PySlice_Check(idx)) {
+        return PyObject_GetItem(self->data, idx);
+    }
+    PyErr_SetString(PyExc_IndexError, "Index must be int or string");
+    return NULL;
+}
+
+static Py_ssize_t
+row_length(pysqlite_Row *self)
+{
+    return PyTuple_GET_SIZE(self->data);
+}
+
+static PyObject *
+row_keys(pysqlite_Row *self, PyObject *Py_UNUSED(ignored))
+{
+    PyObject *list = PyList_New(0);
+    if (list == NULL) {
+        return NULL;
+    }
+    if (self->description == Py_None) {
+        return list;
+    }
+    Py_ssize_t nitems = PyTuple_Size(self->description);
+    for (Py_ssize_t i = 0; i < nitems; i++) {
+        if (PyList_Append(list, PyTuple_GET_ITEM(PyTuple_GET_ITEM(self->description, i), 0)) != 0) {
+            Py_DECREF(list);
+            return NULL;
+        }
+    }
+    return list;
+}
+
+static PyObject *
+row_iter(pysqlite_Row *self)
+{
+    return PyObject_GetIter(self->data);
+}
+
+static Py_hash_t
+row_hash(pysqlite_Row *self)
+{
+    Py_hash_t h1 = PyObject_Hash(self->description);
+    if (h1 == -1) {
+        return -1;
+    }
+    Py_hash_t h2 = PyObject_Hash(self->data);
+    if (h2 == -1) {
+        return -1;
+    }
+    return h1 ^ h2;
+}
+
+static PyObject *
+row_richcompare(pysqlite_Row *self, PyObject *other, int opid)
+{
+    if (opid != Py_EQ && opid != Py_NE) {
+        Py_RETURN_NOTIMPLEMENTED;
+    }
+    if (PyObject_TypeCheck(other, RowType)) {
+        pysqlite_Row *other_row = (pysqlite_Row *) other;
+        int eq = PyObject_RichCompareBool(self->description, other_row->description, Py_EQ);
+        if (eq < 0) {
+            return NULL;
+        }
+        if (eq) {
+            return PyObject_RichCompare(self->data, other_row->data, opid);
+        }
+        return PyBool_FromLong(opid != Py_EQ);
+    }
+    Py_RETURN_NOTIMPLEMENTED;
+}
+
+static PyMethodDef row_methods[] = {
+    {"keys", (PyCFunction) row_keys, METH_NOARGS, PyDoc_STR("Returns the keys of the row.")},
+    {NULL, NULL}
+};
+
+static PyType_Slot row_slots[] = {
+    {Py_tp_dealloc, row_dealloc},
+    {Py_tp_hash, row_hash},
+    {Py_tp_methods, row_methods},
+    {Py_tp_richcompare, row_richcompare},
+    {Py_tp_iter, row_iter},
+    {Py_mp_length, row_length},
+    {Py_mp_subscript, row_subscript},
+    {Py_sq_length, row_length},
+    {Py_sq_item, row_item},
+    {Py_tp_new, row_new},
+    {Py_tp_traverse, row_traverse},
+    {Py_tp_clear, row_clear},
+    {0, NULL},
+};
+
+static PyType_Spec row_spec = {
+    .name = MODULE_NAME ".Row",
+    .basicsize = sizeof(pysqlite_Row),
+    .flags = Py_TPFLAGS_DEFAULT | Py_TPFLAGS_BASETYPE | Py_TPFLAGS_HAVE_GC,
+    .slots = row_slots,
+};
+
+/* ------------------------------------------------------------------------ */
+/* PrepareProtocol                                                          */
+/* ------------------------------------------------------------------------ */
+
+static void
+prepare_protocol_dealloc(PyObject *self)
+{
+    PyTypeObject *tp = Py_TYPE(self);
+    PyObject_GC_UnTrack(self);
+    tp->tp_free(self);
+    Py_DECREF(tp);
+}
+
+static int
+prepare_protocol_traverse(PyObject *self, visitproc visit, void *arg)
+{
+    Py_VISIT(Py_TYPE(self));
+    return 0;
+}
+
+static PyType_Slot prepare_protocol_slots[] = {
+    {Py_tp_dealloc, prepare_protocol_dealloc},
+    {Py_tp_new, PyType_GenericNew},
+    {Py_tp_traverse, prepare_protocol_traverse},
+    {Py_tp_doc, (void *) PyDoc_STR("PEP 246 style object adaption protocol type.")},
+    {0, NULL},
+};
+
+static PyType_Spec prepare_protocol_spec = {
+    .name = MODULE_NAME ".PrepareProtocol",
+    .basicsize = sizeof(pysqlite_PrepareProtocol),
+    .flags = Py_TPFLAGS_DEFAULT | Py_TPFLAGS_BASETYPE | Py_TPFLAGS_HAVE_GC,
+    .slots = prepare_protocol_slots,
+};
+
+/* ------------------------------------------------------------------------ */
+/* Module                                                                   */
+/* ------------------------------------------------------------------------ */
+
+static PyObject *
+module_connect(PyObject *module, PyObject *args, PyObject *kwargs)
+{
+    PyObject *factory = NULL;
+    if (kwargs != NULL) {
+        factory = PyDict_GetItemString(kwargs, "factory");
+    }
+    if (factory == NULL && PyTuple_GET_SIZE(args) > 5) {
+        factory = PyTuple_GET_ITEM(args, 5);
+    }
+    if (factory == NULL) {
+        factory = (PyObject *) ConnectionType;
+    }
+    return PyObject_Call(factory, args, kwargs);
+}
+
+static PyObject *
+module_complete_statement(PyObject *module, PyObject *args, PyObject *kwargs)
+{
+    static char *kwlist[] = {"statement", NULL};
+    const char *statement;
+    if (!PyArg_ParseTupleAndKeywords(args, kwargs, "s:complete_statement", kwlist, &statement)) {
+        return NULL;
+    }
+    return PyBool_FromLong(sqlite3_complete(statement));
+}
+
+static PyObject *
+module_enable_shared_cache(PyObject *module, PyObject *args, PyObject *kwargs)
+{
+    static char *kwlist[] = {"do_enable", NULL};
+    int do_enable;
+    if (!PyArg_ParseTupleAndKeywords(args, kwargs, "i:enable_shared_cache", kwlist, &do_enable)) {
+        return NULL;
+    }
+    if (sqlite3_enable_shared_cache(do_enable) != SQLITE_OK) {
+        PyErr_SetString(OperationalError, "Changing the shared_cache flag failed");
+        return NULL;
+    }
+    Py_RETURN_NONE;
+}
+
+static PyObject *
+module_register_adapter(PyObject *module, PyObject *args)
+{
+    PyTypeObject *type;
+    PyObject *caster;
+    if (!PyArg_ParseTuple(args, "O!O:register_adapter", &PyType_Type, &type, &caster)) {
+        return NULL;
+    }
+    /* a registered adapter for one of the base types disables the shortcut in need_adapt */
+    if (type == &PyLong_Type || type == &PyFloat_Type || type == &PyUnicode_Type || type == &PyBytes_Type ||
+                    type == &PyByteArray_Type || type == Py_TYPE(Py_None)) {
+        base_type_adapted = 1;
+    }
+    PyObject *key = PyTuple_Pack(2, (PyObject *) type, (PyObject *) PrepareProtocolType);
+    if (key == NULL) {
+        return NULL;
+    }
+    int rc = PyDict_SetItem(adapters, key, caster);
+    Py_DECREF(key);
+    if (rc < 0) {
+        return NULL;
+    }
+    Py_RETURN_NONE;
+}
+
+static PyObject *
+module_register_converter(PyObject *module, PyObject *args)
+{
+    PyObject *orig_name;
+    PyObject *callable;
+    if (!PyArg_ParseTuple(args, "UO:register_converter", &orig_name, &callable)) {
+        return NULL;
+    }
+    PyObject *name = PyObject_CallMethod(orig_name, "upper", NULL);
+    if (name == NULL) {
+        return NULL;
+    }
+    int rc = PyDict_SetItem(converters, name, callable);
+    Py_DECREF(name);
+    if (rc < 0) {
+        return NULL;
+    }
+    Py_RETURN_NONE;
+}
+
+static PyObject *
+module_adapt(PyObject *module, PyObject *args)
+{
+    PyObject *obj;
+    PyObject *proto = (PyObject *) PrepareProtocolType;
+    PyObject *alt = NULL;
+    if (!PyArg_ParseTuple(args, "O|OO:adapt", &obj, &proto, &alt)) {
+        return NULL;
+    }
+    return microprotocols_adapt(obj, proto, alt);
+}
+
+static PyObject *
+module_enable_callback_tracebacks(PyObject *module, PyObject *args)
+{
+    if (!PyArg_ParseTuple(args, "i:enable_callback_tracebacks", &enable_callback_tracebacks)) {
+        return NULL;
+    }
+    Py_RETURN_NONE;
+}
+
+static PyMethodDef module_methods[] = {
+    {"connect", (PyCFunction)(void(*)(void)) module_connect, METH_VARARGS | METH_KEYWORDS, PyDoc_STR("Opens a connection to the SQLite database file database.")},
+    {"complete_statement", (PyCFunction)(void(*)(void)) module_complete_statement, METH_VARARGS | METH_KEYWORDS, PyDoc_STR("Checks if a string contains a complete SQL statement.")},
+    {"enable_shared_cache", (PyCFunction)(void(*)(void)) module_enable_shared_cache, METH_VARARGS | METH_KEYWORDS, PyDoc_STR("Enable or disable shared cache mode for the calling thread.")},
+    {"register_adapter", (PyCFunction) module_register_adapter, METH_VARARGS, PyDoc_STR("Registers an adapter with sqlite3's adapter registry.")},
+    {"register_converter", (PyCFunction) module_register_converter, METH_VARARGS, PyDoc_STR("Registers a converter with sqlite3.")},
+    {"adapt", (PyCFunction) module_adapt, METH_VARARGS, PyDoc_STR("Adapt given object to given protocol.")},
+    {"enable_callback_tracebacks", (PyCFunction) module_enable_callback_tracebacks, METH_VARARGS, PyDoc_STR("Enable or disable callback functions throwing errors to stderr.")},
+    {NULL, NULL}
+};
+
+static int
+add_exception(PyObject *module, PyObject **exc, const char *name, PyObject *base)
+{
+    char qualname[64];
+    PyOS_snprintf(qualname, sizeof(qualname), MODULE_NAME ".%s", name);
+    *exc = PyErr_NewException(qualname, base, NULL);
+    if (*exc == NULL) {
+        return -1;
+    }
+    Py_INCREF(*exc);
+    return PyModule_AddObject(module, name, *exc);
+}
+
+static int
+add_type(PyObject *module, PyTypeObject **type, PyType_Spec *spec)
+{
+    *type = (PyTypeObject *) PyType_FromSpec(spec);
+    if (*type == NULL) {
+        return -1;
+    }
+    return PyModule_AddType(module, *type);
+}
+
+static struct PyModuleDef _sqlite3module = {
+    PyModuleDef_HEAD_INIT,
+    .m_name = "_cpython_sqlite3",
+    .m_size = -1,
+    .m_methods = module_methods,
+};
+
+PyMODINIT_FUNC
+PyInit__cpython_sqlite3(void)
+{
+    if (sqlite3_libversion_number() < 3007015) {
+        PyErr_SetString(PyExc_ImportError, MODULE_NAME ": SQLite 3.7.15 or higher required");
+        return NULL;
+    }
+    PyObject *thread_module = PyImport_ImportModule("_thread");
+    if (thread_module == NULL) {
+        return NULL;
+    }
+    get_ident = PyObject_GetAttrString(thread_module, "get_ident");
+    Py_DECREF(thread_module);
+    if (get_ident == NULL) {
+        return NULL;
+    }
+    PyObject *module = PyModule_Create(&_sqlite3module);
+    if (module == NULL) {
+        return NULL;
+    }
+
+    if (add_type(module, &ConnectionType, &connection_spec) < 0 ||
+                    add_type(module, &CursorType, &cursor_spec) < 0 ||
+                    add_type(module, &RowType, &row_spec) < 0 ||
+                    add_type(module, &PrepareProtocolType, &prepare_protocol_spec) < 0) {
+        goto error;
+    }
+    StatementType = (PyTypeObject *) PyType_FromSpec(&statement_spec);
+    if (StatementType == NULL) {
+        goto error;
+    }
+
+    if (add_exception(module, &Warning, "Warning", PyExc_Exception) < 0 ||
+                    add_exception(module, &Error, "Error", PyExc_Exception) < 0 ||
+                    add_exception(module, &InterfaceError, "InterfaceError", Error) < 0 ||
+                    add_exception(module, &DatabaseError, "DatabaseError", Error) < 0 ||
+                    add_exception(module, &InternalError, "InternalError", DatabaseError) < 0 ||
+                    add_exception(module, &OperationalError, "OperationalError", DatabaseError) < 0 ||
+                    add_exception(module, &ProgrammingError, "ProgrammingError", DatabaseError) < 0 ||
+                    add_exception(module, &IntegrityError, "IntegrityError", DatabaseError) < 0 ||
+                    add_exception(module, &DataError, "DataError", DatabaseError) < 0 ||
+                    add_exception(module, &NotSupportedError, "NotSupportedError", DatabaseError) < 0) {
+        goto error;
+    }
+
+    adapters = PyDict_New();
+    converters = PyDict_New();
+    if (adapters == NULL || converters == NULL) {
+        goto error;
+    }
+    Py_INCREF(adapters);
+    Py_INCREF(converters);
+    if (PyModule_AddObject(module, "adapters", adapters) < 0 ||
+                    PyModule_AddObject(module, "converters", converters) < 0) {
+        goto error;
+    }
+
+    if (PyModule_AddIntConstant(module, "PARSE_DECLTYPES", PARSE_DECLTYPES) < 0 ||
+                    PyModule_AddIntConstant(module, "PARSE_COLNAMES", PARSE_COLNAMES) < 0 ||
+                    PyModule_AddIntMacro(module, SQLITE_OK) < 0 ||
+                    PyModule_AddIntMacro(module, SQLITE_DENY) < 0 ||
+                    PyModule_AddIntMacro(module, SQLITE_IGNORE) < 0 ||
+                    PyModule_AddIntMacro(module, SQLITE_CREATE_INDEX) < 0 ||
+                    PyModule_AddIntMacro(module, SQLITE_CREATE_TABLE) < 0 ||
+                    PyModule_AddIntMacro(module, SQLITE_CREATE_TEMP_INDEX) < 0 ||
+                    PyModule_AddIntMacro(module, SQLITE_CREATE_TEMP_TABLE) < 0 ||
+                    PyModule_AddIntMacro(module, SQLITE_CREATE_TEMP_TRIGGER) < 0 ||
+                    PyModule_AddIntMacro(module, SQLITE_CREATE_TEMP_VIEW) < 0 ||
+                    PyModule_AddIntMacro(module, SQLITE_CREATE_TRIGGER) < 0 ||
+                    PyModule_AddIntMacro(module, SQLITE_CREATE_VIEW) < 0 ||
+                    PyModule_AddIntMacro(module, SQLITE_DELETE) < 0 ||
+                    PyModule_AddIntMacro(module, SQLITE_DROP_INDEX) < 0 ||
+                    PyModule_AddIntMacro(module, SQLITE_DROP_TABLE) < 0 ||
+                    PyModule_AddIntMacro(module, SQLITE_DROP_TEMP_INDEX) < 0 ||
+                    PyModule_AddIntMacro(module, SQLITE_DROP_TEMP_TABLE) < 0 ||
+                    PyModule_AddIntMacro(module, SQLITE_DROP_TEMP_TRIGGER) < 0 ||
+                    PyModule_AddIntMacro(module, SQLITE_DROP_TEMP_VIEW) < 0 ||
+                    PyModule_AddIntMacro(module, SQLITE_DROP_TRIGGER) < 0 ||
+                    PyModule_AddIntMacro(module, SQLITE_DROP_VIEW) < 0 ||
+                    PyModule_AddIntMacro(module, SQLITE_INSERT) < 0 ||
+                    PyModule_AddIntMacro(module, SQLITE_PRAGMA) < 0 ||
+                    PyModule_AddIntMacro(module, SQLITE_READ) < 0 ||
+                    PyModule_AddIntMacro(module, SQLITE_SELECT) < 0 ||
+                    PyModule_AddIntMacro(module, SQLITE_TRANSACTION) < 0 ||
+                    PyModule_AddIntMacro(module, SQLITE_UPDATE) < 0 ||
+                    PyModule_AddIntMacro(module, SQLITE_ATTACH) < 0 ||
+                    PyModule_AddIntMacro(module, SQLITE_DETACH) < 0 ||
+                    PyModule_AddIntMacro(module, SQLITE_ALTER_TABLE) < 0 ||
+                    PyModule_AddIntMacro(module, SQLITE_REINDEX) < 0 ||
+                    PyModule_AddIntMacro(module, SQLITE_ANALYZE) < 0 ||
+                    PyModule_AddIntMacro(module, SQLITE_CREATE_VTABLE) < 0 ||
+                    PyModule_AddIntMacro(module, SQLITE_DROP_VTABLE) < 0 ||
+                    PyModule_AddIntMacro(module, SQLITE_FUNCTION) < 0 ||
+                    PyModule_AddIntMacro(module, SQLITE_SAVEPOINT) < 0 ||
+                    PyModule_AddIntMacro(module, SQLITE_RECURSIVE) < 0 ||
+                    PyModule_AddIntMacro(module, SQLITE_DONE) < 0) {
+        goto error;
+    }
+    if (PyModule_AddStringConstant(module, "version", PYSQLITE_VERSION) < 0 ||
+                    PyModule_AddStringConstant(module, "sqlite_version", sqlite3_libversion()) < 0) {
+        goto error;
+    }
+    return module;
+
+error:
+    Py_DECREF(module);
+    return NULL;
+}
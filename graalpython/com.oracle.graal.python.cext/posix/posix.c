@@ -73,6 +73,13 @@
 #include <sys/wait.h>
 #include <sys/file.h>
 #include <sys/mman.h>
+#ifdef __gnu_linux__
+#include <sys/sendfile.h>
+#include <sys/syscall.h>
+#endif
+#ifdef __APPLE__
+#include <sys/uio.h>
+#endif
 #include <unistd.h>
 #include <pwd.h>
 
@@ -126,6 +133,49 @@ int64_t call_write(int32_t fd, void *buf, uint64_t count) {
     return write(fd, buf, count);
 }
 
+// offset < 0 means the current file position of in_fd, which is then advanced
+int64_t call_sendfile(int32_t out_fd, int32_t in_fd, int64_t offset, int64_t count) {
+#if defined(__gnu_linux__)
+    if (offset < 0) {
+        return sendfile(out_fd, in_fd, NULL, count);
+    }
+    off_t off = offset;
+    return sendfile(out_fd, in_fd, &off, count);
+#elif defined(__APPLE__)
+    off_t start = offset;
+    if (offset < 0) {
+        start = lseek(in_fd, 0, SEEK_CUR);
+        if (start < 0) {
+            return -1;
+        }
+    }
+    off_t len = count;
+    // the arguments are swapped compared to Linux, and len is in/out
+    if (sendfile(in_fd, out_fd, start, &len, NULL, 0) < 0 && len == 0) {
+        return -1;
+    }
+    if (offset < 0 && lseek(in_fd, start + len, SEEK_SET) < 0) {
+        return -1;
+    }
+    return len;
+#else
+    errno = ENOSYS;
+    return -1;
+#endif
+}
+
+// negative offsets mean the current file position of the respective descriptor
+int64_t call_copy_file_range(int32_t src_fd, int64_t src_offset, int32_t dst_fd, int64_t dst_offset, int64_t count) {
+#if defined(__gnu_linux__) && defined(SYS_copy_file_range)
+    loff_t src_off = src_offset;
+    loff_t dst_off = dst_offset;
+    return syscall(SYS_copy_file_range, src_fd, src_offset < 0 ? NULL : &src_off, dst_fd, dst_offset < 0 ? NULL : &dst_off, (size_t) count, 0u);
+#else
+    errno = ENOSYS;
+    return -1;
+#endif
+}
+
 int32_t call_dup(int32_t fd) {
     return fcntl(fd, F_DUPFD_CLOEXEC, 0);
 }
@@ -403,10 +403,32 @@ def _build_deps(deps):
     return libs, library_dirs, include_dirs
 
 
+def system_library_available(header, library):
+    """Checks if the header can be compiled and the library linked against."""
+    import tempfile
+    from distutils.ccompiler import new_compiler
+    from distutils.errors import CompileError, LinkError
+    from distutils.sysconfig import customize_compiler
+    compiler = new_compiler()
+    customize_compiler(compiler)
+    with tempfile.TemporaryDirectory() as tmpdir:
+        src = os.path.join(tmpdir, "conftest.c")
+        with open(src, "w") as f:
+            f.write("#include <%s>\nint main(void) { return 0; }\n" % header)
+        try:
+            objects = compiler.compile([src], output_dir=tmpdir)
+            compiler.link_executable(objects, os.path.join(tmpdir, "conftest"), libraries=[library])
+        except (CompileError, LinkError):
+            return False
+    return True
+
+
 class NativeBuiltinModule:
-    def __init__(self, name, deps=(), **kwargs):
+    def __init__(self, name, deps=(), condition=None, **kwargs):
         self.name = name
         self.deps = deps
+        # optional callable deciding if the module can be built at all
+        self.condition = condition
         self.kwargs = kwargs
 
     def __call__(self):
@@ -477,6 +499,12 @@ builtin_exts = (
             'expat/xmltok_impl.h',
         ],
     ),
+    NativeBuiltinModule(
+        "_cpython_sqlite3",
+        libs=['sqlite3'],
+        # links against the system's SQLite, the module is left out if it is not installed
+        condition=lambda: not is_managed and system_library_available("sqlite3.h", "sqlite3"),
+    ),
 ))
 
 
@@ -586,7 +614,13 @@ def build_libposix(capi_home):
 
 def build_builtin_exts(capi_home):
     args = [verbosity, 'build', 'install_lib', '-f', '--install-dir=%s/modules' % capi_home, "clean", "--all"]
-    distutil_exts = [(ext, ext()) for ext in builtin_exts]
+    exts = []
+    for ext in builtin_exts:
+        if ext.condition is None or ext.condition():
+            exts.append(ext)
+        else:
+            logger.info("skipping optional module %s", ext.name)
+    distutil_exts = [(ext, ext()) for ext in exts]
     def build_builtin_ext(item):
         ext, distutil_ext = item
         setup(
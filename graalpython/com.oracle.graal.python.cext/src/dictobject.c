@@ -80,14 +80,16 @@ int _PyDict_Next(PyObject *d, Py_ssize_t *ppos, PyObject **pkey, PyObject **pval
     	return 0;
     }
     (*ppos)++;
+    // one upcall for the item array instead of one per item
+    PyObject **items = PyTupleObject_ob_item(tresult);
     if (pkey != NULL) {
-    	*pkey = PyTuple_GetItem(tresult, 0);
+    	*pkey = items[0];
     }
     if (pvalue != NULL) {
-    	*pvalue = PyTuple_GetItem(tresult, 1);
+    	*pvalue = items[1];
     }
     if (phash != NULL) {
-    	*phash = PyLong_AsSsize_t(PyTuple_GetItem(tresult, 2));
+    	*phash = PyLong_AsSsize_t(items[2]);
     }
     Py_DECREF(tresult);
     return 1;
@@ -175,11 +175,13 @@ int PyArg_UnpackTuple(PyObject *args, const char *name, Py_ssize_t min, Py_ssize
         return 0;
     }
 
+    /* Truffle change: fetch the item array once instead of doing one upcall per item */
+    PyObject **items = PyTupleObject_ob_item(args);
     va_list vargs;
     va_start(vargs, max);
     for (i = 0; i < l; i++) {
         o = va_arg(vargs, PyObject **);
-        *o = PyTuple_GET_ITEM(args, i);
+        *o = items[i];
     }
     va_end(vargs);
     return 1;
@@ -280,8 +282,10 @@ find_keyword(PyObject *kwnames, PyObject *const *kwstack, PyObject *key)
     Py_ssize_t i, nkwargs;
 
     nkwargs = PyTuple_GET_SIZE(kwnames);
+    /* Truffle change: fetch the item array once instead of doing one upcall per item */
+    PyObject **kwnames_items = PyTupleObject_ob_item(kwnames);
     for (i=0; i < nkwargs; i++) {
-        PyObject *kwname = PyTuple_GET_ITEM(kwnames, i);
+        PyObject *kwname = kwnames_items[i];
 
         /* ptr==ptr should match in most cases since keyword keys
            should be interned strings */
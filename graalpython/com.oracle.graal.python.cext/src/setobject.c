@@ -49,8 +49,9 @@ int _PySet_NextEntry(PyObject *set, Py_ssize_t *pos, PyObject **key, Py_hash_t *
     	return 0;
     }
     (*pos)++;
-    *key = PyTuple_GetItem(tresult, 0);
-    *hash = PyLong_AsSsize_t(PyTuple_GetItem(tresult, 1));
+    PyObject **items = PyTupleObject_ob_item(tresult);
+    *key = items[0];
+    *hash = PyLong_AsSsize_t(items[1]);
     Py_DecRef(tresult);
     return 1;
 }
@@ -85,8 +85,9 @@ PyObject * tuple_subtype_new(PyTypeObject *type, PyObject *iterable) {
     // Note: the return type is 'PyObject*' to be compatible with CPython
     newobj = polyglot_from_PyTupleObject(newobj);
 
+    PyObject **items = PyTupleObject_ob_item(tmp);
     for (i = 0; i < n; i++) {
-        item = PyTuple_GetItem(tmp, i);
+        item = items[i];
         Py_INCREF(item);
         newobj->ob_item[i] = item; // PyTuple_SETITEM
     }
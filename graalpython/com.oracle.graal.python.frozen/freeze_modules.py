@@ -22,6 +22,72 @@ FROZEN_ONLY = os.path.join(os.path.dirname(__file__), "flag.py")
 
 # These are modules that get frozen.
 TESTS_SECTION = "Test module"
+# Application modules are not part of the generated FrozenModules.java, they are
+# listed in a resource index next to the frozen binaries instead. This way an
+# application image can freeze its own packages without changing the sources.
+APPLICATION_SECTION = "application"
+APPLICATION_INDEX = "FrozenApplicationModules.txt"
+# A larger part of the standard library can be frozen on request. Like application
+# modules, these are only listed in the resource index, so the default build and
+# the checked-in FrozenModules.java stay the same.
+EXTENDED_STDLIB_SECTION = "stdlib - extended"
+EXTENDED_STDLIB = [
+    "__future__",
+    "_compat_pickle",
+    "_compression",
+    "_strptime",
+    "_threading_local",
+    "argparse",
+    "ast",
+    "<asyncio.*>",
+    "base64",
+    "bisect",
+    "calendar",
+    "<concurrent.**.*>",
+    "contextlib",
+    "contextvars",
+    "copy",
+    "dataclasses",
+    "datetime",
+    "dis",
+    "fnmatch",
+    "fractions",
+    "gettext",
+    "glob",
+    "hashlib",
+    "inspect",
+    "<json.*>",
+    "linecache",
+    "<logging.*>",
+    "numbers",
+    "opcode",
+    "pathlib",
+    "pickle",
+    "platform",
+    "pprint",
+    "queue",
+    "random",
+    "selectors",
+    "shlex",
+    "shutil",
+    "signal",
+    "socket",
+    "string",
+    "struct",
+    "subprocess",
+    "sysconfig",
+    "tempfile",
+    "textwrap",
+    "threading",
+    "token",
+    "tokenize",
+    "traceback",
+    "typing",
+    "uuid",
+    "warnings",
+    "weakref",
+]
+INDEXED_SECTIONS = {APPLICATION_SECTION, EXTENDED_STDLIB_SECTION}
 FROZEN = [
     # See parse_frozen_spec() for the format.
     # In cases where the frozenid is duplicated, the first one is re-used.
@@ -134,10 +200,11 @@ add_graalpython_core()
 # specs
 
 
-def parse_frozen_specs(stdlib_path, output_path):
+def parse_frozen_specs(stdlib_path, output_path, app_path=None):
     seen = {}
     for section, specs in FROZEN:
-        parsed = _parse_specs(specs, section, seen, stdlib_path=stdlib_path)
+        search_path = app_path if section == APPLICATION_SECTION else stdlib_path
+        parsed = _parse_specs(specs, section, seen, stdlib_path=search_path)
         for item in parsed:
             frozenid, pyfile, modname, ispkg, section = item
             if sys.flags.verbose:
@@ -146,7 +213,7 @@ def parse_frozen_specs(stdlib_path, output_path):
                 source = seen[frozenid]
             except KeyError:
                 source = FrozenSource.from_id(
-                    stdlib_path=stdlib_path,
+                    stdlib_path=search_path,
                     output_path=output_path,
                     frozenid=frozenid,
                     pyfile=pyfile,
@@ -154,6 +221,8 @@ def parse_frozen_specs(stdlib_path, output_path):
                 seen[frozenid] = source
             else:
                 assert not pyfile or pyfile == source.pyfile, item
+                if section == APPLICATION_SECTION and source.stdlib_path != app_path:
+                    raise ValueError(f"application module {frozenid} would shadow a frozen standard module")
             yield FrozenModule(modname, ispkg, section, source)
 
 
@@ -568,7 +637,7 @@ def write_frozen_lookup(out_file, modules):
             out_file.write(f'            case "{module.name}":\n')
             out_file.write(f"                return Map.{module.symbol};\n")
     out_file.write("            default:\n")
-    out_file.write("                return null;\n")
+    out_file.write("                return FrozenApplicationModules.lookup(name);\n")
     out_file.write("        }\n")
     out_file.write("    }\n")
 
@@ -600,6 +669,15 @@ def write_frozen_module_file(file, modules):
         sys.exit(1)
 
 
+def write_application_index(file, modules, preimport):
+    with open(file, "w", encoding="utf-8") as out_file:
+        for module in modules:
+            ispkg = "1" if module.ispkg else "0"
+            out_file.write(f"module {module.name} {module.symbol} {module.frozenid} {ispkg}\n")
+        for name in preimport:
+            out_file.write(f"preimport {name}\n")
+
+
 def add_tabs(str, number):
     lines = str.splitlines()
     tabbed_lines = []
@@ -617,17 +695,54 @@ def main(args):
     parser.add_argument("--python-lib", required=True)
     parser.add_argument("--binary-dir", required=True)
     parser.add_argument("--sources-dir", required=True)
+    parser.add_argument(
+        "--extended-stdlib",
+        action="store_true",
+        default=bool(os.environ.get("GRAALPY_FREEZE_EXTENDED_STDLIB")),
+        help="also freeze a larger set of commonly imported standard library modules",
+    )
+    parser.add_argument(
+        "--app-path",
+        default=os.environ.get("GRAALPY_FREEZE_APP_PATH"),
+        help="directory to resolve --app-modules in",
+    )
+    parser.add_argument(
+        "--app-modules",
+        default=os.environ.get("GRAALPY_FREEZE_APP_MODULES", ""),
+        help="comma-separated application module specs to freeze, e.g. 'mytool,<mylib.**.*>'",
+    )
+    parser.add_argument(
+        "--app-preimport",
+        default=os.environ.get("GRAALPY_FREEZE_APP_PREIMPORT", ""),
+        help="comma-separated modules to import when a context is pre-initialized during the image build",
+    )
     parsed_args = parser.parse_args(args)
 
+    if parsed_args.extended_stdlib:
+        FROZEN.append((EXTENDED_STDLIB_SECTION, EXTENDED_STDLIB))
+    app_path = None
+    app_specs = [spec.strip() for spec in parsed_args.app_modules.split(",") if spec.strip()]
+    preimport = [name.strip() for name in parsed_args.app_preimport.split(",") if name.strip()]
+    if app_specs:
+        if not parsed_args.app_path:
+            parser.error("--app-modules requires --app-path")
+        app_path = os.path.abspath(parsed_args.app_path)
+        FROZEN.append((APPLICATION_SECTION, app_specs))
+
     # create module specs
-    modules = list(parse_frozen_specs(parsed_args.python_lib, parsed_args.binary_dir))
+    modules = list(parse_frozen_specs(parsed_args.python_lib, parsed_args.binary_dir, app_path=app_path))
+    app_modules = [m for m in modules if m.section in INDEXED_SECTIONS]
+    modules = [m for m in modules if m.section not in INDEXED_SECTIONS]
 
     shutil.rmtree(parsed_args.binary_dir, ignore_errors=True)
     os.makedirs(parsed_args.binary_dir)
     # write frozen module binary files containing the byte code and class files
     # used for importing the binary files
-    for src in _iter_sources(modules):
+    for src in _iter_sources(modules + app_modules):
         freeze_module(src)
+    write_application_index(
+        os.path.join(parsed_args.binary_dir, APPLICATION_INDEX), app_modules, preimport
+    )
 
     # write frozen modules class used for storing frozen modules byte code arrays
     write_frozen_module_file(
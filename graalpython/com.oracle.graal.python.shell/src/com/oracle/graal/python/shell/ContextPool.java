@@ -0,0 +1,458 @@
+/*
+ * Copyright (c) 2023, 2023, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.shell;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Engine;
+import org.graalvm.polyglot.PolyglotException;
+import org.graalvm.polyglot.Source;
+import org.graalvm.polyglot.Value;
+
+/**
+ * A pool of pre-initialized Python contexts for embedders that need a fresh, isolated context per
+ * request. All contexts are created on one shared {@link Engine} with identical options, so the
+ * Python language instance, its parsed core modules and all compiled code are shared between them
+ * (this is the same mechanism {@code python.ForceSharingForInnerContexts} relies on for inner
+ * contexts). A background thread keeps up to {@code size} contexts initialized, with the site
+ * import done and the configured modules pre-imported, so that {@link #acquire()} usually does not
+ * pay for core initialization.
+ *
+ * Contexts handed back with {@link #release(Context)} are either closed (the default, for strict
+ * isolation), or, if {@link Builder#recycle(boolean) recycling} is enabled, reset and put back into
+ * the pool. The reset removes all modules imported after the warm-up from {@code sys.modules},
+ * restores the {@code __main__} namespace and then runs the {@link Builder#resetHook(Consumer)
+ * reset hook}. It does not undo changes made to pre-imported modules, so recycling is only
+ * suitable for trusted code. If the reset fails, the context is closed instead.
+ *
+ * <pre>
+ * try (ContextPool pool = ContextPool.newBuilder().size(4).preImport("json", "re").build()) {
+ *     Context context = pool.acquire();
+ *     try {
+ *         context.eval("python", "json.dumps([1, 2])");
+ *     } finally {
+ *         pool.release(context);
+ *     }
+ * }
+ * </pre>
+ */
+public final class ContextPool implements AutoCloseable {
+    private static final String LANGUAGE_ID = "python";
+
+    /**
+     * Evaluates to a function that restores {@code sys.modules} and the {@code __main__} namespace
+     * to their state at the time this source was evaluated.
+     */
+    private static final Source RESET_SOURCE = Source.create(LANGUAGE_ID,
+                    "(lambda sys, modules, main: (lambda snapshot: lambda: (\n" +
+                                    "    [sys.modules.pop(name) for name in list(sys.modules) if name not in modules],\n" +
+                                    "    main.clear(),\n" +
+                                    "    main.update(snapshot),\n" +
+                                    "))(dict(main)))(__import__('sys'), frozenset(__import__('sys').modules), __import__('sys').modules['__main__'].__dict__)");
+
+    private final Engine engine;
+    private final boolean ownsEngine;
+    private final Map<String, String> options;
+    private final boolean allowAllAccess;
+    private final Consumer<Context.Builder> configurator;
+    private final Source preImportSource;
+    private final boolean recycle;
+    private final Consumer<Context> resetHook;
+    private final int size;
+
+    private final LinkedBlockingQueue<Context> idle;
+    private final Map<Context, Value> resetFunctions = new ConcurrentHashMap<>();
+    private final Set<Context> acquired = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger warming = new AtomicInteger();
+    private final ExecutorService warmer;
+    private volatile boolean closed;
+    /* acquire() calls in progress plus acquired contexts not yet released, guarded by this */
+    private int outstanding;
+    private boolean engineClosed;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder created = new LongAdder();
+    private final LongAdder recycled = new LongAdder();
+    private final LongAdder discarded = new LongAdder();
+
+    private ContextPool(Builder builder) {
+        this.ownsEngine = builder.engine == null;
+        this.engine = ownsEngine ? Engine.newBuilder().build() : builder.engine;
+        this.options = new HashMap<>(builder.options);
+        this.allowAllAccess = builder.allowAllAccess;
+        this.configurator = builder.configurator;
+        this.preImportSource = builder.preImports.isEmpty() ? null : Source.create(LANGUAGE_ID, "import " + String.join(", ", builder.preImports));
+        this.recycle = builder.recycle;
+        this.resetHook = builder.resetHook;
+        this.size = builder.size;
+        this.idle = new LinkedBlockingQueue<>(Math.max(size, 1));
+        this.warmer = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "python-context-pool");
+            thread.setDaemon(true);
+            return thread;
+        });
+        refill();
+    }
+
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns an initialized context. If no pre-warmed context is available, a new one is created
+     * on the calling thread. In both cases the pool starts warming up a replacement.
+     */
+    public Context acquire() {
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("context pool is closed");
+            }
+            outstanding++;
+        }
+        Context context;
+        try {
+            context = idle.poll();
+            if (context != null) {
+                hits.increment();
+            } else {
+                misses.increment();
+                context = createContext();
+            }
+        } catch (RuntimeException e) {
+            releaseOutstanding();
+            throw e;
+        }
+        acquired.add(context);
+        refill();
+        return context;
+    }
+
+    /**
+     * Hands a context obtained from {@link #acquire()} back to the pool. The context must not be
+     * used by the caller afterwards.
+     *
+     * @throws IllegalArgumentException if the context was not acquired from this pool or was
+     *             already released
+     */
+    public void release(Context context) {
+        if (!acquired.remove(context)) {
+            throw new IllegalArgumentException("context was not acquired from this pool");
+        }
+        try {
+            if (closed || !recycle) {
+                discard(context);
+                refill();
+                return;
+            }
+            try {
+                resetFunctions.get(context).executeVoid();
+                if (resetHook != null) {
+                    resetHook.accept(context);
+                }
+            } catch (PolyglotException | IllegalStateException e) {
+                discard(context);
+                refill();
+                return;
+            }
+            if (idle.offer(context)) {
+                recycled.increment();
+            } else {
+                discard(context);
+            }
+        } finally {
+            releaseOutstanding();
+        }
+    }
+
+    /**
+     * Number of {@link #acquire()} calls that got a pre-warmed context.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Number of {@link #acquire()} calls that had to create a context on the calling thread.
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Number of contexts created by this pool, both in the background and on misses.
+     */
+    public long getCreated() {
+        return created.sum();
+    }
+
+    /**
+     * Number of released contexts that were reset and put back into the pool.
+     */
+    public long getRecycled() {
+        return recycled.sum();
+    }
+
+    /**
+     * Number of contexts closed by the pool, either on release or when the pool was closed.
+     */
+    public long getDiscarded() {
+        return discarded.sum();
+    }
+
+    /**
+     * Number of pre-warmed contexts currently waiting in the pool.
+     */
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    public Engine getEngine() {
+        return engine;
+    }
+
+    /**
+     * Closes all idle contexts. Contexts that are still acquired stay usable and are closed when
+     * they are released. If the pool created the engine, the engine is closed as soon as the last
+     * acquired context has been released. Calling this method again retries closing the engine
+     * if that failed before.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+        }
+        warmer.shutdown();
+        try {
+            warmer.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        Context context;
+        while ((context = idle.poll()) != null) {
+            discard(context);
+        }
+        closeEngineIfUnused();
+    }
+
+    private synchronized void releaseOutstanding() {
+        outstanding--;
+        closeEngineIfUnused();
+    }
+
+    private synchronized void closeEngineIfUnused() {
+        if (closed && ownsEngine && !engineClosed && outstanding == 0) {
+            engine.close();
+            engineClosed = true;
+        }
+    }
+
+    private void refill() {
+        while (!closed) {
+            int pending = warming.get();
+            if (idle.size() + pending >= size) {
+                return;
+            }
+            if (warming.compareAndSet(pending, pending + 1)) {
+                try {
+                    warmer.execute(this::warmUp);
+                } catch (RuntimeException e) {
+                    // rejected because the pool is being closed
+                    warming.decrementAndGet();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void warmUp() {
+        try {
+            if (closed) {
+                return;
+            }
+            Context context;
+            try {
+                context = createContext();
+            } catch (PolyglotException e) {
+                // the same error will be reported to the caller of acquire() on a miss
+                return;
+            }
+            if (closed || !idle.offer(context)) {
+                discard(context);
+            }
+        } finally {
+            warming.decrementAndGet();
+        }
+    }
+
+    private Context createContext() {
+        Context.Builder builder = Context.newBuilder(LANGUAGE_ID).engine(engine).allowAllAccess(allowAllAccess);
+        if (!options.isEmpty()) {
+            builder.allowExperimentalOptions(true).options(options);
+        }
+        if (configurator != null) {
+            configurator.accept(builder);
+        }
+        Context context = builder.build();
+        try {
+            context.initialize(LANGUAGE_ID);
+            if (preImportSource != null) {
+                context.eval(preImportSource);
+            }
+            if (recycle) {
+                resetFunctions.put(context, context.eval(RESET_SOURCE));
+            }
+        } catch (PolyglotException e) {
+            context.close();
+            throw e;
+        }
+        created.increment();
+        return context;
+    }
+
+    private void discard(Context context) {
+        resetFunctions.remove(context);
+        discarded.increment();
+        context.close(true);
+    }
+
+    public static final class Builder {
+        private Engine engine;
+        private final Map<String, String> options = new HashMap<>();
+        private boolean allowAllAccess;
+        private Consumer<Context.Builder> configurator;
+        private final List<String> preImports = new ArrayList<>();
+        private boolean recycle;
+        private Consumer<Context> resetHook;
+        private int size = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+        private Builder() {
+        }
+
+        /**
+         * The engine to create the contexts on. If not set, the pool creates its own engine and
+         * closes it together with the pool.
+         */
+        public Builder engine(Engine value) {
+            this.engine = value;
+            return this;
+        }
+
+        /**
+         * Number of contexts to keep pre-warmed. With {@link #recycle(boolean) recycling}, up to
+         * {@code max(size, 1)} released contexts are kept for reuse.
+         */
+        public Builder size(int value) {
+            if (value < 0) {
+                throw new IllegalArgumentException("pool size must not be negative");
+            }
+            this.size = value;
+            return this;
+        }
+
+        /**
+         * Sets a context option. All contexts of a pool use the same options, which is required
+         * for them to share code on the engine.
+         */
+        public Builder option(String key, String value) {
+            options.put(key, value);
+            return this;
+        }
+
+        public Builder allowAllAccess(boolean value) {
+            this.allowAllAccess = value;
+            return this;
+        }
+
+        /**
+         * Applies additional configuration to every context builder, e.g. I/O streams or access
+         * policies.
+         */
+        public Builder configure(Consumer<Context.Builder> value) {
+            this.configurator = value;
+            return this;
+        }
+
+        /**
+         * Modules to import into {@code __main__} while warming up a context.
+         */
+        public Builder preImport(String... modules) {
+            preImports.addAll(Arrays.asList(modules));
+            return this;
+        }
+
+        /**
+         * Whether released contexts are reset and reused instead of closed.
+         */
+        public Builder recycle(boolean value) {
+            this.recycle = value;
+            return this;
+        }
+
+        /**
+         * Additional reset logic for recycled contexts. It runs after the built-in reset and may
+         * throw a {@link PolyglotException} or {@link IllegalStateException} to have the context
+         * closed instead of reused.
+         */
+        public Builder resetHook(Consumer<Context> value) {
+            this.resetHook = value;
+            return this;
+        }
+
+        public ContextPool build() {
+            return new ContextPool(this);
+        }
+    }
+}
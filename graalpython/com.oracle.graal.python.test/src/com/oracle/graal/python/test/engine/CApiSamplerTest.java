@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2023, 2023, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.test.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.graalvm.polyglot.Context;
+import org.junit.Test;
+
+import com.oracle.graal.python.PythonLanguage;
+import com.oracle.graal.python.builtins.objects.cext.capi.transitions.CApiSampler;
+
+public class CApiSamplerTest {
+
+    private static CApiSampler.SiteStats find(CApiSampler sampler, String name) {
+        for (CApiSampler.SiteStats site : sampler.getStats()) {
+            if (site.getName().equals(name)) {
+                return site;
+            }
+        }
+        return null;
+    }
+
+    @Test
+    public void testSelfSamplesAndCollapsedStacks() {
+        // a sampler of its own, so that no other engine interferes with the counters
+        CApiSampler sampler = new CApiSampler();
+        assertFalse(sampler.isEnabled());
+        // a long interval keeps the sampler thread out of the way of the explicit samples below
+        assertTrue(sampler.start(100000));
+        try {
+            assertTrue(sampler.isEnabled());
+            CApiSampler.Site downcall = CApiSampler.createSite(true, "test_downcall");
+            CApiSampler.Site upcall = CApiSampler.createSite(false, "test_upcall");
+
+            sampler.enter(downcall);
+            sampler.takeSample();
+            sampler.enter(upcall);
+            sampler.takeSample();
+            sampler.takeSample();
+            sampler.exit(upcall);
+            sampler.exit(downcall);
+            sampler.takeSample();
+
+            assertEquals(1, find(sampler, "test_downcall J->N").getCount());
+            assertEquals(1, find(sampler, "test_downcall J->N").getSelfSamples());
+            assertEquals(1, find(sampler, "test_upcall N->J").getCount());
+            assertEquals(2, find(sampler, "test_upcall N->J").getSelfSamples());
+            assertEquals(3, sampler.getTotalSamples());
+            String collapsed = sampler.getCollapsedStacks();
+            assertTrue(collapsed, collapsed.contains("test_downcall J->N 1\n"));
+            assertTrue(collapsed, collapsed.contains("test_downcall J->N;test_upcall N->J 2\n"));
+        } finally {
+            sampler.stop();
+        }
+    }
+
+    @Test
+    public void testStopEndsThread() throws InterruptedException {
+        CApiSampler sampler = new CApiSampler();
+        assertFalse(sampler.start(0));
+        assertTrue(sampler.start(1));
+        assertTrue(sampler.start(1));
+        sampler.stop();
+        assertTrue(hasSamplerThread());
+        sampler.stop();
+        assertFalse(hasSamplerThread());
+    }
+
+    private static boolean hasSamplerThread() {
+        for (Thread t : Thread.getAllStackTraces().keySet()) {
+            if (t.getName().equals("python-capi-sampler") && t.isAlive()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Test
+    public void testQueryFromPython() {
+        try (Context context = Context.newBuilder("python").build()) {
+            context.initialize("python");
+            context.enter();
+            CApiSampler sampler = PythonLanguage.get(null).getCApiSampler();
+            assertTrue(sampler.start(100000));
+            try {
+                CApiSampler.Site site = CApiSampler.createSite(false, "test_query");
+                sampler.enter(site);
+                sampler.takeSample();
+                sampler.exit(site);
+                assertEquals(1, context.eval("python", "import __graalpython__; __graalpython__.capi_sampler_stats()['test_query N->J'][1]").asInt());
+                assertTrue(context.eval("python", "'test_query N->J 1' in __graalpython__.capi_sampler_collapsed()").asBoolean());
+                context.eval("python", "__graalpython__.capi_sampler_reset()");
+                assertTrue(context.eval("python", "'test_query N->J' not in __graalpython__.capi_sampler_stats()").asBoolean());
+            } finally {
+                sampler.stop();
+                context.leave();
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2023, 2023, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.test.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Engine;
+import org.junit.Test;
+
+public class CodeCacheTest {
+    private static final String STATS = "import __graalpython__; __graalpython__.code_cache_stats()['%s']";
+
+    private static long stat(Context context, String name) {
+        return context.eval("python", String.format(STATS, name)).asLong();
+    }
+
+    private static void compile(Context context, String code) {
+        context.eval("python", String.format("compile('%s', 'cached.py', 'exec')", code));
+    }
+
+    @Test
+    public void testSharedBetweenContexts() {
+        try (Engine engine = Engine.create("python");
+                        Context first = Context.newBuilder("python").engine(engine).build();
+                        Context second = Context.newBuilder("python").engine(engine).build()) {
+            assertTrue(first.eval("python", String.format(STATS, "shared")).asBoolean());
+            compile(first, "x = 1");
+            long hits = stat(second, "hits");
+            long misses = stat(second, "misses");
+            compile(second, "x = 1");
+            assertEquals(hits + 1, stat(second, "hits"));
+            compile(second, "x = 2");
+            assertEquals(misses + 1, stat(second, "misses"));
+            assertTrue(second.eval("python", "compile('x = 1', 'cached.py', 'exec') is not compile('x = 1', 'cached.py', 'exec')").asBoolean());
+        }
+    }
+
+    @Test
+    public void testEviction() {
+        try (Engine engine = Engine.newBuilder("python").option("python.CodeCacheSize", "1").build();
+                        Context first = Context.newBuilder("python").engine(engine).build();
+                        Context second = Context.newBuilder("python").engine(engine).build()) {
+            compile(first, "a = 1");
+            compile(first, "b = 1");
+            assertEquals(1, stat(first, "size"));
+            assertTrue(stat(first, "evictions") > 0);
+            long misses = stat(second, "misses");
+            compile(second, "a = 1");
+            assertEquals(misses + 1, stat(second, "misses"));
+        }
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2023, 2023, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.test.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.graalvm.polyglot.Context;
+import org.junit.Test;
+
+import com.oracle.graal.python.shell.ContextPool;
+
+public class ContextPoolTest {
+
+    @Test
+    public void testPreImportAndMetrics() {
+        try (ContextPool pool = ContextPool.newBuilder().size(1).preImport("json").build()) {
+            Context first = pool.acquire();
+            assertEquals("[1, 2]", first.eval("python", "json.dumps([1, 2])").asString());
+            pool.release(first);
+            Context second = pool.acquire();
+            assertTrue(second.eval("python", "'json' in dir()").asBoolean());
+            pool.release(second);
+            assertEquals(2, pool.getHits() + pool.getMisses());
+            assertEquals(2, pool.getDiscarded());
+        }
+    }
+
+    @Test
+    public void testRecycle() {
+        int[] resets = new int[1];
+        try (ContextPool pool = ContextPool.newBuilder().size(0).recycle(true).resetHook(c -> resets[0]++).build()) {
+            Context context = pool.acquire();
+            context.eval("python", "import colorsys\nx = 42");
+            pool.release(context);
+            assertEquals(1, resets[0]);
+            assertEquals(1, pool.getRecycled());
+            Context again = pool.acquire();
+            assertEquals(1, pool.getHits());
+            assertFalse(again.eval("python", "'x' in dir()").asBoolean());
+            assertFalse(again.eval("python", "import sys; 'colorsys' in sys.modules").asBoolean());
+            pool.release(again);
+        }
+    }
+
+    @Test
+    public void testFailingResetDiscards() {
+        try (ContextPool pool = ContextPool.newBuilder().size(0).recycle(true).resetHook(c -> c.eval("python", "1 / 0")).build()) {
+            Context context = pool.acquire();
+            pool.release(context);
+            assertEquals(0, pool.getRecycled());
+            assertEquals(1, pool.getDiscarded());
+            assertEquals(1, pool.getMisses());
+        }
+    }
+
+    @Test
+    public void testCloseWithAcquiredContext() {
+        ContextPool pool = ContextPool.newBuilder().size(0).build();
+        Context context = pool.acquire();
+        pool.close();
+        // the acquired context and the pool's engine stay usable until the context is released
+        assertEquals(42, context.eval("python", "6 * 7").asInt());
+        Context.newBuilder("python").engine(pool.getEngine()).build().close();
+        pool.release(context);
+        try {
+            Context.newBuilder("python").engine(pool.getEngine()).build();
+            fail("engine was not closed after the last release");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testReleaseForeignContext() {
+        try (ContextPool pool = ContextPool.newBuilder().size(0).build(); Context foreign = Context.newBuilder("python").build()) {
+            try {
+                pool.release(foreign);
+                fail("a context not created by the pool was accepted");
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+            assertEquals(2, foreign.eval("python", "1 + 1").asInt());
+            Context context = pool.acquire();
+            pool.release(context);
+            try {
+                pool.release(context);
+                fail("a context was released twice");
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testClosedPool() {
+        ContextPool pool = ContextPool.newBuilder().size(0).build();
+        pool.close();
+        pool.acquire();
+    }
+}
@@ -40,12 +40,15 @@
  */
 package com.oracle.graal.python.test.interop;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
@@ -190,6 +193,89 @@ public class InteropLibraryTest extends PythonTests {
         fail("didn't throw exception");
     }
 
+    @Test
+    public void testBufferElements() {
+        Value bytes = v("b'\\x01\\x02\\x03\\x04\\x05\\x06\\x07\\x08'");
+        assertTrue(bytes.hasBufferElements());
+        assertFalse(bytes.isBufferWritable());
+        assertEquals(8, bytes.getBufferSize());
+        assertEquals(3, bytes.readBufferByte(2));
+        assertEquals(0x0403, bytes.readBufferShort(ByteOrder.LITTLE_ENDIAN, 2));
+        assertEquals(0x0304, bytes.readBufferShort(ByteOrder.BIG_ENDIAN, 2));
+        assertEquals(0x0807060504030201L, bytes.readBufferLong(ByteOrder.LITTLE_ENDIAN, 0));
+        byte[] dest = new byte[4];
+        bytes.readBuffer(4, dest, 0, 4);
+        assertArrayEquals(new byte[]{5, 6, 7, 8}, dest);
+        try {
+            bytes.readBufferInt(ByteOrder.LITTLE_ENDIAN, 6);
+            fail("expected out-of-bounds read to fail");
+        } catch (IndexOutOfBoundsException e) {
+            // expected
+        }
+        try {
+            bytes.writeBufferByte(0, (byte) 0);
+            fail("expected write to read-only buffer to fail");
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+
+        Value bytearray = v("bytearray(8)");
+        assertTrue(bytearray.isBufferWritable());
+        bytearray.writeBufferDouble(ByteOrder.BIG_ENDIAN, 0, 1.5);
+        assertEquals(1.5, bytearray.readBufferDouble(ByteOrder.BIG_ENDIAN, 0), 0);
+        assertEquals(0x3f, bytearray.readBufferByte(0));
+
+        Value doubles = v("import array\narray.array('d', [1.0, 2.5, -3.0])");
+        assertTrue(doubles.hasBufferElements());
+        assertEquals(24, doubles.getBufferSize());
+        assertEquals(2.5, doubles.readBufferDouble(ByteOrder.nativeOrder(), 8), 0);
+
+        Value view = v("memoryview(b'abcdef')[2:]");
+        assertTrue(view.hasBufferElements());
+        assertEquals(4, view.getBufferSize());
+        assertEquals('c', view.readBufferByte(0));
+        assertFalse(v("memoryview(b'abcdef')[::2]").hasBufferElements());
+        assertFalse(v("[1, 2, 3]").hasBufferElements());
+    }
+
+    @Test
+    public void testHostArraysAsBuffers() {
+        Value inspect = v("def inspect(b):\n" +
+                        "    m = memoryview(b)\n" +
+                        "    return m.format, m.itemsize, m.nbytes, m.readonly, bytes(b)\n" +
+                        "inspect");
+        byte[] bytes = {1, 2, 3, -1};
+        Value result = inspect.execute(bytes);
+        assertEquals("b", result.getArrayElement(0).asString());
+        assertEquals(1, result.getArrayElement(1).asInt());
+        assertEquals(4, result.getArrayElement(2).asInt());
+        assertFalse(result.getArrayElement(3).asBoolean());
+        assertEquals(0xff, result.getArrayElement(4).readBufferByte(3) & 0xff);
+
+        double[] doubles = {1.0, 2.0};
+        result = inspect.execute(doubles);
+        assertEquals("d", result.getArrayElement(0).asString());
+        assertEquals(16, result.getArrayElement(2).asInt());
+        assertEquals(2.0, result.getArrayElement(4).readBufferDouble(ByteOrder.nativeOrder(), 8), 0);
+
+        // memoryviews of host arrays write through to the Java array
+        Value write = v("def write(b, v):\n" +
+                        "    memoryview(b)[1] = v\n" +
+                        "write");
+        write.execute(bytes, 42);
+        assertEquals(42, bytes[1]);
+        write.execute(doubles, 7.5);
+        assertEquals(7.5, doubles[1], 0);
+
+        Value unpack = v("import struct\nlambda b: struct.unpack_from('=i', b, 4)[0]");
+        assertEquals(-7, unpack.execute(new int[]{3, -7}).asInt());
+
+        Value copy = v("bytes");
+        Value copied = copy.execute(ByteBuffer.wrap(new byte[]{5, 6, 7}));
+        assertEquals(3, copied.getBufferSize());
+        assertEquals(7, copied.readBufferByte(2));
+    }
+
     private static final class LazyArray implements ProxyArray {
 
         private final Iterator<?> it;
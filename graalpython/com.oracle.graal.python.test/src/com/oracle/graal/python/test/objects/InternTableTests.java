@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2023, 2023, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.test.objects;
+
+import static com.oracle.graal.python.util.PythonUtils.TS_ENCODING;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+import com.oracle.graal.python.builtins.objects.str.InternTable;
+import com.oracle.truffle.api.strings.TruffleString;
+
+public class InternTableTests {
+
+    private static TruffleString ts(String prefix, String suffix) {
+        // concatenated at run time, so that each call creates a distinct instance
+        return TruffleString.fromJavaStringUncached(prefix + suffix, TS_ENCODING);
+    }
+
+    @Test
+    public void testInternReturnsCanonicalInstance() {
+        InternTable table = new InternTable();
+        TruffleString a = ts("interned", "_name");
+        TruffleString b = ts("inter", "ned_name");
+        assertNotSame(a, b);
+        assertSame(a, table.intern(a));
+        assertSame(a, table.intern(b));
+        assertEquals(1, table.size());
+        assertEquals(1, table.getDuplicates());
+        assertEquals(13, table.getDuplicateCodePoints());
+    }
+
+    @Test
+    public void testLookupDoesNotGrow() {
+        InternTable table = new InternTable();
+        TruffleString key = ts("json", "_key");
+        assertSame(key, table.lookup(key));
+        assertEquals(0, table.size());
+        TruffleString canonical = table.intern(ts("json_", "key"));
+        assertSame(canonical, table.lookup(key));
+        assertEquals(1, table.size());
+    }
+}
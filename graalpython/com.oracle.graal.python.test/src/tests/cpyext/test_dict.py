@@ -338,6 +338,35 @@ class TestPyDict(CPyExtTestCase):
         cmpfunc=lambda x, y: type(x) == tuple and type(y) == tuple and len(x) == 3 and len(y) == 3 and (x[0] == 0 and y[0] == 0 or x == y)
     )
 
+    test_PyDict_Next_loop = CPyExtFunction(
+        lambda args: [(k, v * 2) for k, v in args[0].items()],
+        lambda: (({},), ({'a': 1},), ({str(i): i for i in range(100)},)),
+        code='''PyObject* wrap_PyDict_Next_loop(PyObject* dict) {
+            PyObject* result = PyList_New(0);
+            PyObject* copy = PyDict_Copy(dict);
+            PyObject* key;
+            PyObject* value;
+            PyObject* item;
+            Py_ssize_t ppos = 0;
+            while (PyDict_Next(copy, &ppos, &key, &value)) {
+                /* changing the value of the current key is allowed during iteration */
+                PyObject* doubled = PyNumber_Add(value, value);
+                PyDict_SetItem(copy, key, doubled);
+                item = Py_BuildValue("(OO)", key, doubled);
+                PyList_Append(result, item);
+                Py_DECREF(item);
+                Py_DECREF(doubled);
+            }
+            Py_DECREF(copy);
+            return result;
+        }
+        ''',
+        resultspec="O",
+        argspec='O',
+        arguments=["PyObject* dict"],
+        callfunction="wrap_PyDict_Next_loop",
+    )
+
     # _PyDict_SetItem_KnownHash
     test__PyDict_SetItem_KnownHash = CPyExtFunction(
         lambda args: {'a': "hello"},
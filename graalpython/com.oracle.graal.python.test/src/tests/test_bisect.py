@@ -0,0 +1,113 @@
+# Copyright (c) 2023, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+
+import _bisect
+import bisect
+
+
+def test_accelerated():
+    assert bisect.bisect_right is _bisect.bisect_right
+    assert bisect.insort_left is _bisect.insort_left
+
+
+def reference(a, x, right, lo=0, hi=None):
+    if hi is None:
+        hi = len(a)
+    while lo < hi:
+        mid = (lo + hi) // 2
+        if (x < a[mid]) if right else not (a[mid] < x):
+            hi = mid
+        else:
+            lo = mid + 1
+    return lo
+
+
+def test_primitive_storages():
+    for a in ([1, 2, 2, 2, 5, 8], [1, 2 ** 40, 2 ** 40, 2 ** 62], [0.5, 1.0, 1.0, 3.25]):
+        for x in list(a) + [0, 4, 2 ** 63, 0.75, 1.0]:
+            assert bisect.bisect_left(a, x) == reference(a, x, False)
+            assert bisect.bisect_right(a, x) == reference(a, x, True)
+            assert bisect.bisect_right(a, x, 1, 3) == reference(a, x, True, 1, 3)
+            assert bisect.bisect_left(a, x, 1, None) == reference(a, x, False, 1)
+
+
+def test_generic():
+    a = ['a', 'c', 'c', 'e']
+    assert bisect.bisect_left(a, 'c') == 1
+    assert bisect.bisect_right(a, 'c') == 3
+    assert bisect.bisect(range(10), 4) == 5
+    assert bisect.bisect_left((1, 3, 5), 3) == 1
+
+
+def test_key():
+    a = [(1, 'x'), (3, 'y'), (5, 'z')]
+    assert bisect.bisect_left(a, 3, key=lambda e: e[0]) == 1
+    assert bisect.bisect_right(a, 3, key=lambda e: e[0]) == 2
+    bisect.insort(a, (4, 'w'), key=lambda e: e[0])
+    assert a == [(1, 'x'), (3, 'y'), (4, 'w'), (5, 'z')]
+
+
+def test_insort():
+    a = []
+    for x in [5, 1, 4, 2, 3, 2.5, 2 ** 70]:
+        bisect.insort(a, x)
+    assert a == [1, 2, 2.5, 3, 4, 5, 2 ** 70]
+
+    class MyList(list):
+        def insert(self, index, value):
+            list.insert(self, index, value * 10)
+
+    b = MyList([1, 2, 3])
+    bisect.insort_left(b, 2)
+    assert b == [1, 20, 2, 3]
+
+
+def test_errors():
+    try:
+        bisect.bisect_left([1, 2], 1, -1)
+    except ValueError:
+        pass
+    else:
+        assert False
+    try:
+        bisect.bisect_left([1, 2], 1, 0, 5)
+    except IndexError:
+        pass
+    else:
+        assert False
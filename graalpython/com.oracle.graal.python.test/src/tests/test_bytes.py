@@ -803,6 +803,69 @@ class BaseLikeBytes:
         self.assertEqual(b'\xff'.translate(t), b'\xff')
         self.assertEqual(b'\xff'.translate(t, t), b'')
 
+    def _large_haystack(self):
+        # long enough that the word-at-a-time and skip-table paths are taken
+        chunk = bytes(range(256)) * 4
+        return self.type2test(chunk * 64 + b'NEEDLE\x00\x80' + chunk * 16 + b'\x00\x80NEEDLE')
+
+    def test_find_large(self):
+        h = self._large_haystack()
+        raw = bytes(h)
+        first = len(bytes(range(256)) * 4) * 64
+        for needle in (b'N', b'\x00', b'\x80', b'\xff', b'NE', b'NEEDLE', b'NEEDLE\x00\x80', b'\x00\x80NEEDLE', b'NEEDLEX', b'\xfe\xff\x00\x01'):
+            self.assertEqual(raw.find(needle), h.find(needle), needle)
+            self.assertEqual(raw.rfind(needle), h.rfind(needle), needle)
+            for start, end in ((1, None), (first + 1, None), (0, first + 3), (-5000, -3), (first, first + 6)):
+                self.assertEqual(raw.find(needle, start, end), h.find(needle, start, end), (needle, start, end))
+                self.assertEqual(raw.rfind(needle, start, end), h.rfind(needle, start, end), (needle, start, end))
+        self.assertEqual(first, h.find(b'NEEDLE'))
+        self.assertEqual(len(h) - 6, h.rfind(b'NEEDLE'))
+        self.assertEqual(raw.find(b'N'), h.find(ord('N')))
+        self.assertEqual(len(h) - 6, h.rfind(ord('N')))
+        self.assertEqual(-1, h.find(b'NEEDLE', first + 1, len(h) - 1))
+        self.assertEqual(-1, h.find(b'NEEDLE', 10, 5))
+        self.assertEqual(10, h.find(b'', 10))
+        self.assertEqual(len(h), h.rfind(b''))
+
+    def test_find_buffer_needle(self):
+        h = self._large_haystack()
+        self.assertEqual(h.find(b'NEEDLE'), h.find(memoryview(b'NEEDLE')))
+        self.assertEqual(h.find(b'NEEDLE'), h.find(bytearray(b'NEEDLE')))
+        self.assertEqual(h.rfind(b'NEEDLE'), h.rfind(memoryview(b'NEEDLE')))
+        self.assertEqual(h.count(b'NEEDLE'), h.count(memoryview(b'NEEDLE')))
+        self.assertEqual(2, self.type2test(b'abcab').find(memoryview(b''), 2))
+        self.assertTrue(memoryview(b'LE\x00') in h)
+
+    def test_count_large(self):
+        h = self._large_haystack()
+        raw = bytes(h)
+        for needle in (b'N', b'\x00', b'\xff', b'\x00\x01', b'NEEDLE', b'\x00\x80NEEDLE', b'', b'\x01\x02\x03\x04\x05\x06\x07\x08\x09'):
+            self.assertEqual(raw.count(needle), h.count(needle), needle)
+            self.assertEqual(raw.count(needle, 7, -7), h.count(needle, 7, -7), needle)
+        self.assertEqual(raw.count(0x80), h.count(0x80))
+        self.assertEqual(3, self.type2test(b'aaaaaaa').count(b'aa'))
+        self.assertEqual(8, self.type2test(b'aaaaaaa').count(b''))
+        self.assertEqual(0, self.type2test(b'aaaaaaa').count(b'a', 5, 2))
+
+    def test_split_large(self):
+        h = self._large_haystack()
+        raw = bytes(h)
+        for sep in (b'\x00', b'\xff', b'N', b'NEEDLE', b'\x00\x80'):
+            for maxsplit in (-1, 0, 1, 3, 100):
+                self.assertEqual(raw.split(sep, maxsplit), [bytes(x) for x in h.split(sep, maxsplit)], (sep, maxsplit))
+                self.assertEqual(raw.rsplit(sep, maxsplit), [bytes(x) for x in h.rsplit(sep, maxsplit)], (sep, maxsplit))
+        self.assertEqual([b'a', b'b', b''], self.type2test(b'a,b,').split(b','))
+        self.assertEqual([b'', b'a', b'b'], self.type2test(b',a,b').rsplit(b','))
+        self.assertEqual([b'a,b', b''], self.type2test(b'a,b,').rsplit(b',', 1))
+        self.assertEqual([b'', b'', b''], self.type2test(b',,').split(b','))
+
+    def test_replace_large(self):
+        h = self._large_haystack()
+        raw = bytes(h)
+        for old, new in ((b'\x00', b'ZZ'), (b'NEEDLE', b'pin'), (b'\x00\x80', b'')):
+            self.assertEqual(raw.replace(old, new), bytes(h.replace(old, new)))
+            self.assertEqual(raw.replace(old, new, 5), bytes(h.replace(old, new, 5)))
+
 class BytesTest(BaseLikeBytes, unittest.TestCase):
     type2test = bytes
 
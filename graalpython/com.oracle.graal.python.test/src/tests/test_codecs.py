@@ -361,3 +361,39 @@ class UTFByteOrderTest(unittest.TestCase):
             self.assertEqual(b'\x02\xf6\x01\x00'.decode('utf-32'), "😂")
         else:
             self.assertEqual(b'\x00\x01\xf6\x02'.decode('utf-32'), "😂")
+
+
+class DirectCodecTest(unittest.TestCase):
+    def test_utf8(self):
+        for s in ["", "abc", "Andr\xe8 Previn", "€" * 100, "😂x", "\ufeffbom"]:
+            self.assertEqual(s, s.encode("utf-8").decode("utf-8"))
+            self.assertEqual(s, bytearray(s.encode("utf-8")).decode("utf-8"))
+        self.assertEqual((b"\xe2\x82\xac".decode("utf-8")), "€")
+        self.assertRaises(UnicodeDecodeError, b"\xed\xa0\x80".decode, "utf-8")
+        self.assertRaises(UnicodeDecodeError, b"\xc0\xaf".decode, "utf-8")
+        self.assertEqual(b"a\xffb".decode("utf-8", "replace"), "a\ufffdb")
+        self.assertEqual(b"a\xffb".decode("utf-8", "surrogateescape"), "a\udcffb")
+        self.assertRaises(UnicodeEncodeError, "a\ud800".encode, "utf-8")
+        self.assertEqual("a\ud800".encode("utf-8", "surrogatepass"), b"a\xed\xa0\x80")
+        self.assertEqual(codecs.utf_8_decode(b"ab\xe2\x82", None, False), ("ab", 2))
+
+    def test_latin1(self):
+        data = bytes(range(256))
+        self.assertEqual(data.decode("latin-1"), "".join(map(chr, range(256))))
+        self.assertEqual(data.decode("latin-1").encode("latin-1"), data)
+        self.assertRaises(UnicodeEncodeError, "€".encode, "latin-1")
+        self.assertEqual("a€".encode("latin-1", "replace"), b"a?")
+
+    def test_ascii(self):
+        self.assertEqual(b"abc".decode("ascii"), "abc")
+        self.assertEqual("abc".encode("ascii"), b"abc")
+        self.assertRaises(UnicodeDecodeError, b"a\x80".decode, "ascii")
+        self.assertEqual(b"a\x80".decode("ascii", "ignore"), "a")
+        self.assertRaises(UnicodeEncodeError, "\xe8".encode, "ascii")
+        self.assertEqual("\xe8".encode("ascii", "backslashreplace"), b"\\xe8")
+
+    def test_decoded_string_is_independent_of_buffer(self):
+        b = bytearray(b"hello")
+        s = b.decode("latin-1")
+        b[0] = ord("j")
+        self.assertEqual("hello", s)
@@ -0,0 +1,162 @@
+# Copyright (c) 2023, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+
+import datetime
+import sys
+import time
+from datetime import date, datetime as dt, time as dtime, timedelta, timezone
+
+
+def assert_raises(exc, fn, *args, **kwargs):
+    try:
+        fn(*args, **kwargs)
+    except exc:
+        pass
+    else:
+        assert False, "expected %s" % exc.__name__
+
+
+def test_timedelta_normalization():
+    assert timedelta(days=1, seconds=-1) == timedelta(seconds=86399)
+    td = timedelta(microseconds=-1)
+    assert (td.days, td.seconds, td.microseconds) == (-1, 86399, 999999)
+    td = timedelta(weeks=1, days=-2, hours=25, minutes=61, seconds=61, milliseconds=1001, microseconds=1000001)
+    assert (td.days, td.seconds, td.microseconds) == (6, 3600 + 3660 + 63, 1001)
+    td = timedelta(days=1.5, seconds=0.25)
+    assert (td.days, td.seconds, td.microseconds) == (1, 43200, 250000)
+    assert timedelta(days=999999999) == timedelta.max - timedelta(hours=24) + timedelta(microseconds=1)
+    assert_raises(OverflowError, timedelta, days=1000000000)
+    assert_raises(OverflowError, timedelta, days=-1000000000)
+    assert_raises(OverflowError, timedelta, microseconds=2 ** 70)
+    assert timedelta(True, False) == timedelta(1)
+
+
+def test_ordinals():
+    for y, m, d in [(1, 1, 1), (1, 12, 31), (4, 2, 29), (100, 3, 1), (400, 12, 31), (2000, 2, 29), (9999, 12, 31)]:
+        o = date(y, m, d).toordinal()
+        assert date.fromordinal(o) == date(y, m, d)
+    assert date(1, 1, 1).toordinal() == 1
+    assert date(9999, 12, 31).toordinal() == 3652059
+    assert date(2020, 3, 1) - date(2020, 2, 28) == timedelta(2)
+    assert date(2021, 1, 1).isocalendar() == (2020, 53, 5)
+
+
+def test_field_checks():
+    assert_raises(ValueError, date, 0, 1, 1)
+    assert_raises(ValueError, date, 10000, 1, 1)
+    assert_raises(ValueError, date, 2021, 13, 1)
+    assert_raises(ValueError, date, 2021, 2, 29)
+    assert_raises(TypeError, date, 2021.0, 1, 1)
+    assert date(2020, 2, 29).day == 29
+    assert_raises(ValueError, dtime, 24)
+    assert_raises(ValueError, dtime, 0, 60)
+    assert_raises(ValueError, dtime, 0, 0, 60)
+    assert_raises(ValueError, dtime, 0, 0, 0, 1000000)
+    assert_raises(ValueError, dtime, fold=2)
+    assert dtime(23, 59, 59, 999999, fold=1).fold == 1
+
+
+def test_isoformat():
+    assert date(5, 1, 2).isoformat() == "0005-01-02"
+    assert str(date(2021, 11, 30)) == "2021-11-30"
+    t = dtime(1, 2, 3, 4567)
+    assert t.isoformat() == "01:02:03.004567"
+    assert t.isoformat("hours") == "01"
+    assert t.isoformat("minutes") == "01:02"
+    assert t.isoformat("seconds") == "01:02:03"
+    assert t.isoformat("milliseconds") == "01:02:03.004"
+    assert dtime(1, 2, 3).isoformat() == "01:02:03"
+    assert_raises(ValueError, t.isoformat, "days")
+    assert dt(2021, 1, 2, 3, 4, 5, tzinfo=timezone.utc).isoformat() == "2021-01-02T03:04:05+00:00"
+    tz = timezone(-timedelta(hours=5, minutes=30, seconds=1, microseconds=2))
+    assert dt(2021, 1, 2, tzinfo=tz).isoformat(" ") == "2021-01-02 00:00:00-05:30:01.000002"
+
+
+def test_fromisoformat():
+    for value in [dt(2021, 1, 2, 3, 4, 5), dt(2021, 1, 2, 3, 4, 5, 6000), dt(1, 1, 1, tzinfo=timezone.utc),
+                  dt(2021, 1, 2, 3, 4, 5, 123456, tzinfo=timezone(timedelta(hours=-3, seconds=-7)))]:
+        assert dt.fromisoformat(value.isoformat()) == value
+        assert dt.fromisoformat(value.isoformat()).tzinfo == value.tzinfo
+    assert date.fromisoformat("2021-03-04") == date(2021, 3, 4)
+    assert dtime.fromisoformat("12:30") == dtime(12, 30)
+    assert dtime.fromisoformat("12:30:01.123+01:00").tzinfo == timezone(timedelta(hours=1))
+    assert dt.fromisoformat("2021-03-04T05:06:07.000008-00:00").tzinfo is timezone.utc
+    for s in ["2021-3-04", "2021/03/04", "2021-02-30"]:
+        assert_raises(ValueError, date.fromisoformat, s)
+    for s in ["2021-03-04T1", "2021-03-04T12:3", "2021-03-04T12:30+1:00", "2021-03-04T12:30x"]:
+        assert_raises(ValueError, dt.fromisoformat, s)
+    try:
+        dt.fromisoformat("2021-03-04T12:3")
+    except ValueError as e:
+        assert "2021-03-04T12:3" in str(e)
+
+
+def test_timestamps():
+    assert dt.utcfromtimestamp(0) == dt(1970, 1, 1)
+    assert dt.utcfromtimestamp(-1.5) == dt(1969, 12, 31, 23, 59, 58, 500000)
+    assert dt.utcfromtimestamp(0.0000005) == dt(1970, 1, 1)
+    assert dt.utcfromtimestamp(0.0000015) == dt(1970, 1, 1, 0, 0, 0, 2)
+    assert dt.utcfromtimestamp(1.9999999) == dt(1970, 1, 1, 0, 0, 2)
+    assert dt.fromtimestamp(86400, timezone.utc) == dt(1970, 1, 2, tzinfo=timezone.utc)
+    assert dt.fromtimestamp(0, timezone(timedelta(hours=2))).hour == 2
+    assert_raises(ValueError, dt.utcfromtimestamp, float("nan"))
+    assert_raises((OverflowError, ValueError), dt.utcfromtimestamp, 1e20)
+    assert date.fromtimestamp(0) == dt.fromtimestamp(0).date()
+    for t in [0, 1000000000, 1234567890.25, -86400 * 365]:
+        assert dt.fromtimestamp(t).timestamp() == t
+        local = dt.fromtimestamp(t)
+        expected = time.localtime(t)
+        assert local.timetuple()[:6] == expected[:6]
+
+
+def test_now():
+    before = time.time()
+    now = dt.now(timezone.utc)
+    after = time.time()
+    assert before - 1 <= now.timestamp() <= after + 1
+    assert abs(dt.now() - dt.fromtimestamp(time.time())) < timedelta(seconds=5)
+    assert dt.now(timezone.utc).tzinfo is timezone.utc
+    assert_raises(TypeError, dt.now, 1)
+
+
+def test_astimezone():
+    value = dt(2021, 6, 1, 12, tzinfo=timezone.utc)
+    local = value.astimezone()
+    assert local == value
+    assert local.utcoffset() == timedelta(seconds=time.localtime(local.timestamp()).tm_gmtoff)
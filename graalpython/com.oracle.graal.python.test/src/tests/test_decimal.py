@@ -0,0 +1,165 @@
+# Copyright (c) 2023, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+
+import decimal
+from decimal import Decimal, Context, localcontext
+
+
+def assert_raises(exc, fn, *args, **kwargs):
+    try:
+        fn(*args, **kwargs)
+    except exc:
+        pass
+    else:
+        assert False, "expected %s" % exc.__name__
+
+
+def quiet_context(**kwargs):
+    return Context(traps=[], flags=[], **kwargs)
+
+
+def test_parse():
+    assert repr(Decimal("  1_000.250\n")) == "Decimal('1000.250')"
+    assert Decimal("-0").as_tuple() == (1, (0,), 0)
+    assert Decimal(".5e-3").as_tuple() == (0, (5,), -4)
+    assert Decimal("1.E+5").as_tuple() == (0, (1,), 5)
+    assert Decimal("0000123.4500").as_tuple() == (0, (1, 2, 3, 4, 5, 0, 0), -4)
+    assert Decimal("-1e+1234567").as_tuple() == (1, (1,), 1234567)
+    assert str(Decimal("-Infinity")) == "-Infinity"
+    assert str(Decimal("inf")) == "Infinity"
+    assert str(Decimal("sNaN0012")) == "sNaN12"
+    assert str(Decimal("NaN000")) == "NaN"
+    assert Decimal("١٢") == 12
+    for s in ["", ".", "1e", "1.2.3", "e5", "infinit", "NaN12x", "- 1", "1 2"]:
+        assert_raises(decimal.InvalidOperation, Decimal, s)
+        assert Decimal(s, quiet_context()).is_nan()
+
+
+def test_str():
+    for s in ["0", "-0", "123.45", "0.000001", "1E-7", "1.23E+5", "-1.2E+11", "0E-10", "0E+3", "1.000000E-1000"]:
+        assert str(Decimal(s)) == s, s
+    assert Decimal("123E+7").to_eng_string() == "1.23E+9"
+    assert Decimal("123E+8").to_eng_string() == "12.3E+9"
+    assert Decimal("0E+4").to_eng_string() == "0.00E+6"
+    assert Context(capitals=0).to_sci_string(Decimal("1E-7")) == "1e-7"
+
+
+def test_arithmetic():
+    assert Decimal("1.10") + Decimal("2.205") == Decimal("3.305")
+    assert str(Decimal("1.30") + Decimal("-1.3")) == "0.00"
+    assert str(Decimal("1.3") - Decimal("1.30")) == "0.00"
+    assert str(Decimal("1.20") * Decimal("3")) == "3.60"
+    assert str(Decimal("19.99") * 3) == "59.97"
+    assert str(Decimal(1) / Decimal(3)) == "0.3333333333333333333333333333"
+    assert str(Decimal(2) / Decimal(3)) == "0.6666666666666666666666666667"
+    assert str(Decimal("100") / Decimal("4.0")) == "25"
+    assert str(Decimal("1.00") / Decimal("8")) == "0.125"
+    assert str(Decimal("12345678901234567890") * Decimal("98765432109876543210")) == "1.219326311370217952237463801E+39"
+    assert str(Decimal("1E+50") + Decimal("1E-50")) == "1.000000000000000000000000000E+50"
+    assert str(Decimal("-5") + Decimal("5")) == "0"
+    ctx = quiet_context(rounding=decimal.ROUND_FLOOR)
+    assert str(ctx.add(Decimal("-5"), Decimal("5"))) == "-0"
+
+
+def test_rounding():
+    modes = {
+        decimal.ROUND_DOWN: ["2.5", "-2.5", "2.5", "-2.5"],
+        decimal.ROUND_UP: ["2.6", "-2.6", "2.6", "-2.6"],
+        decimal.ROUND_HALF_UP: ["2.6", "-2.6", "2.6", "-2.5"],
+        decimal.ROUND_HALF_DOWN: ["2.5", "-2.5", "2.6", "-2.5"],
+        decimal.ROUND_HALF_EVEN: ["2.6", "-2.6", "2.6", "-2.5"],
+        decimal.ROUND_CEILING: ["2.6", "-2.5", "2.6", "-2.5"],
+        decimal.ROUND_FLOOR: ["2.5", "-2.6", "2.5", "-2.6"],
+        decimal.ROUND_05UP: ["2.6", "-2.6", "2.6", "-2.6"],
+    }
+    values = ["2.55", "-2.55", "2.551", "-2.549"]
+    for mode, expected in modes.items():
+        ctx = quiet_context(prec=2, rounding=mode)
+        assert [str(ctx.plus(Decimal(v))) for v in values] == expected, mode
+    assert str(Decimal("1.005").quantize(Decimal("0.01"), rounding=decimal.ROUND_HALF_UP)) == "1.01"
+    assert str(Decimal("1.005").quantize(Decimal("0.01"))) == "1.00"
+    assert str(Decimal("7.325").quantize(Decimal("1E+1"))) == "1E+1"
+    assert str(Decimal("9.999").quantize(Decimal("0.01"))) == "10.00"
+    assert str(Decimal("123").quantize(Decimal("0.001"))) == "123.000"
+
+
+def test_signals():
+    ctx = quiet_context(prec=3)
+    assert str(ctx.add(Decimal("1.23"), Decimal("0.001"))) == "1.23"
+    assert ctx.flags[decimal.Inexact] and ctx.flags[decimal.Rounded]
+    ctx = quiet_context(prec=3)
+    assert str(ctx.multiply(Decimal("1.5"), Decimal("2.0"))) == "3.00"
+    assert not ctx.flags[decimal.Inexact] and not ctx.flags[decimal.Rounded]
+    ctx = quiet_context(prec=3)
+    assert str(ctx.multiply(Decimal("1.50"), Decimal("2.00"))) == "3.00"
+    assert not ctx.flags[decimal.Inexact] and ctx.flags[decimal.Rounded]
+
+    ctx = Context(prec=3, traps=[decimal.Inexact])
+    assert_raises(decimal.Inexact, ctx.divide, Decimal(1), Decimal(3))
+    assert ctx.flags[decimal.Inexact]
+    assert str(ctx.divide(Decimal(1), Decimal(4))) == "0.25"
+
+
+def test_exponent_limits():
+    ctx = quiet_context(prec=3, Emax=9, Emin=-9)
+    assert str(ctx.multiply(Decimal("9E+9"), Decimal(10))) == "Infinity"
+    assert all(ctx.flags[s] for s in [decimal.Overflow, decimal.Inexact, decimal.Rounded])
+    ctx = quiet_context(prec=3, Emax=9, Emin=-9, rounding=decimal.ROUND_DOWN)
+    assert str(ctx.multiply(Decimal("9E+9"), Decimal(10))) == "9.99E+9"
+    ctx = Context(prec=3, Emax=9, Emin=-9, traps=[decimal.Overflow])
+    assert_raises(decimal.Overflow, ctx.add, Decimal("9.99E+9"), Decimal("1E+8"))
+
+    ctx = quiet_context(prec=3, Emax=9, Emin=-9)
+    assert str(ctx.divide(Decimal("1E-9"), Decimal(8))) == "1.2E-10"
+    assert all(ctx.flags[s] for s in [decimal.Underflow, decimal.Subnormal, decimal.Inexact, decimal.Rounded])
+    ctx = quiet_context(prec=3, Emax=9, Emin=-9)
+    assert str(ctx.multiply(Decimal("1E-9"), Decimal("1E-9"))) == "0E-11"
+    assert ctx.flags[decimal.Clamped] and ctx.flags[decimal.Underflow]
+
+    ctx = quiet_context(prec=3, Emax=9, Emin=-9, clamp=1)
+    assert str(ctx.plus(Decimal("1E+9"))) == "1.00E+9"
+    assert ctx.flags[decimal.Clamped]
+
+
+def test_local_context():
+    with localcontext() as ctx:
+        ctx.prec = 5
+        assert str(Decimal(1) / Decimal(7)) == "0.14286"
+        assert str(Decimal("123456789") + 0) == "1.2346E+8"
+    assert str(Decimal(1) / Decimal(7)) == "0.1428571428571428571428571429"
@@ -921,6 +921,64 @@ class ReprTests(unittest.TestCase):
             self.assertEqual(repr(float(s)), str(float(s)))
             self.assertEqual(repr(float(negs)), str(float(negs)))
 
+    def test_shortest_repr(self):
+        self.assertEqual('5e-324', repr(5e-324))
+        self.assertEqual('1e-323', repr(1e-323))
+        self.assertEqual('1e-322', repr(float.fromhex('0x0.0000000000014p-1022')))
+        self.assertEqual('2.2250738585072014e-308', repr(2.2250738585072014e-308))
+        self.assertEqual('1.7976931348623157e+308', repr(1.7976931348623157e+308))
+        self.assertEqual('-0.0', repr(-0.0))
+        self.assertEqual('1e+22', repr(1e22))
+        self.assertEqual('1e+23', repr(1e23))
+        self.assertEqual('9007199254740992.0', repr(2.0 ** 53))
+        self.assertEqual('1.2345678901234568e+16', repr(12345678901234567.0))
+        self.assertEqual('0.30000000000000004', repr(0.1 + 0.2))
+        self.assertEqual('2.82879384806159e+17', repr(2.82879384806159e17))
+        self.assertEqual('1.18575755e-316', repr(1.18575755e-316))
+        self.assertEqual('123456.789', str(123456.789))
+        self.assertEqual('[0.1, -2.5e-05]', repr([0.1, -2.5e-05]))
+
+    def test_parse_roundtrip(self):
+        rnd = random.Random(42)
+        for _ in range(2000):
+            x = rnd.uniform(-1.0, 1.0) * 10.0 ** rnd.randint(-320, 308)
+            self.assertEqual(x, float(repr(x)))
+            self.assertEqual(x, float('%.17g' % x))
+        for i in range(-1074, 1024, 7):
+            x = ldexp(1.0, i)
+            self.assertEqual(x, float(repr(x)))
+
+    def test_parse_hard_cases(self):
+        self.assertEqual(float.fromhex('0x1.0000000000000p+53'), float('9007199254740993'))
+        self.assertEqual(float.fromhex('0x1.0000000000002p+53'), float('9007199254740995'))
+        self.assertEqual(float.fromhex('0x1.52d02c7e14af6p+76'), float('1e23'))
+        self.assertEqual(float.fromhex('0x0.fffffffffffffp-1022'), float('2.2250738585072011e-308'))
+        self.assertEqual(float.fromhex('0x1.0000000000001p+0'), float('1.00000000000000033306690738754696'))
+        self.assertEqual(float.fromhex('0x1.0000000000000p+0'), float('1.00000000000000011102230246251565'))
+        self.assertEqual(float.fromhex('0x1.0000000000002p+0'), float('1.00000000000000033306690738754696212708950042724609375'))
+        self.assertEqual(5e-324, float('4.9406564584124654e-324'))
+        self.assertEqual(0.0, float('2.4703282292062327e-324'))
+        self.assertEqual(5e-324, float('2.4703282292062328e-324'))
+        self.assertEqual(INF, float('1.7976931348623159e308'))
+        self.assertEqual(1.7976931348623157e308, float('1.7976931348623158e308'))
+        self.assertEqual(-0.0, float('-0.0e10'))
+        self.assertEqual('-0.0', repr(float('-0')))
+        self.assertEqual(1e-300, float('0.' + '0' * 299 + '1'))
+        self.assertEqual(123.0, float('0000000000000000000000123.000000000000000000000'))
+        self.assertEqual(1.5, float('1_5e-1'))
+        self.assertEqual(0.5, float('\u0660.\u0665'))
+
+    def test_json_and_csv(self):
+        import json, csv, io
+        values = [0.1, -2.5e-05, 1e+16, 5e-324, 1.7976931348623157e+308, 123456.789, 0.30000000000000004]
+        encoded = json.dumps(values)
+        self.assertEqual('[0.1, -2.5e-05, 1e+16, 5e-324, 1.7976931348623157e+308, 123456.789, 0.30000000000000004]', encoded)
+        self.assertEqual(values, json.loads(encoded))
+        self.assertEqual(9007199254740992.0, json.loads('9007199254740993.0'))
+        out = io.StringIO()
+        csv.writer(out, quoting=csv.QUOTE_NONNUMERIC).writerow(values)
+        self.assertEqual(values, next(csv.reader(io.StringIO(out.getvalue()), quoting=csv.QUOTE_NONNUMERIC)))
+
 
 class SubclassTests(unittest.TestCase):
     def test_subclass_nan(self):
@@ -215,3 +215,98 @@ def test_fstring():
     # this is not walrus but 'x' with a format specifier "=10"
     x = 20
     assert f'{x:=10}' == '        20'
+
+
+def test_simple_int_specs():
+    # these specs are formatted without the general formatter, compare with %-formatting
+    ints = [0, 1, -1, 7, -42, 12345, -99999, 2**31 - 1, -2**31, 2**31, 2**63 - 1, -2**63 + 1, -2**63, 2**64, -2**64, True, False]
+    for n in ints:
+        assert format(n, 'd') == '%d' % n
+        assert format(n, '+d') == '%+d' % n
+        assert format(n, ' d') == '% d' % n
+        for w in (1, 5, 25):
+            assert format(n, '%dd' % w) == '%*d' % (w, n)
+            assert format(n, '%d' % w) == '%*d' % (w, n)
+            assert format(n, '<%dd' % w) == '%-*d' % (w, n)
+            assert format(n, '0%dd' % w) == '%0*d' % (w, n)
+            assert format(n, '+0%dd' % w) == '%+0*d' % (w, n)
+            assert f'{n:{w}}' == '%*d' % (w, n)
+    assert format(42, '^7') == '  42   '
+    assert format(-42, '*^8d') == '**-42***'
+    assert format(-42, '*=8') == '-*****42'
+    assert format(42, '=+8') == '+     42'
+    assert format(42, '<05') == '42000'
+    assert format(42, '\u20ac>5') == '\u20ac\u20ac\u20ac42'
+    assert format(True, '>5') == '    1'
+    assert f'{-7:x<4}{7:05}' == '-7xx00007'
+
+
+def test_simple_float_specs():
+    floats = [0.0, -0.0, 0.5, 1.5, 2.5, -2.5, 0.125, 0.375, 1.005, 2.675, 1e-300, 5e-324, 0.1, 1/3, -2/3,
+              123456.789, 1e15, 9007199254740991.0, 9007199254740993.0, 1e22, -1e22, 1.7976931348623157e308]
+    for x in floats:
+        for p in range(0, 12):
+            assert format(x, '.%df' % p) == '%.*f' % (p, x), (x, p)
+            assert format(x, '+12.%dF' % p) == '%+12.*F' % (p, x), (x, p)
+            assert format(x, '<12.%df' % p) == '%-12.*f' % (p, x), (x, p)
+            assert format(x, '012.%df' % p) == '%012.*f' % (p, x), (x, p)
+        assert format(x, 'f') == '%f' % x
+    assert format(3.14159, '*^11.2f') == '***3.14****'
+    assert format(-3.14159, '=9.1f') == '-     3.1'
+    assert format(float('inf'), '.2f') == 'inf'
+    assert format(float('-inf'), '>6.2F') == '  -INF'
+    assert format(float('nan'), '.2f') == 'nan'
+    assert format(2.5, '.0f') == '2'
+    assert format(2.5, '#.0f') == '2.'
+    assert format(1234.5, ',.1f') == '1,234.5'
+    x = 1.25
+    assert f'{x:>10.1f}|{x:.3f}|{x:{3}.{0}f}' == '       1.2|1.250|  1'
+
+
+def test_format_spec_cache():
+    # one call site sees more distinct specs than it caches
+    specs = ['d', '5d', '>5', '<5', '^5', '+d', '05', 'x', '#o', ',']
+    expected = ['1234', ' 1234', ' 1234', '1234 ', '1234 ', '+1234', '01234', '4d2', '0o2322', '1,234']
+    for i in range(3):
+        assert [format(1234, s) for s in specs] == expected
+        assert ['{:{}}'.format(1234, s) for s in specs] == expected
+    for i in range(3):
+        try:
+            format(1, '5.')
+        except ValueError:
+            pass
+        else:
+            assert False, "invalid spec did not raise"
+
+
+def test_format_spec_cache_invalid():
+    # invalid specs at a call site keep raising the parser's error, also after valid ones were cached
+    def fmt(x, spec):
+        return format(x, spec)
+
+    cases = [('5d', '   12'), ('5.', 'Format specifier missing precision'), ('>4', '  12'),
+             (',_d', "Cannot specify both ',' and '_'."), ('5d', '   12'), ('5.', 'Format specifier missing precision')]
+    for i in range(3):
+        for spec, expected in cases:
+            try:
+                result = fmt(12, spec)
+            except ValueError as e:
+                result = str(e)
+            assert result == expected, (spec, result)
+
+
+def test_fstring_spec_constant_folding():
+    class Spec:
+        def __format__(self, spec):
+            return '<' + spec + '>'
+
+    s = Spec()
+    w = 4
+    assert f'{s:>10.3f}' == '<>10.3f>'
+    assert f'{s:}' == '<>'
+    assert f'{w!s:>3}|{w!r:<3}|' == '  4|4  |'
+    assert f'{s:a{w}b}' == '<a4b>'
+    assert f'{s:{w}}' == '<4>'
+    assert f'{s:\u20ac\U0001f602}' == '<\u20ac\U0001f602>'
+    codes = [f'{s:x}' for i in range(3)]
+    assert codes == ['<x>'] * 3
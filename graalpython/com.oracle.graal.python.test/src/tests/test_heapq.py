@@ -0,0 +1,145 @@
+# Copyright (c) 2023, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+
+import _heapq
+import heapq
+import random
+
+
+def check_invariant(heap, max_heap=False):
+    for pos, item in enumerate(heap):
+        if pos:
+            parent = heap[(pos - 1) >> 1]
+            if max_heap:
+                assert item <= parent
+            else:
+                assert parent <= item
+
+
+def test_accelerated():
+    assert heapq.heappush is _heapq.heappush
+    assert heapq.heapify is _heapq.heapify
+    assert heapq._heappop_max is _heapq._heappop_max
+
+
+def test_push_pop_primitive():
+    rnd = random.Random(42)
+    for gen in (lambda: rnd.randint(-1000, 1000), lambda: rnd.randint(-2 ** 60, 2 ** 60), lambda: rnd.random()):
+        data = [gen() for _ in range(200)]
+        heap = []
+        for item in data:
+            heapq.heappush(heap, item)
+            check_invariant(heap)
+        assert [heapq.heappop(heap) for _ in range(len(data))] == sorted(data)
+
+
+def test_heapify_and_replace():
+    rnd = random.Random(7)
+    for data in ([rnd.randint(0, 100) for _ in range(101)], [rnd.random() for _ in range(50)], [str(i) for i in range(30)]):
+        heap = list(data)
+        heapq.heapify(heap)
+        check_invariant(heap)
+        smallest = heap[0]
+        assert heapq.heapreplace(heap, data[0]) == smallest
+        check_invariant(heap)
+        assert heapq.heappushpop(heap, heap[0]) == heap[0]
+        check_invariant(heap)
+
+
+def test_storage_generalization():
+    heap = [1, 2, 3]
+    heapq.heapify(heap)
+    heapq.heappush(heap, 0.5)
+    heapq.heappush(heap, 2 ** 70)
+    assert heapq.heapreplace(heap, 1.5) == 0.5
+    check_invariant(heap)
+    assert [heapq.heappop(heap) for _ in range(5)] == [1, 1.5, 2, 3, 2 ** 70]
+
+
+def test_tuple_entries():
+    heap = []
+    for item in [(3, 'c'), (1, 'a'), (2, 'b'), (1, 'aa'), (3,), (2, 'b', 0)]:
+        heapq.heappush(heap, item)
+    assert [heapq.heappop(heap) for _ in range(6)] == [(1, 'a'), (1, 'aa'), (2, 'b'), (2, 'b', 0), (3,), (3, 'c')]
+
+
+def test_max_heap():
+    data = [5, 1, 9, 3, 7, 2.5]
+    heap = list(data)
+    heapq._heapify_max(heap)
+    check_invariant(heap, max_heap=True)
+    assert heapq._heapreplace_max(heap, 4) == 9
+    check_invariant(heap, max_heap=True)
+    assert [heapq._heappop_max(heap) for _ in range(6)] == [7, 5, 4, 3, 2.5, 1]
+
+
+def test_errors():
+    for func in (heapq.heappop, heapq.heapify):
+        try:
+            func((1, 2))
+        except TypeError:
+            pass
+        else:
+            assert False
+    try:
+        heapq.heappop([])
+    except IndexError:
+        pass
+    else:
+        assert False
+    assert heapq.heappushpop([], 1) == 1
+
+
+def test_mutation_during_compare():
+    class Evil:
+        def __init__(self, heap):
+            self.heap = heap
+
+        def __lt__(self, other):
+            self.heap.clear()
+            return NotImplemented
+
+    heap = []
+    heap.extend(Evil(heap) for _ in range(10))
+    try:
+        heapq.heapify(heap)
+    except (RuntimeError, TypeError):
+        pass
+    else:
+        assert False
@@ -85,6 +85,12 @@ def test_string_interned():
     y='1234'
     assert id(x) == id(y) == id('1234') == id(sys.intern('1234')) == id(sys.intern(x)) == id(sys.intern(y))
 
+def test_json_keys_reuse_interned_names():
+    import json
+    name = 'interned_json_key'
+    d = json.loads('{"interned_json_key": 1, "not an identifier": 2}')
+    assert d == {name: 1, 'not an identifier': 2}
+
 # skip until is fixed: GR-28568
 # def test_string_noninterned():
 #     x = '1234'
@@ -630,6 +630,33 @@ if sys.implementation.name == "graalpy":
         else:
             assert False, "should throw a type error again"
 
+    def test_host_primitive_array_to_list():
+        import java
+        from java.util import ArrayList
+        ia = java.type("int[]")(5)
+        for i in range(5):
+            ia[i] = i - 2
+        assert list(ia) == [-2, -1, 0, 1, 2]
+        ba = java.type("byte[]")(2)
+        ba[0] = -1
+        assert list(ba) == [-1, 0]
+        fa = java.type("float[]")(2)
+        fa[1] = 0.5
+        assert list(fa) == [0.0, 0.5]
+        za = java.type("boolean[]")(2)
+        za[1] = True
+        assert list(za) == [False, True]
+        l = list(ia)
+        l.append("x")
+        assert ia[4] == 2, "list must be a copy of the array"
+
+        al = ArrayList()
+        al.add(1)
+        al.add(2.5)
+        assert list(al) == [1, 2.5]
+        al.set(1, "a")
+        assert list(al) == [1, "a"]
+
     @skipIf(is_native, "not supported in native mode")
     def test_foreign_repl():
         from java.util.logging import LogRecord
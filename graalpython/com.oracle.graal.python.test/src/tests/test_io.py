@@ -312,5 +312,44 @@ class IOBaseTests(unittest.TestCase):
         self.assertEqual(["ab\r\n", "cd"], t.readlines())
 
 
+class TextIOReadlineTests(unittest.TestCase):
+    def read_lines(self, data, **kwargs):
+        import os, tempfile
+        fd, path = tempfile.mkstemp()
+        try:
+            with os.fdopen(fd, "wb") as f:
+                f.write(data)
+            with open(path, **kwargs) as f:
+                lines = list(f)
+                return lines, f.newlines, f.tell()
+        finally:
+            os.remove(path)
+
+    def test_utf8_lines(self):
+        text = "".join("line %d \xe8\u20ac\U0001f602\n" % i for i in range(1000)) + "last"
+        lines, newlines, pos = self.read_lines(text.encode("utf-8"), encoding="utf-8", buffering=64)
+        self.assertEqual(text.splitlines(keepends=True), lines)
+        self.assertEqual("\n", newlines)
+        self.assertEqual(len(text.encode("utf-8")), pos)
+
+    def test_latin1_and_ascii(self):
+        data = bytes(range(32, 256)) + b"\nabc\n"
+        self.assertEqual([bytes(range(32, 256)).decode("latin-1") + "\n", "abc\n"], self.read_lines(data, encoding="latin-1")[0])
+        self.assertEqual(["abc\n", "def"], self.read_lines(b"abc\ndef", encoding="ascii")[0])
+        self.assertRaises(UnicodeDecodeError, self.read_lines, b"abc\nd\xe8f\n", encoding="ascii")
+
+    def test_translated_newlines(self):
+        lines, newlines, _ = self.read_lines(b"a\nb\r\nc\rd\n", encoding="utf-8")
+        self.assertEqual(["a\n", "b\n", "c\n", "d\n"], lines)
+        self.assertEqual(("\r", "\n", "\r\n"), newlines)
+        lines, _, _ = self.read_lines(b"a\nb\r\nc\n", encoding="utf-8", newline="")
+        self.assertEqual(["a\n", "b\r\n", "c\n"], lines)
+
+    def test_invalid_utf8(self):
+        self.assertRaises(UnicodeDecodeError, self.read_lines, b"ok\nbad \xff\n", encoding="utf-8")
+        lines, _, _ = self.read_lines(b"ok\nbad \xff\nok\n", encoding="utf-8", errors="replace")
+        self.assertEqual(["ok\n", "bad \ufffd\n", "ok\n"], lines)
+
+
 if __name__ == '__main__':
     unittest.main()
@@ -149,6 +149,26 @@ if (platform.system() == 'Java' or sys.implementation.name == "graalpy") and \
         instance = StringBuilder("aaa")
 
 
+    class PrimitiveListTest(unittest.TestCase):
+        def test_array_from_list(self):
+            self.assertEqual(list(jarray.array([1, 2, 3], 'i')), [1, 2, 3])
+            self.assertEqual(list(jarray.array([1, 2, 3], 'l')), [1, 2, 3])
+            self.assertEqual(list(jarray.array([1, 2, 3], 'd')), [1.0, 2.0, 3.0])
+            self.assertEqual(list(jarray.array([0.5, 1.5], 'd')), [0.5, 1.5])
+            self.assertEqual(list(jarray.array([True, False], 'z')), [True, False])
+            with self.assertRaises(TypeError):
+                jarray.array([0.5], 'i')
+            with self.assertRaises(TypeError):
+                jarray.array([1 << 40], 'i')
+
+        def test_list_from_array(self):
+            array = jarray.array([1, 2, 3], 'i')
+            lst = list(array)
+            lst.append(4)
+            self.assertEqual(len(array), 3)
+            self.assertEqual(list(jarray.array(array, 'l')), [1, 2, 3])
+
+
     class ErrorTest(unittest.TestCase):
         def test_wrong_type(self):
             with self.assertRaises(ValueError):
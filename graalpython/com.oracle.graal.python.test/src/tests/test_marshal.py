@@ -123,6 +123,18 @@ class CodeTest(unittest.TestCase):
             if isinstance(obj, types.CodeType):
                 self.assertIs(co.co_filename, obj.co_filename)
 
+    def test_nested_functions(self):
+        s = """def f(x):\n    def g(y):\n        return x + y\n    return g\nclass C:\n    def m(self): return 42\n"""
+        co = compile(s, "nested", "exec")
+        # dump the loaded code again before its functions are used
+        co = marshal.loads(marshal.dumps(marshal.loads(marshal.dumps(co))))
+        names = [obj.co_name for obj in co.co_consts if isinstance(obj, types.CodeType)]
+        self.assertEqual(["f", "C"], names)
+        ns = {}
+        exec(co, ns)
+        self.assertEqual(3, ns["f"](1)(2))
+        self.assertEqual(42, ns["C"]().m())
+
 class ContainerTest(unittest.TestCase, BaseMarshalUnmarshal):
     d = {'astring': 'foo@bar.baz.spam',
          'afloat': 7283.43,
@@ -60,3 +60,47 @@ class OperatorTest(unittest.TestCase):
         self.assertRaises(TypeError, operator.getitem)
         self.assertRaises(TypeError, operator.getitem, a, None)
         self.assertEqual(operator.getitem(a, 2), 2)
+
+    def test_itemgetter(self):
+        self.assertRaises(TypeError, operator.itemgetter)
+        self.assertRaises(TypeError, operator.itemgetter, 1, key=2)
+        rows = [(3, 'c'), (1, 'a'), (2, 'b')]
+        self.assertEqual(sorted(rows, key=operator.itemgetter(0)), [(1, 'a'), (2, 'b'), (3, 'c')])
+        self.assertEqual(operator.itemgetter(1, 0)((1, 2)), (2, 1))
+        self.assertEqual(operator.itemgetter('a', 'b')({'a': 1, 'b': 2}), (1, 2))
+        self.assertRaises(IndexError, operator.itemgetter(5), [1, 2])
+        self.assertEqual(repr(operator.itemgetter(1, 'x')), "operator.itemgetter(1, 'x')")
+        f = operator.itemgetter(2, 0)
+        cls, args = f.__reduce__()
+        self.assertEqual(cls(*args)([1, 2, 3]), (3, 1))
+
+    def test_attrgetter(self):
+        class A:
+            pass
+        a = A()
+        a.name = 'foo'
+        a.child = A()
+        a.child.name = 'bar'
+        a.child.child = A()
+        a.child.child.name = 'baz'
+        self.assertRaises(TypeError, operator.attrgetter)
+        self.assertRaises(TypeError, operator.attrgetter, 2)
+        self.assertEqual(operator.attrgetter('name')(a), 'foo')
+        self.assertEqual(operator.attrgetter('child.name')(a), 'bar')
+        self.assertEqual(operator.attrgetter('child.child.name')(a), 'baz')
+        self.assertEqual(operator.attrgetter('name', 'child.name')(a), ('foo', 'bar'))
+        self.assertRaises(AttributeError, operator.attrgetter('child.missing'), a)
+        self.assertEqual(repr(operator.attrgetter('x', 'y.z')), "operator.attrgetter('x', 'y.z')")
+        cls, args = operator.attrgetter('child.name', 'name').__reduce__()
+        self.assertEqual(cls(*args)(a), ('bar', 'foo'))
+
+    def test_methodcaller(self):
+        self.assertRaises(TypeError, operator.methodcaller)
+        self.assertRaises(TypeError, operator.methodcaller, 12)
+        self.assertEqual(operator.methodcaller('upper')('abc'), 'ABC')
+        self.assertEqual(operator.methodcaller('split', ',')('a,b'), ['a', 'b'])
+        self.assertEqual(operator.methodcaller('split', sep=',', maxsplit=1)('a,b,c'), ['a', 'b,c'])
+        self.assertEqual(repr(operator.methodcaller('foo', 1, k=2)), "operator.methodcaller('foo', 1, k=2)")
+        f = operator.methodcaller('split', ',', maxsplit=1)
+        ctor, args = f.__reduce__()
+        self.assertEqual(ctor(*args)('a,b,c'), ['a', 'b,c'])
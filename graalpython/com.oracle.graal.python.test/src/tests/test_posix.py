@@ -860,5 +860,92 @@ class RenameTests(unittest.TestCase):
             os.replace(TEST_FILENAME1, 3.14)
 
 
+class FileCopyTests(unittest.TestCase):
+
+    DATA = bytes(range(256)) * 1000
+
+    def setUp(self):
+        with io.open(TEST_FULL_PATH1, 'wb') as f:
+            f.write(self.DATA)
+        self.src = os.open(TEST_FULL_PATH1, os.O_RDONLY)
+        self.dst = os.open(TEST_FULL_PATH2, os.O_RDWR | os.O_CREAT | os.O_TRUNC)
+
+    def tearDown(self):
+        os.close(self.src)
+        os.close(self.dst)
+        for teardown_file in [TEST_FULL_PATH1, TEST_FULL_PATH2]:
+            try:
+                os.unlink(teardown_file)
+            except FileNotFoundError:
+                pass
+
+    def read_dst(self):
+        with io.open(TEST_FULL_PATH2, 'rb') as f:
+            return f.read()
+
+    def copy_all(self, copy_fn):
+        total = 0
+        while True:
+            n = copy_fn(len(self.DATA))
+            if n == 0:
+                return total
+            total += n
+
+    @unittest.skipUnless(hasattr(os, 'sendfile') and sys.platform.startswith('linux'), 'sendfile to regular files is Linux only')
+    def test_sendfile_offset(self):
+        offset = 0
+        while True:
+            n = os.sendfile(self.dst, self.src, offset, 30000)
+            if n == 0:
+                break
+            offset += n
+        self.assertEqual(len(self.DATA), offset)
+        self.assertEqual(self.DATA, self.read_dst())
+        # the position of in_fd is not changed when an offset is given
+        self.assertEqual(0, os.lseek(self.src, 0, os.SEEK_CUR))
+
+    @unittest.skipUnless(hasattr(os, 'sendfile') and sys.platform.startswith('linux'), 'sendfile to regular files is Linux only')
+    def test_sendfile_current_position(self):
+        os.lseek(self.src, 1000, os.SEEK_SET)
+        total = self.copy_all(lambda count: os.sendfile(self.dst, self.src, None, count))
+        self.assertEqual(len(self.DATA) - 1000, total)
+        self.assertEqual(len(self.DATA), os.lseek(self.src, 0, os.SEEK_CUR))
+        self.assertEqual(self.DATA[1000:], self.read_dst())
+
+    @unittest.skipUnless(hasattr(os, 'copy_file_range'), 'requires os.copy_file_range')
+    def test_copy_file_range(self):
+        total = self.copy_all(lambda count: os.copy_file_range(self.src, self.dst, count))
+        self.assertEqual(len(self.DATA), total)
+        self.assertEqual(self.DATA, self.read_dst())
+
+    @unittest.skipUnless(hasattr(os, 'copy_file_range'), 'requires os.copy_file_range')
+    def test_copy_file_range_offsets(self):
+        self.assertEqual(100, os.copy_file_range(self.src, self.dst, 100, 500, 10))
+        self.assertEqual(0, os.lseek(self.src, 0, os.SEEK_CUR))
+        self.assertEqual(0, os.lseek(self.dst, 0, os.SEEK_CUR))
+        self.assertEqual(b'\0' * 10 + self.DATA[500:600], self.read_dst())
+        with self.assertRaises(OSError):
+            os.copy_file_range(self.src, self.dst, 100, -1)
+
+    @unittest.skipUnless(hasattr(os, 'sendfile') and sys.platform.startswith('linux'), 'sendfile to regular files is Linux only')
+    def test_sendfile_large_count(self):
+        # shutil passes the whole file size as count, which does not fit into an int for files >= 2 GiB
+        total = self.copy_all(lambda count: os.sendfile(self.dst, self.src, None, 2**31 + 10))
+        self.assertEqual(len(self.DATA), total)
+        self.assertEqual(self.DATA, self.read_dst())
+
+    @unittest.skipUnless(hasattr(os, 'copy_file_range'), 'requires os.copy_file_range')
+    def test_copy_file_range_large_count(self):
+        total = self.copy_all(lambda count: os.copy_file_range(self.src, self.dst, 2**31 + 10))
+        self.assertEqual(len(self.DATA), total)
+        self.assertEqual(self.DATA, self.read_dst())
+
+    @unittest.skipUnless(hasattr(os, 'sendfile') and sys.platform.startswith('linux'), 'sendfile to regular files is Linux only')
+    def test_shutil_copyfile(self):
+        import shutil
+        shutil.copyfile(TEST_FULL_PATH1, TEST_FULL_PATH2)
+        self.assertEqual(self.DATA, self.read_dst())
+
+
 if __name__ == '__main__':
     unittest.main()
@@ -0,0 +1,170 @@
+# Copyright (c) 2023, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+
+from unittest import skipIf
+
+import _sqlite3
+import sqlite3
+
+# the native module is optional and only built if the SQLite library is available
+NO_NATIVE = not hasattr(_sqlite3, "Connection")
+
+
+@skipIf(NO_NATIVE, "no native _sqlite3")
+def test_executemany_bulk():
+    con = sqlite3.connect(":memory:")
+    con.execute("create table t(id integer primary key, name text, value real, data blob)")
+    rows = [(i, "name%d" % i, i * 0.5, bytes([i % 256]) * 4) for i in range(1000)]
+    cur = con.executemany("insert into t values (?, ?, ?, ?)", rows)
+    assert cur.rowcount == 1000
+    assert con.in_transaction
+    con.commit()
+    assert not con.in_transaction
+    assert con.execute("select * from t order by id").fetchall() == rows
+    # generators are consumed lazily, one parameter set at a time
+    cur = con.executemany("update t set name = :name where id = :id", ({"id": i, "name": "x"} for i in range(10)))
+    assert cur.rowcount == 10
+    try:
+        con.executemany("select * from t where id = ?", [(1,)])
+    except sqlite3.ProgrammingError:
+        pass
+    else:
+        assert False, "executemany must reject queries"
+
+
+@skipIf(NO_NATIVE, "no native _sqlite3")
+def test_fetch():
+    con = sqlite3.connect(":memory:")
+    cur = con.execute("select 1, 2.5, 'abc', x'0102', null")
+    assert [d[0] for d in cur.description] == ["1", "2.5", "'abc'", "x'0102'", "null"]
+    assert cur.fetchone() == (1, 2.5, "abc", b"\x01\x02", None)
+    assert cur.fetchone() is None
+    con.execute("create table t(x)")
+    con.executemany("insert into t values (?)", [(i,) for i in range(10)])
+    cur = con.execute("select x from t order by x")
+    assert cur.fetchmany(3) == [(0,), (1,), (2,)]
+    assert [row[0] for row in cur] == list(range(3, 10))
+    con.row_factory = sqlite3.Row
+    row = con.execute("select 1 as a, 2 as B").fetchone()
+    assert row["A"] == 1 and row["b"] == 2 and row.keys() == ["a", "B"]
+
+
+@skipIf(NO_NATIVE, "no native _sqlite3")
+def test_statement_cache():
+    con = sqlite3.connect(":memory:", cached_statements=4)
+    con.execute("create table t(x)")
+    for i in range(20):
+        # more distinct statements than the cache holds, every one evicts the oldest
+        con.execute("insert into t values (%d)" % (i % 7))
+        assert con.execute("select count(*) from t where x = ?", (i % 7,)).fetchone()[0] >= 1
+    # the same statement used by two open cursors at the same time
+    c1 = con.execute("select x from t order by x")
+    c2 = con.execute("select x from t order by x")
+    assert c1.fetchone() == c2.fetchone() == (0,)
+    assert len(c1.fetchall()) == len(c2.fetchall()) == 19
+
+
+@skipIf(NO_NATIVE, "no native _sqlite3")
+def test_adapters_and_converters():
+    class Point:
+        def __init__(self, x, y):
+            self.x, self.y = x, y
+
+    sqlite3.register_adapter(Point, lambda p: "%d;%d" % (p.x, p.y))
+    sqlite3.register_converter("point", lambda b: Point(*map(int, b.split(b";"))))
+    con = sqlite3.connect(":memory:", detect_types=sqlite3.PARSE_DECLTYPES | sqlite3.PARSE_COLNAMES)
+    con.execute("create table t(p point)")
+    con.executemany("insert into t values (?)", [(Point(1, 2),), (Point(3, 4),)])
+    points = [row[0] for row in con.execute("select p from t")]
+    assert [(p.x, p.y) for p in points] == [(1, 2), (3, 4)]
+    row = con.execute('select p as "p [point]", p from t').fetchone()
+    assert isinstance(row[0], Point)
+    assert isinstance(row[1], Point)
+
+
+@skipIf(NO_NATIVE, "no native _sqlite3")
+def test_transactions_and_errors():
+    con = sqlite3.connect(":memory:")
+    con.execute("create table t(x unique)")
+    with con:
+        con.execute("insert into t values (1)")
+    try:
+        with con:
+            con.execute("insert into t values (2)")
+            con.execute("insert into t values (1)")
+    except sqlite3.IntegrityError:
+        pass
+    else:
+        assert False, "expected IntegrityError"
+    assert con.execute("select x from t").fetchall() == [(1,)]
+    try:
+        con.execute("select * from missing")
+    except sqlite3.OperationalError as e:
+        assert "missing" in str(e)
+    else:
+        assert False, "expected OperationalError"
+    con.close()
+    try:
+        con.execute("select 1")
+    except sqlite3.ProgrammingError:
+        pass
+    else:
+        assert False, "expected ProgrammingError"
+
+
+@skipIf(NO_NATIVE, "no native _sqlite3")
+def test_user_functions():
+    con = sqlite3.connect(":memory:")
+    con.create_function("twice", 1, lambda x: x * 2)
+
+    class Sum:
+        def __init__(self):
+            self.total = 0
+
+        def step(self, value):
+            self.total += value
+
+        def finalize(self):
+            return self.total
+
+    con.create_aggregate("mysum", 1, Sum)
+    con.execute("create table t(x)")
+    con.executemany("insert into t values (?)", [(i,) for i in range(5)])
+    assert con.execute("select twice(x) from t order by x").fetchall() == [(0,), (2,), (4,), (6,), (8,)]
+    assert con.execute("select mysum(x) from t").fetchone() == (10,)
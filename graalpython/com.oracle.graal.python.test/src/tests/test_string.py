@@ -1174,3 +1174,48 @@ def test_str_add_result_type():
     assert ('' + 'a').__class__ == str
     assert ('a' + '').__class__ == str
     assert ('a' + 'a').__class__ == str
+
+
+def test_repeated_concat():
+    pieces = ["abc", "\xe8", "€", "\U0001f602", "x" * 100]
+    s = ""
+    for i in range(10000):
+        s += pieces[i % len(pieces)]
+    expected = "".join(pieces[i % len(pieces)] for i in range(10000))
+    assert len(s) == len(expected)
+    assert s[1234] == expected[1234]
+    assert s[-1] == expected[-1]
+    assert hash(s) == hash(expected)
+    assert s == expected
+    assert {s: 1}[expected] == 1
+    assert s.find("\U0001f602x") == expected.find("\U0001f602x")
+
+
+def test_large_substrings():
+    row = "alpha,\xe8t\xe9,€ uro,\U0001f602," + "x" * 700 + "\n"
+    doc = row * 200 + "tail" * 300
+    parts = doc.split("\n")
+    assert len(parts) == 201
+    assert parts[0] == row[:-1]
+    assert parts[-1] == "tail" * 300
+    assert doc.rsplit("\n", 1)[0] == doc[:doc.rfind("\n")]
+    assert doc.rsplit("\n", 1)[1] == "tail" * 300
+    head, sep, rest = doc.partition("\U0001f602")
+    assert head + sep + rest == doc
+    head, sep, rest = doc.rpartition("\n")
+    assert head + sep + rest == doc
+    words = (" " + doc + " ").split()
+    assert "".join(words) == "".join(doc.split())
+    assert (" " + doc + " ").strip() == doc
+    # slices of slices, and slices compared and hashed against copies
+    half = doc[len(doc) // 4:-len(doc) // 4]
+    quarter = half[100:len(half) // 2]
+    copy = "".join(list(quarter))
+    assert quarter == copy
+    assert hash(quarter) == hash(copy)
+    assert {copy: 1}[quarter] == 1
+    assert quarter[0] == doc[len(doc) // 4 + 100]
+    assert quarter.find("\U0001f602") == copy.find("\U0001f602")
+    assert quarter.encode("utf-8") == copy.encode("utf-8")
+    del doc, half
+    assert quarter + "!" == copy + "!"
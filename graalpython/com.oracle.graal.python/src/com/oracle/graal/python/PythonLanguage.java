@@ -54,6 +54,7 @@ import com.oracle.graal.python.builtins.modules.MarshalModuleBuiltins;
 import com.oracle.graal.python.builtins.objects.PNone;
 import com.oracle.graal.python.builtins.objects.PNotImplemented;
 import com.oracle.graal.python.builtins.objects.PythonAbstractObject;
+import com.oracle.graal.python.builtins.objects.cext.capi.transitions.CApiSampler;
 import com.oracle.graal.python.builtins.objects.ellipsis.PEllipsis;
 import com.oracle.graal.python.builtins.objects.frame.PFrame;
 import com.oracle.graal.python.builtins.objects.function.BuiltinMethodDescriptor;
@@ -82,6 +83,7 @@ import com.oracle.graal.python.pegparser.sst.ArgumentsTy;
 import com.oracle.graal.python.pegparser.sst.ModTy;
 import com.oracle.graal.python.pegparser.sst.StmtTy;
 import com.oracle.graal.python.pegparser.tokenizer.SourceRange;
+import com.oracle.graal.python.runtime.CodeCache;
 import com.oracle.graal.python.runtime.GilNode;
 import com.oracle.graal.python.runtime.PythonContext;
 import com.oracle.graal.python.runtime.PythonContext.PythonThreadState;
@@ -505,6 +507,7 @@ public final class PythonLanguage extends TruffleLanguage<PythonContext> {
             }
             CompilationUnit cu = compiler.compile(mod, EnumSet.noneOf(Compiler.Flags.class), optimize);
             CodeUnit co = cu.assemble();
+            context.getInternTable().internCodeUnitTree(co);
             RootNode rootNode = PBytecodeRootNode.create(this, co, source, errorCb);
             if (topLevel) {
                 GilNode gil = GilNode.getUncached();
@@ -806,6 +809,8 @@ public final class PythonLanguage extends TruffleLanguage<PythonContext> {
     }
 
     private final ConcurrentHashMap<TruffleString, CallTarget> cachedCode = new ConcurrentHashMap<>();
+    private volatile CodeCache codeCache;
+    private final CApiSampler capiSampler = new CApiSampler();
 
     @TruffleBoundary
     public CallTarget cacheCode(TruffleString filename, Supplier<CallTarget> createCode) {
@@ -819,6 +824,41 @@ public final class PythonLanguage extends TruffleLanguage<PythonContext> {
         }
     }
 
+    /**
+     * Like {@link #cacheCode(TruffleString, Supplier)}, but for user module code: the call target is
+     * looked up in the engine-wide {@link CodeCache} by the file name, content, and flags, so that
+     * contexts that import the same module share the root nodes and their warm-up. The code is not
+     * cached if the language is used by a single context only.
+     */
+    @TruffleBoundary
+    public CallTarget cacheCode(TruffleString filename, Object content, int flags, Supplier<CallTarget> createCode) {
+        if (singleContext) {
+            return createCode.get();
+        }
+        return getCodeCache().get(filename, content, flags, createCode);
+    }
+
+    public CodeCache getCodeCache() {
+        CodeCache cache = codeCache;
+        if (cache == null) {
+            synchronized (this) {
+                cache = codeCache;
+                if (cache == null) {
+                    codeCache = cache = new CodeCache(getEngineOption(PythonOptions.CodeCacheSize));
+                }
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * The C API sampler of this engine. It is started by the contexts that load the C API or HPy
+     * if {@link PythonOptions#CApiSamplingInterval} is set and stopped when they are finalized.
+     */
+    public CApiSampler getCApiSampler() {
+        return capiSampler;
+    }
+
     @Override
     protected boolean isThreadAccessAllowed(Thread thread, boolean singleThreaded) {
         if (singleThreaded) {
@@ -103,6 +103,9 @@ public enum PythonBuiltinClassType implements TruffleObject {
     PSimpleNamespace("SimpleNamespace", null, "types", Flags.PUBLIC_BASE_WDICT),
     PKeyWrapper("KeyWrapper", "_functools", "functools", Flags.PUBLIC_DERIVED_WODICT),
     PPartial(J_PARTIAL, "_functools", "functools", Flags.PUBLIC_BASE_WDICT),
+    PItemGetter("itemgetter", "_operator", "operator", Flags.PUBLIC_DERIVED_WODICT),
+    PAttrGetter("attrgetter", "_operator", "operator", Flags.PUBLIC_DERIVED_WODICT),
+    PMethodCaller("methodcaller", "_operator", "operator", Flags.PUBLIC_DERIVED_WODICT),
     PDefaultDict(J_DEFAULTDICT, "_collections", "collections", Flags.PUBLIC_BASE_WODICT),
     PDeque(J_DEQUE, "_collections", Flags.PUBLIC_BASE_WODICT),
     PTupleGetter(J_TUPLE_GETTER, "_collections", Flags.PUBLIC_BASE_WODICT),
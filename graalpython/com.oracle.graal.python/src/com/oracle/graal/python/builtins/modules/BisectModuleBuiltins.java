@@ -0,0 +1,393 @@
+/*
+ * Copyright (c) 2023, 2023, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules;
+
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.IndexError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.ValueError;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.T_INSERT;
+
+import java.util.List;
+
+import com.oracle.graal.python.annotations.ArgumentClinic;
+import com.oracle.graal.python.annotations.ArgumentClinic.ClinicConversion;
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.modules.BisectModuleBuiltinsClinicProviders.BisectLeftNodeClinicProviderGen;
+import com.oracle.graal.python.builtins.modules.BisectModuleBuiltinsClinicProviders.BisectRightNodeClinicProviderGen;
+import com.oracle.graal.python.builtins.modules.BisectModuleBuiltinsClinicProviders.InsortLeftNodeClinicProviderGen;
+import com.oracle.graal.python.builtins.modules.BisectModuleBuiltinsClinicProviders.InsortRightNodeClinicProviderGen;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes;
+import com.oracle.graal.python.builtins.objects.list.PList;
+import com.oracle.graal.python.lib.PyListCheckExactNode;
+import com.oracle.graal.python.lib.PyObjectCallMethodObjArgs;
+import com.oracle.graal.python.lib.PyObjectGetItem;
+import com.oracle.graal.python.lib.PyObjectRichCompareBool;
+import com.oracle.graal.python.lib.PyObjectSizeNode;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PGuards;
+import com.oracle.graal.python.nodes.PNodeWithRaise;
+import com.oracle.graal.python.nodes.call.CallNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
+import com.oracle.graal.python.runtime.sequence.storage.DoubleSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.IntSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.LongSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
+import com.oracle.truffle.api.dsl.Bind;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Cached.Shared;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NeverDefault;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.Node;
+
+/**
+ * Implementation of the {@code _bisect} accelerator module. Searches in exact lists with
+ * {@link IntSequenceStorage}, {@link LongSequenceStorage} or {@link DoubleSequenceStorage} are
+ * done directly on the primitive arrays when no key function is given. All other cases use the
+ * sequence protocol and rich comparison like CPython's {@code Modules/_bisectmodule.c}.
+ */
+@CoreFunctions(defineModule = "_bisect")
+public final class BisectModuleBuiltins extends PythonBuiltins {
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return BisectModuleBuiltinsFactory.getFactories();
+    }
+
+    /**
+     * Finds the insertion point for {@code x} in {@code a[lo:hi]}. A {@code hi} of {@code -1}
+     * means {@code len(a)}. If {@code key} is given, it is applied to the elements of {@code a}
+     * but not to {@code x}.
+     */
+    abstract static class InternalBisectNode extends PNodeWithRaise {
+        abstract int execute(VirtualFrame frame, Object a, Object x, int lo, int hi, Object key, boolean right);
+
+        @Specialization(guards = {"isPNone(key)", "isIntStorage(a)", "isExactList.execute(a)"})
+        int doIntInt(PList a, int x, int lo, int hi, @SuppressWarnings("unused") Object key, boolean right,
+                        @Shared("exact") @Cached @SuppressWarnings("unused") PyListCheckExactNode isExactList) {
+            IntSequenceStorage storage = (IntSequenceStorage) a.getSequenceStorage();
+            int[] array = storage.getInternalIntArray();
+            int length = storage.length();
+            int low = lo;
+            int high = hi == -1 ? length : hi;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                checkIndex(mid, length);
+                if (right) {
+                    if (x < array[mid]) {
+                        high = mid;
+                    } else {
+                        low = mid + 1;
+                    }
+                } else {
+                    if (array[mid] < x) {
+                        low = mid + 1;
+                    } else {
+                        high = mid;
+                    }
+                }
+            }
+            return low;
+        }
+
+        @Specialization(guards = {"isPNone(key)", "isIntStorage(a)", "isExactList.execute(a)"})
+        int doIntLong(PList a, long x, int lo, int hi, @SuppressWarnings("unused") Object key, boolean right,
+                        @Shared("exact") @Cached @SuppressWarnings("unused") PyListCheckExactNode isExactList) {
+            IntSequenceStorage storage = (IntSequenceStorage) a.getSequenceStorage();
+            int[] array = storage.getInternalIntArray();
+            int length = storage.length();
+            int low = lo;
+            int high = hi == -1 ? length : hi;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                checkIndex(mid, length);
+                if (right) {
+                    if (x < array[mid]) {
+                        high = mid;
+                    } else {
+                        low = mid + 1;
+                    }
+                } else {
+                    if (array[mid] < x) {
+                        low = mid + 1;
+                    } else {
+                        high = mid;
+                    }
+                }
+            }
+            return low;
+        }
+
+        @Specialization(guards = {"isPNone(key)", "isLongStorage(a)", "isExactList.execute(a)"})
+        int doLongInt(PList a, int x, int lo, int hi, Object key, boolean right,
+                        @Shared("exact") @Cached PyListCheckExactNode isExactList) {
+            return doLongLong(a, x, lo, hi, key, right, isExactList);
+        }
+
+        @Specialization(guards = {"isPNone(key)", "isLongStorage(a)", "isExactList.execute(a)"})
+        int doLongLong(PList a, long x, int lo, int hi, @SuppressWarnings("unused") Object key, boolean right,
+                        @Shared("exact") @Cached @SuppressWarnings("unused") PyListCheckExactNode isExactList) {
+            LongSequenceStorage storage = (LongSequenceStorage) a.getSequenceStorage();
+            long[] array = storage.getInternalLongArray();
+            int length = storage.length();
+            int low = lo;
+            int high = hi == -1 ? length : hi;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                checkIndex(mid, length);
+                if (right) {
+                    if (x < array[mid]) {
+                        high = mid;
+                    } else {
+                        low = mid + 1;
+                    }
+                } else {
+                    if (array[mid] < x) {
+                        low = mid + 1;
+                    } else {
+                        high = mid;
+                    }
+                }
+            }
+            return low;
+        }
+
+        @Specialization(guards = {"isPNone(key)", "isDoubleStorage(a)", "isExactList.execute(a)"})
+        int doDouble(PList a, double x, int lo, int hi, @SuppressWarnings("unused") Object key, boolean right,
+                        @Shared("exact") @Cached @SuppressWarnings("unused") PyListCheckExactNode isExactList) {
+            DoubleSequenceStorage storage = (DoubleSequenceStorage) a.getSequenceStorage();
+            double[] array = storage.getInternalDoubleArray();
+            int length = storage.length();
+            int low = lo;
+            int high = hi == -1 ? length : hi;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                checkIndex(mid, length);
+                if (right) {
+                    if (x < array[mid]) {
+                        high = mid;
+                    } else {
+                        low = mid + 1;
+                    }
+                } else {
+                    if (array[mid] < x) {
+                        low = mid + 1;
+                    } else {
+                        high = mid;
+                    }
+                }
+            }
+            return low;
+        }
+
+        @Specialization(replaces = {"doIntInt", "doIntLong", "doLongInt", "doLongLong", "doDouble"})
+        static int doGeneric(VirtualFrame frame, Object a, Object x, int lo, int hi, Object key, boolean right,
+                        @Cached PyObjectSizeNode sizeNode,
+                        @Cached PyObjectGetItem getItemNode,
+                        @Cached CallNode callKeyNode,
+                        @Cached PyObjectRichCompareBool.LtNode ltNode) {
+            int low = lo;
+            int high = hi == -1 ? sizeNode.execute(frame, a) : hi;
+            boolean hasKey = !PGuards.isPNone(key);
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                Object item = getItemNode.execute(frame, a, mid);
+                if (hasKey) {
+                    item = callKeyNode.execute(frame, key, item);
+                }
+                if (right) {
+                    if (ltNode.execute(frame, x, item)) {
+                        high = mid;
+                    } else {
+                        low = mid + 1;
+                    }
+                } else {
+                    if (ltNode.execute(frame, item, x)) {
+                        low = mid + 1;
+                    } else {
+                        high = mid;
+                    }
+                }
+            }
+            return low;
+        }
+
+        private void checkIndex(int mid, int length) {
+            if (mid >= length) {
+                throw raise(IndexError, ErrorMessages.LIST_INDEX_OUT_OF_RANGE);
+            }
+        }
+
+        @NeverDefault
+        static InternalBisectNode create() {
+            return BisectModuleBuiltinsFactory.InternalBisectNodeGen.create();
+        }
+    }
+
+    /**
+     * Inserts {@code x} at {@code index}. Exact lists are modified directly, for anything else
+     * {@code a.insert(index, x)} is called.
+     */
+    abstract static class InsertNode extends Node {
+        abstract void execute(VirtualFrame frame, Object a, int index, Object x);
+
+        @Specialization(guards = "isExactList.execute(a)", limit = "1")
+        static void doList(PList a, int index, Object x,
+                        @Bind("this") Node inliningTarget,
+                        @SuppressWarnings("unused") @Cached PyListCheckExactNode isExactList,
+                        @Cached SequenceStorageNodes.InsertItemNode insertItemNode) {
+            SequenceStorage storage = a.getSequenceStorage();
+            a.setSequenceStorage(insertItemNode.execute(inliningTarget, storage, Math.min(index, storage.length()), x));
+        }
+
+        @Specialization(replaces = "doList")
+        static void doGeneric(VirtualFrame frame, Object a, int index, Object x,
+                        @Cached PyObjectCallMethodObjArgs callInsertNode) {
+            callInsertNode.execute(frame, a, T_INSERT, index, x);
+        }
+
+        @NeverDefault
+        static InsertNode create() {
+            return BisectModuleBuiltinsFactory.InsertNodeGen.create();
+        }
+    }
+
+    abstract static class BisectBaseNode extends PythonClinicBuiltinNode {
+        abstract boolean isRight();
+
+        @Specialization
+        Object bisect(VirtualFrame frame, Object a, Object x, int lo, int hi, Object key,
+                        @Cached InternalBisectNode bisectNode) {
+            if (lo < 0) {
+                throw raise(ValueError, ErrorMessages.LO_MUST_BE_NON_NEGATIVE);
+            }
+            return bisectNode.execute(frame, a, x, lo, hi, key, isRight());
+        }
+    }
+
+    @Builtin(name = "bisect_right", minNumOfPositionalArgs = 2, parameterNames = {"a", "x", "lo", "hi"}, keywordOnlyNames = {"key"})
+    @ArgumentClinic(name = "lo", conversion = ClinicConversion.Index, defaultValue = "0")
+    @ArgumentClinic(name = "hi", conversion = ClinicConversion.Index, defaultValue = "-1", useDefaultForNone = true)
+    @GenerateNodeFactory
+    abstract static class BisectRightNode extends BisectBaseNode {
+        @Override
+        boolean isRight() {
+            return true;
+        }
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return BisectRightNodeClinicProviderGen.INSTANCE;
+        }
+    }
+
+    @Builtin(name = "bisect_left", minNumOfPositionalArgs = 2, parameterNames = {"a", "x", "lo", "hi"}, keywordOnlyNames = {"key"})
+    @ArgumentClinic(name = "lo", conversion = ClinicConversion.Index, defaultValue = "0")
+    @ArgumentClinic(name = "hi", conversion = ClinicConversion.Index, defaultValue = "-1", useDefaultForNone = true)
+    @GenerateNodeFactory
+    abstract static class BisectLeftNode extends BisectBaseNode {
+        @Override
+        boolean isRight() {
+            return false;
+        }
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return BisectLeftNodeClinicProviderGen.INSTANCE;
+        }
+    }
+
+    abstract static class InsortBaseNode extends PythonClinicBuiltinNode {
+        abstract boolean isRight();
+
+        @Specialization
+        Object insort(VirtualFrame frame, Object a, Object x, int lo, int hi, Object key,
+                        @Cached CallNode callKeyNode,
+                        @Cached InternalBisectNode bisectNode,
+                        @Cached InsertNode insertNode) {
+            if (lo < 0) {
+                throw raise(ValueError, ErrorMessages.LO_MUST_BE_NON_NEGATIVE);
+            }
+            Object keyX = PGuards.isPNone(key) ? x : callKeyNode.execute(frame, key, x);
+            int index = bisectNode.execute(frame, a, keyX, lo, hi, key, isRight());
+            insertNode.execute(frame, a, index, x);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "insort_right", minNumOfPositionalArgs = 2, parameterNames = {"a", "x", "lo", "hi"}, keywordOnlyNames = {"key"})
+    @ArgumentClinic(name = "lo", conversion = ClinicConversion.Index, defaultValue = "0")
+    @ArgumentClinic(name = "hi", conversion = ClinicConversion.Index, defaultValue = "-1", useDefaultForNone = true)
+    @GenerateNodeFactory
+    abstract static class InsortRightNode extends InsortBaseNode {
+        @Override
+        boolean isRight() {
+            return true;
+        }
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return InsortRightNodeClinicProviderGen.INSTANCE;
+        }
+    }
+
+    @Builtin(name = "insort_left", minNumOfPositionalArgs = 2, parameterNames = {"a", "x", "lo", "hi"}, keywordOnlyNames = {"key"})
+    @ArgumentClinic(name = "lo", conversion = ClinicConversion.Index, defaultValue = "0")
+    @ArgumentClinic(name = "hi", conversion = ClinicConversion.Index, defaultValue = "-1", useDefaultForNone = true)
+    @GenerateNodeFactory
+    abstract static class InsortLeftNode extends InsortBaseNode {
+        @Override
+        boolean isRight() {
+            return false;
+        }
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return InsortLeftNodeClinicProviderGen.INSTANCE;
+        }
+    }
+}
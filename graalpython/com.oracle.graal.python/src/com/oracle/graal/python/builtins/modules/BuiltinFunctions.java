@@ -1129,10 +1129,13 @@ public final class BuiltinFunctions extends PythonBuiltins {
                     return context.getLanguage().parse(context, source, InputType.SINGLE, false, optimize, false, null);
                 }
             };
-            if (getCore().isCoreInitialized()) {
-                ct = createCode.get();
-            } else {
+            if (!getCore().isCoreInitialized()) {
                 ct = getCore().getLanguage().cacheCode(filename, createCode);
+            } else if (type == InputType.FILE) {
+                // optimize is in [-1, 2], it selects the mime type and so must be part of the key
+                ct = getCore().getLanguage().cacheCode(filename, finalCode, (flags << 2) | (optimize + 1), createCode);
+            } else {
+                ct = createCode.get();
             }
             return wrapRootCallTarget((RootCallTarget) ct);
         }
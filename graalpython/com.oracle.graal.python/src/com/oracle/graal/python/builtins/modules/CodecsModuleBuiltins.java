@@ -91,6 +91,7 @@ import java.nio.charset.CharsetDecoder;
 import java.nio.charset.CharsetEncoder;
 import java.nio.charset.CoderResult;
 import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 import com.oracle.graal.python.annotations.ArgumentClinic;
@@ -140,7 +141,6 @@ import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonUnaryClinicBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
 import com.oracle.graal.python.nodes.statement.AbstractImportNode;
-import com.oracle.graal.python.nodes.util.CastToJavaStringNode;
 import com.oracle.graal.python.nodes.util.CastToTruffleStringNode;
 import com.oracle.graal.python.runtime.PythonContext;
 import com.oracle.graal.python.runtime.exception.PException;
@@ -163,6 +163,8 @@ import com.oracle.truffle.api.library.CachedLibrary;
 import com.oracle.truffle.api.nodes.Node;
 import com.oracle.truffle.api.profiles.ConditionProfile;
 import com.oracle.truffle.api.strings.TruffleString;
+import com.oracle.truffle.api.strings.TruffleString.CodeRange;
+import com.oracle.truffle.api.strings.TruffleString.Encoding;
 import com.oracle.truffle.api.strings.TruffleStringIterator;
 
 @CoreFunctions(defineModule = J__CODECS)
@@ -191,6 +193,35 @@ public class CodecsModuleBuiltins extends PythonBuiltins {
         return CodingErrorAction.REPORT;
     }
 
+    /**
+     * Returns the {@link TruffleString} encoding that can decode or encode valid data of the given
+     * charset directly, or {@code null} if the charset has to go through {@link TruffleDecoder} or
+     * {@link TruffleEncoder}.
+     */
+    public static Encoding getFastPathEncoding(Charset charset) {
+        if (charset == StandardCharsets.UTF_8) {
+            return Encoding.UTF_8;
+        } else if (charset == StandardCharsets.ISO_8859_1) {
+            return Encoding.ISO_8859_1;
+        } else if (charset == StandardCharsets.US_ASCII) {
+            return Encoding.US_ASCII;
+        }
+        return null;
+    }
+
+    /**
+     * Whether a string of the given code range (in {@code TS_ENCODING}) can be encoded to the fast
+     * path encoding without errors. Lone surrogates make the code range {@link CodeRange#BROKEN}.
+     */
+    static boolean canEncodeDirectly(CodeRange codeRange, Encoding fastEncoding) {
+        if (fastEncoding == Encoding.US_ASCII) {
+            return codeRange == CodeRange.ASCII;
+        } else if (fastEncoding == Encoding.ISO_8859_1) {
+            return codeRange.isSubsetOf(CodeRange.LATIN_1);
+        }
+        return codeRange != CodeRange.BROKEN;
+    }
+
     @Override
     protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
         return CodecsModuleBuiltinsFactory.getFactories();
@@ -636,21 +667,33 @@ public class CodecsModuleBuiltins extends PythonBuiltins {
 
         @Specialization
         byte[] encode(Object self, TruffleString encoding, TruffleString errors,
-                        @Cached CastToJavaStringNode castStr,
+                        @Cached CastToTruffleStringNode castStr,
+                        @Cached TruffleString.ToJavaStringNode toJavaStringNode,
+                        @Cached TruffleString.GetCodeRangeNode getCodeRangeNode,
+                        @Cached TruffleString.SwitchEncodingNode switchEncodingNode,
+                        @Cached TruffleString.CopyToByteArrayNode copyToByteArrayNode,
                         @Cached TruffleString.EqualNode equalNode,
                         @Cached HandleEncodingErrorNode errorHandler,
                         @Cached PRaiseNode raiseNode,
                         @Cached NormalizeEncodingNameNode normalizeEncodingNameNode) {
-            String input = castStr.execute(self);
-            CodingErrorAction errorAction = convertCodingErrorAction(errors, equalNode);
+            TruffleString input = castStr.execute(self);
             TruffleString normalizedEncoding = normalizeEncodingNameNode.execute(encoding);
             Charset charset = CharsetMapping.getCharsetNormalized(normalizedEncoding);
             if (charset == null) {
                 throw raiseNode.raise(LookupError, ErrorMessages.UNKNOWN_ENCODING, encoding);
             }
+            Encoding fastEncoding = getFastPathEncoding(charset);
+            if (fastEncoding != null && canEncodeDirectly(getCodeRangeNode.execute(input, TS_ENCODING), fastEncoding)) {
+                // no error handler can be invoked, so the string can be transcoded directly
+                TruffleString encoded = switchEncodingNode.execute(input, fastEncoding);
+                byte[] result = new byte[encoded.byteLength(fastEncoding)];
+                copyToByteArrayNode.execute(encoded, 0, result, 0, result.length, fastEncoding);
+                return result;
+            }
+            CodingErrorAction errorAction = convertCodingErrorAction(errors, equalNode);
             TruffleEncoder encoder;
             try {
-                encoder = new TruffleEncoder(normalizedEncoding, charset, input, errorAction);
+                encoder = new TruffleEncoder(normalizedEncoding, charset, toJavaStringNode.execute(input), errorAction);
                 while (!encoder.encodingStep()) {
                     errorHandler.execute(encoder, errors, self);
                 }
@@ -731,18 +774,29 @@ public class CodecsModuleBuiltins extends PythonBuiltins {
                         @Cached NormalizeEncodingNameNode normalizeEncodingNameNode,
                         @Cached InternErrorAction internErrorAction,
                         @Cached HandleDecodingErrorNode errorHandler,
+                        @Cached TruffleString.FromByteArrayNode fromByteArrayNode,
+                        @Cached TruffleString.GetCodeRangeNode getCodeRangeNode,
+                        @Cached TruffleString.SwitchEncodingNode switchEncodingNode,
                         @Cached PRaiseNode raiseNode,
                         @Cached PythonObjectFactory factory) {
             Object buffer = acquireLib.acquireReadonly(input, frame, node);
             try {
                 int len = bufferLib.getBufferLength(buffer);
                 byte[] bytes = bufferLib.getInternalOrCopiedByteArray(buffer);
-                CodingErrorAction errorAction = convertCodingErrorAction(errors, equalNode);
                 TruffleString normalizedEncoding = normalizeEncodingNameNode.execute(encoding);
                 Charset charset = CharsetMapping.getCharsetForDecodingNormalized(normalizedEncoding, bytes, len);
                 if (charset == null) {
                     throw raiseNode.raise(LookupError, ErrorMessages.UNKNOWN_ENCODING, encoding);
                 }
+                Encoding fastEncoding = getFastPathEncoding(charset);
+                if (fastEncoding != null) {
+                    // the buffer may be mutable (e.g. a bytearray), so the string gets its own copy
+                    TruffleString decoded = fromByteArrayNode.execute(bytes, 0, len, fastEncoding, true);
+                    if (getCodeRangeNode.execute(decoded, fastEncoding) != CodeRange.BROKEN) {
+                        return factory.createTuple(new Object[]{switchEncodingNode.execute(decoded, TS_ENCODING), len});
+                    }
+                }
+                CodingErrorAction errorAction = convertCodingErrorAction(errors, equalNode);
                 TruffleDecoder decoder;
                 try {
                     decoder = new TruffleDecoder(normalizedEncoding, charset, bytes, len, errorAction);
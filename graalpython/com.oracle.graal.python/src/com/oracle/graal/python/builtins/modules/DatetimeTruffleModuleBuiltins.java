@@ -0,0 +1,803 @@
+/*
+ * Copyright (c) 2023, 2023, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules;
+
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.OverflowError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.ValueError;
+import static com.oracle.graal.python.util.PythonUtils.toTruffleStringUncached;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.List;
+import java.util.TimeZone;
+
+import com.oracle.graal.python.annotations.ArgumentClinic;
+import com.oracle.graal.python.annotations.ArgumentClinic.ClinicConversion;
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.modules.DatetimeTruffleModuleBuiltinsClinicProviders.CheckDateFieldsNodeClinicProviderGen;
+import com.oracle.graal.python.builtins.modules.DatetimeTruffleModuleBuiltinsClinicProviders.CheckTimeFieldsNodeClinicProviderGen;
+import com.oracle.graal.python.builtins.modules.DatetimeTruffleModuleBuiltinsClinicProviders.FormatDateNodeClinicProviderGen;
+import com.oracle.graal.python.builtins.modules.DatetimeTruffleModuleBuiltinsClinicProviders.FormatOffsetNodeClinicProviderGen;
+import com.oracle.graal.python.builtins.modules.DatetimeTruffleModuleBuiltinsClinicProviders.FormatTimeNodeClinicProviderGen;
+import com.oracle.graal.python.builtins.modules.DatetimeTruffleModuleBuiltinsClinicProviders.LocalTimezoneInfoNodeClinicProviderGen;
+import com.oracle.graal.python.builtins.modules.DatetimeTruffleModuleBuiltinsClinicProviders.LocalToTimestampNodeClinicProviderGen;
+import com.oracle.graal.python.builtins.modules.DatetimeTruffleModuleBuiltinsClinicProviders.NowFieldsNodeClinicProviderGen;
+import com.oracle.graal.python.builtins.modules.DatetimeTruffleModuleBuiltinsClinicProviders.Ord2YmdNodeClinicProviderGen;
+import com.oracle.graal.python.builtins.modules.DatetimeTruffleModuleBuiltinsClinicProviders.ParseIsoformatDateNodeClinicProviderGen;
+import com.oracle.graal.python.builtins.modules.DatetimeTruffleModuleBuiltinsClinicProviders.ParseIsoformatTimeNodeClinicProviderGen;
+import com.oracle.graal.python.builtins.modules.DatetimeTruffleModuleBuiltinsClinicProviders.TimestampToFieldsNodeClinicProviderGen;
+import com.oracle.graal.python.builtins.modules.DatetimeTruffleModuleBuiltinsClinicProviders.Ymd2OrdNodeClinicProviderGen;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.tuple.PTuple;
+import com.oracle.graal.python.lib.PyFloatAsDoubleNode;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
+import com.oracle.graal.python.nodes.util.CastToJavaStringNode;
+import com.oracle.graal.python.runtime.PythonContext;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Fallback;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.dsl.TypeSystemReference;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.strings.TruffleString;
+
+/**
+ * Helpers for the pure-Python {@code datetime} module. The classes themselves stay in Python,
+ * because the C API emulation ({@code PyDateTimeCAPIWrapper}) relies on them being regular
+ * heap types, but the field validation, ordinal arithmetic, ISO 8601 formatting and parsing as
+ * well as the conversions between timestamps and local time are done here. Local time uses the
+ * same {@link ZoneId} as the {@code time} module, so fold detection and {@code mktime}-style
+ * conversions are answered directly by {@link ZoneRules} instead of probing
+ * {@code time.localtime()} repeatedly.
+ */
+@CoreFunctions(defineModule = "_datetime_truffle")
+public final class DatetimeTruffleModuleBuiltins extends PythonBuiltins {
+
+    static final int MINYEAR = 1;
+    static final int MAXYEAR = 9999;
+    static final int MAX_DELTA_DAYS = 999999999;
+
+    private static final int US_PER_SECOND = 1000000;
+    private static final int SECONDS_PER_DAY = 24 * 3600;
+
+    // number of days in 400, 100 and 4 years
+    private static final int DI400Y = 146097;
+    private static final int DI100Y = 36524;
+    private static final int DI4Y = 1461;
+
+    // -1 is a placeholder for indexing purposes
+    private static final int[] DAYS_IN_MONTH = {-1, 31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31};
+    private static final int[] DAYS_BEFORE_MONTH = {-1, 0, 31, 59, 90, 120, 151, 181, 212, 243, 273, 304, 334};
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return DatetimeTruffleModuleBuiltinsFactory.getFactories();
+    }
+
+    static boolean isLeap(int year) {
+        return year % 4 == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    static int daysInMonth(int year, int month) {
+        if (month == 2 && isLeap(year)) {
+            return 29;
+        }
+        return DAYS_IN_MONTH[month];
+    }
+
+    static long daysBeforeYear(int year) {
+        long y = year - 1L;
+        return y * 365 + Math.floorDiv(y, 4) - Math.floorDiv(y, 100) + Math.floorDiv(y, 400);
+    }
+
+    static int daysBeforeMonth(int year, int month) {
+        return DAYS_BEFORE_MONTH[month] + (month > 2 && isLeap(year) ? 1 : 0);
+    }
+
+    /**
+     * Returns the proleptic Gregorian ordinal of the given date, considering 01-Jan-0001 as day 1.
+     */
+    static long ymdToOrd(int year, int month, int day) {
+        return daysBeforeYear(year) + daysBeforeMonth(year, month) + day;
+    }
+
+    /**
+     * Inverse of {@link #ymdToOrd}. Works for any ordinal; the caller is responsible for checking
+     * that the resulting year is in range.
+     */
+    static int[] ordToYmd(int ordinal) {
+        int n = ordinal - 1;
+        int n400 = Math.floorDiv(n, DI400Y);
+        n = Math.floorMod(n, DI400Y);
+        int year = n400 * 400 + 1;
+
+        int n100 = n / DI100Y;
+        n = n % DI100Y;
+        int n4 = n / DI4Y;
+        n = n % DI4Y;
+        int n1 = n / 365;
+        n = n % 365;
+
+        year += n100 * 100 + n4 * 4 + n1;
+        if (n1 == 4 || n100 == 4) {
+            // the last day of a leap year or of a 400-year cycle
+            return new int[]{year - 1, 12, 31};
+        }
+
+        boolean leapYear = n1 == 3 && (n4 != 24 || n100 == 3);
+        int month = (n + 50) >> 5;
+        int preceding = DAYS_BEFORE_MONTH[month] + (month > 2 && leapYear ? 1 : 0);
+        if (preceding > n) {
+            month -= 1;
+            preceding -= DAYS_IN_MONTH[month] + (month == 2 && leapYear ? 1 : 0);
+        }
+        return new int[]{year, month, n - preceding + 1};
+    }
+
+    private static void appendPadded(StringBuilder sb, int value, int width) {
+        String digits = Integer.toString(value);
+        for (int i = digits.length(); i < width; i++) {
+            sb.append('0');
+        }
+        sb.append(digits);
+    }
+
+    @TruffleBoundary
+    static TruffleString formatDate(int year, int month, int day) {
+        StringBuilder sb = new StringBuilder(10);
+        appendPadded(sb, year, 4);
+        sb.append('-');
+        appendPadded(sb, month, 2);
+        sb.append('-');
+        appendPadded(sb, day, 2);
+        return toTruffleStringUncached(sb.toString());
+    }
+
+    /**
+     * Formats {@code HH[:MM[:SS[.fff[fff]]]]} according to {@code timespec}, or returns
+     * {@code null} if the timespec is unknown.
+     */
+    @TruffleBoundary
+    static TruffleString formatTime(int hour, int minute, int second, int microsecond, String timespec) {
+        String spec = timespec;
+        if ("auto".equals(spec)) {
+            spec = microsecond != 0 ? "microseconds" : "seconds";
+        }
+        StringBuilder sb = new StringBuilder(15);
+        switch (spec) {
+            case "hours":
+                appendPadded(sb, hour, 2);
+                break;
+            case "minutes":
+                appendPadded(sb, hour, 2);
+                sb.append(':');
+                appendPadded(sb, minute, 2);
+                break;
+            case "seconds":
+            case "milliseconds":
+            case "microseconds":
+                appendPadded(sb, hour, 2);
+                sb.append(':');
+                appendPadded(sb, minute, 2);
+                sb.append(':');
+                appendPadded(sb, second, 2);
+                if ("milliseconds".equals(spec)) {
+                    sb.append('.');
+                    appendPadded(sb, microsecond / 1000, 3);
+                } else if ("microseconds".equals(spec)) {
+                    sb.append('.');
+                    appendPadded(sb, microsecond, 6);
+                }
+                break;
+            default:
+                return null;
+        }
+        return toTruffleStringUncached(sb.toString());
+    }
+
+    /**
+     * Formats a UTC offset given as normalized timedelta fields like {@code +HH:MM[:SS[.ffffff]]}.
+     */
+    @TruffleBoundary
+    static TruffleString formatOffset(int days, int seconds, int microseconds) {
+        long total = ((long) days * SECONDS_PER_DAY + seconds) * US_PER_SECOND + microseconds;
+        StringBuilder sb = new StringBuilder(16);
+        if (total < 0) {
+            sb.append('-');
+            total = -total;
+        } else {
+            sb.append('+');
+        }
+        long us = total % US_PER_SECOND;
+        long secs = total / US_PER_SECOND;
+        appendPadded(sb, (int) (secs / 3600), 2);
+        sb.append(':');
+        appendPadded(sb, (int) (secs / 60 % 60), 2);
+        if (secs % 60 != 0 || us != 0) {
+            sb.append(':');
+            appendPadded(sb, (int) (secs % 60), 2);
+            if (us != 0) {
+                sb.append('.');
+                appendPadded(sb, (int) us, 6);
+            }
+        }
+        return toTruffleStringUncached(sb.toString());
+    }
+
+    private static int parseDigits(String s, int start, int count) {
+        int result = 0;
+        for (int i = start; i < start + count; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            result = result * 10 + (c - '0');
+        }
+        return result;
+    }
+
+    /**
+     * Parses {@code YYYY-MM-DD}. Returns {@code null} if the string is malformed.
+     */
+    @TruffleBoundary
+    static int[] parseIsoformatDate(String s) {
+        if (s.length() != 10 || s.charAt(4) != '-' || s.charAt(7) != '-') {
+            return null;
+        }
+        int year = parseDigits(s, 0, 4);
+        int month = parseDigits(s, 5, 2);
+        int day = parseDigits(s, 8, 2);
+        if (year < 0 || month < 0 || day < 0) {
+            return null;
+        }
+        return new int[]{year, month, day};
+    }
+
+    /**
+     * Parses {@code HH[:MM[:SS[.fff[fff]]]]} from {@code s[start:end]}. Returns {@code null} if
+     * the string is malformed.
+     */
+    private static int[] parseHhMmSsFf(String s, int start, int end) {
+        int[] components = new int[4];
+        int pos = start;
+        for (int comp = 0; comp < 3; comp++) {
+            if (end - pos < 2) {
+                return null;
+            }
+            components[comp] = parseDigits(s, pos, 2);
+            if (components[comp] < 0) {
+                return null;
+            }
+            pos += 2;
+            if (pos >= end || comp >= 2) {
+                break;
+            }
+            if (s.charAt(pos) != ':') {
+                return null;
+            }
+            pos++;
+        }
+        if (pos < end) {
+            if (s.charAt(pos) != '.') {
+                return null;
+            }
+            pos++;
+            int remainder = end - pos;
+            if (remainder != 3 && remainder != 6) {
+                return null;
+            }
+            components[3] = parseDigits(s, pos, remainder);
+            if (components[3] < 0) {
+                return null;
+            }
+            if (remainder == 3) {
+                components[3] *= 1000;
+            }
+        }
+        return components;
+    }
+
+    /**
+     * Parses {@code HH[:MM[:SS[.fff[fff]]]][+HH:MM[:SS[.ffffff]]]}. The result contains hour,
+     * minute, second and microsecond followed by the UTC offset in microseconds, or {@code null}
+     * if the string is malformed. The offset is {@link Long#MIN_VALUE} if there is none.
+     */
+    @TruffleBoundary
+    static long[] parseIsoformatTime(String s) {
+        int length = s.length();
+        if (length < 2) {
+            return null;
+        }
+        int tzPos = s.indexOf('-');
+        if (tzPos < 0) {
+            tzPos = s.indexOf('+');
+        }
+        int[] time = parseHhMmSsFf(s, 0, tzPos < 0 ? length : tzPos);
+        if (time == null) {
+            return null;
+        }
+        long offset = Long.MIN_VALUE;
+        if (tzPos >= 0) {
+            int tzLength = length - tzPos - 1;
+            if (tzLength != 5 && tzLength != 8 && tzLength != 15) {
+                return null;
+            }
+            int[] tz = parseHhMmSsFf(s, tzPos + 1, length);
+            if (tz == null) {
+                return null;
+            }
+            offset = ((tz[0] * 3600L + tz[1] * 60L + tz[2]) * US_PER_SECOND + tz[3]) * (s.charAt(tzPos) == '-' ? -1 : 1);
+        }
+        return new long[]{time[0], time[1], time[2], time[3], offset};
+    }
+
+    /**
+     * Converts a POSIX timestamp to local or UTC time. The result contains year, month, day,
+     * hour, minute, second, microsecond and fold, or {@code null} if the timestamp cannot be
+     * represented.
+     */
+    @TruffleBoundary
+    static Object[] timestampToFields(PythonContext context, long seconds, int microseconds, boolean utc) {
+        try {
+            LocalDateTime dateTime;
+            int fold = 0;
+            if (utc) {
+                dateTime = LocalDateTime.ofEpochSecond(seconds, 0, ZoneOffset.UTC);
+            } else {
+                ZoneRules rules = TimeModuleBuiltins.getCurrentZoneId(context).getRules();
+                ZoneOffset offset = rules.getOffset(Instant.ofEpochSecond(seconds));
+                dateTime = LocalDateTime.ofEpochSecond(seconds, 0, offset);
+                List<ZoneOffset> validOffsets = rules.getValidOffsets(dateTime);
+                // in an overlap, the second of the two valid offsets is the repeated wall time
+                if (validOffsets.size() == 2 && offset.equals(validOffsets.get(1))) {
+                    fold = 1;
+                }
+            }
+            return new Object[]{dateTime.getYear(), dateTime.getMonthValue(), dateTime.getDayOfMonth(), dateTime.getHour(), dateTime.getMinute(), dateTime.getSecond(), microseconds, fold};
+        } catch (DateTimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Converts a naive local time to a POSIX timestamp. Ambiguous and missing wall times are
+     * resolved using {@code fold} as described in PEP 495: {@code fold=0} uses the offset before
+     * the transition and {@code fold=1} the offset after it.
+     */
+    @TruffleBoundary
+    static long localToTimestamp(PythonContext context, int year, int month, int day, int hour, int minute, int second, int fold) {
+        LocalDateTime dateTime = LocalDateTime.of(year, month, day, hour, minute, second);
+        ZoneRules rules = TimeModuleBuiltins.getCurrentZoneId(context).getRules();
+        List<ZoneOffset> validOffsets = rules.getValidOffsets(dateTime);
+        ZoneOffset offset;
+        if (validOffsets.size() == 1) {
+            offset = validOffsets.get(0);
+        } else if (validOffsets.size() == 2) {
+            offset = validOffsets.get(fold);
+        } else {
+            ZoneOffsetTransition transition = rules.getTransition(dateTime);
+            offset = fold == 0 ? transition.getOffsetBefore() : transition.getOffsetAfter();
+        }
+        return dateTime.toEpochSecond(offset);
+    }
+
+    @TruffleBoundary
+    static Object[] localTimezoneInfo(PythonContext context, long timestamp) {
+        ZoneId zone = TimeModuleBuiltins.getCurrentZoneId(context);
+        Instant instant = Instant.ofEpochSecond(timestamp);
+        ZoneRules rules = zone.getRules();
+        boolean isDaylightSavings = rules.isDaylightSavings(instant);
+        String name = TimeZone.getTimeZone(zone.getId()).getDisplayName(isDaylightSavings, TimeZone.SHORT);
+        return new Object[]{rules.getOffset(instant).getTotalSeconds(), toTruffleStringUncached(name)};
+    }
+
+    @Builtin(name = "check_date_fields", minNumOfPositionalArgs = 3, parameterNames = {"year", "month", "day"})
+    @ArgumentClinic(name = "year", conversion = ClinicConversion.Int)
+    @ArgumentClinic(name = "month", conversion = ClinicConversion.Int)
+    @ArgumentClinic(name = "day", conversion = ClinicConversion.Int)
+    @GenerateNodeFactory
+    abstract static class CheckDateFieldsNode extends PythonTernaryClinicBuiltinNode {
+        @Specialization
+        PTuple check(int year, int month, int day) {
+            if (year < MINYEAR || year > MAXYEAR) {
+                throw raise(ValueError, ErrorMessages.YEAR_D_IS_OUT_OF_RANGE, year);
+            }
+            if (month < 1 || month > 12) {
+                throw raise(ValueError, ErrorMessages.S_MUST_BE_IN_D_D, "month", 1, 12);
+            }
+            if (day < 1 || day > daysInMonth(year, month)) {
+                throw raise(ValueError, ErrorMessages.DAY_IS_OUT_OF_RANGE_FOR_MONTH);
+            }
+            return factory().createTuple(new Object[]{year, month, day});
+        }
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return CheckDateFieldsNodeClinicProviderGen.INSTANCE;
+        }
+    }
+
+    @Builtin(name = "check_time_fields", minNumOfPositionalArgs = 5, parameterNames = {"hour", "minute", "second", "microsecond", "fold"})
+    @ArgumentClinic(name = "hour", conversion = ClinicConversion.Int)
+    @ArgumentClinic(name = "minute", conversion = ClinicConversion.Int)
+    @ArgumentClinic(name = "second", conversion = ClinicConversion.Int)
+    @ArgumentClinic(name = "microsecond", conversion = ClinicConversion.Int)
+    @ArgumentClinic(name = "fold", conversion = ClinicConversion.Int)
+    @GenerateNodeFactory
+    abstract static class CheckTimeFieldsNode extends PythonClinicBuiltinNode {
+        @Specialization
+        PTuple check(int hour, int minute, int second, int microsecond, int fold) {
+            checkRange("hour", hour, 23);
+            checkRange("minute", minute, 59);
+            checkRange("second", second, 59);
+            checkRange("microsecond", microsecond, US_PER_SECOND - 1);
+            if (fold != 0 && fold != 1) {
+                throw raise(ValueError, ErrorMessages.FOLD_MUST_BE_EITHER_0_OR_1);
+            }
+            return factory().createTuple(new Object[]{hour, minute, second, microsecond, fold});
+        }
+
+        private void checkRange(String name, int value, int max) {
+            if (value < 0 || value > max) {
+                throw raise(ValueError, ErrorMessages.S_MUST_BE_IN_D_D, name, 0, max);
+            }
+        }
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return CheckTimeFieldsNodeClinicProviderGen.INSTANCE;
+        }
+    }
+
+    @Builtin(name = "ymd2ord", minNumOfPositionalArgs = 3, parameterNames = {"year", "month", "day"})
+    @ArgumentClinic(name = "year", conversion = ClinicConversion.Int)
+    @ArgumentClinic(name = "month", conversion = ClinicConversion.Int)
+    @ArgumentClinic(name = "day", conversion = ClinicConversion.Int)
+    @GenerateNodeFactory
+    abstract static class Ymd2OrdNode extends PythonTernaryClinicBuiltinNode {
+        @Specialization
+        long ymd2ord(int year, int month, int day) {
+            if (month < 1 || month > 12) {
+                throw raise(ValueError, ErrorMessages.S_MUST_BE_IN_D_D, "month", 1, 12);
+            }
+            return ymdToOrd(year, month, day);
+        }
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return Ymd2OrdNodeClinicProviderGen.INSTANCE;
+        }
+    }
+
+    @Builtin(name = "ord2ymd", minNumOfPositionalArgs = 1, parameterNames = {"n"})
+    @ArgumentClinic(name = "n", conversion = ClinicConversion.Int)
+    @GenerateNodeFactory
+    abstract static class Ord2YmdNode extends PythonUnaryClinicBuiltinNode {
+        @Specialization
+        PTuple ord2ymd(int n) {
+            int[] ymd = ordToYmd(n);
+            return factory().createTuple(new Object[]{ymd[0], ymd[1], ymd[2]});
+        }
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return Ord2YmdNodeClinicProviderGen.INSTANCE;
+        }
+    }
+
+    /**
+     * Normalizes the arguments of {@code timedelta()} to {@code (days, seconds, microseconds)} if
+     * they are all integers that fit into a {@code long}. Returns {@code None} otherwise, so that
+     * the Python code can deal with floats, big integers and the range check.
+     */
+    @Builtin(name = "normalize_timedelta", minNumOfPositionalArgs = 7, parameterNames = {"days", "seconds", "microseconds", "milliseconds", "minutes", "hours", "weeks"})
+    @TypeSystemReference(PythonArithmeticTypes.class)
+    @GenerateNodeFactory
+    abstract static class NormalizeTimedeltaNode extends PythonBuiltinNode {
+        @Specialization
+        Object normalize(long days, long seconds, long microseconds, long milliseconds, long minutes, long hours, long weeks) {
+            try {
+                long d = Math.addExact(days, Math.multiplyExact(weeks, 7));
+                long s = Math.addExact(seconds, Math.addExact(Math.multiplyExact(minutes, 60), Math.multiplyExact(hours, 3600)));
+                long us = Math.addExact(microseconds, Math.multiplyExact(milliseconds, 1000));
+                s = Math.addExact(s, Math.floorDiv(us, US_PER_SECOND));
+                us = Math.floorMod(us, US_PER_SECOND);
+                d = Math.addExact(d, Math.floorDiv(s, SECONDS_PER_DAY));
+                s = Math.floorMod(s, SECONDS_PER_DAY);
+                if (Math.abs(d) > MAX_DELTA_DAYS) {
+                    return PNone.NONE;
+                }
+                return factory().createTuple(new Object[]{(int) d, (int) s, (int) us});
+            } catch (ArithmeticException e) {
+                return PNone.NONE;
+            }
+        }
+
+        @Fallback
+        @SuppressWarnings("unused")
+        static Object other(Object days, Object seconds, Object microseconds, Object milliseconds, Object minutes, Object hours, Object weeks) {
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "format_date", minNumOfPositionalArgs = 3, parameterNames = {"year", "month", "day"})
+    @ArgumentClinic(name = "year", conversion = ClinicConversion.Int)
+    @ArgumentClinic(name = "month", conversion = ClinicConversion.Int)
+    @ArgumentClinic(name = "day", conversion = ClinicConversion.Int)
+    @GenerateNodeFactory
+    abstract static class FormatDateNode extends PythonTernaryClinicBuiltinNode {
+        @Specialization
+        static TruffleString format(int year, int month, int day) {
+            return formatDate(year, month, day);
+        }
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return FormatDateNodeClinicProviderGen.INSTANCE;
+        }
+    }
+
+    @Builtin(name = "format_time", minNumOfPositionalArgs = 5, parameterNames = {"hour", "minute", "second", "microsecond", "timespec"})
+    @ArgumentClinic(name = "hour", conversion = ClinicConversion.Int)
+    @ArgumentClinic(name = "minute", conversion = ClinicConversion.Int)
+    @ArgumentClinic(name = "second", conversion = ClinicConversion.Int)
+    @ArgumentClinic(name = "microsecond", conversion = ClinicConversion.Int)
+    @ArgumentClinic(name = "timespec", conversion = ClinicConversion.TString)
+    @GenerateNodeFactory
+    abstract static class FormatTimeNode extends PythonClinicBuiltinNode {
+        @Specialization
+        TruffleString format(int hour, int minute, int second, int microsecond, TruffleString timespec,
+                        @Cached TruffleString.ToJavaStringNode toJavaStringNode) {
+            TruffleString result = formatTime(hour, minute, second, microsecond, toJavaStringNode.execute(timespec));
+            if (result == null) {
+                throw raise(ValueError, ErrorMessages.UNKNOWN_TIMESPEC_VALUE);
+            }
+            return result;
+        }
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return FormatTimeNodeClinicProviderGen.INSTANCE;
+        }
+    }
+
+    @Builtin(name = "format_offset", minNumOfPositionalArgs = 3, parameterNames = {"days", "seconds", "microseconds"})
+    @ArgumentClinic(name = "days", conversion = ClinicConversion.Int)
+    @ArgumentClinic(name = "seconds", conversion = ClinicConversion.Int)
+    @ArgumentClinic(name = "microseconds", conversion = ClinicConversion.Int)
+    @GenerateNodeFactory
+    abstract static class FormatOffsetNode extends PythonTernaryClinicBuiltinNode {
+        @Specialization
+        static TruffleString format(int days, int seconds, int microseconds) {
+            return formatOffset(days, seconds, microseconds);
+        }
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return FormatOffsetNodeClinicProviderGen.INSTANCE;
+        }
+    }
+
+    @Builtin(name = "parse_isoformat_date", minNumOfPositionalArgs = 1, parameterNames = {"dtstr"})
+    @ArgumentClinic(name = "dtstr", conversion = ClinicConversion.TString)
+    @GenerateNodeFactory
+    abstract static class ParseIsoformatDateNode extends PythonUnaryClinicBuiltinNode {
+        @Specialization
+        Object parse(TruffleString dtstr,
+                        @Cached TruffleString.ToJavaStringNode toJavaStringNode) {
+            int[] ymd = parseIsoformatDate(toJavaStringNode.execute(dtstr));
+            if (ymd == null) {
+                throw raise(ValueError, ErrorMessages.INVALID_ISOFORMAT_STRING_S, dtstr);
+            }
+            return factory().createList(new Object[]{ymd[0], ymd[1], ymd[2]});
+        }
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return ParseIsoformatDateNodeClinicProviderGen.INSTANCE;
+        }
+    }
+
+    /**
+     * Returns {@code [hour, minute, second, microsecond, offset]}, where offset is the UTC offset
+     * in microseconds or {@code None}. The Python code turns the offset into a {@code timezone}.
+     */
+    @Builtin(name = "parse_isoformat_time", minNumOfPositionalArgs = 1, parameterNames = {"tstr"})
+    @ArgumentClinic(name = "tstr", conversion = ClinicConversion.TString)
+    @GenerateNodeFactory
+    abstract static class ParseIsoformatTimeNode extends PythonUnaryClinicBuiltinNode {
+        @Specialization
+        Object parse(TruffleString tstr,
+                        @Cached TruffleString.ToJavaStringNode toJavaStringNode) {
+            long[] components = parseIsoformatTime(toJavaStringNode.execute(tstr));
+            if (components == null) {
+                throw raise(ValueError, ErrorMessages.INVALID_ISOFORMAT_STRING_S, tstr);
+            }
+            Object offset = components[4] == Long.MIN_VALUE ? PNone.NONE : components[4];
+            return factory().createList(new Object[]{(int) components[0], (int) components[1], (int) components[2], (int) components[3], offset});
+        }
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return ParseIsoformatTimeNodeClinicProviderGen.INSTANCE;
+        }
+    }
+
+    /**
+     * Returns {@code (year, month, day, hour, minute, second, microsecond, fold)} for a POSIX
+     * timestamp. Fractions of a microsecond are rounded half to even like {@code round()}.
+     */
+    @Builtin(name = "timestamp_to_fields", minNumOfPositionalArgs = 2, parameterNames = {"t", "utc"})
+    @ArgumentClinic(name = "utc", conversion = ClinicConversion.Boolean)
+    @TypeSystemReference(PythonArithmeticTypes.class)
+    @GenerateNodeFactory
+    abstract static class TimestampToFieldsNode extends PythonBinaryClinicBuiltinNode {
+        @Specialization
+        PTuple doLong(long t, boolean utc) {
+            return toFields(t, 0, utc);
+        }
+
+        @Specialization
+        PTuple doDouble(double t, boolean utc) {
+            if (Double.isNaN(t)) {
+                throw raise(ValueError, ErrorMessages.INVALID_VALUE_NAN);
+            }
+            double whole = t >= 0 ? Math.floor(t) : Math.ceil(t);
+            if (!(whole >= Long.MIN_VALUE && whole <= Long.MAX_VALUE)) {
+                throw raise(OverflowError, ErrorMessages.TIMESTAMP_OUT_OF_RANGE);
+            }
+            long seconds = (long) whole;
+            long us = (long) Math.rint((t - whole) * 1e6);
+            if (us >= US_PER_SECOND) {
+                seconds++;
+                us -= US_PER_SECOND;
+            } else if (us < 0) {
+                seconds--;
+                us += US_PER_SECOND;
+            }
+            return toFields(seconds, (int) us, utc);
+        }
+
+        @Specialization(guards = {"!isInteger(t)", "!isDouble(t)"})
+        PTuple doOther(VirtualFrame frame, Object t, boolean utc,
+                        @Cached PyFloatAsDoubleNode asDoubleNode) {
+            return doDouble(asDoubleNode.execute(frame, t), utc);
+        }
+
+        private PTuple toFields(long seconds, int microseconds, boolean utc) {
+            Object[] fields = timestampToFields(getContext(), seconds, microseconds, utc);
+            if (fields == null) {
+                throw raise(OverflowError, ErrorMessages.TIMESTAMP_OUT_OF_RANGE);
+            }
+            return factory().createTuple(fields);
+        }
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return TimestampToFieldsNodeClinicProviderGen.INSTANCE;
+        }
+    }
+
+    /**
+     * Like {@code timestamp_to_fields(time.time(), utc)}, but reads the clock with microsecond
+     * precision instead of going through a double.
+     */
+    @Builtin(name = "now_fields", minNumOfPositionalArgs = 1, parameterNames = {"utc"})
+    @ArgumentClinic(name = "utc", conversion = ClinicConversion.Boolean)
+    @GenerateNodeFactory
+    abstract static class NowFieldsNode extends PythonUnaryClinicBuiltinNode {
+        @Specialization
+        PTuple now(boolean utc) {
+            Object[] fields = nowFields(getContext(), utc);
+            if (fields == null) {
+                throw raise(OverflowError, ErrorMessages.TIMESTAMP_OUT_OF_RANGE);
+            }
+            return factory().createTuple(fields);
+        }
+
+        @TruffleBoundary
+        private static Object[] nowFields(PythonContext context, boolean utc) {
+            Instant now = Instant.now();
+            return timestampToFields(context, now.getEpochSecond(), now.getNano() / 1000, utc);
+        }
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return NowFieldsNodeClinicProviderGen.INSTANCE;
+        }
+    }
+
+    @Builtin(name = "local_to_timestamp", minNumOfPositionalArgs = 7, parameterNames = {"year", "month", "day", "hour", "minute", "second", "fold"})
+    @ArgumentClinic(name = "year", conversion = ClinicConversion.Int)
+    @ArgumentClinic(name = "month", conversion = ClinicConversion.Int)
+    @ArgumentClinic(name = "day", conversion = ClinicConversion.Int)
+    @ArgumentClinic(name = "hour", conversion = ClinicConversion.Int)
+    @ArgumentClinic(name = "minute", conversion = ClinicConversion.Int)
+    @ArgumentClinic(name = "second", conversion = ClinicConversion.Int)
+    @ArgumentClinic(name = "fold", conversion = ClinicConversion.Int)
+    @GenerateNodeFactory
+    abstract static class LocalToTimestampNode extends PythonClinicBuiltinNode {
+        @Specialization
+        long toTimestamp(int year, int month, int day, int hour, int minute, int second, int fold) {
+            return localToTimestamp(getContext(), year, month, day, hour, minute, second, fold);
+        }
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return LocalToTimestampNodeClinicProviderGen.INSTANCE;
+        }
+    }
+
+    /**
+     * Returns {@code (gmtoff, zone)} of the local time zone at the given timestamp, i.e., the
+     * {@code tm_gmtoff} and {@code tm_zone} fields of {@code time.localtime(t)}.
+     */
+    @Builtin(name = "local_timezone_info", minNumOfPositionalArgs = 1, parameterNames = {"t"})
+    @ArgumentClinic(name = "t", conversion = ClinicConversion.Long)
+    @GenerateNodeFactory
+    abstract static class LocalTimezoneInfoNode extends PythonUnaryClinicBuiltinNode {
+        @Specialization
+        PTuple info(long t) {
+            return factory().createTuple(localTimezoneInfo(getContext(), t));
+        }
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return LocalTimezoneInfoNodeClinicProviderGen.INSTANCE;
+        }
+    }
+}
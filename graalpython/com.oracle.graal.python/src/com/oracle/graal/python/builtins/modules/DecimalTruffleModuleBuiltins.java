@@ -0,0 +1,797 @@
+/*
+ * Copyright (c) 2023, 2023, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules;
+
+import static com.oracle.graal.python.util.PythonUtils.toTruffleStringUncached;
+
+import java.math.BigInteger;
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Fallback;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.dsl.TypeSystemReference;
+import com.oracle.truffle.api.strings.TruffleString;
+
+/**
+ * Helpers for the pure-Python {@code _pydecimal} module. A {@code Decimal} is represented there as
+ * a sign, a coefficient string and an exponent, and all arithmetic goes through {@code _fix},
+ * which rounds the result to the context and raises the appropriate signals. This module
+ * implements parsing, formatting, {@code _fix}, {@code _rescale} and the basic arithmetic
+ * operations on finite operands directly on that representation. Coefficients with at most 18
+ * digits are processed as {@code long}s, larger ones as {@link BigInteger}s.
+ * <p>
+ * The functions never raise signals themselves. Instead, {@code fix} and the arithmetic functions
+ * return {@code (sign, coefficient, exponent, flags)} where {@code flags} is a bit set of the
+ * signals that {@code _fix} would have raised, and the Python code raises them in the original
+ * order through {@code Context._raise_error}, so that traps and flags keep their exact semantics.
+ * All functions return {@code None} if they cannot handle their arguments, e.g., because an
+ * exponent does not fit into a {@code long}, in which case the Python implementation is used.
+ */
+@CoreFunctions(defineModule = "_decimal_truffle")
+public final class DecimalTruffleModuleBuiltins extends PythonBuiltins {
+
+    // signals raised by _fix, in the order in which they are raised
+    static final int FLAG_OVERFLOW = 1;
+    static final int FLAG_UNDERFLOW = 2;
+    static final int FLAG_SUBNORMAL = 4;
+    static final int FLAG_INEXACT = 8;
+    static final int FLAG_ROUNDED = 16;
+    static final int FLAG_CLAMPED = 32;
+
+    static final int ROUND_DOWN = 0;
+    static final int ROUND_UP = 1;
+    static final int ROUND_HALF_UP = 2;
+    static final int ROUND_HALF_DOWN = 3;
+    static final int ROUND_HALF_EVEN = 4;
+    static final int ROUND_CEILING = 5;
+    static final int ROUND_FLOOR = 6;
+    static final int ROUND_05UP = 7;
+
+    private static final int MAX_LONG_DIGITS = 18;
+    private static final long[] POWERS_OF_TEN = new long[MAX_LONG_DIGITS + 1];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return DecimalTruffleModuleBuiltinsFactory.getFactories();
+    }
+
+    static int roundingMode(String rounding) {
+        switch (rounding) {
+            case "ROUND_DOWN":
+                return ROUND_DOWN;
+            case "ROUND_UP":
+                return ROUND_UP;
+            case "ROUND_HALF_UP":
+                return ROUND_HALF_UP;
+            case "ROUND_HALF_DOWN":
+                return ROUND_HALF_DOWN;
+            case "ROUND_HALF_EVEN":
+                return ROUND_HALF_EVEN;
+            case "ROUND_CEILING":
+                return ROUND_CEILING;
+            case "ROUND_FLOOR":
+                return ROUND_FLOOR;
+            case "ROUND_05UP":
+                return ROUND_05UP;
+            default:
+                return -1;
+        }
+    }
+
+    private static boolean allZeros(String coeff, int from) {
+        for (int i = from; i < coeff.length(); i++) {
+            if (coeff.charAt(i) != '0') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean exactHalf(String coeff, int from) {
+        return from < coeff.length() && coeff.charAt(from) == '5' && allZeros(coeff, from + 1);
+    }
+
+    private static int roundHalfUp(String coeff, int digits) {
+        if (coeff.charAt(digits) >= '5') {
+            return 1;
+        }
+        return allZeros(coeff, digits) ? 0 : -1;
+    }
+
+    /**
+     * Decides how to round a nonzero coefficient to its first {@code digits} digits, exactly like
+     * {@code Decimal._pick_rounding_function}: 1 means round away from zero, 0 means the dropped
+     * digits are all zero and -1 means truncate.
+     */
+    static int roundingDirection(int rounding, int sign, String coeff, int digits) {
+        int down = allZeros(coeff, digits) ? 0 : -1;
+        switch (rounding) {
+            case ROUND_DOWN:
+                return down;
+            case ROUND_UP:
+                return -down;
+            case ROUND_HALF_UP:
+                return roundHalfUp(coeff, digits);
+            case ROUND_HALF_DOWN:
+                return exactHalf(coeff, digits) ? -1 : roundHalfUp(coeff, digits);
+            case ROUND_HALF_EVEN:
+                if (exactHalf(coeff, digits) && (digits == 0 || (coeff.charAt(digits - 1) - '0') % 2 == 0)) {
+                    return -1;
+                }
+                return roundHalfUp(coeff, digits);
+            case ROUND_CEILING:
+                return sign != 0 ? down : -down;
+            case ROUND_FLOOR:
+                return sign == 0 ? down : -down;
+            case ROUND_05UP:
+                if (digits > 0 && coeff.charAt(digits - 1) != '0' && coeff.charAt(digits - 1) != '5') {
+                    return down;
+                }
+                return -down;
+            default:
+                throw new IllegalArgumentException();
+        }
+    }
+
+    /**
+     * Adds one to a string of decimal digits.
+     */
+    static String increment(String coeff) {
+        char[] digits = coeff.toCharArray();
+        for (int i = digits.length - 1; i >= 0; i--) {
+            if (digits[i] != '9') {
+                digits[i]++;
+                return new String(digits);
+            }
+            digits[i] = '0';
+        }
+        return '1' + new String(digits);
+    }
+
+    private static String zeros(long count) {
+        if (count > Integer.MAX_VALUE / 2) {
+            throw new ArithmeticException();
+        }
+        return "0".repeat((int) count);
+    }
+
+    /**
+     * Port of {@code Decimal._fix} for finite numbers. Returns {@code null} if an exponent
+     * computation overflows or the rounding mode is not known.
+     */
+    static Object[] fix(int sign, String coeff, long exp, long prec, int rounding, long emin, long emax, long clamp) {
+        try {
+            long etiny = Math.addExact(Math.subtractExact(emin, prec), 1);
+            long etop = Math.addExact(Math.subtractExact(emax, prec), 1);
+            if (coeff.equals("0")) {
+                long expMax = clamp == 0 ? emax : etop;
+                long newExp = Math.min(Math.max(exp, etiny), expMax);
+                if (newExp != exp) {
+                    return new Object[]{sign, "0", newExp, FLAG_CLAMPED};
+                }
+                return new Object[]{sign, coeff, exp, 0};
+            }
+
+            // the smallest allowable exponent of the result
+            long expMin = Math.subtractExact(Math.addExact(coeff.length(), exp), prec);
+            if (expMin > etop) {
+                return new Object[]{sign, coeff, exp, FLAG_OVERFLOW | FLAG_INEXACT | FLAG_ROUNDED};
+            }
+            boolean subnormal = expMin < etiny;
+            if (subnormal) {
+                expMin = etiny;
+            }
+
+            if (exp < expMin) {
+                if (rounding < 0) {
+                    return null;
+                }
+                long digits = coeff.length() + exp - expMin;
+                String toRound = coeff;
+                if (digits < 0) {
+                    toRound = "1";
+                    digits = 0;
+                }
+                int changed = roundingDirection(rounding, sign, toRound, (int) digits);
+                String newCoeff = digits == 0 ? "0" : toRound.substring(0, (int) digits);
+                if (changed > 0) {
+                    newCoeff = increment(newCoeff);
+                    if (newCoeff.length() > prec) {
+                        newCoeff = newCoeff.substring(0, newCoeff.length() - 1);
+                        expMin++;
+                    }
+                }
+                int flags = 0;
+                if (expMin > etop) {
+                    flags |= FLAG_OVERFLOW;
+                }
+                if (changed != 0 && subnormal) {
+                    flags |= FLAG_UNDERFLOW;
+                }
+                if (subnormal) {
+                    flags |= FLAG_SUBNORMAL;
+                }
+                if (changed != 0) {
+                    flags |= FLAG_INEXACT;
+                }
+                flags |= FLAG_ROUNDED;
+                if ((flags & FLAG_OVERFLOW) == 0 && newCoeff.equals("0")) {
+                    // underflow to zero
+                    flags |= FLAG_CLAMPED;
+                }
+                return new Object[]{sign, newCoeff, expMin, flags};
+            }
+
+            int flags = subnormal ? FLAG_SUBNORMAL : 0;
+            // fold down if clamp == 1 and the number has too few digits
+            if (clamp == 1 && exp > etop) {
+                return new Object[]{sign, coeff + zeros(exp - etop), etop, flags | FLAG_CLAMPED};
+            }
+            return new Object[]{sign, coeff, exp, flags};
+        } catch (ArithmeticException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Port of {@code Decimal._rescale} for finite numbers. Returns the new coefficient or
+     * {@code null} if the Python implementation should be used.
+     */
+    static String rescale(int sign, String coeff, long exp, long newExp, int rounding) {
+        try {
+            if (coeff.equals("0")) {
+                return "0";
+            }
+            if (exp >= newExp) {
+                return coeff + zeros(Math.subtractExact(exp, newExp));
+            }
+            if (rounding < 0) {
+                return null;
+            }
+            long digits = Math.subtractExact(Math.addExact(coeff.length(), exp), newExp);
+            String toRound = coeff;
+            if (digits < 0) {
+                toRound = "1";
+                digits = 0;
+            }
+            int changed = roundingDirection(rounding, sign, toRound, (int) digits);
+            String newCoeff = digits == 0 ? "0" : toRound.substring(0, (int) digits);
+            return changed == 1 ? increment(newCoeff) : newCoeff;
+        } catch (ArithmeticException e) {
+            return null;
+        }
+    }
+
+    private static boolean fitsLong(String coeff) {
+        return coeff.length() <= MAX_LONG_DIGITS;
+    }
+
+    private static BigInteger bigPowerOfTen(long n) {
+        if (n > Integer.MAX_VALUE / 4) {
+            throw new ArithmeticException();
+        }
+        return BigInteger.TEN.pow((int) n);
+    }
+
+    /**
+     * Computes the exact sum of two nonzero finite numbers the way {@code Decimal.__add__} does.
+     * Returns {@code (sign, coefficient, exponent)} before rounding.
+     */
+    static Object[] addExact(int sign1, String coeff1, long exp1, int sign2, String coeff2, long exp2, long prec, int rounding) {
+        // port of _normalize: if one operand is much smaller than the other, replace it by a
+        // small number that rounds the same way
+        boolean firstIsLarger = exp1 >= exp2;
+        String tmpCoeff = firstIsLarger ? coeff1 : coeff2;
+        long tmpExp = firstIsLarger ? exp1 : exp2;
+        String otherCoeff = firstIsLarger ? coeff2 : coeff1;
+        long otherExp = firstIsLarger ? exp2 : exp1;
+        long normExp = Math.addExact(tmpExp, Math.min(-1, Math.subtractExact(tmpCoeff.length() - 2L, prec)));
+        if (Math.addExact(otherCoeff.length() - 1L, otherExp) < normExp) {
+            otherCoeff = "1";
+            otherExp = normExp;
+        }
+        long shift = Math.subtractExact(tmpExp, otherExp);
+
+        if (fitsLong(tmpCoeff) && fitsLong(otherCoeff) && shift <= MAX_LONG_DIGITS) {
+            try {
+                long tmp = Math.multiplyExact(Long.parseLong(tmpCoeff), POWERS_OF_TEN[(int) shift]);
+                long other = Long.parseLong(otherCoeff);
+                long v1 = firstIsLarger ? tmp : other;
+                long v2 = firstIsLarger ? other : tmp;
+                if (sign1 != sign2) {
+                    if (v1 == v2) {
+                        return new Object[]{rounding == ROUND_FLOOR ? 1 : 0, "0", Math.min(exp1, exp2)};
+                    }
+                    return v1 > v2 ? new Object[]{sign1, Long.toString(v1 - v2), otherExp} : new Object[]{sign2, Long.toString(v2 - v1), otherExp};
+                }
+                return new Object[]{sign1, Long.toString(Math.addExact(v1, v2)), otherExp};
+            } catch (ArithmeticException e) {
+                // fall through to BigInteger
+            }
+        }
+        BigInteger tmp = new BigInteger(tmpCoeff).multiply(bigPowerOfTen(shift));
+        BigInteger other = new BigInteger(otherCoeff);
+        BigInteger v1 = firstIsLarger ? tmp : other;
+        BigInteger v2 = firstIsLarger ? other : tmp;
+        if (sign1 != sign2) {
+            int cmp = v1.compareTo(v2);
+            if (cmp == 0) {
+                return new Object[]{rounding == ROUND_FLOOR ? 1 : 0, "0", Math.min(exp1, exp2)};
+            }
+            return cmp > 0 ? new Object[]{sign1, v1.subtract(v2).toString(), otherExp} : new Object[]{sign2, v2.subtract(v1).toString(), otherExp};
+        }
+        return new Object[]{sign1, v1.add(v2).toString(), otherExp};
+    }
+
+    static String multiplyCoefficients(String coeff1, String coeff2) {
+        if (fitsLong(coeff1) && fitsLong(coeff2)) {
+            long a = Long.parseLong(coeff1);
+            long b = Long.parseLong(coeff2);
+            long hi = Math.multiplyHigh(a, b);
+            long lo = a * b;
+            if (hi == 0 && lo >= 0) {
+                return Long.toString(lo);
+            }
+        }
+        return new BigInteger(coeff1).multiply(new BigInteger(coeff2)).toString();
+    }
+
+    /**
+     * Computes {@code prec + 1} significant digits of the quotient of two finite numbers with a
+     * nonzero divisor, like {@code Decimal.__truediv__}. Returns {@code (coefficient, exponent)}
+     * before rounding.
+     */
+    static Object[] divideExact(String coeff1, long exp1, String coeff2, long exp2, long prec) {
+        long idealExp = Math.subtractExact(exp1, exp2);
+        if (coeff1.equals("0")) {
+            return new Object[]{"0", idealExp};
+        }
+        long shift = Math.addExact(coeff2.length() - (long) coeff1.length(), Math.addExact(prec, 1));
+        long exp = Math.subtractExact(idealExp, shift);
+        if (fitsLong(coeff1) && fitsLong(coeff2) && Math.abs(shift) <= MAX_LONG_DIGITS) {
+            try {
+                long dividend = Long.parseLong(coeff1);
+                long divisor = Long.parseLong(coeff2);
+                if (shift >= 0) {
+                    dividend = Math.multiplyExact(dividend, POWERS_OF_TEN[(int) shift]);
+                } else {
+                    divisor = Math.multiplyExact(divisor, POWERS_OF_TEN[(int) -shift]);
+                }
+                long coeff = dividend / divisor;
+                if (dividend % divisor != 0) {
+                    // inexact, make sure the result rounds correctly
+                    if (coeff % 5 == 0) {
+                        coeff++;
+                    }
+                } else {
+                    // exact, get as close to the ideal exponent as possible
+                    while (exp < idealExp && coeff % 10 == 0) {
+                        coeff /= 10;
+                        exp++;
+                    }
+                }
+                return new Object[]{Long.toString(coeff), exp};
+            } catch (ArithmeticException e) {
+                // fall through to BigInteger
+            }
+        }
+        BigInteger dividend = new BigInteger(coeff1);
+        BigInteger divisor = new BigInteger(coeff2);
+        if (shift >= 0) {
+            dividend = dividend.multiply(bigPowerOfTen(shift));
+        } else {
+            divisor = divisor.multiply(bigPowerOfTen(-shift));
+        }
+        BigInteger[] qr = dividend.divideAndRemainder(divisor);
+        BigInteger coeff = qr[0];
+        if (qr[1].signum() != 0) {
+            if (coeff.mod(BigInteger.valueOf(5)).signum() == 0) {
+                coeff = coeff.add(BigInteger.ONE);
+            }
+        } else {
+            while (exp < idealExp) {
+                BigInteger[] dr = coeff.divideAndRemainder(BigInteger.TEN);
+                if (dr[1].signum() != 0) {
+                    break;
+                }
+                coeff = dr[0];
+                exp++;
+            }
+        }
+        return new Object[]{coeff.toString(), exp};
+    }
+
+    /**
+     * Port of {@code Decimal.__str__} for finite numbers.
+     */
+    static String toString(int sign, String coeff, long exp, boolean eng, boolean capitals) {
+        long leftDigits = exp + coeff.length();
+        long dotPlace;
+        if (exp <= 0 && leftDigits > -6) {
+            // no exponent required
+            dotPlace = leftDigits;
+        } else if (!eng) {
+            // usual scientific notation: 1 digit on left of the point
+            dotPlace = 1;
+        } else if (coeff.equals("0")) {
+            dotPlace = Math.floorMod(leftDigits + 1, 3) - 1;
+        } else {
+            dotPlace = Math.floorMod(leftDigits - 1, 3) + 1;
+        }
+
+        StringBuilder sb = new StringBuilder(coeff.length() + 16);
+        if (sign != 0) {
+            sb.append('-');
+        }
+        if (dotPlace <= 0) {
+            sb.append("0.");
+            for (long i = dotPlace; i < 0; i++) {
+                sb.append('0');
+            }
+            sb.append(coeff);
+        } else if (dotPlace >= coeff.length()) {
+            sb.append(coeff);
+            for (long i = coeff.length(); i < dotPlace; i++) {
+                sb.append('0');
+            }
+        } else {
+            sb.append(coeff, 0, (int) dotPlace);
+            sb.append('.');
+            sb.append(coeff, (int) dotPlace, coeff.length());
+        }
+        if (leftDigits != dotPlace) {
+            long e = leftDigits - dotPlace;
+            sb.append(capitals ? 'E' : 'e');
+            sb.append(e < 0 ? '-' : '+');
+            sb.append(Math.abs(e));
+        }
+        return sb.toString();
+    }
+
+    private static boolean isPythonWhitespace(char c) {
+        return c == ' ' || (c >= '\t' && c <= '\r') || (c >= '\u001c' && c <= '\u001f');
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static String stripLeadingZeros(String digits) {
+        int i = 0;
+        while (i < digits.length() && digits.charAt(i) == '0') {
+            i++;
+        }
+        return digits.substring(i);
+    }
+
+    /**
+     * Parses a numeric string like the {@code Decimal} constructor. Only ASCII strings are
+     * handled. Returns {@code (sign, coefficient, exponent, is_special)} or {@code null} if the
+     * string is not ASCII, is malformed or has an exponent that does not fit into a {@code long}.
+     */
+    static Object[] parse(String value) {
+        int start = 0;
+        int end = value.length();
+        for (int i = 0; i < end; i++) {
+            if (value.charAt(i) >= 128) {
+                return null;
+            }
+        }
+        while (start < end && isPythonWhitespace(value.charAt(start))) {
+            start++;
+        }
+        while (end > start && isPythonWhitespace(value.charAt(end - 1))) {
+            end--;
+        }
+        String s = value.substring(start, end);
+        if (s.indexOf('_') >= 0) {
+            s = s.replace("_", "");
+        }
+        int pos = 0;
+        int length = s.length();
+        int sign = 0;
+        if (pos < length && (s.charAt(pos) == '+' || s.charAt(pos) == '-')) {
+            sign = s.charAt(pos) == '-' ? 1 : 0;
+            pos++;
+        }
+        String rest = s.substring(pos);
+        if (rest.equalsIgnoreCase("inf") || rest.equalsIgnoreCase("infinity")) {
+            return new Object[]{sign, "0", "F", true};
+        }
+        boolean signaling = rest.length() > 0 && (rest.charAt(0) == 's' || rest.charAt(0) == 'S');
+        String nan = signaling ? rest.substring(1) : rest;
+        if (nan.length() >= 3 && nan.regionMatches(true, 0, "nan", 0, 3)) {
+            for (int i = 3; i < nan.length(); i++) {
+                if (!isDigit(nan.charAt(i))) {
+                    return null;
+                }
+            }
+            return new Object[]{sign, stripLeadingZeros(nan.substring(3)), signaling ? "N" : "n", true};
+        }
+
+        int intStart = pos;
+        while (pos < length && isDigit(s.charAt(pos))) {
+            pos++;
+        }
+        String intPart = s.substring(intStart, pos);
+        String fracPart = "";
+        if (pos < length && s.charAt(pos) == '.') {
+            pos++;
+            int fracStart = pos;
+            while (pos < length && isDigit(s.charAt(pos))) {
+                pos++;
+            }
+            fracPart = s.substring(fracStart, pos);
+        }
+        if (intPart.isEmpty() && fracPart.isEmpty()) {
+            return null;
+        }
+        long exp = 0;
+        if (pos < length && (s.charAt(pos) == 'e' || s.charAt(pos) == 'E')) {
+            pos++;
+            int expStart = pos;
+            if (pos < length && (s.charAt(pos) == '+' || s.charAt(pos) == '-')) {
+                pos++;
+            }
+            int digitsStart = pos;
+            while (pos < length && isDigit(s.charAt(pos))) {
+                pos++;
+            }
+            if (pos == digitsStart || pos - digitsStart > MAX_LONG_DIGITS) {
+                return null;
+            }
+            exp = Long.parseLong(s.substring(expStart, pos));
+        }
+        if (pos != length) {
+            return null;
+        }
+        String coeff = stripLeadingZeros(intPart + fracPart);
+        return new Object[]{sign, coeff.isEmpty() ? "0" : coeff, exp - fracPart.length(), false};
+    }
+
+    @TruffleBoundary
+    private static Object[] convertResult(Object[] result) {
+        if (result != null) {
+            for (int i = 0; i < result.length; i++) {
+                if (result[i] instanceof String) {
+                    result[i] = toTruffleStringUncached((String) result[i]);
+                }
+            }
+        }
+        return result;
+    }
+
+    @TruffleBoundary
+    static Object[] fixBoundary(int sign, String coeff, long exp, long prec, String rounding, long emin, long emax, long clamp) {
+        return convertResult(fix(sign, coeff, exp, prec, roundingMode(rounding), emin, emax, clamp));
+    }
+
+    @TruffleBoundary
+    static Object[] addBoundary(int sign1, String coeff1, long exp1, int sign2, String coeff2, long exp2, long prec, String rounding, long emin, long emax, long clamp) {
+        if (coeff1.equals("0") || coeff2.equals("0")) {
+            return null;
+        }
+        int mode = roundingMode(rounding);
+        try {
+            Object[] sum = addExact(sign1, coeff1, exp1, sign2, coeff2, exp2, prec, mode);
+            return convertResult(fix((int) sum[0], (String) sum[1], (long) sum[2], prec, mode, emin, emax, clamp));
+        } catch (ArithmeticException e) {
+            return null;
+        }
+    }
+
+    @TruffleBoundary
+    static Object[] multiplyBoundary(int sign1, String coeff1, long exp1, int sign2, String coeff2, long exp2, long prec, String rounding, long emin, long emax, long clamp) {
+        if (coeff1.equals("0") || coeff2.equals("0")) {
+            return null;
+        }
+        try {
+            long exp = Math.addExact(exp1, exp2);
+            return convertResult(fix(sign1 ^ sign2, multiplyCoefficients(coeff1, coeff2), exp, prec, roundingMode(rounding), emin, emax, clamp));
+        } catch (ArithmeticException e) {
+            return null;
+        }
+    }
+
+    @TruffleBoundary
+    static Object[] divideBoundary(int sign1, String coeff1, long exp1, int sign2, String coeff2, long exp2, long prec, String rounding, long emin, long emax, long clamp) {
+        if (coeff2.equals("0")) {
+            return null;
+        }
+        try {
+            Object[] quotient = divideExact(coeff1, exp1, coeff2, exp2, prec);
+            return convertResult(fix(sign1 ^ sign2, (String) quotient[0], (long) quotient[1], prec, roundingMode(rounding), emin, emax, clamp));
+        } catch (ArithmeticException e) {
+            return null;
+        }
+    }
+
+    @TruffleBoundary
+    static TruffleString rescaleBoundary(int sign, String coeff, long exp, long newExp, String rounding) {
+        String result = rescale(sign, coeff, exp, newExp, roundingMode(rounding));
+        return result == null ? null : toTruffleStringUncached(result);
+    }
+
+    @TruffleBoundary
+    static TruffleString toStringBoundary(int sign, String coeff, long exp, boolean eng, boolean capitals) {
+        return toTruffleStringUncached(toString(sign, coeff, exp, eng, capitals));
+    }
+
+    @TruffleBoundary
+    static Object[] parseBoundary(String value) {
+        return convertResult(parse(value));
+    }
+
+    @Builtin(name = "parse", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ParseNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object parse(TruffleString value,
+                        @Cached TruffleString.ToJavaStringNode toJavaStringNode) {
+            Object[] result = parseBoundary(toJavaStringNode.execute(value));
+            return result == null ? PNone.NONE : factory().createTuple(result);
+        }
+
+        @Fallback
+        static Object other(@SuppressWarnings("unused") Object value) {
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "to_string", minNumOfPositionalArgs = 5, parameterNames = {"sign", "coeff", "exp", "eng", "capitals"})
+    @TypeSystemReference(PythonArithmeticTypes.class)
+    @GenerateNodeFactory
+    abstract static class ToStringNode extends PythonBuiltinNode {
+        @Specialization
+        static Object toString(long sign, TruffleString coeff, long exp, boolean eng, long capitals,
+                        @Cached TruffleString.ToJavaStringNode toJavaStringNode) {
+            return toStringBoundary((int) sign, toJavaStringNode.execute(coeff), exp, eng, capitals != 0);
+        }
+
+        @Fallback
+        @SuppressWarnings("unused")
+        static Object other(Object sign, Object coeff, Object exp, Object eng, Object capitals) {
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "fix", minNumOfPositionalArgs = 8, parameterNames = {"sign", "coeff", "exp", "prec", "rounding", "emin", "emax", "clamp"})
+    @TypeSystemReference(PythonArithmeticTypes.class)
+    @GenerateNodeFactory
+    abstract static class FixNode extends PythonBuiltinNode {
+        @Specialization
+        Object fix(long sign, TruffleString coeff, long exp, long prec, TruffleString rounding, long emin, long emax, long clamp,
+                        @Cached TruffleString.ToJavaStringNode toJavaStringNode) {
+            Object[] result = fixBoundary((int) sign, toJavaStringNode.execute(coeff), exp, prec, toJavaStringNode.execute(rounding), emin, emax, clamp);
+            return result == null ? PNone.NONE : factory().createTuple(result);
+        }
+
+        @Fallback
+        @SuppressWarnings("unused")
+        static Object other(Object sign, Object coeff, Object exp, Object prec, Object rounding, Object emin, Object emax, Object clamp) {
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "rescale", minNumOfPositionalArgs = 5, parameterNames = {"sign", "coeff", "exp", "new_exp", "rounding"})
+    @TypeSystemReference(PythonArithmeticTypes.class)
+    @GenerateNodeFactory
+    abstract static class RescaleNode extends PythonBuiltinNode {
+        @Specialization
+        static Object rescale(long sign, TruffleString coeff, long exp, long newExp, TruffleString rounding,
+                        @Cached TruffleString.ToJavaStringNode toJavaStringNode) {
+            TruffleString result = rescaleBoundary((int) sign, toJavaStringNode.execute(coeff), exp, newExp, toJavaStringNode.execute(rounding));
+            return result == null ? PNone.NONE : result;
+        }
+
+        @Fallback
+        @SuppressWarnings("unused")
+        static Object other(Object sign, Object coeff, Object exp, Object newExp, Object rounding) {
+            return PNone.NONE;
+        }
+    }
+
+    abstract static class BinaryArithmeticNode extends PythonBuiltinNode {
+        @Specialization
+        Object doFinite(long sign1, TruffleString coeff1, long exp1, long sign2, TruffleString coeff2, long exp2, long prec, TruffleString rounding, long emin, long emax, long clamp,
+                        @Cached TruffleString.ToJavaStringNode toJavaStringNode) {
+            Object[] result = compute((int) sign1, toJavaStringNode.execute(coeff1), exp1, (int) sign2, toJavaStringNode.execute(coeff2), exp2, prec, toJavaStringNode.execute(rounding), emin, emax,
+                            clamp);
+            return result == null ? PNone.NONE : factory().createTuple(result);
+        }
+
+        @Fallback
+        @SuppressWarnings("unused")
+        static Object other(Object sign1, Object coeff1, Object exp1, Object sign2, Object coeff2, Object exp2, Object prec, Object rounding, Object emin, Object emax, Object clamp) {
+            return PNone.NONE;
+        }
+
+        abstract Object[] compute(int sign1, String coeff1, long exp1, int sign2, String coeff2, long exp2, long prec, String rounding, long emin, long emax, long clamp);
+    }
+
+    @Builtin(name = "add", minNumOfPositionalArgs = 11, parameterNames = {"sign1", "coeff1", "exp1", "sign2", "coeff2", "exp2", "prec", "rounding", "emin", "emax", "clamp"})
+    @TypeSystemReference(PythonArithmeticTypes.class)
+    @GenerateNodeFactory
+    abstract static class AddNode extends BinaryArithmeticNode {
+        @Override
+        Object[] compute(int sign1, String coeff1, long exp1, int sign2, String coeff2, long exp2, long prec, String rounding, long emin, long emax, long clamp) {
+            return addBoundary(sign1, coeff1, exp1, sign2, coeff2, exp2, prec, rounding, emin, emax, clamp);
+        }
+    }
+
+    @Builtin(name = "multiply", minNumOfPositionalArgs = 11, parameterNames = {"sign1", "coeff1", "exp1", "sign2", "coeff2", "exp2", "prec", "rounding", "emin", "emax", "clamp"})
+    @TypeSystemReference(PythonArithmeticTypes.class)
+    @GenerateNodeFactory
+    abstract static class MultiplyNode extends BinaryArithmeticNode {
+        @Override
+        Object[] compute(int sign1, String coeff1, long exp1, int sign2, String coeff2, long exp2, long prec, String rounding, long emin, long emax, long clamp) {
+            return multiplyBoundary(sign1, coeff1, exp1, sign2, coeff2, exp2, prec, rounding, emin, emax, clamp);
+        }
+    }
+
+    @Builtin(name = "divide", minNumOfPositionalArgs = 11, parameterNames = {"sign1", "coeff1", "exp1", "sign2", "coeff2", "exp2", "prec", "rounding", "emin", "emax", "clamp"})
+    @TypeSystemReference(PythonArithmeticTypes.class)
+    @GenerateNodeFactory
+    abstract static class DivideNode extends BinaryArithmeticNode {
+        @Override
+        Object[] compute(int sign1, String coeff1, long exp1, int sign2, String coeff2, long exp2, long prec, String rounding, long emin, long emax, long clamp) {
+            return divideBoundary(sign1, coeff1, exp1, sign2, coeff2, exp2, prec, rounding, emin, emax, clamp);
+        }
+    }
+}
@@ -81,6 +81,7 @@ import com.oracle.graal.python.builtins.PythonBuiltins;
 import com.oracle.graal.python.builtins.modules.GraalPythonModuleBuiltinsFactory.DebugNodeFactory;
 import com.oracle.graal.python.builtins.objects.PNone;
 import com.oracle.graal.python.builtins.objects.bytes.PBytes;
+import com.oracle.graal.python.builtins.objects.cext.capi.transitions.CApiSampler;
 import com.oracle.graal.python.builtins.objects.code.CodeNodes;
 import com.oracle.graal.python.builtins.objects.code.PCode;
 import com.oracle.graal.python.builtins.objects.common.DynamicObjectStorage;
@@ -122,6 +123,7 @@ import com.oracle.graal.python.nodes.object.InlinedGetClassNode;
 import com.oracle.graal.python.nodes.statement.AbstractImportNode;
 import com.oracle.graal.python.nodes.truffle.PythonArithmeticTypes;
 import com.oracle.graal.python.nodes.util.CastToTruffleStringNode;
+import com.oracle.graal.python.runtime.CodeCache;
 import com.oracle.graal.python.runtime.PosixSupportLibrary;
 import com.oracle.graal.python.runtime.PythonContext;
 import com.oracle.graal.python.runtime.PythonOptions;
@@ -662,6 +664,62 @@ public class GraalPythonModuleBuiltins extends PythonBuiltins {
         }
     }
 
+    @Builtin(name = "code_cache_stats", minNumOfPositionalArgs = 0, doc = "Statistics of the module code cache shared by the contexts of an engine.")
+    @GenerateNodeFactory
+    abstract static class CodeCacheStatsNode extends PythonBuiltinNode {
+        @Specialization
+        @TruffleBoundary
+        Object doit() {
+            CodeCache cache = getLanguage().getCodeCache();
+            return factory().createDict(new PKeyword[]{
+                            new PKeyword(toTruffleStringUncached("shared"), !getLanguage().isSingleContext()),
+                            new PKeyword(toTruffleStringUncached("capacity"), cache.getCapacity()),
+                            new PKeyword(toTruffleStringUncached("size"), cache.size()),
+                            new PKeyword(toTruffleStringUncached("hits"), cache.getHits()),
+                            new PKeyword(toTruffleStringUncached("misses"), cache.getMisses()),
+                            new PKeyword(toTruffleStringUncached("evictions"), cache.getEvictions()),
+            });
+        }
+    }
+
+    @Builtin(name = "capi_sampler_stats", minNumOfPositionalArgs = 0, doc = "Returns a dict mapping each sampled C API or HPy function to a tuple " +
+                    "(calls, self samples, estimated self time in ns). Requires the CApiSamplingInterval option.")
+    @GenerateNodeFactory
+    abstract static class CApiSamplerStatsNode extends PythonBuiltinNode {
+        @Specialization
+        @TruffleBoundary
+        Object doit() {
+            CApiSampler.SiteStats[] sites = getLanguage().getCApiSampler().getStats();
+            PKeyword[] entries = new PKeyword[sites.length];
+            for (int i = 0; i < sites.length; i++) {
+                CApiSampler.SiteStats site = sites[i];
+                Object[] stats = new Object[]{site.getCount(), site.getSelfSamples(), site.getSelfTimeNanos()};
+                entries[i] = new PKeyword(toTruffleStringUncached(site.getName()), factory().createTuple(stats));
+            }
+            return factory().createDict(entries);
+        }
+    }
+
+    @Builtin(name = "capi_sampler_collapsed", minNumOfPositionalArgs = 0, doc = "Returns the sampled C API and HPy call stacks in the collapsed format used by flame graph tools.")
+    @GenerateNodeFactory
+    abstract static class CApiSamplerCollapsedNode extends PythonBuiltinNode {
+        @Specialization
+        @TruffleBoundary
+        Object doit() {
+            return toTruffleStringUncached(getLanguage().getCApiSampler().getCollapsedStacks());
+        }
+    }
+
+    @Builtin(name = "capi_sampler_reset", minNumOfPositionalArgs = 0, doc = "Clears the statistics collected by the C API sampler.")
+    @GenerateNodeFactory
+    abstract static class CApiSamplerResetNode extends PythonBuiltinNode {
+        @Specialization
+        Object doit() {
+            getLanguage().getCApiSampler().reset();
+            return PNone.NONE;
+        }
+    }
+
     // Internal builtin used for testing: changes strategy of newly allocated set or map
     @Builtin(name = "set_storage_strategy", minNumOfPositionalArgs = 2)
     @GenerateNodeFactory
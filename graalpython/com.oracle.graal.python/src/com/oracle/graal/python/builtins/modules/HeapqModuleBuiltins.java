@@ -0,0 +1,557 @@
+/*
+ * Copyright (c) 2023, 2023, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules;
+
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.IndexError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.RuntimeError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.TypeError;
+
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes;
+import com.oracle.graal.python.builtins.objects.list.PList;
+import com.oracle.graal.python.builtins.objects.tuple.PTuple;
+import com.oracle.graal.python.lib.PyObjectRichCompareBool;
+import com.oracle.graal.python.lib.PyTupleCheckExactNode;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PNodeWithRaise;
+import com.oracle.graal.python.nodes.builtins.ListNodes;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.runtime.sequence.storage.DoubleSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.IntSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.LongSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.SequenceStoreException;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Cached.Shared;
+import com.oracle.truffle.api.dsl.Fallback;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NeverDefault;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+
+/**
+ * Implementation of the {@code _heapq} accelerator module. Heaps backed by {@link IntSequenceStorage},
+ * {@link LongSequenceStorage} or {@link DoubleSequenceStorage} are sifted directly on the primitive
+ * arrays, since comparing their elements cannot run any Python code. Everything else goes through
+ * {@link HeapLessThanNode}, which has a fast path for the common {@code (priority, ..., item)} tuple
+ * entries, and checks that the heap was not modified by the comparison like CPython does.
+ */
+@CoreFunctions(defineModule = "_heapq")
+public final class HeapqModuleBuiltins extends PythonBuiltins {
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return HeapqModuleBuiltinsFactory.getFactories();
+    }
+
+    // primitive sift operations, see CPython's Modules/_heapqmodule.c for the generic algorithm
+
+    private static void siftDown(int[] heap, int startPos, int pos, boolean max) {
+        int newItem = heap[pos];
+        int cur = pos;
+        while (cur > startPos) {
+            int parentPos = (cur - 1) >> 1;
+            int parent = heap[parentPos];
+            if (!(max ? parent < newItem : newItem < parent)) {
+                break;
+            }
+            heap[cur] = parent;
+            cur = parentPos;
+        }
+        heap[cur] = newItem;
+    }
+
+    private static void siftUp(int[] heap, int endPos, int pos, boolean max) {
+        int newItem = heap[pos];
+        int cur = pos;
+        int limit = endPos >> 1;
+        while (cur < limit) {
+            int childPos = 2 * cur + 1;
+            int rightPos = childPos + 1;
+            if (rightPos < endPos && !(max ? heap[rightPos] < heap[childPos] : heap[childPos] < heap[rightPos])) {
+                childPos = rightPos;
+            }
+            heap[cur] = heap[childPos];
+            cur = childPos;
+        }
+        heap[cur] = newItem;
+        siftDown(heap, pos, cur, max);
+    }
+
+    private static void siftDown(long[] heap, int startPos, int pos, boolean max) {
+        long newItem = heap[pos];
+        int cur = pos;
+        while (cur > startPos) {
+            int parentPos = (cur - 1) >> 1;
+            long parent = heap[parentPos];
+            if (!(max ? parent < newItem : newItem < parent)) {
+                break;
+            }
+            heap[cur] = parent;
+            cur = parentPos;
+        }
+        heap[cur] = newItem;
+    }
+
+    private static void siftUp(long[] heap, int endPos, int pos, boolean max) {
+        long newItem = heap[pos];
+        int cur = pos;
+        int limit = endPos >> 1;
+        while (cur < limit) {
+            int childPos = 2 * cur + 1;
+            int rightPos = childPos + 1;
+            if (rightPos < endPos && !(max ? heap[rightPos] < heap[childPos] : heap[childPos] < heap[rightPos])) {
+                childPos = rightPos;
+            }
+            heap[cur] = heap[childPos];
+            cur = childPos;
+        }
+        heap[cur] = newItem;
+        siftDown(heap, pos, cur, max);
+    }
+
+    private static void siftDown(double[] heap, int startPos, int pos, boolean max) {
+        double newItem = heap[pos];
+        int cur = pos;
+        while (cur > startPos) {
+            int parentPos = (cur - 1) >> 1;
+            double parent = heap[parentPos];
+            if (!(max ? parent < newItem : newItem < parent)) {
+                break;
+            }
+            heap[cur] = parent;
+            cur = parentPos;
+        }
+        heap[cur] = newItem;
+    }
+
+    private static void siftUp(double[] heap, int endPos, int pos, boolean max) {
+        double newItem = heap[pos];
+        int cur = pos;
+        int limit = endPos >> 1;
+        while (cur < limit) {
+            int childPos = 2 * cur + 1;
+            int rightPos = childPos + 1;
+            if (rightPos < endPos && !(max ? heap[rightPos] < heap[childPos] : heap[childPos] < heap[rightPos])) {
+                childPos = rightPos;
+            }
+            heap[cur] = heap[childPos];
+            cur = childPos;
+        }
+        heap[cur] = newItem;
+        siftDown(heap, pos, cur, max);
+    }
+
+    /**
+     * The {@code <} comparison used for heap entries. Exact tuples are compared element-wise
+     * without going through {@code tuple.__lt__}, which makes {@code (priority, item)} heaps as
+     * cheap as comparing their first elements when the priorities differ.
+     */
+    abstract static class HeapLessThanNode extends PNodeWithRaise {
+        abstract boolean execute(VirtualFrame frame, Object a, Object b);
+
+        @Specialization
+        static boolean doInt(int a, int b) {
+            return a < b;
+        }
+
+        @Specialization
+        static boolean doLong(long a, long b) {
+            return a < b;
+        }
+
+        @Specialization
+        static boolean doDouble(double a, double b) {
+            return a < b;
+        }
+
+        @Specialization
+        static boolean doTuple(VirtualFrame frame, PTuple a, PTuple b,
+                        @Cached PyTupleCheckExactNode checkExactNode,
+                        @Cached SequenceStorageNodes.GetItemScalarNode getItemNode,
+                        @Cached PyObjectRichCompareBool.EqNode eqNode,
+                        @Shared("lt") @Cached PyObjectRichCompareBool.LtNode ltNode) {
+            if (!checkExactNode.execute(a) || !checkExactNode.execute(b)) {
+                return ltNode.execute(frame, a, b);
+            }
+            SequenceStorage left = a.getSequenceStorage();
+            SequenceStorage right = b.getSequenceStorage();
+            int len = Math.min(left.length(), right.length());
+            for (int i = 0; i < len; i++) {
+                Object leftItem = getItemNode.execute(left, i);
+                Object rightItem = getItemNode.execute(right, i);
+                if (!eqNode.execute(frame, leftItem, rightItem)) {
+                    return ltNode.execute(frame, leftItem, rightItem);
+                }
+            }
+            return left.length() < right.length();
+        }
+
+        @Fallback
+        static boolean doGeneric(VirtualFrame frame, Object a, Object b,
+                        @Shared("lt") @Cached PyObjectRichCompareBool.LtNode ltNode) {
+            return ltNode.execute(frame, a, b);
+        }
+
+        @NeverDefault
+        static HeapLessThanNode create() {
+            return HeapqModuleBuiltinsFactory.HeapLessThanNodeGen.create();
+        }
+    }
+
+    /**
+     * Moves the item at {@code pos} towards the root {@code startPos} until the heap invariant
+     * holds. Corresponds to {@code _siftdown} and {@code _siftdown_max} in {@code heapq.py}.
+     */
+    abstract static class SiftDownNode extends PNodeWithRaise {
+        abstract void execute(VirtualFrame frame, PList heap, SequenceStorage storage, int startPos, int pos, boolean max);
+
+        @Specialization
+        static void doInt(@SuppressWarnings("unused") PList heap, IntSequenceStorage storage, int startPos, int pos, boolean max) {
+            siftDown(storage.getInternalIntArray(), startPos, pos, max);
+        }
+
+        @Specialization
+        static void doLong(@SuppressWarnings("unused") PList heap, LongSequenceStorage storage, int startPos, int pos, boolean max) {
+            siftDown(storage.getInternalLongArray(), startPos, pos, max);
+        }
+
+        @Specialization
+        static void doDouble(@SuppressWarnings("unused") PList heap, DoubleSequenceStorage storage, int startPos, int pos, boolean max) {
+            siftDown(storage.getInternalDoubleArray(), startPos, pos, max);
+        }
+
+        @Fallback
+        void doGeneric(VirtualFrame frame, PList heap, SequenceStorage storage, int startPos, int pos, boolean max,
+                        @Cached SequenceStorageNodes.GetItemScalarNode getItemNode,
+                        @Cached SequenceStorageNodes.SetItemScalarNode setItemNode,
+                        @Cached HeapLessThanNode lessThanNode) {
+            int size = storage.length();
+            int cur = pos;
+            while (cur > startPos) {
+                int parentPos = (cur - 1) >> 1;
+                Object newItem = getItemNode.execute(storage, cur);
+                Object parent = getItemNode.execute(storage, parentPos);
+                boolean lt = max ? lessThanNode.execute(frame, parent, newItem) : lessThanNode.execute(frame, newItem, parent);
+                checkUnchanged(heap, storage, size);
+                if (!lt) {
+                    break;
+                }
+                // swap the items so that the heap stays consistent if a later comparison fails
+                setItemNode.execute(storage, parentPos, newItem);
+                setItemNode.execute(storage, cur, parent);
+                cur = parentPos;
+            }
+        }
+
+        void checkUnchanged(PList heap, SequenceStorage storage, int size) {
+            if (heap.getSequenceStorage() != storage || storage.length() != size) {
+                throw raise(RuntimeError, ErrorMessages.CHANGED_SIZE_DURING_ITERATION, "list");
+            }
+        }
+
+        @NeverDefault
+        static SiftDownNode create() {
+            return HeapqModuleBuiltinsFactory.SiftDownNodeGen.create();
+        }
+    }
+
+    /**
+     * Moves the item at {@code pos} to a leaf, always following the smaller child, and then sifts
+     * it back down. Corresponds to {@code _siftup} and {@code _siftup_max} in {@code heapq.py}.
+     */
+    abstract static class SiftUpNode extends PNodeWithRaise {
+        abstract void execute(VirtualFrame frame, PList heap, SequenceStorage storage, int pos, boolean max);
+
+        @Specialization
+        static void doInt(@SuppressWarnings("unused") PList heap, IntSequenceStorage storage, int pos, boolean max) {
+            siftUp(storage.getInternalIntArray(), storage.length(), pos, max);
+        }
+
+        @Specialization
+        static void doLong(@SuppressWarnings("unused") PList heap, LongSequenceStorage storage, int pos, boolean max) {
+            siftUp(storage.getInternalLongArray(), storage.length(), pos, max);
+        }
+
+        @Specialization
+        static void doDouble(@SuppressWarnings("unused") PList heap, DoubleSequenceStorage storage, int pos, boolean max) {
+            siftUp(storage.getInternalDoubleArray(), storage.length(), pos, max);
+        }
+
+        @Fallback
+        void doGeneric(VirtualFrame frame, PList heap, SequenceStorage storage, int pos, boolean max,
+                        @Cached SequenceStorageNodes.GetItemScalarNode getItemNode,
+                        @Cached SequenceStorageNodes.SetItemScalarNode setItemNode,
+                        @Cached HeapLessThanNode lessThanNode,
+                        @Cached SiftDownNode siftDownNode) {
+            int endPos = storage.length();
+            int limit = endPos >> 1;
+            int cur = pos;
+            while (cur < limit) {
+                int childPos = 2 * cur + 1;
+                if (childPos + 1 < endPos) {
+                    Object child = getItemNode.execute(storage, childPos);
+                    Object right = getItemNode.execute(storage, childPos + 1);
+                    boolean lt = max ? lessThanNode.execute(frame, right, child) : lessThanNode.execute(frame, child, right);
+                    if (heap.getSequenceStorage() != storage || storage.length() != endPos) {
+                        throw raise(RuntimeError, ErrorMessages.CHANGED_SIZE_DURING_ITERATION, "list");
+                    }
+                    if (!lt) {
+                        childPos++;
+                    }
+                }
+                Object child = getItemNode.execute(storage, childPos);
+                Object item = getItemNode.execute(storage, cur);
+                setItemNode.execute(storage, childPos, item);
+                setItemNode.execute(storage, cur, child);
+                cur = childPos;
+            }
+            siftDownNode.execute(frame, heap, storage, pos, cur, max);
+        }
+
+        @NeverDefault
+        static SiftUpNode create() {
+            return HeapqModuleBuiltinsFactory.SiftUpNodeGen.create();
+        }
+    }
+
+    /**
+     * Stores {@code item} at {@code index}, generalizing the storage of the heap if necessary.
+     */
+    private static SequenceStorage setItemGeneralizing(PList heap, SequenceStorage storage, int index, Object item, SequenceStorageNodes.SetItemScalarNode setItemNode) {
+        try {
+            setItemNode.execute(storage, index, item);
+            return storage;
+        } catch (SequenceStoreException e) {
+            SequenceStorage generalized = storage.generalizeFor(item, null);
+            heap.setSequenceStorage(generalized);
+            setItemNode.execute(generalized, index, item);
+            return generalized;
+        }
+    }
+
+    @Builtin(name = "heappush", minNumOfPositionalArgs = 2, parameterNames = {"heap", "item"}, doc = "Push item onto heap, maintaining the heap invariant.")
+    @GenerateNodeFactory
+    abstract static class HeapPushNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        static Object push(VirtualFrame frame, PList heap, Object item,
+                        @Cached ListNodes.AppendNode appendNode,
+                        @Cached SiftDownNode siftDownNode) {
+            appendNode.execute(heap, item);
+            SequenceStorage storage = heap.getSequenceStorage();
+            siftDownNode.execute(frame, heap, storage, 0, storage.length() - 1, false);
+            return PNone.NONE;
+        }
+
+        @Fallback
+        @SuppressWarnings("unused")
+        Object error(Object heap, Object item) {
+            throw raise(TypeError, ErrorMessages.HEAP_ARGUMENT_MUST_BE_A_LIST);
+        }
+    }
+
+    abstract static class HeapPopBaseNode extends PythonUnaryBuiltinNode {
+        boolean isMax() {
+            return false;
+        }
+
+        @Specialization
+        Object pop(VirtualFrame frame, PList heap,
+                        @Cached SequenceStorageNodes.GetItemScalarNode getItemNode,
+                        @Cached SequenceStorageNodes.SetItemScalarNode setItemNode,
+                        @Cached SequenceStorageNodes.SetLenNode setLenNode,
+                        @Cached SiftUpNode siftUpNode) {
+            SequenceStorage storage = heap.getSequenceStorage();
+            int n = storage.length();
+            if (n == 0) {
+                throw raise(IndexError, ErrorMessages.INDEX_OUT_OF_RANGE);
+            }
+            Object lastElt = getItemNode.execute(storage, n - 1);
+            setLenNode.execute(storage, n - 1);
+            if (n == 1) {
+                return lastElt;
+            }
+            Object result = getItemNode.execute(storage, 0);
+            setItemNode.execute(storage, 0, lastElt);
+            siftUpNode.execute(frame, heap, storage, 0, isMax());
+            return result;
+        }
+
+        @Fallback
+        Object error(@SuppressWarnings("unused") Object heap) {
+            throw raise(TypeError, ErrorMessages.HEAP_ARGUMENT_MUST_BE_A_LIST);
+        }
+    }
+
+    @Builtin(name = "heappop", minNumOfPositionalArgs = 1, parameterNames = {"heap"}, doc = "Pop the smallest item off the heap, maintaining the heap invariant.")
+    @GenerateNodeFactory
+    abstract static class HeapPopNode extends HeapPopBaseNode {
+    }
+
+    @Builtin(name = "_heappop_max", minNumOfPositionalArgs = 1, parameterNames = {"heap"}, doc = "Maxheap variant of heappop.")
+    @GenerateNodeFactory
+    abstract static class HeapPopMaxNode extends HeapPopBaseNode {
+        @Override
+        boolean isMax() {
+            return true;
+        }
+    }
+
+    abstract static class HeapReplaceBaseNode extends PythonBinaryBuiltinNode {
+        boolean isMax() {
+            return false;
+        }
+
+        @Specialization
+        Object replace(VirtualFrame frame, PList heap, Object item,
+                        @Cached SequenceStorageNodes.GetItemScalarNode getItemNode,
+                        @Cached SequenceStorageNodes.SetItemScalarNode setItemNode,
+                        @Cached SiftUpNode siftUpNode) {
+            SequenceStorage storage = heap.getSequenceStorage();
+            if (storage.length() == 0) {
+                throw raise(IndexError, ErrorMessages.INDEX_OUT_OF_RANGE);
+            }
+            Object result = getItemNode.execute(storage, 0);
+            storage = setItemGeneralizing(heap, storage, 0, item, setItemNode);
+            siftUpNode.execute(frame, heap, storage, 0, isMax());
+            return result;
+        }
+
+        @Fallback
+        @SuppressWarnings("unused")
+        Object error(Object heap, Object item) {
+            throw raise(TypeError, ErrorMessages.HEAP_ARGUMENT_MUST_BE_A_LIST);
+        }
+    }
+
+    @Builtin(name = "heapreplace", minNumOfPositionalArgs = 2, parameterNames = {"heap", "item"}, doc = "heapreplace(heap, item) -> value. Pop and return the current smallest value, and add the new item.")
+    @GenerateNodeFactory
+    abstract static class HeapReplaceNode extends HeapReplaceBaseNode {
+    }
+
+    @Builtin(name = "_heapreplace_max", minNumOfPositionalArgs = 2, parameterNames = {"heap", "item"}, doc = "Maxheap variant of heapreplace.")
+    @GenerateNodeFactory
+    abstract static class HeapReplaceMaxNode extends HeapReplaceBaseNode {
+        @Override
+        boolean isMax() {
+            return true;
+        }
+    }
+
+    @Builtin(name = "heappushpop", minNumOfPositionalArgs = 2, parameterNames = {"heap", "item"}, doc = "Push item on the heap, then pop and return the smallest item from the heap.")
+    @GenerateNodeFactory
+    abstract static class HeapPushPopNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object pushPop(VirtualFrame frame, PList heap, Object item,
+                        @Cached SequenceStorageNodes.GetItemScalarNode getItemNode,
+                        @Cached SequenceStorageNodes.SetItemScalarNode setItemNode,
+                        @Cached HeapLessThanNode lessThanNode,
+                        @Cached SiftUpNode siftUpNode) {
+            SequenceStorage storage = heap.getSequenceStorage();
+            if (storage.length() == 0) {
+                return item;
+            }
+            Object top = getItemNode.execute(storage, 0);
+            boolean lt = lessThanNode.execute(frame, top, item);
+            if (!lt) {
+                return item;
+            }
+            storage = heap.getSequenceStorage();
+            if (storage.length() == 0) {
+                throw raise(IndexError, ErrorMessages.INDEX_OUT_OF_RANGE);
+            }
+            Object result = getItemNode.execute(storage, 0);
+            storage = setItemGeneralizing(heap, storage, 0, item, setItemNode);
+            siftUpNode.execute(frame, heap, storage, 0, false);
+            return result;
+        }
+
+        @Fallback
+        @SuppressWarnings("unused")
+        Object error(Object heap, Object item) {
+            throw raise(TypeError, ErrorMessages.HEAP_ARGUMENT_MUST_BE_A_LIST);
+        }
+    }
+
+    abstract static class HeapifyBaseNode extends PythonUnaryBuiltinNode {
+        boolean isMax() {
+            return false;
+        }
+
+        @Specialization
+        Object heapify(VirtualFrame frame, PList heap,
+                        @Cached SiftUpNode siftUpNode) {
+            int n = heap.getSequenceStorage().length();
+            for (int i = n / 2 - 1; i >= 0; i--) {
+                // the storage may be replaced by a comparison, so it has to be re-read
+                siftUpNode.execute(frame, heap, heap.getSequenceStorage(), i, isMax());
+            }
+            return PNone.NONE;
+        }
+
+        @Fallback
+        Object error(@SuppressWarnings("unused") Object heap) {
+            throw raise(TypeError, ErrorMessages.HEAP_ARGUMENT_MUST_BE_A_LIST);
+        }
+    }
+
+    @Builtin(name = "heapify", minNumOfPositionalArgs = 1, parameterNames = {"heap"}, doc = "Transform list into a heap, in-place, in O(len(heap)) time.")
+    @GenerateNodeFactory
+    abstract static class HeapifyNode extends HeapifyBaseNode {
+    }
+
+    @Builtin(name = "_heapify_max", minNumOfPositionalArgs = 1, parameterNames = {"heap"}, doc = "Maxheap variant of heapify.")
+    @GenerateNodeFactory
+    abstract static class HeapifyMaxNode extends HeapifyBaseNode {
+        @Override
+        boolean isMax() {
+            return true;
+        }
+    }
+}
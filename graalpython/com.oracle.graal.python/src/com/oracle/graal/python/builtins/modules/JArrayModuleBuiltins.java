@@ -63,8 +63,13 @@ import com.oracle.graal.python.nodes.function.builtins.PythonBinaryClinicBuiltin
 import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
 import com.oracle.graal.python.nodes.util.CastToJavaStringNode;
 import com.oracle.graal.python.runtime.sequence.PSequence;
+import com.oracle.graal.python.runtime.sequence.storage.BoolSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.DoubleSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.IntSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.LongSequenceStorage;
 import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
 import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.TruffleLanguage;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Cached.Shared;
@@ -196,6 +201,9 @@ public class JArrayModuleBuiltins extends PythonBuiltins {
             SequenceStorage storage = getSequenceStorageNode.execute(sequence);
             int length = storage.length();
             Object array = zerosNode.execute(length, type);
+            if (copyPrimitiveStorage(getContext().getEnv(), array, storage)) {
+                return array;
+            }
             for (int i = 0; i < length; i++) {
                 Object value = getItemScalarNode.execute(storage, i);
                 try {
@@ -219,5 +227,46 @@ public class JArrayModuleBuiltins extends PythonBuiltins {
             PList list = constructListNode.execute(frame, sequence);
             return fromSequence(list, type, lib, getSequenceStorageNode, getItemScalarNode, zerosNode);
         }
+
+        /**
+         * Fills a Java primitive array directly from a primitive sequence storage, without a
+         * boxing interop write for every element. Returns {@code false} if the storage does not
+         * match the array's component type.
+         */
+        @TruffleBoundary
+        private static boolean copyPrimitiveStorage(TruffleLanguage.Env env, Object array, SequenceStorage storage) {
+            if (!env.isHostObject(array)) {
+                return false;
+            }
+            Object hostArray = env.asHostObject(array);
+            int length = storage.length();
+            if (storage instanceof IntSequenceStorage intStorage) {
+                int[] values = intStorage.getInternalIntArray();
+                if (hostArray instanceof int[] target) {
+                    System.arraycopy(values, 0, target, 0, length);
+                    return true;
+                } else if (hostArray instanceof long[] target) {
+                    for (int i = 0; i < length; i++) {
+                        target[i] = values[i];
+                    }
+                    return true;
+                } else if (hostArray instanceof double[] target) {
+                    for (int i = 0; i < length; i++) {
+                        target[i] = values[i];
+                    }
+                    return true;
+                }
+            } else if (storage instanceof LongSequenceStorage longStorage && hostArray instanceof long[] target) {
+                System.arraycopy(longStorage.getInternalLongArray(), 0, target, 0, length);
+                return true;
+            } else if (storage instanceof DoubleSequenceStorage doubleStorage && hostArray instanceof double[] target) {
+                System.arraycopy(doubleStorage.getInternalDoubleArray(), 0, target, 0, length);
+                return true;
+            } else if (storage instanceof BoolSequenceStorage boolStorage && hostArray instanceof boolean[] target) {
+                System.arraycopy(boolStorage.getInternalBoolArray(), 0, target, 0, length);
+                return true;
+            }
+            return false;
+        }
     }
 }
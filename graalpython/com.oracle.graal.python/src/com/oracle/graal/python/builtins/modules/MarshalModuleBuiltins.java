@@ -82,6 +82,7 @@ import com.oracle.graal.python.builtins.objects.str.StringNodesFactory.IsInterne
 import com.oracle.graal.python.builtins.objects.type.TypeNodes;
 import com.oracle.graal.python.compiler.CodeUnit;
 import com.oracle.graal.python.compiler.Compiler;
+import com.oracle.graal.python.compiler.LazyCodeUnit;
 import com.oracle.graal.python.lib.PyComplexCheckExactNode;
 import com.oracle.graal.python.lib.PyDictCheckExactNodeGen;
 import com.oracle.graal.python.lib.PyFloatCheckExactNodeGen;
@@ -279,6 +280,7 @@ public final class MarshalModuleBuiltins extends PythonBuiltins {
         // plain Java objects
         private static final char TYPE_GRAALPYTHON_CODE = 'C';
         private static final char TYPE_GRAALPYTHON_CODE_UNIT = 'U';
+        private static final char TYPE_GRAALPYTHON_LAZY_CODE_UNIT = 'L';
         private static final char TYPE_BIG_INTEGER = 'B';
         private static final char TYPE_ARRAY = ']';
 
@@ -829,8 +831,15 @@ public final class MarshalModuleBuiltins extends PythonBuiltins {
                     }
                     writeBytes(lnotab);
                 } else if (v instanceof CodeUnit) {
-                    writeByte(TYPE_GRAALPYTHON_CODE_UNIT | flag);
-                    writeCodeUnit((CodeUnit) v);
+                    // code units only occur as constants of other code units. They are written as
+                    // self-contained blobs, so that reading them can be deferred (see LazyCodeUnit)
+                    Marshal nested = new Marshal(version, pyTrue, pyFalse);
+                    nested.writeCodeUnit((CodeUnit) v);
+                    writeByte(TYPE_GRAALPYTHON_LAZY_CODE_UNIT | flag);
+                    writeBytes(nested.out.toByteArray());
+                } else if (v instanceof LazyCodeUnit) {
+                    writeByte(TYPE_GRAALPYTHON_LAZY_CODE_UNIT | flag);
+                    writeBytes(((LazyCodeUnit) v).getSerialized());
                 } else {
                     PythonBufferAcquireLibrary acquireLib = PythonBufferAcquireLibrary.getFactory().getUncached(v);
                     if (acquireLib.hasBuffer(v)) {
@@ -1044,6 +1053,8 @@ public final class MarshalModuleBuiltins extends PythonBuiltins {
                     return addRef.run(readCode());
                 case TYPE_GRAALPYTHON_CODE_UNIT:
                     return addRef.run(readCodeUnit());
+                case TYPE_GRAALPYTHON_LAZY_CODE_UNIT:
+                    return addRef.run(new LazyCodeUnit(readBytes()));
                 case TYPE_ARRAY: {
                     return addRef.run(readJavaArray());
                 }
@@ -1256,10 +1267,13 @@ public final class MarshalModuleBuiltins extends PythonBuiltins {
             byte[] variableShouldUnbox = readBytes();
             int[][] generalizeInputsMap = readSparseTable();
             int[][] generalizeVarsMap = readSparseTable();
-            return new CodeUnit(name, qualname, argCount, kwOnlyArgCount, positionalOnlyArgCount, stacksize, code, srcOffsetTable,
+            CodeUnit codeUnit = new CodeUnit(name, qualname, argCount, kwOnlyArgCount, positionalOnlyArgCount, stacksize, code, srcOffsetTable,
                             flags, names, varnames, cellvars, freevars, cell2arg, constants, primitiveConstants, exceptionHandlerRanges, conditionProfileCount,
                             startLine, startColumn, endLine, endColumn,
                             outputCanQuicken, variableShouldUnbox, generalizeInputsMap, generalizeVarsMap);
+            // nested code units have been read (and interned) by the recursive readObject calls
+            PythonContext.get(null).getInternTable().internCodeUnit(codeUnit);
+            return codeUnit;
         }
 
         private void writeCodeUnit(CodeUnit code) throws IOException {
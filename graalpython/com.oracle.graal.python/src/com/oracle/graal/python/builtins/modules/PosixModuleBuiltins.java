@@ -98,6 +98,7 @@ import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonBinaryClinicBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonQuaternaryClinicBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonTernaryBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonTernaryClinicBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
@@ -777,6 +778,117 @@ public class PosixModuleBuiltins extends PythonBuiltins {
         }
     }
 
+    @Builtin(name = "sendfile", minNumOfPositionalArgs = 4, parameterNames = {"out_fd", "in_fd", "offset", "count"})
+    @ArgumentClinic(name = "out_fd", conversion = ClinicConversion.Int)
+    @ArgumentClinic(name = "in_fd", conversion = ClinicConversion.Int)
+    @ArgumentClinic(name = "count", conversion = ClinicConversion.LongIndex)
+    @GenerateNodeFactory
+    abstract static class SendfileNode extends PythonQuaternaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return PosixModuleBuiltinsClinicProviders.SendfileNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        long sendfile(VirtualFrame frame, int outFd, int inFd, Object offsetObj, long count,
+                        @Bind("this") Node inliningTarget,
+                        @Cached OffsetConversionNode offsetConversionNode,
+                        @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib,
+                        @Cached InlinedBranchProfile errorProfile,
+                        @Cached GilNode gil) {
+            long offset = convertOptionalOffset(frame, offsetObj, offsetConversionNode);
+            if (offset < -1 || count < 0) {
+                int error = OSErrorEnum.EINVAL.getNumber();
+                throw raiseOSError(frame, error, posixLib.strerror(getPosixSupport(), error));
+            }
+            try {
+                gil.release(true);
+                try {
+                    while (true) {
+                        try {
+                            return posixLib.sendfile(getPosixSupport(), outFd, inFd, offset, count);
+                        } catch (PosixException e) {
+                            if (e.getErrorCode() == OSErrorEnum.EINTR.getNumber()) {
+                                PythonContext.triggerAsyncActions(this);
+                            } else {
+                                throw e;
+                            }
+                        }
+                    }
+                } finally {
+                    gil.acquire();
+                }
+            } catch (PosixException e) {
+                errorProfile.enter(inliningTarget);
+                throw raiseOSErrorFromPosixException(frame, e);
+            }
+        }
+    }
+
+    @Builtin(name = "copy_file_range", minNumOfPositionalArgs = 3, parameterNames = {"src", "dst", "count", "offset_src", "offset_dst"}, os = PythonOS.PLATFORM_LINUX)
+    @ArgumentClinic(name = "src", conversion = ClinicConversion.Int)
+    @ArgumentClinic(name = "dst", conversion = ClinicConversion.Int)
+    @ArgumentClinic(name = "count", conversion = ClinicConversion.LongIndex)
+    @GenerateNodeFactory
+    abstract static class CopyFileRangeNode extends PythonClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return PosixModuleBuiltinsClinicProviders.CopyFileRangeNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        long copyFileRange(VirtualFrame frame, int src, int dst, long count, Object offsetSrcObj, Object offsetDstObj,
+                        @Bind("this") Node inliningTarget,
+                        @Cached OffsetConversionNode offsetConversionNode,
+                        @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib,
+                        @Cached InlinedBranchProfile errorProfile,
+                        @Cached GilNode gil) {
+            long offsetSrc = convertOptionalOffset(frame, offsetSrcObj, offsetConversionNode);
+            long offsetDst = convertOptionalOffset(frame, offsetDstObj, offsetConversionNode);
+            if (offsetSrc < -1 || offsetDst < -1 || count < 0) {
+                int error = OSErrorEnum.EINVAL.getNumber();
+                throw raiseOSError(frame, error, posixLib.strerror(getPosixSupport(), error));
+            }
+            try {
+                gil.release(true);
+                try {
+                    while (true) {
+                        try {
+                            return posixLib.copyFileRange(getPosixSupport(), src, offsetSrc, dst, offsetDst, count);
+                        } catch (PosixException e) {
+                            if (e.getErrorCode() == OSErrorEnum.EINTR.getNumber()) {
+                                PythonContext.triggerAsyncActions(this);
+                            } else {
+                                throw e;
+                            }
+                        }
+                    }
+                } finally {
+                    gil.acquire();
+                }
+            } catch (PosixException e) {
+                errorProfile.enter(inliningTarget);
+                throw raiseOSErrorFromPosixException(frame, e);
+            }
+        }
+    }
+
+    /**
+     * Converts an offset argument that may be {@code None}. {@code None} maps to {@code -1}, which
+     * tells {@link PosixSupportLibrary#sendfile} and {@link PosixSupportLibrary#copyFileRange} to
+     * use the current file position. Negative offsets given explicitly map to values below
+     * {@code -1} so that the callers can reject them.
+     */
+    static long convertOptionalOffset(VirtualFrame frame, Object offset, OffsetConversionNode offsetConversionNode) {
+        if (PGuards.isPNone(offset)) {
+            return -1;
+        }
+        long value = (long) offsetConversionNode.execute(frame, offset);
+        return value < 0 ? Long.MIN_VALUE : value;
+    }
+
     @Builtin(name = "dup", minNumOfPositionalArgs = 1, parameterNames = {"fd"})
     @ArgumentClinic(name = "fd", conversion = ClinicConversion.Int)
     @GenerateNodeFactory
@@ -185,6 +185,14 @@ public final class TimeModuleBuiltins extends PythonBuiltins {
         StructSequence.initType(core, STRUCT_TIME_DESC);
     }
 
+    /**
+     * Returns the time zone used by {@code localtime()} and {@code mktime()}.
+     */
+    @TruffleBoundary
+    static ZoneId getCurrentZoneId(PythonContext context) {
+        return (ZoneId) context.lookupBuiltinModule(T_TIME).getAttribute(CURRENT_ZONE_ID);
+    }
+
     @TruffleBoundary
     public static double timeSeconds() {
         return System.currentTimeMillis() / 1000.0;
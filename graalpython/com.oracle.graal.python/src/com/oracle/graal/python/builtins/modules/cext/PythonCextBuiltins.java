@@ -101,6 +101,7 @@ import com.oracle.graal.python.builtins.objects.cext.capi.PySequenceArrayWrapper
 import com.oracle.graal.python.builtins.objects.cext.capi.PythonNativePointer;
 import com.oracle.graal.python.builtins.objects.cext.capi.PythonNativeWrapper;
 import com.oracle.graal.python.builtins.objects.cext.capi.transitions.ArgDescriptor;
+import com.oracle.graal.python.builtins.objects.cext.capi.transitions.CApiSampler;
 import com.oracle.graal.python.builtins.objects.cext.capi.transitions.CApiTiming;
 import com.oracle.graal.python.builtins.objects.cext.capi.transitions.CApiTransitions;
 import com.oracle.graal.python.builtins.objects.cext.capi.transitions.CApiTransitions.HandleReleaser;
@@ -514,6 +515,7 @@ public final class PythonCextBuiltins {
     public static final class CApiBuiltinExecutable implements TruffleObject {
 
         private final CApiTiming timing;
+        private final CApiSampler.Site site;
         private final ArgDescriptor ret;
         private final ArgDescriptor[] args;
         @CompilationFinal private CallTarget callTarget;
@@ -523,6 +525,7 @@ public final class PythonCextBuiltins {
 
         public CApiBuiltinExecutable(String name, CApiCallPath call, ArgDescriptor ret, ArgDescriptor[] args, int id) {
             this.timing = CApiTiming.create(false, name);
+            this.site = CApiSampler.createSite(false, name);
             this.name = name;
             this.call = call;
             this.ret = ret;
@@ -717,7 +720,9 @@ public final class PythonCextBuiltins {
 
         @Override
         Object execute(CApiBuiltinExecutable self, Object[] arguments) {
+            CApiSampler sampler = PythonLanguage.get(this).getCApiSampler();
             CApiTiming.enter();
+            sampler.enter(self.site);
             try {
                 try {
                     if (LOGGER.isLoggable(Level.FINEST)) {
@@ -757,6 +762,7 @@ public final class PythonCextBuiltins {
                     throw CompilerDirectives.shouldNotReachHere("return type while handling PException: " + cachedSelf.getRetDescriptor() + " in " + self.name);
                 }
             } finally {
+                sampler.exit(self.site);
                 CApiTiming.exit(self.timing);
             }
         }
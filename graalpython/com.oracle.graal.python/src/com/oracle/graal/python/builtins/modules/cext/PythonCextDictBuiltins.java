@@ -89,6 +89,7 @@ import com.oracle.graal.python.builtins.objects.dict.DictBuiltins.DelItemNode;
 import com.oracle.graal.python.builtins.objects.dict.DictBuiltins.PopNode;
 import com.oracle.graal.python.builtins.objects.dict.DictNodes;
 import com.oracle.graal.python.builtins.objects.dict.PDict;
+import com.oracle.graal.python.builtins.objects.dict.PDict.CApiIteratorState;
 import com.oracle.graal.python.builtins.objects.ints.PInt;
 import com.oracle.graal.python.builtins.objects.list.PList;
 import com.oracle.graal.python.lib.PyObjectGetAttr;
@@ -108,6 +109,7 @@ import com.oracle.truffle.api.dsl.Fallback;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.nodes.Node;
 import com.oracle.truffle.api.profiles.BranchProfile;
+import com.oracle.truffle.api.profiles.InlinedConditionProfile;
 import com.oracle.truffle.api.profiles.LoopConditionProfile;
 
 public final class PythonCextDictBuiltins {
@@ -136,16 +138,30 @@ public final class PythonCextDictBuiltins {
                         @Cached PromoteBorrowedValue promoteKeyNode,
                         @Cached PromoteBorrowedValue promoteValueNode,
                         @Cached SetItemNode setItemNode,
+                        @Cached InlinedConditionProfile resumeProfile,
                         @Cached LoopConditionProfile loopProfile) {
 
             HashingStorage storage = dict.getDictStorage();
-            HashingStorageNodes.HashingStorageIterator it = getIterator.execute(storage);
-            loopProfile.profileCounted(pos);
-            for (int i = 0; loopProfile.inject(i <= pos); i++) {
+            CApiIteratorState state = dict.getCApiIteratorState();
+            HashingStorageNodes.HashingStorageIterator it = state != null ? state.getIterator(storage, pos) : null;
+            if (resumeProfile.profile(inliningTarget, it != null)) {
+                // the previous call stopped at entry 'pos - 1', so a loop is O(n) and not O(n^2)
                 if (!itNext.execute(storage, it)) {
+                    dict.setCApiIteratorState(null);
                     return getNativeNull();
                 }
+            } else {
+                it = getIterator.execute(storage);
+                loopProfile.profileCounted(pos);
+                for (int i = 0; loopProfile.inject(i <= pos); i++) {
+                    if (!itNext.execute(storage, it)) {
+                        return getNativeNull();
+                    }
+                }
+                state = new CApiIteratorState(storage, it);
+                dict.setCApiIteratorState(state);
             }
+            state.setPos(pos + 1);
             Object key = itKey.execute(storage, it);
             Object value = itValue.execute(storage, it);
             Object promotedKey = promoteKeyNode.execute(key);
@@ -162,11 +178,15 @@ public final class PythonCextDictBuiltins {
         }
 
         @Specialization(guards = "isGreaterPosOrNative(inliningTarget, pos, dict, sizeNode, getClassNode, isSubtypeNode)", limit = "1")
-        Object run(@SuppressWarnings("unused") Object dict, @SuppressWarnings("unused") long pos,
+        Object run(Object dict, @SuppressWarnings("unused") long pos,
                         @SuppressWarnings("unused") @Bind("this") Node inliningTarget,
                         @SuppressWarnings("unused") @Cached PyObjectSizeNode sizeNode,
                         @SuppressWarnings("unused") @Cached InlinedGetClassNode getClassNode,
                         @SuppressWarnings("unused") @Cached IsSubtypeNode isSubtypeNode) {
+            if (dict instanceof PDict) {
+                // iteration finished, do not keep the storage alive
+                ((PDict) dict).setCApiIteratorState(null);
+            }
             return getNativeNull();
         }
 
@@ -110,6 +110,13 @@ public final class PTextIO extends PTextIOBase {
     /* Cache raw object if it's a FileIO object */
     private PFileIO raw;
 
+    /*
+     * Encoding in which lines can be decoded straight from the buffer (see
+     * TextIOWrapperNodes.FusedReadlineNode), or null if lines have to go through the decoder
+     * object. This is only set while the decoder holds no pending input.
+     */
+    private TruffleString.Encoding fusedEncoding;
+
     public PTextIO(Object cls, Shape instanceShape) {
         super(cls, instanceShape);
         pendingBytes = createOutputStream();
@@ -129,6 +136,7 @@ public final class PTextIO extends PTextIOBase {
         clearSnapshot();
         encodefunc = null;
         b2cratio = 0.0;
+        fusedEncoding = null;
     }
 
     public boolean isDetached() {
@@ -390,6 +398,14 @@ public final class PTextIO extends PTextIOBase {
         this.raw = raw;
     }
 
+    public TruffleString.Encoding getFusedEncoding() {
+        return fusedEncoding;
+    }
+
+    public void setFusedEncoding(TruffleString.Encoding fusedEncoding) {
+        this.fusedEncoding = fusedEncoding;
+    }
+
     public static PTextIO createTextIO(Object cls, Shape instanceShape) {
         return new PTextIO(cls, instanceShape);
     }
@@ -656,6 +656,8 @@ public final class TextIOWrapperBuiltins extends PythonBuiltins {
             if (!self.isSeekable()) {
                 throw raise(IOUnsupportedOperation, UNDERLYING_STREAM_IS_NOT_SEEKABLE);
             }
+            // restoring a decoder state may leave input pending in the decoder
+            self.setFusedEncoding(null);
 
             Object cookieObj = c;
 
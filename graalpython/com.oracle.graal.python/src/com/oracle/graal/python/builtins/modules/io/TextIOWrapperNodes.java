@@ -75,11 +75,15 @@ import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueErr
 import static com.oracle.graal.python.util.PythonUtils.TS_ENCODING;
 import static com.oracle.graal.python.util.PythonUtils.tsLiteral;
 
+import java.nio.charset.Charset;
+
+import com.oracle.graal.python.builtins.modules.CodecsModuleBuiltins;
 import com.oracle.graal.python.builtins.modules.CodecsTruffleModuleBuiltins;
 import com.oracle.graal.python.builtins.modules.WarningsModuleBuiltins;
 import com.oracle.graal.python.builtins.objects.PNone;
 import com.oracle.graal.python.builtins.objects.buffer.PythonBufferAccessLibrary;
 import com.oracle.graal.python.builtins.objects.buffer.PythonBufferAcquireLibrary;
+import com.oracle.graal.python.builtins.objects.bytes.BytesUtils;
 import com.oracle.graal.python.builtins.objects.bytes.PBytes;
 import com.oracle.graal.python.builtins.objects.common.SequenceNodes;
 import com.oracle.graal.python.builtins.objects.str.StringNodes.CastToTruffleStringCheckedNode;
@@ -99,7 +103,9 @@ import com.oracle.graal.python.runtime.PythonContext;
 import com.oracle.graal.python.runtime.PythonOptions;
 import com.oracle.graal.python.runtime.exception.PException;
 import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.graal.python.util.CharsetMapping;
 import com.oracle.graal.python.util.PythonUtils;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Bind;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Cached.Exclusive;
@@ -362,9 +368,18 @@ public abstract class TextIOWrapperNodes {
                         @Cached TruffleStringBuilder.ToStringNode toStringNode,
                         @Cached TruffleString.CodePointLengthNode codePointLengthNode,
                         @Cached TruffleString.SubstringNode substringNode,
-                        @Cached TruffleString.ConcatNode concatNode) {
+                        @Cached TruffleString.ConcatNode concatNode,
+                        @Cached FusedReadlineNode fusedReadlineNode) {
             writeFlushNode.execute(frame, self);
 
+            if (self.getFusedEncoding() != null && limit < 0 && !self.isTelling() && !self.hasDecodedCharsAvailable()) {
+                TruffleString fusedLine = fusedReadlineNode.execute(frame, inliningTarget, self);
+                if (fusedLine != null) {
+                    return fusedLine;
+                }
+                // the line needed the decoder object, its decoded chars are available now
+            }
+
             int chunked = 0;
             int start, endpos, offsetToBuffer;
             TruffleString line = null;
@@ -475,6 +490,68 @@ public abstract class TextIOWrapperNodes {
         }
     }
 
+    /**
+     * Reads one line for {@link ReadlineNode} straight from the byte buffer of a {@link PBuffered}
+     * and creates the line string directly from the bytes, bypassing the decoder object and the
+     * intermediate chunk string. This is only used for UTF-8, Latin-1 and ASCII with translated
+     * universal newlines (the default {@code newline=None}) and while the decoder holds no pending
+     * input (see {@link PTextIO#getFusedEncoding()}). Lines that are not valid in the encoding or
+     * that contain {@code \r} are passed to the decoder object instead, which then takes over for
+     * the rest of the stream. In that case, {@code null} is returned and the decoded line is left
+     * in the decoded chars of {@code self}.
+     */
+    @GenerateInline
+    @GenerateCached(false)
+    protected abstract static class FusedReadlineNode extends Node {
+
+        public abstract TruffleString execute(VirtualFrame frame, Node inliningTarget, PTextIO self);
+
+        @Specialization
+        static TruffleString readline(VirtualFrame frame, Node inliningTarget, PTextIO self,
+                        @Cached BufferedReaderMixinBuiltins.BufferedReadlineNode bufferedReadlineNode,
+                        @Cached InlinedConditionProfile fallbackProfile,
+                        @Cached(inline = false) TruffleString.FromByteArrayNode fromByteArrayNode,
+                        @Cached(inline = false) TruffleString.GetCodeRangeNode getCodeRangeNode,
+                        @Cached(inline = false) TruffleString.SwitchEncodingNode switchEncodingNode,
+                        @Cached(inline = false) TruffleString.CodePointLengthNode codePointLengthNode,
+                        @Cached(inline = false) DecodeNode decodeNode,
+                        @Cached(inline = false) PythonObjectFactory factory) {
+            TruffleString.Encoding encoding = self.getFusedEncoding();
+            byte[] bytes = bufferedReadlineNode.execute(frame, inliningTarget, (PBuffered) self.getBuffer(), -1);
+            if (bytes.length == 0) {
+                return T_EMPTY_STRING;
+            }
+            // the array is freshly allocated by the buffered reader, so it need not be copied
+            TruffleString line = fromByteArrayNode.execute(bytes, encoding, false);
+            if (fallbackProfile.profile(inliningTarget, getCodeRangeNode.execute(line, encoding) == TruffleString.CodeRange.BROKEN ||
+                            BytesUtils.memchr(bytes, 0, (byte) '\r', bytes.length) >= 0)) {
+                self.setFusedEncoding(null);
+                TruffleString decoded = decodeNode.execute(frame, self.getDecoder(), factory.createBytes(bytes), false);
+                self.clearDecodedChars();
+                self.setDecodedChars(decoded, codePointLengthNode);
+                return null;
+            }
+            if (bytes[bytes.length - 1] == '\n') {
+                PNLDecoder decoder = (PNLDecoder) self.getDecoder();
+                decoder.setSeenNewline(decoder.getSeenNewline() | IncrementalNewlineDecoderBuiltins.SEEN_LF);
+            }
+            return switchEncodingNode.execute(line, TS_ENCODING);
+        }
+
+        /**
+         * Returns the encoding in which {@link FusedReadlineNode} can decode the lines of
+         * {@code self}, or {@code null} if the regular decoding path has to be used.
+         */
+        @TruffleBoundary
+        static TruffleString.Encoding getFusedEncoding(PTextIO self) {
+            if (!(self.getBuffer() instanceof PBuffered buffered) || !buffered.isFastClosedChecks() || !(self.getDecoder() instanceof PNLDecoder) || !self.isReadTranslate()) {
+                return null;
+            }
+            Charset charset = CharsetMapping.getCharsetNormalized(CharsetMapping.normalizeUncached(self.getEncoding()));
+            return charset == null ? null : CodecsModuleBuiltins.getFastPathEncoding(charset);
+        }
+    }
+
     /*
      * cpython/Modules/_io/textio.c:textiowrapper_read_chunk
      */
@@ -528,6 +605,8 @@ public abstract class TextIOWrapperNodes {
             }
 
             /* Read a chunk, decode it, and put the result in self._decoded_chars. */
+            // the decoder may keep part of the chunk, so lines cannot bypass it any more
+            self.setFusedEncoding(null);
             int sizeHint = hint;
             if (sizeHint > 0) {
                 sizeHint = (int) (Math.max(self.getB2cratio(), 1.0) * sizeHint);
@@ -733,6 +812,7 @@ public abstract class TextIOWrapperNodes {
                 return;
             }
             Object decoder = getIncrementalDecoderNode.execute(frame, codecInfo, errors);
+            self.setFusedEncoding(null);
             if (self.isReadUniversal()) {
                 PNLDecoder incDecoder = factory.createNLDecoder(PIncrementalNewlineDecoder);
                 IncrementalNewlineDecoderBuiltins.InitNode.internalInit(incDecoder, decoder, self.isReadTranslate());
@@ -873,6 +953,7 @@ public abstract class TextIOWrapperNodes {
             self.setEncodingStartOfStream(false);
             fixEncoderStateNode.execute(frame, inliningTarget, self);
 
+            self.setFusedEncoding(FusedReadlineNode.getFusedEncoding(self));
             self.setOK(true);
         }
     }
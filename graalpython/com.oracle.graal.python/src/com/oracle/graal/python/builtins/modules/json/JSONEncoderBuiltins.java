@@ -45,7 +45,6 @@ import com.oracle.graal.python.builtins.objects.common.HashingStorageNodes.Hashi
 import com.oracle.graal.python.builtins.objects.common.HashingStorageNodes.HashingStorageIteratorValue;
 import com.oracle.graal.python.builtins.objects.common.HashingStorageNodes.HashingStorageLen;
 import com.oracle.graal.python.builtins.objects.dict.PDict;
-import com.oracle.graal.python.builtins.objects.floats.FloatBuiltins;
 import com.oracle.graal.python.builtins.objects.floats.PFloat;
 import com.oracle.graal.python.builtins.objects.ints.PInt;
 import com.oracle.graal.python.builtins.objects.list.ListBuiltins.ListSortNode;
@@ -56,7 +55,6 @@ import com.oracle.graal.python.builtins.objects.tuple.PTuple;
 import com.oracle.graal.python.builtins.objects.type.SpecialMethodSlot;
 import com.oracle.graal.python.lib.GetNextNode;
 import com.oracle.graal.python.nodes.ErrorMessages;
-import com.oracle.graal.python.nodes.PRaiseNode;
 import com.oracle.graal.python.nodes.SpecialMethodNames;
 import com.oracle.graal.python.nodes.builtins.ListNodes.ConstructListNode;
 import com.oracle.graal.python.nodes.call.special.CallUnaryMethodNode;
@@ -67,7 +65,7 @@ import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProv
 import com.oracle.graal.python.nodes.object.BuiltinClassProfiles.IsBuiltinObjectProfile;
 import com.oracle.graal.python.nodes.util.CastToTruffleStringNode;
 import com.oracle.graal.python.runtime.exception.PException;
-import com.oracle.graal.python.runtime.formatting.FloatFormatter;
+import com.oracle.graal.python.runtime.formatting.DoubleToDecimal;
 import com.oracle.graal.python.runtime.sequence.PSequence;
 import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
@@ -141,16 +139,10 @@ public class JSONEncoderBuiltins extends PythonBuiltins {
                     appendStringNode.execute(builder, T_NAN);
                 }
             } else {
-                appendStringNode.execute(builder, formatDouble(obj));
+                DoubleToDecimal.appendRepr(builder, obj, TruffleStringBuilder.AppendCodePointNode.getUncached(), TruffleStringBuilder.AppendLongNumberNode.getUncached());
             }
         }
 
-        private static TruffleString formatDouble(double obj) {
-            FloatFormatter f = new FloatFormatter(PRaiseNode.getUncached(), FloatBuiltins.StrNode.spec);
-            f.setMinFracDigits(1);
-            return FloatBuiltins.StrNode.doFormat(obj, f);
-        }
-
         private void appendString(PJSONEncoder encoder, TruffleStringBuilder builder, TruffleString obj) {
             switch (encoder.fastEncode) {
                 case FastEncode:
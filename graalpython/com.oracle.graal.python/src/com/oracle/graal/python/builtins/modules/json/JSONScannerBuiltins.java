@@ -144,9 +144,11 @@ public class JSONScannerBuiltins extends PythonBuiltins {
                         throw decodeError(this, string, idx, ErrorMessages.EXPECTING_PROP_NAME_ECLOSED_IN_DBL_QUOTES);
                     }
                     TruffleString newKey = scanStringUnicode(string, idx + 1, scanner.strict, nextIdx, this);
-                    TruffleString key = scanner.memo.putIfAbsent(newKey, newKey);
+                    TruffleString key = scanner.memo.get(newKey);
                     if (key == null) {
-                        key = newKey;
+                        // share the instance with an equal interned name, e.g., from code
+                        key = getContext().getInternTable().lookup(newKey);
+                        scanner.memo.put(key, key);
                     }
                     idx = nextIdx.value;
 
@@ -339,8 +341,7 @@ public class JSONScannerBuiltins extends PythonBuiltins {
             nextIdx.value = idx;
             if (isFloat) {
                 if (PyFloatCheckExactNode.getUncached().execute(scanner.parseFloat)) {
-                    String numStr = string.substring(start, idx);
-                    return FloatUtils.parseValidString(numStr);
+                    return FloatUtils.parseValidString(string, start, idx);
                 } else {
                     /* copy the section we determined to be a number */
                     TruffleString numStr = toTruffleStringUncached(string.substring(start, idx));
@@ -60,6 +60,7 @@ import static com.oracle.graal.python.util.PythonUtils.TS_ENCODING;
 import static com.oracle.graal.python.util.PythonUtils.toTruffleStringUncached;
 import static com.oracle.graal.python.util.PythonUtils.tsLiteral;
 
+import java.nio.ByteOrder;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.ZoneId;
@@ -68,7 +69,10 @@ import java.util.HashSet;
 
 import com.oracle.graal.python.PythonLanguage;
 import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.objects.array.PArray;
+import com.oracle.graal.python.builtins.objects.buffer.PythonBufferAccessLibrary;
 import com.oracle.graal.python.builtins.objects.bytes.PBytes;
+import com.oracle.graal.python.builtins.objects.bytes.PBytesLike;
 import com.oracle.graal.python.builtins.objects.cext.capi.CApiGuards;
 import com.oracle.graal.python.builtins.objects.cext.capi.DynamicObjectNativeWrapper;
 import com.oracle.graal.python.builtins.objects.common.DynamicObjectStorage;
@@ -83,7 +87,9 @@ import com.oracle.graal.python.builtins.objects.function.PBuiltinFunction;
 import com.oracle.graal.python.builtins.objects.function.PFunction;
 import com.oracle.graal.python.builtins.objects.function.PKeyword;
 import com.oracle.graal.python.builtins.objects.list.PList;
+import com.oracle.graal.python.builtins.objects.memoryview.PMemoryView;
 import com.oracle.graal.python.builtins.objects.method.PBuiltinMethod;
+import com.oracle.graal.python.builtins.objects.mmap.PMMap;
 import com.oracle.graal.python.builtins.objects.module.PythonModule;
 import com.oracle.graal.python.builtins.objects.object.ObjectNodes;
 import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
@@ -140,6 +146,7 @@ import com.oracle.truffle.api.dsl.Bind;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Cached.Exclusive;
 import com.oracle.truffle.api.dsl.Cached.Shared;
+import com.oracle.truffle.api.dsl.Fallback;
 import com.oracle.truffle.api.dsl.GenerateUncached;
 import com.oracle.truffle.api.dsl.ImportStatic;
 import com.oracle.truffle.api.dsl.ReportPolymorphism;
@@ -147,6 +154,7 @@ import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.interop.ArityException;
 import com.oracle.truffle.api.interop.InteropLibrary;
 import com.oracle.truffle.api.interop.InvalidArrayIndexException;
+import com.oracle.truffle.api.interop.InvalidBufferOffsetException;
 import com.oracle.truffle.api.interop.StopIterationException;
 import com.oracle.truffle.api.interop.TruffleObject;
 import com.oracle.truffle.api.interop.UnknownIdentifierException;
@@ -422,6 +430,231 @@ public abstract class PythonAbstractObject extends DynamicObject implements Truf
         }
     }
 
+    @ExportMessage
+    public boolean hasBufferElements(
+                    @Shared("isBuffer") @Cached PInteropIsBufferNode isBufferNode) {
+        return isBufferNode.execute(this);
+    }
+
+    @ExportMessage
+    public boolean isBufferWritable(
+                    @Shared("isBuffer") @Cached PInteropIsBufferNode isBufferNode,
+                    @CachedLibrary("this") PythonBufferAccessLibrary bufferLib) throws UnsupportedMessageException {
+        if (!isBufferNode.execute(this)) {
+            throw UnsupportedMessageException.create();
+        }
+        return !bufferLib.isReadonly(this);
+    }
+
+    @ExportMessage
+    public long getBufferSize(
+                    @Shared("isBuffer") @Cached PInteropIsBufferNode isBufferNode,
+                    @CachedLibrary("this") PythonBufferAccessLibrary bufferLib,
+                    @Exclusive @Cached GilNode gil) throws UnsupportedMessageException {
+        if (!isBufferNode.execute(this)) {
+            throw UnsupportedMessageException.create();
+        }
+        boolean mustRelease = gil.acquire();
+        try {
+            return bufferLib.getBufferLength(this);
+        } finally {
+            gil.release(mustRelease);
+        }
+    }
+
+    @ExportMessage
+    public void readBuffer(long byteOffset, byte[] destination, int destinationOffset, int length,
+                    @Shared("isBuffer") @Cached PInteropIsBufferNode isBufferNode,
+                    @CachedLibrary("this") PythonBufferAccessLibrary bufferLib,
+                    @Exclusive @Cached GilNode gil) throws UnsupportedMessageException, InvalidBufferOffsetException {
+        boolean mustRelease = gil.acquire();
+        try {
+            int offset = checkBufferAccess(isBufferNode, bufferLib, byteOffset, length, false);
+            bufferLib.readIntoByteArray(this, offset, destination, destinationOffset, length);
+        } finally {
+            gil.release(mustRelease);
+        }
+    }
+
+    @ExportMessage
+    public byte readBufferByte(long byteOffset,
+                    @Shared("isBuffer") @Cached PInteropIsBufferNode isBufferNode,
+                    @CachedLibrary("this") PythonBufferAccessLibrary bufferLib,
+                    @Exclusive @Cached GilNode gil) throws UnsupportedMessageException, InvalidBufferOffsetException {
+        boolean mustRelease = gil.acquire();
+        try {
+            return bufferLib.readByte(this, checkBufferAccess(isBufferNode, bufferLib, byteOffset, Byte.BYTES, false));
+        } finally {
+            gil.release(mustRelease);
+        }
+    }
+
+    @ExportMessage
+    public short readBufferShort(ByteOrder order, long byteOffset,
+                    @Shared("isBuffer") @Cached PInteropIsBufferNode isBufferNode,
+                    @CachedLibrary("this") PythonBufferAccessLibrary bufferLib,
+                    @Exclusive @Cached GilNode gil) throws UnsupportedMessageException, InvalidBufferOffsetException {
+        boolean mustRelease = gil.acquire();
+        try {
+            short value = bufferLib.readShort(this, checkBufferAccess(isBufferNode, bufferLib, byteOffset, Short.BYTES, false));
+            return order == ByteOrder.nativeOrder() ? value : Short.reverseBytes(value);
+        } finally {
+            gil.release(mustRelease);
+        }
+    }
+
+    @ExportMessage
+    public int readBufferInt(ByteOrder order, long byteOffset,
+                    @Shared("isBuffer") @Cached PInteropIsBufferNode isBufferNode,
+                    @CachedLibrary("this") PythonBufferAccessLibrary bufferLib,
+                    @Exclusive @Cached GilNode gil) throws UnsupportedMessageException, InvalidBufferOffsetException {
+        boolean mustRelease = gil.acquire();
+        try {
+            int value = bufferLib.readInt(this, checkBufferAccess(isBufferNode, bufferLib, byteOffset, Integer.BYTES, false));
+            return order == ByteOrder.nativeOrder() ? value : Integer.reverseBytes(value);
+        } finally {
+            gil.release(mustRelease);
+        }
+    }
+
+    @ExportMessage
+    public long readBufferLong(ByteOrder order, long byteOffset,
+                    @Shared("isBuffer") @Cached PInteropIsBufferNode isBufferNode,
+                    @CachedLibrary("this") PythonBufferAccessLibrary bufferLib,
+                    @Exclusive @Cached GilNode gil) throws UnsupportedMessageException, InvalidBufferOffsetException {
+        boolean mustRelease = gil.acquire();
+        try {
+            long value = bufferLib.readLong(this, checkBufferAccess(isBufferNode, bufferLib, byteOffset, Long.BYTES, false));
+            return order == ByteOrder.nativeOrder() ? value : Long.reverseBytes(value);
+        } finally {
+            gil.release(mustRelease);
+        }
+    }
+
+    @ExportMessage
+    public float readBufferFloat(ByteOrder order, long byteOffset,
+                    @Shared("isBuffer") @Cached PInteropIsBufferNode isBufferNode,
+                    @CachedLibrary("this") PythonBufferAccessLibrary bufferLib,
+                    @Exclusive @Cached GilNode gil) throws UnsupportedMessageException, InvalidBufferOffsetException {
+        boolean mustRelease = gil.acquire();
+        try {
+            int bits = bufferLib.readInt(this, checkBufferAccess(isBufferNode, bufferLib, byteOffset, Float.BYTES, false));
+            return Float.intBitsToFloat(order == ByteOrder.nativeOrder() ? bits : Integer.reverseBytes(bits));
+        } finally {
+            gil.release(mustRelease);
+        }
+    }
+
+    @ExportMessage
+    public double readBufferDouble(ByteOrder order, long byteOffset,
+                    @Shared("isBuffer") @Cached PInteropIsBufferNode isBufferNode,
+                    @CachedLibrary("this") PythonBufferAccessLibrary bufferLib,
+                    @Exclusive @Cached GilNode gil) throws UnsupportedMessageException, InvalidBufferOffsetException {
+        boolean mustRelease = gil.acquire();
+        try {
+            long bits = bufferLib.readLong(this, checkBufferAccess(isBufferNode, bufferLib, byteOffset, Double.BYTES, false));
+            return Double.longBitsToDouble(order == ByteOrder.nativeOrder() ? bits : Long.reverseBytes(bits));
+        } finally {
+            gil.release(mustRelease);
+        }
+    }
+
+    @ExportMessage
+    public void writeBufferByte(long byteOffset, byte value,
+                    @Shared("isBuffer") @Cached PInteropIsBufferNode isBufferNode,
+                    @CachedLibrary("this") PythonBufferAccessLibrary bufferLib,
+                    @Exclusive @Cached GilNode gil) throws UnsupportedMessageException, InvalidBufferOffsetException {
+        boolean mustRelease = gil.acquire();
+        try {
+            bufferLib.writeByte(this, checkBufferAccess(isBufferNode, bufferLib, byteOffset, Byte.BYTES, true), value);
+        } finally {
+            gil.release(mustRelease);
+        }
+    }
+
+    @ExportMessage
+    public void writeBufferShort(ByteOrder order, long byteOffset, short value,
+                    @Shared("isBuffer") @Cached PInteropIsBufferNode isBufferNode,
+                    @CachedLibrary("this") PythonBufferAccessLibrary bufferLib,
+                    @Exclusive @Cached GilNode gil) throws UnsupportedMessageException, InvalidBufferOffsetException {
+        boolean mustRelease = gil.acquire();
+        try {
+            int offset = checkBufferAccess(isBufferNode, bufferLib, byteOffset, Short.BYTES, true);
+            bufferLib.writeShort(this, offset, order == ByteOrder.nativeOrder() ? value : Short.reverseBytes(value));
+        } finally {
+            gil.release(mustRelease);
+        }
+    }
+
+    @ExportMessage
+    public void writeBufferInt(ByteOrder order, long byteOffset, int value,
+                    @Shared("isBuffer") @Cached PInteropIsBufferNode isBufferNode,
+                    @CachedLibrary("this") PythonBufferAccessLibrary bufferLib,
+                    @Exclusive @Cached GilNode gil) throws UnsupportedMessageException, InvalidBufferOffsetException {
+        boolean mustRelease = gil.acquire();
+        try {
+            int offset = checkBufferAccess(isBufferNode, bufferLib, byteOffset, Integer.BYTES, true);
+            bufferLib.writeInt(this, offset, order == ByteOrder.nativeOrder() ? value : Integer.reverseBytes(value));
+        } finally {
+            gil.release(mustRelease);
+        }
+    }
+
+    @ExportMessage
+    public void writeBufferLong(ByteOrder order, long byteOffset, long value,
+                    @Shared("isBuffer") @Cached PInteropIsBufferNode isBufferNode,
+                    @CachedLibrary("this") PythonBufferAccessLibrary bufferLib,
+                    @Exclusive @Cached GilNode gil) throws UnsupportedMessageException, InvalidBufferOffsetException {
+        boolean mustRelease = gil.acquire();
+        try {
+            int offset = checkBufferAccess(isBufferNode, bufferLib, byteOffset, Long.BYTES, true);
+            bufferLib.writeLong(this, offset, order == ByteOrder.nativeOrder() ? value : Long.reverseBytes(value));
+        } finally {
+            gil.release(mustRelease);
+        }
+    }
+
+    @ExportMessage
+    public void writeBufferFloat(ByteOrder order, long byteOffset, float value,
+                    @Shared("isBuffer") @Cached PInteropIsBufferNode isBufferNode,
+                    @CachedLibrary("this") PythonBufferAccessLibrary bufferLib,
+                    @Exclusive @Cached GilNode gil) throws UnsupportedMessageException, InvalidBufferOffsetException {
+        boolean mustRelease = gil.acquire();
+        try {
+            int offset = checkBufferAccess(isBufferNode, bufferLib, byteOffset, Float.BYTES, true);
+            int bits = Float.floatToRawIntBits(value);
+            bufferLib.writeInt(this, offset, order == ByteOrder.nativeOrder() ? bits : Integer.reverseBytes(bits));
+        } finally {
+            gil.release(mustRelease);
+        }
+    }
+
+    @ExportMessage
+    public void writeBufferDouble(ByteOrder order, long byteOffset, double value,
+                    @Shared("isBuffer") @Cached PInteropIsBufferNode isBufferNode,
+                    @CachedLibrary("this") PythonBufferAccessLibrary bufferLib,
+                    @Exclusive @Cached GilNode gil) throws UnsupportedMessageException, InvalidBufferOffsetException {
+        boolean mustRelease = gil.acquire();
+        try {
+            int offset = checkBufferAccess(isBufferNode, bufferLib, byteOffset, Double.BYTES, true);
+            long bits = Double.doubleToRawLongBits(value);
+            bufferLib.writeLong(this, offset, order == ByteOrder.nativeOrder() ? bits : Long.reverseBytes(bits));
+        } finally {
+            gil.release(mustRelease);
+        }
+    }
+
+    private int checkBufferAccess(PInteropIsBufferNode isBufferNode, PythonBufferAccessLibrary bufferLib, long byteOffset, int length, boolean write)
+                    throws UnsupportedMessageException, InvalidBufferOffsetException {
+        if (!isBufferNode.execute(this) || (write && bufferLib.isReadonly(this))) {
+            throw UnsupportedMessageException.create();
+        }
+        if (byteOffset < 0 || length < 0 || byteOffset > bufferLib.getBufferLength(this) - (long) length) {
+            throw InvalidBufferOffsetException.create(byteOffset, length);
+        }
+        return (int) byteOffset;
+    }
+
     @ExportMessage
     public boolean hasMembers() {
         return true;
@@ -1120,6 +1353,46 @@ public abstract class PythonAbstractObject extends DynamicObject implements Truf
         }
     }
 
+    /**
+     * Determines whether an object is exposed to other languages as an interop buffer. Only objects
+     * that implement {@link PythonBufferAccessLibrary} themselves over contiguous memory qualify, so
+     * the buffer messages can access {@code this} directly without acquiring a buffer first.
+     */
+    @GenerateUncached
+    public abstract static class PInteropIsBufferNode extends Node {
+
+        public abstract boolean execute(Object object);
+
+        @Specialization
+        static boolean doBytesLike(@SuppressWarnings("unused") PBytesLike object) {
+            return true;
+        }
+
+        @Specialization
+        static boolean doArray(@SuppressWarnings("unused") PArray object) {
+            return true;
+        }
+
+        @Specialization
+        static boolean doMemoryView(PMemoryView object) {
+            return !object.isReleased() && object.isCContiguous();
+        }
+
+        @Specialization
+        static boolean doMMap(PMMap object) {
+            return !object.isClosed();
+        }
+
+        @Fallback
+        static boolean doOther(@SuppressWarnings("unused") Object object) {
+            return false;
+        }
+
+        public static PInteropIsBufferNode getUncached() {
+            return PythonAbstractObjectFactory.PInteropIsBufferNodeGen.getUncached();
+        }
+    }
+
     @GenerateUncached
     public abstract static class IsImmutable extends Node {
 
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2023, 2023, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.buffer;
+
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.BufferError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.TypeError;
+
+import java.nio.ByteBuffer;
+
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PRaiseNode;
+import com.oracle.graal.python.nodes.object.IsForeignObjectNode;
+import com.oracle.graal.python.runtime.PythonContext;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.TruffleLanguage.Env;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Cached.Shared;
+import com.oracle.truffle.api.interop.InteropLibrary;
+import com.oracle.truffle.api.interop.UnsupportedMessageException;
+import com.oracle.truffle.api.library.CachedLibrary;
+import com.oracle.truffle.api.library.ExportLibrary;
+import com.oracle.truffle.api.library.ExportMessage;
+
+/**
+ * Makes foreign objects usable wherever Python expects a bytes-like object. Java primitive arrays
+ * (and heap {@link ByteBuffer}s) are wrapped in a {@link HostArrayBuffer} that accesses the array
+ * in place; any other foreign object that has interop buffer elements is accessed through the
+ * interop buffer messages by a {@link ForeignBuffer}. In both cases nothing is copied on
+ * acquisition.
+ */
+@ExportLibrary(value = PythonBufferAcquireLibrary.class, receiverType = Object.class)
+final class DefaultBufferAcquireExports {
+
+    @ExportMessage
+    static boolean hasBuffer(Object receiver,
+                    @Shared("isForeign") @Cached IsForeignObjectNode isForeignObjectNode,
+                    @Shared("interop") @CachedLibrary(limit = "3") InteropLibrary interop) {
+        if (!isForeignObjectNode.execute(receiver)) {
+            return false;
+        }
+        return getHostArray(PythonContext.get(isForeignObjectNode).getEnv(), receiver) != null || interop.hasBufferElements(receiver);
+    }
+
+    @ExportMessage
+    static Object acquire(Object receiver, int flags,
+                    @Shared("isForeign") @Cached IsForeignObjectNode isForeignObjectNode,
+                    @Shared("interop") @CachedLibrary(limit = "3") InteropLibrary interop,
+                    @Cached PRaiseNode raiseNode) {
+        if (isForeignObjectNode.execute(receiver)) {
+            Object hostArray = getHostArray(PythonContext.get(isForeignObjectNode).getEnv(), receiver);
+            if (hostArray != null) {
+                return HostArrayBuffer.create(receiver, hostArray);
+            }
+            if (interop.hasBufferElements(receiver)) {
+                try {
+                    boolean writable = interop.isBufferWritable(receiver);
+                    if (BufferFlags.requestsWritable(flags) && !writable) {
+                        throw raiseNode.raise(BufferError, ErrorMessages.OBJ_IS_NOT_WRITABLE);
+                    }
+                    long size = interop.getBufferSize(receiver);
+                    if (size > Integer.MAX_VALUE) {
+                        throw raiseNode.raise(BufferError, ErrorMessages.FOREIGN_BUFFER_TOO_LARGE, size);
+                    }
+                    return new ForeignBuffer(receiver, (int) size, !writable);
+                } catch (UnsupportedMessageException e) {
+                    throw CompilerDirectives.shouldNotReachHere(e);
+                }
+            }
+        }
+        throw raiseNode.raise(TypeError, ErrorMessages.BYTESLIKE_OBJ_REQUIRED, receiver);
+    }
+
+    /**
+     * Returns the Java primitive array backing the given host object, or {@code null}.
+     * {@code boolean[]} and {@code char[]} are not considered bytes-like.
+     */
+    static Object getHostArray(Env env, Object receiver) {
+        if (!env.isHostObject(receiver)) {
+            return null;
+        }
+        Object hostObject = env.asHostObject(receiver);
+        if (hostObject instanceof byte[] || hostObject instanceof short[] || hostObject instanceof int[] || hostObject instanceof long[] || hostObject instanceof float[] ||
+                        hostObject instanceof double[]) {
+            return hostObject;
+        }
+        if (hostObject instanceof ByteBuffer byteBuffer && byteBuffer.hasArray() && byteBuffer.arrayOffset() == 0) {
+            return byteBuffer;
+        }
+        return null;
+    }
+}
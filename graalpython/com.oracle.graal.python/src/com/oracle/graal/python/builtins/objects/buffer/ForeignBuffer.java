@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) 2023, 2023, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.buffer;
+
+import java.nio.ByteOrder;
+
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.dsl.Cached.Shared;
+import com.oracle.truffle.api.interop.InteropLibrary;
+import com.oracle.truffle.api.interop.InvalidBufferOffsetException;
+import com.oracle.truffle.api.interop.UnsupportedMessageException;
+import com.oracle.truffle.api.library.CachedLibrary;
+import com.oracle.truffle.api.library.ExportLibrary;
+import com.oracle.truffle.api.library.ExportMessage;
+
+/**
+ * A buffer over a foreign object that has interop buffer elements. All accesses are forwarded to
+ * the interop buffer messages; bulk reads use {@link InteropLibrary#readBuffer}.
+ */
+@ExportLibrary(PythonBufferAccessLibrary.class)
+public final class ForeignBuffer {
+
+    private final Object delegate;
+    private final int length;
+    private final boolean readonly;
+
+    ForeignBuffer(Object delegate, int length, boolean readonly) {
+        this.delegate = delegate;
+        this.length = length;
+        this.readonly = readonly;
+    }
+
+    @ExportMessage
+    @SuppressWarnings("static-method")
+    boolean isBuffer() {
+        return true;
+    }
+
+    @ExportMessage
+    int getBufferLength() {
+        return length;
+    }
+
+    @ExportMessage
+    boolean isReadonly() {
+        return readonly;
+    }
+
+    @ExportMessage
+    Object getOwner() {
+        return delegate;
+    }
+
+    @ExportMessage
+    void readIntoByteArray(int srcOffset, byte[] dest, int destOffset, int len,
+                    @Shared("interop") @CachedLibrary(limit = "3") InteropLibrary interop) {
+        try {
+            interop.readBuffer(delegate, srcOffset, dest, destOffset, len);
+        } catch (UnsupportedMessageException | InvalidBufferOffsetException e) {
+            throw CompilerDirectives.shouldNotReachHere(e);
+        }
+    }
+
+    @ExportMessage
+    byte readByte(int byteOffset,
+                    @Shared("interop") @CachedLibrary(limit = "3") InteropLibrary interop) {
+        try {
+            return interop.readBufferByte(delegate, byteOffset);
+        } catch (UnsupportedMessageException | InvalidBufferOffsetException e) {
+            throw CompilerDirectives.shouldNotReachHere(e);
+        }
+    }
+
+    @ExportMessage
+    short readShort(int byteOffset,
+                    @Shared("interop") @CachedLibrary(limit = "3") InteropLibrary interop) {
+        try {
+            return interop.readBufferShort(delegate, ByteOrder.nativeOrder(), byteOffset);
+        } catch (UnsupportedMessageException | InvalidBufferOffsetException e) {
+            throw CompilerDirectives.shouldNotReachHere(e);
+        }
+    }
+
+    @ExportMessage
+    int readInt(int byteOffset,
+                    @Shared("interop") @CachedLibrary(limit = "3") InteropLibrary interop) {
+        try {
+            return interop.readBufferInt(delegate, ByteOrder.nativeOrder(), byteOffset);
+        } catch (UnsupportedMessageException | InvalidBufferOffsetException e) {
+            throw CompilerDirectives.shouldNotReachHere(e);
+        }
+    }
+
+    @ExportMessage
+    long readLong(int byteOffset,
+                    @Shared("interop") @CachedLibrary(limit = "3") InteropLibrary interop) {
+        try {
+            return interop.readBufferLong(delegate, ByteOrder.nativeOrder(), byteOffset);
+        } catch (UnsupportedMessageException | InvalidBufferOffsetException e) {
+            throw CompilerDirectives.shouldNotReachHere(e);
+        }
+    }
+
+    @ExportMessage
+    float readFloat(int byteOffset,
+                    @Shared("interop") @CachedLibrary(limit = "3") InteropLibrary interop) {
+        try {
+            return interop.readBufferFloat(delegate, ByteOrder.nativeOrder(), byteOffset);
+        } catch (UnsupportedMessageException | InvalidBufferOffsetException e) {
+            throw CompilerDirectives.shouldNotReachHere(e);
+        }
+    }
+
+    @ExportMessage
+    double readDouble(int byteOffset,
+                    @Shared("interop") @CachedLibrary(limit = "3") InteropLibrary interop) {
+        try {
+            return interop.readBufferDouble(delegate, ByteOrder.nativeOrder(), byteOffset);
+        } catch (UnsupportedMessageException | InvalidBufferOffsetException e) {
+            throw CompilerDirectives.shouldNotReachHere(e);
+        }
+    }
+
+    @ExportMessage
+    void writeByte(int byteOffset, byte value,
+                    @Shared("interop") @CachedLibrary(limit = "3") InteropLibrary interop) {
+        try {
+            interop.writeBufferByte(delegate, byteOffset, value);
+        } catch (UnsupportedMessageException | InvalidBufferOffsetException e) {
+            throw CompilerDirectives.shouldNotReachHere(e);
+        }
+    }
+
+    @ExportMessage
+    void writeShort(int byteOffset, short value,
+                    @Shared("interop") @CachedLibrary(limit = "3") InteropLibrary interop) {
+        try {
+            interop.writeBufferShort(delegate, ByteOrder.nativeOrder(), byteOffset, value);
+        } catch (UnsupportedMessageException | InvalidBufferOffsetException e) {
+            throw CompilerDirectives.shouldNotReachHere(e);
+        }
+    }
+
+    @ExportMessage
+    void writeInt(int byteOffset, int value,
+                    @Shared("interop") @CachedLibrary(limit = "3") InteropLibrary interop) {
+        try {
+            interop.writeBufferInt(delegate, ByteOrder.nativeOrder(), byteOffset, value);
+        } catch (UnsupportedMessageException | InvalidBufferOffsetException e) {
+            throw CompilerDirectives.shouldNotReachHere(e);
+        }
+    }
+
+    @ExportMessage
+    void writeLong(int byteOffset, long value,
+                    @Shared("interop") @CachedLibrary(limit = "3") InteropLibrary interop) {
+        try {
+            interop.writeBufferLong(delegate, ByteOrder.nativeOrder(), byteOffset, value);
+        } catch (UnsupportedMessageException | InvalidBufferOffsetException e) {
+            throw CompilerDirectives.shouldNotReachHere(e);
+        }
+    }
+
+    @ExportMessage
+    void writeFloat(int byteOffset, float value,
+                    @Shared("interop") @CachedLibrary(limit = "3") InteropLibrary interop) {
+        try {
+            interop.writeBufferFloat(delegate, ByteOrder.nativeOrder(), byteOffset, value);
+        } catch (UnsupportedMessageException | InvalidBufferOffsetException e) {
+            throw CompilerDirectives.shouldNotReachHere(e);
+        }
+    }
+
+    @ExportMessage
+    void writeDouble(int byteOffset, double value,
+                    @Shared("interop") @CachedLibrary(limit = "3") InteropLibrary interop) {
+        try {
+            interop.writeBufferDouble(delegate, ByteOrder.nativeOrder(), byteOffset, value);
+        } catch (UnsupportedMessageException | InvalidBufferOffsetException e) {
+            throw CompilerDirectives.shouldNotReachHere(e);
+        }
+    }
+}
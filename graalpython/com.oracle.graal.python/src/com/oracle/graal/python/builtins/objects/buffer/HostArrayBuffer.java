@@ -0,0 +1,277 @@
+/*
+ * Copyright (c) 2023, 2023, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.buffer;
+
+import static com.oracle.graal.python.util.PythonUtils.tsLiteral;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import com.oracle.graal.python.util.PythonUtils;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.library.ExportLibrary;
+import com.oracle.truffle.api.library.ExportMessage;
+import com.oracle.truffle.api.strings.TruffleString;
+
+/**
+ * A buffer directly over a Java primitive array owned by a host object. The array is read and
+ * written in place using the native byte order, so a {@code memoryview} of a {@code double[]}
+ * behaves like one of an {@code array.array('d')}.
+ */
+@ExportLibrary(PythonBufferAccessLibrary.class)
+public final class HostArrayBuffer {
+
+    private static final boolean LITTLE_ENDIAN = ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN;
+
+    private static final TruffleString T_FORMAT_BYTE = tsLiteral("b");
+    private static final TruffleString T_FORMAT_SHORT = tsLiteral("h");
+    private static final TruffleString T_FORMAT_INT = tsLiteral("i");
+    private static final TruffleString T_FORMAT_LONG = tsLiteral("q");
+    private static final TruffleString T_FORMAT_FLOAT = tsLiteral("f");
+    private static final TruffleString T_FORMAT_DOUBLE = tsLiteral("d");
+
+    private final Object owner;
+    private final Object array;
+    private final int itemSize;
+    private final int length;
+    private final TruffleString format;
+
+    private HostArrayBuffer(Object owner, Object array, int itemSize, int length, TruffleString format) {
+        this.owner = owner;
+        this.array = array;
+        this.itemSize = itemSize;
+        this.length = length;
+        this.format = format;
+    }
+
+    static HostArrayBuffer create(Object owner, Object hostArray) {
+        if (hostArray instanceof byte[] a) {
+            return new HostArrayBuffer(owner, a, Byte.BYTES, a.length, T_FORMAT_BYTE);
+        } else if (hostArray instanceof ByteBuffer b) {
+            assert b.hasArray() && b.arrayOffset() == 0;
+            return new HostArrayBuffer(owner, b.array(), Byte.BYTES, b.limit(), T_FORMAT_BYTE);
+        } else if (hostArray instanceof short[] a) {
+            return new HostArrayBuffer(owner, a, Short.BYTES, a.length * Short.BYTES, T_FORMAT_SHORT);
+        } else if (hostArray instanceof int[] a) {
+            return new HostArrayBuffer(owner, a, Integer.BYTES, a.length * Integer.BYTES, T_FORMAT_INT);
+        } else if (hostArray instanceof long[] a) {
+            return new HostArrayBuffer(owner, a, Long.BYTES, a.length * Long.BYTES, T_FORMAT_LONG);
+        } else if (hostArray instanceof float[] a) {
+            return new HostArrayBuffer(owner, a, Float.BYTES, a.length * Float.BYTES, T_FORMAT_FLOAT);
+        } else if (hostArray instanceof double[] a) {
+            return new HostArrayBuffer(owner, a, Double.BYTES, a.length * Double.BYTES, T_FORMAT_DOUBLE);
+        }
+        throw CompilerDirectives.shouldNotReachHere();
+    }
+
+    @ExportMessage
+    @SuppressWarnings("static-method")
+    boolean isBuffer() {
+        return true;
+    }
+
+    @ExportMessage
+    int getBufferLength() {
+        return length;
+    }
+
+    @ExportMessage
+    @SuppressWarnings("static-method")
+    boolean isReadonly() {
+        return false;
+    }
+
+    @ExportMessage
+    Object getOwner() {
+        return owner;
+    }
+
+    @ExportMessage
+    int getItemSize() {
+        return itemSize;
+    }
+
+    @ExportMessage
+    TruffleString getFormatString() {
+        return format;
+    }
+
+    @ExportMessage
+    boolean hasInternalByteArray() {
+        return array instanceof byte[];
+    }
+
+    @ExportMessage
+    byte[] getInternalByteArray() {
+        assert hasInternalByteArray();
+        return (byte[]) array;
+    }
+
+    /**
+     * Raw bits of the element that contains the given byte offset.
+     */
+    private long readElementBits(int index) {
+        if (array instanceof short[] a) {
+            return a[index];
+        } else if (array instanceof int[] a) {
+            return a[index];
+        } else if (array instanceof long[] a) {
+            return a[index];
+        } else if (array instanceof float[] a) {
+            return Float.floatToRawIntBits(a[index]);
+        } else {
+            return Double.doubleToRawLongBits(((double[]) array)[index]);
+        }
+    }
+
+    private void writeElementBits(int index, long bits) {
+        if (array instanceof short[] a) {
+            a[index] = (short) bits;
+        } else if (array instanceof int[] a) {
+            a[index] = (int) bits;
+        } else if (array instanceof long[] a) {
+            a[index] = bits;
+        } else if (array instanceof float[] a) {
+            a[index] = Float.intBitsToFloat((int) bits);
+        } else {
+            ((double[]) array)[index] = Double.longBitsToDouble(bits);
+        }
+    }
+
+    private int byteShift(int byteOffset) {
+        int byteInElement = byteOffset % itemSize;
+        return 8 * (LITTLE_ENDIAN ? byteInElement : itemSize - 1 - byteInElement);
+    }
+
+    @ExportMessage
+    byte readByte(int byteOffset) {
+        if (array instanceof byte[] a) {
+            return a[byteOffset];
+        }
+        return (byte) (readElementBits(byteOffset / itemSize) >>> byteShift(byteOffset));
+    }
+
+    @ExportMessage
+    void writeByte(int byteOffset, byte value) {
+        if (array instanceof byte[] a) {
+            a[byteOffset] = value;
+            return;
+        }
+        int index = byteOffset / itemSize;
+        int shift = byteShift(byteOffset);
+        long bits = readElementBits(index) & ~(0xFFL << shift);
+        writeElementBits(index, bits | ((value & 0xFFL) << shift));
+    }
+
+    @ExportMessage
+    short readShort(int byteOffset) {
+        if (array instanceof short[] a && byteOffset % Short.BYTES == 0) {
+            return a[byteOffset / Short.BYTES];
+        }
+        return (short) composeBits(byteOffset, Short.BYTES);
+    }
+
+    @ExportMessage
+    int readInt(int byteOffset) {
+        if (array instanceof int[] a && byteOffset % Integer.BYTES == 0) {
+            return a[byteOffset / Integer.BYTES];
+        }
+        return (int) composeBits(byteOffset, Integer.BYTES);
+    }
+
+    @ExportMessage
+    long readLong(int byteOffset) {
+        if (array instanceof long[] a && byteOffset % Long.BYTES == 0) {
+            return a[byteOffset / Long.BYTES];
+        }
+        return composeBits(byteOffset, Long.BYTES);
+    }
+
+    @ExportMessage
+    float readFloat(int byteOffset) {
+        if (array instanceof float[] a && byteOffset % Float.BYTES == 0) {
+            return a[byteOffset / Float.BYTES];
+        }
+        return Float.intBitsToFloat((int) composeBits(byteOffset, Float.BYTES));
+    }
+
+    @ExportMessage
+    double readDouble(int byteOffset) {
+        if (array instanceof double[] a && byteOffset % Double.BYTES == 0) {
+            return a[byteOffset / Double.BYTES];
+        }
+        return Double.longBitsToDouble(composeBits(byteOffset, Double.BYTES));
+    }
+
+    @ExportMessage
+    void readIntoByteArray(int srcOffset, byte[] dest, int destOffset, int len) {
+        if (array instanceof byte[] a) {
+            PythonUtils.arraycopy(a, srcOffset, dest, destOffset, len);
+            return;
+        }
+        int i = 0;
+        // element-wise copy for the aligned middle part, byte-wise for the ragged ends
+        while (i < len && (srcOffset + i) % itemSize != 0) {
+            dest[destOffset + i] = readByte(srcOffset + i);
+            i++;
+        }
+        for (; i + itemSize <= len; i += itemSize) {
+            int index = (srcOffset + i) / itemSize;
+            switch (itemSize) {
+                case Short.BYTES -> PythonUtils.arrayAccessor.putShort(dest, destOffset + i, (short) readElementBits(index));
+                case Integer.BYTES -> PythonUtils.arrayAccessor.putInt(dest, destOffset + i, (int) readElementBits(index));
+                default -> PythonUtils.arrayAccessor.putLong(dest, destOffset + i, readElementBits(index));
+            }
+        }
+        for (; i < len; i++) {
+            dest[destOffset + i] = readByte(srcOffset + i);
+        }
+    }
+
+    private long composeBits(int byteOffset, int size) {
+        long bits = 0;
+        for (int i = 0; i < size; i++) {
+            int shift = 8 * (LITTLE_ENDIAN ? i : size - 1 - i);
+            bits |= (readByte(byteOffset + i) & 0xFFL) << shift;
+        }
+        return bits;
+    }
+}
@@ -55,6 +55,7 @@ import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.interop.InteropLibrary;
 import com.oracle.truffle.api.library.GenerateLibrary;
 import com.oracle.truffle.api.library.GenerateLibrary.Abstract;
+import com.oracle.truffle.api.library.GenerateLibrary.DefaultExport;
 import com.oracle.truffle.api.library.Library;
 import com.oracle.truffle.api.library.LibraryFactory;
 
@@ -70,11 +71,13 @@ import com.oracle.truffle.api.library.LibraryFactory;
  * <li>few other module-specific managed objects (e.g. {@code BytesIO})
  * <li>objects that implement the C buffer API (using {@code tp_as_buffer} slot)
  * <li>interop objects that return true from {@link InteropLibrary#hasBufferElements(Object)}
+ * <li>Java primitive arrays (except {@code boolean[]} and {@code char[]}), accessed in place
  * </ul>
  * The acquired buffer object should be accessed using {@link PythonBufferAccessLibrary} and needs
  * to be released using {@link PythonBufferAccessLibrary#release(Object)} method when done.
  */
 @GenerateLibrary(assertions = PythonBufferAcquireLibrary.Assertions.class)
+@DefaultExport(DefaultBufferAcquireExports.class)
 public abstract class PythonBufferAcquireLibrary extends Library {
     /**
      * Return whether it is possible to acquire a read-only buffer for this object. The actual
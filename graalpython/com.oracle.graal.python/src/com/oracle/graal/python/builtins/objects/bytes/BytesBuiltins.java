@@ -1071,18 +1071,17 @@ public class BytesBuiltins extends PythonBuiltins {
 
         @Specialization
         static int count(PBytesLike self, PBytesLike sub, int start, int end,
-                        @Cached.Shared("toBytes") @Cached SequenceStorageNodes.GetInternalByteArrayNode toBytesNode,
-                        @Cached @Shared BytesNodes.FindNode findNode) {
+                        @Cached.Shared("toBytes") @Cached SequenceStorageNodes.GetInternalByteArrayNode toBytesNode) {
             int len1 = self.getSequenceStorage().length();
             int begin = adjustStartIndex(start, len1);
             int last = adjustEndIndex(end, len1);
+            byte[] bytes = toBytesNode.execute(self.getSequenceStorage());
             byte[] elems = toBytesNode.execute(sub.getSequenceStorage());
             int len2 = sub.getSequenceStorage().length();
             if (len2 == 1) {
-                byte[] bytes = toBytesNode.execute(self.getSequenceStorage());
                 return countSingle(bytes, begin, last, elems[0]);
             }
-            return countMulti(self.getSequenceStorage(), begin, last, sub, len2, findNode);
+            return countMulti(bytes, begin, last, elems, len2);
         }
 
         @Specialization
@@ -1092,8 +1091,7 @@ public class BytesBuiltins extends PythonBuiltins {
                         @Cached PyIndexCheckNode indexCheckNode,
                         @Cached PyNumberAsSizeNode asSizeNode,
                         @CachedLibrary(limit = "3") PythonBufferAcquireLibrary bufferAcquireLib,
-                        @CachedLibrary(limit = "3") PythonBufferAccessLibrary bufferLib,
-                        @Cached @Shared BytesNodes.FindNode findNode) {
+                        @CachedLibrary(limit = "3") PythonBufferAccessLibrary bufferLib) {
             int len1 = self.getSequenceStorage().length();
             int begin = adjustStartIndex(start, len1);
             int last = adjustEndIndex(end, len1);
@@ -1104,13 +1102,13 @@ public class BytesBuiltins extends PythonBuiltins {
             } else if (bufferAcquireLib.hasBuffer(sub)) {
                 Object buffer = bufferAcquireLib.acquireReadonly(sub, frame, this);
                 try {
-                    byte[] elems = bufferLib.getInternalOrCopiedByteArray(sub);
-                    int elemsLen = bufferLib.getBufferLength(sub);
+                    byte[] bytes = toBytesNode.execute(self.getSequenceStorage());
+                    byte[] elems = bufferLib.getInternalOrCopiedByteArray(buffer);
+                    int elemsLen = bufferLib.getBufferLength(buffer);
                     if (elemsLen == 1) {
-                        byte[] bytes = toBytesNode.execute(self.getSequenceStorage());
                         return countSingle(bytes, begin, last, elems[0]);
                     }
-                    return countMulti(self.getSequenceStorage(), begin, last, sub, elemsLen, findNode);
+                    return countMulti(bytes, begin, last, elems, elemsLen);
                 } finally {
                     bufferLib.release(buffer, frame, this);
                 }
@@ -1118,40 +1116,21 @@ public class BytesBuiltins extends PythonBuiltins {
             throw raise(TypeError, ErrorMessages.ARG_SHOULD_BE_INT_BYTESLIKE_OBJ);
         }
 
-        @CompilerDirectives.TruffleBoundary(allowInlining = true)
-        private static int countSingle(byte[] bytes, int start, int end, int elem) {
-            int count = 0;
+        private static int countSingle(byte[] bytes, int start, int end, byte elem) {
             if ((end - start) < 0) {
                 return 0;
             }
-
-            for (int i = start; i < end; i++) {
-                if (bytes[i] == elem) {
-                    count++;
-                }
-            }
-            return count;
+            return BytesSearch.count(bytes, start, end, elem);
         }
 
-        @CompilerDirectives.TruffleBoundary(allowInlining = true)
-        private static int countMulti(SequenceStorage bytes, int start, int end, Object elems, int len2, BytesNodes.FindNode findNode) {
-            int idx = start;
-            int count = 0;
+        private static int countMulti(byte[] bytes, int start, int end, byte[] elems, int len2) {
             if ((end - start) < 0) {
                 return 0;
             }
             if (len2 == 0) {
                 return (end - start) + 1;
             }
-            while (idx < end) {
-                int found = findNode.execute(bytes, end, elems, idx, end);
-                if (found == -1) {
-                    break;
-                }
-                count++;
-                idx = found + len2;
-            }
-            return count;
+            return BytesSearch.count(bytes, start, end, elems, len2, Integer.MAX_VALUE);
         }
 
     }
@@ -2051,19 +2030,16 @@ public class BytesBuiltins extends PythonBuiltins {
             int i, j, maxcount = maxsplit;
             List<byte[]> list = new ArrayList<>();
 
-            i = j = 0;
-            while ((j < len) && (maxcount-- > 0)) {
-                for (; j < len; j++) {
-                    if (bytes[j] == sep) {
-                        list.add(copyOfRange(bytes, i, j));
-                        i = j = j + 1;
-                        break;
-                    }
+            i = 0;
+            while (maxcount-- > 0) {
+                j = BytesSearch.indexOf(bytes, i, len, sep);
+                if (j < 0) {
+                    break;
                 }
+                list.add(copyOfRange(bytes, i, j));
+                i = j + 1;
             }
-            if (i <= len) {
-                list.add(copyOfRange(bytes, i, len));
-            }
+            list.add(copyOfRange(bytes, i, len));
 
             return list;
         }
@@ -2153,19 +2129,16 @@ public class BytesBuiltins extends PythonBuiltins {
             int i, j, maxcount = maxsplit;
             ArrayList<byte[]> list = new ArrayList<>();
 
-            i = j = len - 1;
-            while ((i >= 0) && (maxcount-- > 0)) {
-                for (; i >= 0; i--) {
-                    if (bytes[i] == sep) {
-                        list.add(copyOfRange(bytes, i + 1, j + 1));
-                        j = i = i - 1;
-                        break;
-                    }
+            j = len;
+            while (maxcount-- > 0) {
+                i = BytesSearch.lastIndexOf(bytes, 0, j, sep);
+                if (i < 0) {
+                    break;
                 }
+                list.add(copyOfRange(bytes, i + 1, j));
+                j = i;
             }
-            if (j >= -1) {
-                list.add(copyOfRange(bytes, 0, j + 1));
-            }
+            list.add(copyOfRange(bytes, 0, j));
             reverseList(list);
             return list;
         }
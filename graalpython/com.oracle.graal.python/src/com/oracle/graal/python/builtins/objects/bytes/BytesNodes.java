@@ -317,7 +317,7 @@ public abstract class BytesNodes {
                 return -1;
             }
             if (lenIsOne.profile(inliningTarget, len2 == 1)) {
-                return findElement(haystack, needle[0], start, end);
+                return findElement(haystack, needle[0], start, end > len1 ? len1 : end);
             }
 
             return findSubSequence(haystack, needle, len2, start, end > len1 ? len1 : end);
@@ -340,7 +340,7 @@ public abstract class BytesNodes {
                 return -1;
             }
             if (len2 == 1) {
-                return findElement(haystack, needle[0], start, end);
+                return findElement(haystack, needle[0], start, end > len1 ? len1 : end);
             }
 
             return findSubSequence(haystack, needle, len2, start, end > len1 ? len1 : end);
@@ -367,14 +367,32 @@ public abstract class BytesNodes {
                         @Cached PyNumberIndexNode indexNode,
                         @Cached @Shared CastToJavaByteNode cast,
                         @Cached @Shared SequenceStorageNodes.GetInternalByteArrayNode getBytes,
+                        @CachedLibrary(limit = "3") PythonBufferAcquireLibrary bufferAcquireLib,
+                        @CachedLibrary(limit = "3") PythonBufferAccessLibrary bufferLib,
                         @Cached PRaiseNode.Lazy raiseNode) {
-            if (earlyExit.profile(inliningTarget, start >= len1)) {
-                return -1;
-            }
             if (indexCheckNode.execute(sub)) {
+                if (earlyExit.profile(inliningTarget, start >= len1)) {
+                    return -1;
+                }
                 byte[] haystack = getBytes.execute(self);
                 byte subByte = cast.execute(indexNode.execute(null, sub));
                 return findElement(haystack, subByte, start, end > len1 ? len1 : end);
+            } else if (bufferAcquireLib.hasBuffer(sub)) {
+                // e.g. a memoryview, searched for directly without creating a bytes object
+                Object buffer = bufferAcquireLib.acquireReadonly(sub);
+                try {
+                    int len2 = bufferLib.getBufferLength(buffer);
+                    if (len2 == 0 && start <= len1) {
+                        return emptySubIndex(start, end);
+                    }
+                    if (start >= len1 || len1 < len2) {
+                        return -1;
+                    }
+                    byte[] needle = bufferLib.getInternalOrCopiedByteArray(buffer);
+                    return findSubSequence(getBytes.execute(self), needle, len2, start, end > len1 ? len1 : end);
+                } finally {
+                    bufferLib.release(buffer);
+                }
             } else {
                 throw raiseNode.get(inliningTarget).raise(TypeError, ErrorMessages.EXPECTED_S_P_FOUND, "a bytes-like object", sub);
             }
@@ -386,35 +404,12 @@ public abstract class BytesNodes {
             return start;
         }
 
-        @TruffleBoundary(allowInlining = true)
-        protected static int isEqual(int i, byte[] haystack, byte[] needle, int len2) {
-            for (int j = 0; j < len2; j++) {
-                if (haystack[i + j] != needle[j]) {
-                    return -1;
-                }
-            }
-            return i;
-        }
-
-        @TruffleBoundary(allowInlining = true)
         protected int findSubSequence(byte[] haystack, byte[] needle, int len2, int start, int end) {
-            // TODO implement a more efficient algorithm
-            for (int i = start; i < end - len2 + 1; i++) {
-                if (isEqual(i, haystack, needle, len2) != -1) {
-                    return i;
-                }
-            }
-            return -1;
+            return BytesSearch.indexOf(haystack, start, end, needle, len2);
         }
 
-        @TruffleBoundary(allowInlining = true)
         protected int findElement(byte[] haystack, byte sub, int start, int end) {
-            for (int i = start; i < end; i++) {
-                if (haystack[i] == sub) {
-                    return i;
-                }
-            }
-            return -1;
+            return BytesSearch.indexOf(haystack, start, end, sub);
         }
 
         @NeverDefault
@@ -431,27 +426,14 @@ public abstract class BytesNodes {
             return (end - start) + start;
         }
 
-        @TruffleBoundary(allowInlining = true)
         @Override
         protected int findSubSequence(byte[] haystack, byte[] needle, int len2, int start, int end) {
-            // TODO implement a more efficient algorithm
-            for (int i = end - len2; i >= start; i--) {
-                if (isEqual(i, haystack, needle, len2) != -1) {
-                    return i;
-                }
-            }
-            return -1;
+            return BytesSearch.lastIndexOf(haystack, start, end, needle, len2);
         }
 
-        @TruffleBoundary(allowInlining = true)
         @Override
         protected int findElement(byte[] haystack, byte sub, int start, int end) {
-            for (int i = end - 1; i >= start; i--) {
-                if (haystack[i] == sub) {
-                    return i;
-                }
-            }
-            return -1;
+            return BytesSearch.lastIndexOf(haystack, start, end, sub);
         }
 
         @NeverDefault
@@ -0,0 +1,251 @@
+/*
+ * Copyright (c) 2023, 2023, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.bytes;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.memory.ByteArraySupport;
+
+/**
+ * Search primitives over {@code byte[]} ranges for the bytes and bytearray builtins. Single byte
+ * searches look at eight bytes at a time using SWAR (SIMD within a register) arithmetic on little
+ * endian longs. Longer needles use the Horspool variant with a bloom filter from CPython's
+ * {@code fastsearch.h}, which needs no per-call skip table.
+ *
+ * All methods operate on {@code haystack[start:end]} and expect {@code 0 <= start} and
+ * {@code end <= haystack.length}.
+ */
+public final class BytesSearch {
+
+    private static final ByteArraySupport LE = ByteArraySupport.littleEndian();
+
+    private static final long ONES = 0x0101010101010101L;
+    private static final long LOW7 = 0x7F7F7F7F7F7F7F7FL;
+
+    private BytesSearch() {
+    }
+
+    private static long broadcast(byte b) {
+        return (b & 0xFFL) * ONES;
+    }
+
+    /**
+     * Returns a word that has the high bit of a byte set if and only if the corresponding byte of
+     * {@code word} is zero. Unlike the cheaper {@code (x - ONES) & ~x & ~LOW7} test this has no
+     * false positives, so the result can also be used for counting.
+     */
+    private static long zeroBytes(long word) {
+        long t = (word & LOW7) + LOW7;
+        return ~(t | word | LOW7);
+    }
+
+    @TruffleBoundary(allowInlining = true)
+    public static int indexOf(byte[] haystack, int start, int end, byte b) {
+        long pattern = broadcast(b);
+        int i = start;
+        for (; i <= end - Long.BYTES; i += Long.BYTES) {
+            long z = zeroBytes(LE.getLong(haystack, i) ^ pattern);
+            if (z != 0) {
+                return i + (Long.numberOfTrailingZeros(z) >>> 3);
+            }
+        }
+        for (; i < end; i++) {
+            if (haystack[i] == b) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @TruffleBoundary(allowInlining = true)
+    public static int lastIndexOf(byte[] haystack, int start, int end, byte b) {
+        long pattern = broadcast(b);
+        int i = end;
+        for (; i - Long.BYTES >= start; i -= Long.BYTES) {
+            long z = zeroBytes(LE.getLong(haystack, i - Long.BYTES) ^ pattern);
+            if (z != 0) {
+                return i - 1 - (Long.numberOfLeadingZeros(z) >>> 3);
+            }
+        }
+        for (i--; i >= start; i--) {
+            if (haystack[i] == b) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @TruffleBoundary(allowInlining = true)
+    public static int count(byte[] haystack, int start, int end, byte b) {
+        long pattern = broadcast(b);
+        int count = 0;
+        int i = start;
+        for (; i <= end - Long.BYTES; i += Long.BYTES) {
+            count += Long.bitCount(zeroBytes(LE.getLong(haystack, i) ^ pattern));
+        }
+        for (; i < end; i++) {
+            if (haystack[i] == b) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static long bloomAdd(long mask, byte b) {
+        return mask | (1L << (b & 63));
+    }
+
+    private static boolean bloom(long mask, byte b) {
+        return (mask & (1L << (b & 63))) != 0;
+    }
+
+    /**
+     * Finds the first occurrence of {@code needle[0:needleLen]}. The needle must not be empty.
+     */
+    @TruffleBoundary(allowInlining = true)
+    public static int indexOf(byte[] haystack, int start, int end, byte[] needle, int needleLen) {
+        if (needleLen == 1) {
+            return indexOf(haystack, start, end, needle[0]);
+        }
+        int w = end - start - needleLen;
+        if (w < 0) {
+            return -1;
+        }
+        int mlast = needleLen - 1;
+        byte last = needle[mlast];
+        int skip = mlast - 1;
+        long mask = 0;
+        for (int i = 0; i < mlast; i++) {
+            mask = bloomAdd(mask, needle[i]);
+            if (needle[i] == last) {
+                skip = mlast - i - 1;
+            }
+        }
+        mask = bloomAdd(mask, last);
+        for (int i = 0; i <= w; i++) {
+            int pos = start + i;
+            if (haystack[pos + mlast] == last) {
+                int j = 0;
+                while (j < mlast && haystack[pos + j] == needle[j]) {
+                    j++;
+                }
+                if (j == mlast) {
+                    return pos;
+                }
+                // miss: check if the next byte is part of the needle at all
+                if (i < w && !bloom(mask, haystack[pos + needleLen])) {
+                    i += needleLen;
+                } else {
+                    i += skip;
+                }
+            } else if (i < w && !bloom(mask, haystack[pos + needleLen])) {
+                i += needleLen;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Finds the last occurrence of {@code needle[0:needleLen]}. The needle must not be empty.
+     */
+    @TruffleBoundary(allowInlining = true)
+    public static int lastIndexOf(byte[] haystack, int start, int end, byte[] needle, int needleLen) {
+        if (needleLen == 1) {
+            return lastIndexOf(haystack, start, end, needle[0]);
+        }
+        int w = end - start - needleLen;
+        if (w < 0) {
+            return -1;
+        }
+        int mlast = needleLen - 1;
+        byte first = needle[0];
+        int skip = mlast - 1;
+        long mask = bloomAdd(0, first);
+        for (int i = mlast; i > 0; i--) {
+            mask = bloomAdd(mask, needle[i]);
+            if (needle[i] == first) {
+                skip = i - 1;
+            }
+        }
+        for (int i = w; i >= 0; i--) {
+            int pos = start + i;
+            if (haystack[pos] == first) {
+                int j = mlast;
+                while (j > 0 && haystack[pos + j] == needle[j]) {
+                    j--;
+                }
+                if (j == 0) {
+                    return pos;
+                }
+                // miss: check if the previous byte is part of the needle at all
+                if (i > 0 && !bloom(mask, haystack[pos - 1])) {
+                    i -= needleLen;
+                } else {
+                    i -= skip;
+                }
+            } else if (i > 0 && !bloom(mask, haystack[pos - 1])) {
+                i -= needleLen;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Counts the non-overlapping occurrences of {@code needle[0:needleLen]}, stopping at
+     * {@code maxCount}. The needle must not be empty.
+     */
+    @TruffleBoundary(allowInlining = true)
+    public static int count(byte[] haystack, int start, int end, byte[] needle, int needleLen, int maxCount) {
+        if (needleLen == 1 && maxCount == Integer.MAX_VALUE) {
+            return count(haystack, start, end, needle[0]);
+        }
+        int count = 0;
+        int i = start;
+        while (count < maxCount) {
+            int pos = indexOf(haystack, i, end, needle, needleLen);
+            if (pos < 0) {
+                break;
+            }
+            count++;
+            i = pos + needleLen;
+        }
+        return count;
+    }
+}
@@ -243,6 +243,7 @@ public final class CApiContext extends CExtContext {
             primitiveNativeWrapperCache[i] = nativeWrapper;
         }
         promotedTruffleStringCache = new WeakIdentityHashMap<>();
+        context.startCApiSampler();
     }
 
     public int getPyLongBitsInDigit() {
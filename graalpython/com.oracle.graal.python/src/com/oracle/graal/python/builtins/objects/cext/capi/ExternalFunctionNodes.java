@@ -73,6 +73,7 @@ import com.oracle.graal.python.builtins.objects.cext.capi.ExternalFunctionNodesF
 import com.oracle.graal.python.builtins.objects.cext.capi.ExternalFunctionNodesFactory.DefaultCheckFunctionResultNodeGen;
 import com.oracle.graal.python.builtins.objects.cext.capi.ExternalFunctionNodesFactory.MaterializePrimitiveNodeGen;
 import com.oracle.graal.python.builtins.objects.cext.capi.transitions.ArgDescriptor;
+import com.oracle.graal.python.builtins.objects.cext.capi.transitions.CApiSampler;
 import com.oracle.graal.python.builtins.objects.cext.capi.transitions.CApiTiming;
 import com.oracle.graal.python.builtins.objects.cext.capi.transitions.CApiTransitions;
 import com.oracle.graal.python.builtins.objects.cext.capi.transitions.CApiTransitions.NativeToPythonNode;
@@ -685,6 +686,7 @@ public abstract class ExternalFunctionNodes {
      */
     static final class ExternalFunctionInvokeNode extends PNodeWithContext implements IndirectCallNode {
         private final CApiTiming timing;
+        private final CApiSampler.Site site;
         @Child private CheckFunctionResultNode checkResultNode;
         @Child private PForeignToPTypeNode fromForeign = PForeignToPTypeNode.create();
         @Child private CExtToJavaNode convertReturnValue;
@@ -725,6 +727,7 @@ public abstract class ExternalFunctionNodes {
         @TruffleBoundary
         ExternalFunctionInvokeNode(PExternalFunctionWrapper provider) {
             this.timing = CApiTiming.create(true, provider.name());
+            this.site = CApiSampler.createSite(true, provider.name());
             CheckFunctionResultNode node = provider.createCheckFunctionResultNode();
             this.checkResultNode = node != null ? node : DefaultCheckFunctionResultNodeGen.create();
             this.convertReturnValue = provider.createConvertRetNode();
@@ -749,7 +752,9 @@ public abstract class ExternalFunctionNodes {
             // it to the context since we cannot propagate it through the native frames.
             Object state = IndirectCallContext.enter(frame, threadState, this);
 
+            CApiSampler sampler = getLanguage().getCApiSampler();
             CApiTiming.enter();
+            sampler.enter(site);
             try {
                 Object result;
                 if (!lib.isExecutable(callable)) {
@@ -779,6 +784,7 @@ public abstract class ExternalFunctionNodes {
                 CompilerDirectives.transferToInterpreterAndInvalidate();
                 throw ensureRaiseNode().raise(PythonBuiltinClassType.TypeError, ErrorMessages.CALLING_NATIVE_FUNC_EXPECTED_ARGS, name, e.getExpectedMinArity(), e.getActualArity());
             } finally {
+                sampler.exit(site);
                 CApiTiming.exit(timing);
                 /*
                  * Always re-acquire the GIL here. This is necessary because it could happen that C
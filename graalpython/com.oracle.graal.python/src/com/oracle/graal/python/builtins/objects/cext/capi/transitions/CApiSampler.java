@@ -0,0 +1,379 @@
+/*
+ * Copyright (c) 2023, 2023, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.cext.capi.transitions;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.graalvm.nativeimage.ImageInfo;
+
+import com.oracle.truffle.api.Assumption;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.Truffle;
+
+/**
+ * A low-overhead sampling profiler for C API and HPy upcalls and downcalls. In contrast to
+ * {@link CApiTiming}, no timestamps are taken on the call path. Each call only pushes its
+ * {@link Site} onto a per-thread shadow stack and bumps the site's call counter. A daemon thread
+ * periodically inspects the shadow stacks of all threads and attributes one sample to the
+ * innermost site (self time) and to the whole stack (for flame graphs).
+ *
+ * The shadow stacks are read without synchronization, so an individual sample may be slightly
+ * stale. This is acceptable for a statistical profiler and keeps the call path free of fences.
+ *
+ * There is one sampler per engine (see {@code PythonLanguage#getCApiSampler()}), because it is
+ * configured with the {@code python.CApiSamplingInterval} engine option. {@link Site Sites} only
+ * carry a name and are shared by all engines; the counters are kept by the sampler. Until the
+ * sampler is started, {@link #enter(Site)} and {@link #exit(Site)} fold away in compiled code. The
+ * sampler thread runs until every context that started the sampler has called {@link #stop()}.
+ */
+public final class CApiSampler {
+
+    private static final int INITIAL_STACK = 64;
+
+    private static final HashMap<String, Site> SITES = new HashMap<>();
+
+    private final Assumption disabled = Truffle.getRuntime().createAssumption("C API sampler disabled");
+
+    private final ArrayList<ShadowStack> stacks = new ArrayList<>();
+    private final HashMap<String, long[]> stackSamples = new HashMap<>();
+    private final ThreadLocal<ShadowStack> stack = ThreadLocal.withInitial(this::registerStack);
+
+    /** Call counts of threads that died, indexed by {@link Site#id}. */
+    private long[] deadCounts = new long[0];
+    /** Self samples, indexed by {@link Site#id}. */
+    private long[] selfSamples = new long[0];
+    private int intervalMillis;
+    private long totalSamples;
+
+    private Thread thread;
+    private int users;
+
+    /**
+     * A single C API or HPy function as seen by the sampler. Sites are canonicalized by name, so
+     * all call paths of the same function share their counters.
+     */
+    public static final class Site {
+        private final String name;
+        private final int id;
+
+        private Site(String name, int id) {
+            this.name = name;
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    /**
+     * The statistics of one {@link Site} at the time {@link #getStats()} was called.
+     */
+    public static final class SiteStats {
+        private final String name;
+        private final long count;
+        private final long selfSamples;
+        private final long selfTimeNanos;
+
+        private SiteStats(String name, long count, long selfSamples, long selfTimeNanos) {
+            this.name = name;
+            this.count = count;
+            this.selfSamples = selfSamples;
+            this.selfTimeNanos = selfTimeNanos;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getSelfSamples() {
+            return selfSamples;
+        }
+
+        public long getSelfTimeNanos() {
+            return selfTimeNanos;
+        }
+    }
+
+    private static final class ShadowStack {
+        final WeakReference<Thread> thread;
+        Site[] frames = new Site[INITIAL_STACK];
+        /** Call counts of this thread, indexed by {@link Site#id}. Only written by the owner. */
+        long[] counts = new long[0];
+        int sp;
+
+        ShadowStack(Thread thread) {
+            this.thread = new WeakReference<>(thread);
+        }
+    }
+
+    @TruffleBoundary
+    public static Site createSite(boolean fromJava, Object delegate) {
+        synchronized (SITES) {
+            return SITES.computeIfAbsent(delegate + (fromJava ? " J->N" : " N->J"), name -> new Site(name, SITES.size()));
+        }
+    }
+
+    /**
+     * Starts the sampler thread with the given interval in milliseconds, unless it is already
+     * running. Returns {@code false} and does nothing if the interval is not positive. Every
+     * successful call must be paired with a call to {@link #stop()}.
+     */
+    @TruffleBoundary
+    public boolean start(int interval) {
+        if (interval <= 0 || ImageInfo.inImageBuildtimeCode()) {
+            return false;
+        }
+        synchronized (stacks) {
+            if (users++ > 0) {
+                return true;
+            }
+            intervalMillis = interval;
+            if (disabled.isValid()) {
+                disabled.invalidate();
+            }
+            thread = new Thread(() -> {
+                while (true) {
+                    try {
+                        Thread.sleep(interval);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    takeSample();
+                }
+            }, "python-capi-sampler");
+            thread.setDaemon(true);
+            thread.start();
+        }
+        return true;
+    }
+
+    /**
+     * Stops the sampler thread once the last user that {@link #start(int) started} it is gone. The
+     * collected statistics are kept. Calls are still counted afterwards, since the compiled call
+     * paths are not reverted.
+     */
+    @TruffleBoundary
+    public void stop() {
+        Thread t;
+        synchronized (stacks) {
+            if (users <= 0 || --users > 0) {
+                return;
+            }
+            t = thread;
+            thread = null;
+        }
+        t.interrupt();
+        try {
+            t.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public boolean isEnabled() {
+        return !disabled.isValid();
+    }
+
+    public void enter(Site site) {
+        if (!disabled.isValid()) {
+            enterInternal(site);
+        }
+    }
+
+    public void exit(Site site) {
+        if (!disabled.isValid()) {
+            exitInternal(site);
+        }
+    }
+
+    @TruffleBoundary
+    private void enterInternal(Site site) {
+        ShadowStack s = stack.get();
+        if (s.sp >= s.frames.length) {
+            s.frames = Arrays.copyOf(s.frames, s.frames.length * 2);
+        }
+        s.frames[s.sp++] = site;
+        long[] counts = s.counts;
+        if (site.id >= counts.length) {
+            s.counts = counts = Arrays.copyOf(counts, Math.max(site.id + 1, counts.length * 2));
+        }
+        counts[site.id]++;
+    }
+
+    @TruffleBoundary
+    private void exitInternal(Site site) {
+        ShadowStack s = stack.get();
+        // the sampler may have been enabled between enter and exit of this call
+        if (s.sp > 0 && s.frames[s.sp - 1] == site) {
+            s.frames[--s.sp] = null;
+        }
+    }
+
+    private ShadowStack registerStack() {
+        ShadowStack s = new ShadowStack(Thread.currentThread());
+        synchronized (stacks) {
+            stacks.add(s);
+        }
+        return s;
+    }
+
+    private static long[] add(long[] sum, long[] counts) {
+        long[] result = sum.length < counts.length ? Arrays.copyOf(sum, counts.length) : sum;
+        for (int i = 0; i < counts.length; i++) {
+            result[i] += counts[i];
+        }
+        return result;
+    }
+
+    /**
+     * Takes one sample of all threads that are currently executing C API or HPy calls.
+     */
+    @TruffleBoundary
+    public void takeSample() {
+        synchronized (stacks) {
+            for (int i = stacks.size() - 1; i >= 0; i--) {
+                ShadowStack s = stacks.get(i);
+                Thread t = s.thread.get();
+                if (t == null || !t.isAlive()) {
+                    deadCounts = add(deadCounts, s.counts);
+                    stacks.remove(i);
+                    continue;
+                }
+                Site[] frames = s.frames;
+                int sp = Math.min(s.sp, frames.length);
+                if (sp <= 0 || frames[sp - 1] == null) {
+                    continue;
+                }
+                StringBuilder sb = new StringBuilder();
+                for (int j = 0; j < sp; j++) {
+                    Site frame = frames[j];
+                    if (frame != null) {
+                        if (sb.length() > 0) {
+                            sb.append(';');
+                        }
+                        sb.append(frame.name);
+                    }
+                }
+                int id = frames[sp - 1].id;
+                if (id >= selfSamples.length) {
+                    selfSamples = Arrays.copyOf(selfSamples, id + 1);
+                }
+                selfSamples[id]++;
+                stackSamples.computeIfAbsent(sb.toString(), k -> new long[1])[0]++;
+                totalSamples++;
+            }
+        }
+    }
+
+    @TruffleBoundary
+    public long getTotalSamples() {
+        synchronized (stacks) {
+            return totalSamples;
+        }
+    }
+
+    /**
+     * Returns the statistics of all sites that were called at least once, sorted by name.
+     */
+    @TruffleBoundary
+    public SiteStats[] getStats() {
+        Site[] sites;
+        synchronized (SITES) {
+            sites = SITES.values().toArray(new Site[0]);
+        }
+        ArrayList<SiteStats> result = new ArrayList<>();
+        synchronized (stacks) {
+            long[] counts = deadCounts.clone();
+            for (ShadowStack s : stacks) {
+                counts = add(counts, s.counts);
+            }
+            for (Site site : sites) {
+                long count = site.id < counts.length ? counts[site.id] : 0;
+                if (count > 0) {
+                    long self = site.id < selfSamples.length ? selfSamples[site.id] : 0;
+                    result.add(new SiteStats(site.name, count, self, self * intervalMillis * 1000000L));
+                }
+            }
+        }
+        result.sort((a, b) -> a.name.compareTo(b.name));
+        return result.toArray(new SiteStats[0]);
+    }
+
+    /**
+     * Returns the sampled stacks in the "collapsed" format understood by common flame graph tools
+     * (one line per distinct stack, frames separated by {@code ;}, followed by the sample count).
+     */
+    @TruffleBoundary
+    public String getCollapsedStacks() {
+        ArrayList<Map.Entry<String, long[]>> entries;
+        synchronized (stacks) {
+            entries = new ArrayList<>(stackSamples.entrySet());
+        }
+        entries.sort(Map.Entry.comparingByKey());
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, long[]> e : entries) {
+            sb.append(e.getKey()).append(' ').append(e.getValue()[0]).append('\n');
+        }
+        return sb.toString();
+    }
+
+    @TruffleBoundary
+    public void reset() {
+        synchronized (stacks) {
+            for (ShadowStack s : stacks) {
+                Arrays.fill(s.counts, 0);
+            }
+            deadCounts = new long[0];
+            selfSamples = new long[0];
+            stackSamples.clear();
+            totalSamples = 0;
+        }
+    }
+}
@@ -43,7 +43,7 @@ package com.oracle.graal.python.builtins.objects.cext.capi.transitions;
 import java.lang.ref.ReferenceQueue;
 import java.lang.ref.WeakReference;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.WeakHashMap;
@@ -113,15 +113,37 @@ public class CApiTransitions {
     public static final class HandleContext {
 
         public final NativeObjectReferenceArrayWrapper referencesToBeFreed = new NativeObjectReferenceArrayWrapper();
-        public final HashMap<Long, IdReference<?>> nativeLookup = new HashMap<>();
+        final NativeLookupTable nativeLookup = new NativeLookupTable();
         public final WeakHashMap<Object, WeakReference<PythonAbstractNativeObject>> managedNativeLookup = new WeakHashMap<>();
         public final ArrayList<PythonObjectReference> nativeHandles = new ArrayList<>();
+        /* indices into nativeHandles that were released and can be handed out again */
+        private int[] freeHandles = new int[64];
+        private int freeHandlesCount;
         public final Set<NativeStorageReference> nativeStorageReferences = new HashSet<>();
 
         public final ReferenceQueue<Object> referenceQueue = new ReferenceQueue<>();
 
         boolean referenceQueuePollActive = false;
 
+        void releaseHandleIndex(int index) {
+            nativeHandles.set(index, null);
+            if (freeHandlesCount == freeHandles.length) {
+                freeHandles = Arrays.copyOf(freeHandles, freeHandles.length * 2);
+            }
+            freeHandles[freeHandlesCount++] = index;
+        }
+
+        int allocateHandleIndex(PythonNativeWrapper wrapper) {
+            if (freeHandlesCount > 0) {
+                int index = freeHandles[--freeHandlesCount];
+                assert nativeHandles.get(index) == null;
+                nativeHandles.set(index, new PythonObjectReference(wrapper, HandleFactory.HANDLE_BASE + index));
+                return index;
+            }
+            int index = nativeHandles.size();
+            nativeHandles.add(new PythonObjectReference(wrapper, HandleFactory.HANDLE_BASE + index));
+            return index;
+        }
     }
 
     private static HandleContext getContext() {
@@ -251,8 +273,10 @@ public class CApiTransitions {
 
                     if (HandleTester.pointsToPyHandleSpace(reference.pointer)) {
                         int index = (int) (reference.pointer - HandleFactory.HANDLE_BASE);
-                        assert context.nativeHandles.get(index) != null;
-                        context.nativeHandles.set(index, null);
+                        // the handle may have been released explicitly (and even reused) already
+                        if (context.nativeHandles.get(index) == reference) {
+                            context.releaseHandleIndex(index);
+                        }
                     } else {
                         assert nativeLookupGet(context, reference.pointer) != null : Long.toHexString(reference.pointer);
                         nativeLookupRemove(context, reference.pointer);
@@ -356,9 +380,19 @@ public class CApiTransitions {
             return 0;
         }
 
+        @TruffleBoundary
         public static void release(long pointer) {
             LOGGER.finer(() -> PythonUtils.formatJString("releasing handle %016x\n", pointer));
-            // TODO: release handle
+            HandleContext context = getContext();
+            int index = (int) (pointer - HandleFactory.HANDLE_BASE);
+            PythonObjectReference reference = context.nativeHandles.get(index);
+            if (reference != null) {
+                assert reference.pointer == pointer;
+                reference.strongReference = null;
+                // a cleared reference is never enqueued, so the slot cannot be freed twice
+                reference.clear();
+                context.releaseHandleIndex(index);
+            }
         }
     }
 
@@ -455,10 +489,7 @@ public class CApiTransitions {
         public static long create(PythonNativeWrapper wrapper) {
             assert !(wrapper instanceof TruffleObjectNativeWrapper);
             pollReferenceQueue();
-            int idx = getContext().nativeHandles.size();
-            long pointer = HANDLE_BASE + idx;
-            getContext().nativeHandles.add(new PythonObjectReference(wrapper, pointer));
-            return pointer;
+            return HANDLE_BASE + getContext().allocateHandleIndex(wrapper);
         }
     }
 
@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2023, 2023, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.cext.capi.transitions;
+
+import com.oracle.graal.python.builtins.objects.cext.capi.transitions.CApiTransitions.IdReference;
+
+/**
+ * A map from native pointers to {@link IdReference references} that avoids boxing the keys. The
+ * table uses open addressing with linear probing and backward-shift deletion, so there are no
+ * tombstones and lookups never chase more than the current cluster. A key of {@code 0} marks an
+ * empty slot, which is fine because we never register the {@code NULL} pointer.
+ */
+final class NativeLookupTable {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    /* Fibonacci hashing; native pointers are aligned, so the low bits carry no information */
+    private static final long HASH_MULTIPLIER = 0x9E37_79B9_7F4A_7C15L;
+
+    private long[] keys;
+    private IdReference<?>[] values;
+    private int size;
+    private int shift;
+
+    NativeLookupTable() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    private void allocate(int capacity) {
+        assert Integer.bitCount(capacity) == 1;
+        keys = new long[capacity];
+        values = new IdReference<?>[capacity];
+        shift = Long.SIZE - Integer.numberOfTrailingZeros(capacity);
+    }
+
+    private int slot(long pointer) {
+        return (int) ((pointer * HASH_MULTIPLIER) >>> shift);
+    }
+
+    int size() {
+        return size;
+    }
+
+    IdReference<?> get(long pointer) {
+        assert pointer != 0;
+        long[] k = keys;
+        int mask = k.length - 1;
+        for (int i = slot(pointer);; i = (i + 1) & mask) {
+            long key = k[i];
+            if (key == pointer) {
+                return values[i];
+            } else if (key == 0) {
+                return null;
+            }
+        }
+    }
+
+    IdReference<?> put(long pointer, IdReference<?> value) {
+        assert pointer != 0;
+        assert value != null;
+        int mask = keys.length - 1;
+        int i = slot(pointer);
+        while (true) {
+            long key = keys[i];
+            if (key == pointer) {
+                IdReference<?> previous = values[i];
+                values[i] = value;
+                return previous;
+            } else if (key == 0) {
+                break;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = pointer;
+        values[i] = value;
+        // keep the load factor at or below 1/2 so that clusters stay short
+        if (++size > (keys.length >> 1)) {
+            rehash(keys.length << 1);
+        }
+        return null;
+    }
+
+    IdReference<?> remove(long pointer) {
+        assert pointer != 0;
+        int mask = keys.length - 1;
+        int i = slot(pointer);
+        while (true) {
+            long key = keys[i];
+            if (key == pointer) {
+                break;
+            } else if (key == 0) {
+                return null;
+            }
+            i = (i + 1) & mask;
+        }
+        IdReference<?> previous = values[i];
+        size--;
+        /*
+         * Backward-shift deletion: move every following entry of the cluster whose home slot is
+         * not cyclically in (i, j] into the hole, so that probing never needs tombstones.
+         */
+        int j = i;
+        while (true) {
+            j = (j + 1) & mask;
+            long key = keys[j];
+            if (key == 0) {
+                break;
+            }
+            int home = slot(key);
+            if (i <= j ? (i < home && home <= j) : (i < home || home <= j)) {
+                continue;
+            }
+            keys[i] = key;
+            values[i] = values[j];
+            i = j;
+        }
+        keys[i] = 0;
+        values[i] = null;
+        return previous;
+    }
+
+    private void rehash(int newCapacity) {
+        long[] oldKeys = keys;
+        IdReference<?>[] oldValues = values;
+        allocate(newCapacity);
+        int mask = newCapacity - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            long key = oldKeys[j];
+            if (key != 0) {
+                int i = slot(key);
+                while (keys[i] != 0) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = key;
+                values[i] = oldValues[j];
+            }
+        }
+    }
+}
@@ -91,6 +91,7 @@ import com.oracle.graal.python.builtins.objects.PythonAbstractObject;
 import com.oracle.graal.python.builtins.objects.PythonAbstractObject.PInteropSubscriptNode;
 import com.oracle.graal.python.builtins.objects.capsule.PyCapsule;
 import com.oracle.graal.python.builtins.objects.cext.capi.CApiContext;
+import com.oracle.graal.python.builtins.objects.cext.capi.transitions.CApiSampler;
 import com.oracle.graal.python.builtins.objects.cext.common.CArrayWrappers;
 import com.oracle.graal.python.builtins.objects.cext.common.CArrayWrappers.CStringWrapper;
 import com.oracle.graal.python.builtins.objects.cext.common.CExtCommonNodesFactory.AsNativePrimitiveNodeGen;
@@ -977,6 +978,7 @@ public final class GraalHPyContext extends CExtContext implements TruffleObject
         useNativeFastPaths = language.getEngineOption(PythonOptions.HPyEnableJNIFastPaths);
         int traceJNISleepTime = language.getEngineOption(PythonOptions.HPyTraceUpcalls);
         traceJNIUpcalls = traceJNISleepTime != 0;
+        context.startCApiSampler();
         this.slowPathFactory = context.factory();
         nextHandle = GraalHPyBoxing.SINGLETON_HANDLE_MAX + 1;
         hpyHandleTable = new Object[IMMUTABLE_HANDLE_COUNT * 2];
@@ -2843,7 +2845,7 @@ public final class GraalHPyContext extends CExtContext implements TruffleObject
 
         members[HPyContextMember.CTX_SEQITER_NEW.ordinal()] = new GraalHPySeqIterNew();
 
-        if (traceJNIUpcalls) {
+        if (traceJNIUpcalls || context.getLanguage().getCApiSampler().isEnabled()) {
             for (int i = 0; i < members.length; i++) {
                 Object m = members[i];
                 if (m != null && !(m instanceof Number || m instanceof GraalHPyHandle)) {
@@ -2890,10 +2892,12 @@ public final class GraalHPyContext extends CExtContext implements TruffleObject
 
         final Object delegate;
         final int index;
+        final CApiSampler.Site site;
 
         public HPyExecuteWrapper(int index, Object delegate) {
             this.index = index;
             this.delegate = delegate;
+            this.site = CApiSampler.createSite(false, HPyContextMember.VALUES[index].name);
         }
 
         @ExportMessage
@@ -2906,7 +2910,13 @@ public final class GraalHPyContext extends CExtContext implements TruffleObject
         Object execute(Object[] arguments,
                         @CachedLibrary("this.delegate") InteropLibrary lib) throws UnsupportedTypeException, ArityException, UnsupportedMessageException {
             counts[index]++;
-            return lib.execute(delegate, arguments);
+            CApiSampler sampler = PythonLanguage.get(lib).getCApiSampler();
+            sampler.enter(site);
+            try {
+                return lib.execute(delegate, arguments);
+            } finally {
+                sampler.exit(site);
+            }
         }
     }
 
@@ -170,11 +170,14 @@ public abstract class CodeNodes {
             };
 
             PythonObjectFactory factory = context.factory();
-            if (context.isCoreInitialized() || isNotAModule) {
+            if (isNotAModule || (context.isCoreInitialized() && language.isSingleContext())) {
                 return factory.createCode(createCode, flags, firstlineno, lnotab, filename);
-            } else {
+            } else if (!context.isCoreInitialized()) {
                 RootCallTarget ct = (RootCallTarget) language.cacheCode(filename, createCode);
                 return factory.createCode(ct, flags, firstlineno, lnotab, filename);
+            } else {
+                RootCallTarget ct = (RootCallTarget) language.cacheCode(filename, codedata, flags, createCode);
+                return factory.createCode(ct, flags, firstlineno, lnotab, filename);
             }
         }
 
@@ -60,6 +60,7 @@ import com.oracle.graal.python.builtins.objects.function.Signature;
 import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
 import com.oracle.graal.python.builtins.objects.tuple.PTuple;
 import com.oracle.graal.python.compiler.CodeUnit;
+import com.oracle.graal.python.compiler.LazyCodeUnit;
 import com.oracle.graal.python.compiler.OpCodes;
 import com.oracle.graal.python.nodes.PRootNode;
 import com.oracle.graal.python.nodes.bytecode.PBytecodeGeneratorFunctionRootNode;
@@ -399,8 +400,8 @@ public final class PCode extends PythonBuiltinObject {
             CodeUnit co = ((PBytecodeRootNode) rootNode).getCodeUnit();
             context.setCodeUnitFilename(co, filename);
             for (int i = 0; i < co.constants.length; i++) {
-                if (co.constants[i] instanceof CodeUnit) {
-                    context.setCodeUnitFilename((CodeUnit) co.constants[i], filename);
+                if (LazyCodeUnit.isCodeUnit(co.constants[i])) {
+                    context.setCodeUnitFilename(LazyCodeUnit.resolve(co.constants[i]), filename);
                 }
             }
         }
@@ -489,8 +490,8 @@ public final class PCode extends PythonBuiltinObject {
     @TruffleBoundary
     private static Object convertConstantToPythonSpace(RootNode rootNode, Object o) {
         PythonObjectFactory factory = PythonObjectFactory.getUncached();
-        if (o instanceof CodeUnit) {
-            CodeUnit code = ((CodeUnit) o);
+        if (LazyCodeUnit.isCodeUnit(o)) {
+            CodeUnit code = LazyCodeUnit.resolve(o);
             PBytecodeRootNode bytecodeRootNode = PBytecodeRootNode.create(PythonLanguage.get(rootNode), code, getSourceSection(rootNode).getSource());
             return factory.createCode(bytecodeRootNode.getCallTarget(), bytecodeRootNode.getSignature(), code);
         } else if (o instanceof BigInteger) {
@@ -43,11 +43,13 @@ package com.oracle.graal.python.builtins.objects.common;
 import com.oracle.graal.python.nodes.call.special.LookupAndCallUnaryNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonBinaryClinicBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
+import com.oracle.graal.python.runtime.formatting.InternalFormat.Spec;
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.strings.TruffleString;
+import com.oracle.truffle.api.strings.TruffleStringBuilder;
 
 public abstract class FormatNodeBase extends PythonBinaryClinicBuiltinNode {
     @Override
@@ -63,4 +65,62 @@ public abstract class FormatNodeBase extends PythonBinaryClinicBuiltinNode {
                     @Cached("create(Str)") LookupAndCallUnaryNode lookupAndCallNode) {
         return lookupAndCallNode.executeObject(frame, self);
     }
+
+    /*
+     * Helpers for the fast paths that write numbers with simple specs (only fill, alignment, sign
+     * and width) straight into a TruffleStringBuilder instead of going through the formatters.
+     */
+
+    protected static int signCharacter(Spec spec, boolean negative) {
+        if (negative) {
+            return '-';
+        }
+        return spec.sign == '+' || spec.sign == ' ' ? spec.sign : 0;
+    }
+
+    protected static int decimalLength(long nonNegative) {
+        long value = nonNegative;
+        int length = 1;
+        while (value >= 10) {
+            value /= 10;
+            length++;
+        }
+        return length;
+    }
+
+    /**
+     * Appends the padding that goes before the digits and the sign ({@code 0} for none) of a number
+     * that takes {@code length} characters including the sign. Returns the number of fill
+     * characters that have to follow the digits.
+     */
+    protected static int appendLeftPaddingAndSign(TruffleStringBuilder sb, Spec spec, int sign, int length, TruffleStringBuilder.AppendCodePointNode appendCodePointNode) {
+        int padding = Math.max(spec.width - length, 0);
+        int left;
+        switch (spec.align) {
+            case '<':
+                left = 0;
+                break;
+            case '^':
+                left = padding / 2;
+                break;
+            default:
+                left = padding;
+        }
+        if (spec.align != '=') {
+            appendFill(sb, spec, left, appendCodePointNode);
+        }
+        if (sign != 0) {
+            appendCodePointNode.execute(sb, sign, 1, true);
+        }
+        if (spec.align == '=') {
+            appendFill(sb, spec, left, appendCodePointNode);
+        }
+        return padding - left;
+    }
+
+    protected static void appendFill(TruffleStringBuilder sb, Spec spec, int count, TruffleStringBuilder.AppendCodePointNode appendCodePointNode) {
+        if (count > 0) {
+            appendCodePointNode.execute(sb, Spec.specified(spec.fill) ? spec.fill : ' ', count, true);
+        }
+    }
 }
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2023, 2023, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.common;
+
+import static com.oracle.graal.python.util.PythonUtils.TS_ENCODING;
+
+import com.oracle.graal.python.nodes.PRaiseNode;
+import com.oracle.graal.python.runtime.formatting.InternalFormat;
+import com.oracle.graal.python.runtime.formatting.InternalFormat.Spec;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Cached.Shared;
+import com.oracle.truffle.api.dsl.NeverDefault;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.strings.TruffleString;
+
+/**
+ * Parses a format specification like {@code ">10.3f"} into a {@link Spec}. The format specs seen
+ * at a call site are almost always constants (f-strings, {@code format(x, ".2f")}), so the parsed
+ * {@link Spec} of the first few of them is cached. Specs are immutable and can be shared freely.
+ * Invalid specs are cached as {@code null} like any other spec, so that they neither push the valid
+ * ones out nor make the node go generic; they are parsed again only to raise the error.
+ */
+public abstract class ParseFormatSpecNode extends Node {
+
+    protected static final int CACHE_SIZE = 3;
+
+    public abstract Spec execute(TruffleString formatString, char defaultType, char defaultAlignment);
+
+    @Specialization(guards = {"defaultType == cachedDefaultType", "defaultAlignment == cachedDefaultAlignment",
+                    "equalNode.execute(cachedFormatString, formatString, TS_ENCODING)"}, limit = "CACHE_SIZE")
+    static Spec doCached(TruffleString formatString, char defaultType, char defaultAlignment,
+                    @Cached("formatString") @SuppressWarnings("unused") TruffleString cachedFormatString,
+                    @Cached("defaultType") @SuppressWarnings("unused") char cachedDefaultType,
+                    @Cached("defaultAlignment") @SuppressWarnings("unused") char cachedDefaultAlignment,
+                    @Cached(value = "parseOrNull(formatString, defaultType, defaultAlignment)", neverDefault = false) Spec cachedSpec,
+                    @Shared("equal") @Cached @SuppressWarnings("unused") TruffleString.EqualNode equalNode,
+                    @Shared("raise") @Cached PRaiseNode raiseNode) {
+        if (cachedSpec == null) {
+            return InternalFormat.fromText(raiseNode, formatString, defaultType, defaultAlignment);
+        }
+        return cachedSpec;
+    }
+
+    @Specialization(replaces = "doCached")
+    static Spec doGeneric(TruffleString formatString, char defaultType, char defaultAlignment,
+                    @Shared("raise") @Cached PRaiseNode raiseNode) {
+        return InternalFormat.fromText(raiseNode, formatString, defaultType, defaultAlignment);
+    }
+
+    static Spec parseOrNull(TruffleString formatString, char defaultType, char defaultAlignment) {
+        return InternalFormat.fromTextOrNull(formatString, defaultType, defaultAlignment);
+    }
+
+    @NeverDefault
+    public static ParseFormatSpecNode create() {
+        return ParseFormatSpecNodeGen.create();
+    }
+}
@@ -55,6 +55,7 @@ import static com.oracle.graal.python.runtime.sequence.storage.SequenceStorage.L
 
 import java.lang.reflect.Array;
 import java.util.Arrays;
+import java.util.List;
 
 import com.oracle.graal.python.builtins.PythonBuiltinClassType;
 import com.oracle.graal.python.builtins.modules.SysModuleBuiltins;
@@ -126,6 +127,7 @@ import com.oracle.graal.python.nodes.expression.CoerceToBooleanNode;
 import com.oracle.graal.python.nodes.object.BuiltinClassProfiles.IsBuiltinObjectProfile;
 import com.oracle.graal.python.nodes.object.GetClassNode;
 import com.oracle.graal.python.nodes.object.InlinedGetClassNode;
+import com.oracle.graal.python.nodes.object.IsForeignObjectNode;
 import com.oracle.graal.python.nodes.util.CastToByteNode;
 import com.oracle.graal.python.nodes.util.CastToJavaByteNode;
 import com.oracle.graal.python.runtime.PythonContext;
@@ -157,6 +159,7 @@ import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.HostCompilerDirectives.InliningCutoff;
+import com.oracle.truffle.api.TruffleLanguage.Env;
 import com.oracle.truffle.api.dsl.Bind;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Cached.Exclusive;
@@ -3714,6 +3717,109 @@ public abstract class SequenceStorageNodes {
         }
     }
 
+    /**
+     * Creates a sequence storage with primitive elements directly from a Java primitive array or a
+     * {@link List} of boxed Java numbers. This avoids the element-wise interop reads and the boxed
+     * {@link ObjectSequenceStorage} that the generic iteration would produce. Returns {@code null}
+     * if the object is not such a host object or if its elements do not fit a primitive storage,
+     * in which case the caller must fall back to iterating the object.
+     */
+    @GenerateUncached
+    @SuppressWarnings("truffle-inlining")
+    public abstract static class CreateStorageFromHostArrayNode extends Node {
+        public abstract SequenceStorage execute(Object iterable);
+
+        @Specialization
+        static SequenceStorage doGeneric(Object iterable,
+                        @Cached IsForeignObjectNode isForeignObjectNode,
+                        @CachedLibrary(limit = "3") InteropLibrary interop) {
+            if (!isForeignObjectNode.execute(iterable) || !interop.hasArrayElements(iterable)) {
+                return null;
+            }
+            Env env = PythonContext.get(isForeignObjectNode).getEnv();
+            if (!env.isHostObject(iterable)) {
+                return null;
+            }
+            return fromHostObject(env.asHostObject(iterable));
+        }
+
+        @TruffleBoundary
+        private static SequenceStorage fromHostObject(Object hostObject) {
+            if (hostObject instanceof int[] array) {
+                return new IntSequenceStorage(array.clone());
+            } else if (hostObject instanceof long[] array) {
+                return new LongSequenceStorage(array.clone());
+            } else if (hostObject instanceof double[] array) {
+                return new DoubleSequenceStorage(array.clone());
+            } else if (hostObject instanceof boolean[] array) {
+                return new BoolSequenceStorage(array.clone());
+            } else if (hostObject instanceof byte[] array) {
+                // Java bytes are signed, so they cannot share the ByteSequenceStorage
+                int[] elements = new int[array.length];
+                for (int i = 0; i < array.length; i++) {
+                    elements[i] = array[i];
+                }
+                return new IntSequenceStorage(elements);
+            } else if (hostObject instanceof short[] array) {
+                int[] elements = new int[array.length];
+                for (int i = 0; i < array.length; i++) {
+                    elements[i] = array[i];
+                }
+                return new IntSequenceStorage(elements);
+            } else if (hostObject instanceof float[] array) {
+                double[] elements = new double[array.length];
+                for (int i = 0; i < array.length; i++) {
+                    elements[i] = array[i];
+                }
+                return new DoubleSequenceStorage(elements);
+            } else if (hostObject instanceof List<?> list) {
+                return fromHostList(list.toArray());
+            }
+            return null;
+        }
+
+        private static SequenceStorage fromHostList(Object[] values) {
+            boolean allInts = true;
+            boolean allLongs = true;
+            boolean allDoubles = true;
+            for (Object value : values) {
+                if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+                    allDoubles = false;
+                } else if (value instanceof Long) {
+                    allInts = false;
+                    allDoubles = false;
+                } else if (value instanceof Double || value instanceof Float) {
+                    allInts = false;
+                    allLongs = false;
+                } else {
+                    return null;
+                }
+            }
+            if (values.length == 0) {
+                return null;
+            } else if (allInts) {
+                int[] elements = new int[values.length];
+                for (int i = 0; i < values.length; i++) {
+                    elements[i] = ((Number) values[i]).intValue();
+                }
+                return new IntSequenceStorage(elements);
+            } else if (allLongs) {
+                long[] elements = new long[values.length];
+                for (int i = 0; i < values.length; i++) {
+                    elements[i] = ((Number) values[i]).longValue();
+                }
+                return new LongSequenceStorage(elements);
+            } else if (allDoubles) {
+                double[] elements = new double[values.length];
+                for (int i = 0; i < values.length; i++) {
+                    elements[i] = ((Number) values[i]).doubleValue();
+                }
+                return new DoubleSequenceStorage(elements);
+            }
+            return null;
+        }
+    }
+
     public abstract static class CreateStorageFromIteratorNode extends Node {
         public abstract SequenceStorage execute(VirtualFrame frame, Object iterator, int len);
 
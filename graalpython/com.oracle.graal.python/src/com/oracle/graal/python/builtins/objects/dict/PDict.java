@@ -37,6 +37,7 @@ import com.oracle.graal.python.builtins.objects.common.HashingStorage;
 import com.oracle.graal.python.builtins.objects.common.HashingStorageNodes.HashingStorageAddAllToOther;
 import com.oracle.graal.python.builtins.objects.common.HashingStorageNodes.HashingStorageDelItem;
 import com.oracle.graal.python.builtins.objects.common.HashingStorageNodes.HashingStorageGetItem;
+import com.oracle.graal.python.builtins.objects.common.HashingStorageNodes.HashingStorageIterator;
 import com.oracle.graal.python.builtins.objects.common.HashingStorageNodes.HashingStorageLen;
 import com.oracle.graal.python.builtins.objects.common.HashingStorageNodes.HashingStorageSetItem;
 import com.oracle.graal.python.builtins.objects.common.KeywordsStorage;
@@ -67,6 +68,35 @@ import com.oracle.truffle.api.object.Shape;
 @ExportLibrary(InteropLibrary.class)
 public class PDict extends PHashingCollection {
 
+    /**
+     * Position of the last {@code PyDict_Next} call from native code. C code that loops over a dict
+     * continues where the previous call stopped instead of skipping over all previous entries.
+     */
+    public static final class CApiIteratorState {
+        private final HashingStorage storage;
+        private final HashingStorageIterator iterator;
+        private long pos;
+
+        public CApiIteratorState(HashingStorage storage, HashingStorageIterator iterator) {
+            this.storage = storage;
+            this.iterator = iterator;
+        }
+
+        /**
+         * Returns the iterator if it was left at entry {@code pos} of {@code currentStorage},
+         * otherwise {@code null}.
+         */
+        public HashingStorageIterator getIterator(HashingStorage currentStorage, long currentPos) {
+            return storage == currentStorage && pos == currentPos ? iterator : null;
+        }
+
+        public void setPos(long pos) {
+            this.pos = pos;
+        }
+    }
+
+    private CApiIteratorState cApiIteratorState;
+
     public PDict(PythonLanguage lang) {
         this(PythonBuiltinClassType.PDict, PythonBuiltinClassType.PDict.getInstanceShape(lang));
     }
@@ -102,6 +132,14 @@ public class PDict extends PHashingCollection {
         HashingStorageDelItem.executeUncached(storage, key, this);
     }
 
+    public CApiIteratorState getCApiIteratorState() {
+        return cApiIteratorState;
+    }
+
+    public void setCApiIteratorState(CApiIteratorState state) {
+        this.cApiIteratorState = state;
+    }
+
     public static HashingStorage createNewStorage(int expectedSize) {
         HashingStorage newDictStorage;
         if (expectedSize == 0) {
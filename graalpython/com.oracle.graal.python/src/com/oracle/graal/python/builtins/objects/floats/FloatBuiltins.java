@@ -67,6 +67,7 @@ import static com.oracle.graal.python.nodes.SpecialMethodNames.J___TRUNC__;
 import static com.oracle.graal.python.runtime.formatting.FormattingUtils.validateForFloat;
 import static com.oracle.graal.python.util.PythonUtils.TS_ENCODING;
 import static com.oracle.graal.python.util.PythonUtils.tsLiteral;
+import static com.oracle.graal.python.util.PythonUtils.tsbCapacity;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
@@ -87,6 +88,7 @@ import com.oracle.graal.python.builtins.objects.PNotImplemented;
 import com.oracle.graal.python.builtins.objects.cext.PythonAbstractNativeObject;
 import com.oracle.graal.python.builtins.objects.cext.capi.CExtNodes.FromNativeSubclassNode;
 import com.oracle.graal.python.builtins.objects.common.FormatNodeBase;
+import com.oracle.graal.python.builtins.objects.common.ParseFormatSpecNode;
 import com.oracle.graal.python.builtins.objects.floats.FloatBuiltinsClinicProviders.AsIntegerRatioClinicProviderGen;
 import com.oracle.graal.python.builtins.objects.floats.FloatBuiltinsClinicProviders.FormatNodeClinicProviderGen;
 import com.oracle.graal.python.builtins.objects.ints.PInt;
@@ -109,8 +111,8 @@ import com.oracle.graal.python.nodes.truffle.PythonArithmeticTypes;
 import com.oracle.graal.python.nodes.util.CannotCastException;
 import com.oracle.graal.python.nodes.util.CastToJavaDoubleNode;
 import com.oracle.graal.python.runtime.exception.PythonErrorType;
+import com.oracle.graal.python.runtime.formatting.DoubleToDecimal;
 import com.oracle.graal.python.runtime.formatting.FloatFormatter;
-import com.oracle.graal.python.runtime.formatting.InternalFormat;
 import com.oracle.graal.python.runtime.formatting.InternalFormat.Spec;
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
@@ -129,6 +131,7 @@ import com.oracle.truffle.api.nodes.Node;
 import com.oracle.truffle.api.nodes.UnexpectedResultException;
 import com.oracle.truffle.api.profiles.InlinedConditionProfile;
 import com.oracle.truffle.api.strings.TruffleString;
+import com.oracle.truffle.api.strings.TruffleStringBuilder;
 
 @CoreFunctions(extendClasses = PythonBuiltinClassType.PFloat)
 public final class FloatBuiltins extends PythonBuiltins {
@@ -149,7 +152,15 @@ public final class FloatBuiltins extends PythonBuiltins {
         public static final Spec spec = new Spec(' ', '>', Spec.NONE, false, Spec.UNSPECIFIED, Spec.NONE, 0, 'r');
 
         @Specialization
-        TruffleString str(double self) {
+        TruffleString str(double self,
+                        @Cached TruffleStringBuilder.AppendCodePointNode appendCodePointNode,
+                        @Cached TruffleStringBuilder.AppendLongNumberNode appendLongNumberNode,
+                        @Cached TruffleStringBuilder.ToStringNode toStringNode) {
+            if (Double.isFinite(self)) {
+                TruffleStringBuilder sb = TruffleStringBuilder.create(TS_ENCODING, DoubleToDecimal.MAX_REPR_LENGTH);
+                DoubleToDecimal.appendRepr(sb, self, appendCodePointNode, appendLongNumberNode);
+                return toStringNode.execute(sb);
+            }
             FloatFormatter f = new FloatFormatter(getRaiseNode(), spec);
             f.setMinFracDigits(1);
             return doFormat(self, f);
@@ -186,17 +197,62 @@ public final class FloatBuiltins extends PythonBuiltins {
         }
 
         @Specialization(guards = "!formatString.isEmpty()")
-        TruffleString formatPF(double self, TruffleString formatString) {
-            return doFormat(self, formatString);
+        TruffleString formatPF(double self, TruffleString formatString,
+                        @Cached ParseFormatSpecNode parseSpecNode,
+                        @Cached TruffleStringBuilder.AppendCodePointNode appendCodePointNode,
+                        @Cached TruffleStringBuilder.AppendLongNumberNode appendLongNumberNode,
+                        @Cached TruffleStringBuilder.ToStringNode toStringNode) {
+            Spec spec = validateForFloat(getRaiseNode(), parseSpecNode.execute(formatString, Spec.NONE, '>'), "float");
+            if (isSimpleFixedSpec(spec) && Double.isFinite(self)) {
+                int precision = spec.getPrecision(6);
+                long scaled = FloatFormatter.toScaledFixed(Math.abs(self), precision);
+                if (scaled >= 0) {
+                    return formatSimpleFixed(Double.doubleToRawLongBits(self) < 0, scaled, precision, spec, appendCodePointNode, appendLongNumberNode, toStringNode);
+                }
+            }
+            return doFormat(self, spec);
         }
 
         @TruffleBoundary
-        private TruffleString doFormat(double self, TruffleString formatString) {
-            InternalFormat.Spec spec = InternalFormat.fromText(getRaiseNode(), formatString, InternalFormat.Spec.NONE, '>');
-            FloatFormatter formatter = new FloatFormatter(getRaiseNode(), validateForFloat(getRaiseNode(), spec, "float"));
+        private TruffleString doFormat(double self, Spec spec) {
+            FloatFormatter formatter = new FloatFormatter(getRaiseNode(), spec);
             formatter.format(self);
             return formatter.pad().getResult();
         }
+
+        /**
+         * Fixed-point output with a small precision and at most fill, alignment, sign and width, e.g.
+         * {@code "{:.2f}"} or {@code "{:>10.3f}"}. For finite values, 'F' only differs from 'f' in
+         * the spelling of inf and nan.
+         */
+        private static boolean isSimpleFixedSpec(Spec spec) {
+            return (spec.type == 'f' || spec.type == 'F') && !Spec.specified(spec.grouping) && !spec.alternate && spec.getPrecision(6) <= FloatFormatter.MAX_SCALED_FIXED_PRECISION;
+        }
+
+        private static TruffleString formatSimpleFixed(boolean negative, long scaled, int precision, Spec spec, TruffleStringBuilder.AppendCodePointNode appendCodePointNode,
+                        TruffleStringBuilder.AppendLongNumberNode appendLongNumberNode, TruffleStringBuilder.ToStringNode toStringNode) {
+            long scale = 1;
+            for (int i = 0; i < precision; i++) {
+                scale *= 10;
+            }
+            long whole = scaled / scale;
+            long fraction = scaled % scale;
+            int sign = signCharacter(spec, negative);
+            int length = (sign != 0 ? 1 : 0) + decimalLength(whole) + (precision > 0 ? precision + 1 : 0);
+            TruffleStringBuilder sb = TruffleStringBuilder.create(TS_ENCODING, tsbCapacity(Math.max(length, spec.width)));
+            int rightPadding = appendLeftPaddingAndSign(sb, spec, sign, length, appendCodePointNode);
+            appendLongNumberNode.execute(sb, whole);
+            if (precision > 0) {
+                appendCodePointNode.execute(sb, '.', 1, true);
+                int leadingZeros = precision - decimalLength(fraction);
+                if (leadingZeros > 0) {
+                    appendCodePointNode.execute(sb, '0', leadingZeros, true);
+                }
+                appendLongNumberNode.execute(sb, fraction);
+            }
+            appendFill(sb, spec, rightPadding, appendCodePointNode);
+            return toStringNode.execute(sb);
+        }
     }
 
     @Builtin(name = J___ABS__, minNumOfPositionalArgs = 1)
@@ -41,6 +41,7 @@
 package com.oracle.graal.python.builtins.objects.floats;
 
 import java.math.BigDecimal;
+import java.math.BigInteger;
 
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.CompilerDirectives.ValueType;
@@ -221,8 +222,7 @@ public final class FloatUtils {
             return null;
         }
         try {
-            String substr = str.substring(start, i);
-            double d = parseValidString(substr);
+            double d = parseValidString(str, start, i);
             return new StringToDoubleResult(d, i);
         } catch (NumberFormatException e) {
             // Should not happen since the input to Double.parseDouble() / BigDecimal(String) should
@@ -235,10 +235,200 @@ public final class FloatUtils {
      * Parses a string that contains a valid string representation of a float number.
      */
     public static double parseValidString(String substr) {
-        double d = Double.parseDouble(substr);
+        return parseValidString(substr, 0, substr.length());
+    }
+
+    /**
+     * Parses the range {@code [start, end)} of a string that contains a valid string representation
+     * of a float number. Short decimal literals are converted without going through
+     * {@link Double#parseDouble(String)}, see {@link #parseDecimalFast(String, int, int)}.
+     */
+    public static double parseValidString(String str, int start, int end) {
+        double d = parseDecimalFast(str, start, end);
+        if (!Double.isNaN(d)) {
+            return d;
+        }
+        String substr = str.substring(start, end);
+        d = Double.parseDouble(substr);
         if (!Double.isFinite(d)) {
             d = new BigDecimal(substr).doubleValue();
         }
         return d;
     }
+
+    private static final int MAX_FAST_DIGITS = 19;
+    private static final int MAX_EXACT_POWER_OF_TEN = 22;
+    private static final double[] EXACT_POWERS_OF_TEN = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+    private static final int MIN_POWER_OF_TEN = -348;
+    private static final int MAX_POWER_OF_TEN = 347;
+    /**
+     * The 128-bit mantissas of the powers of ten in {@code [MIN_POWER_OF_TEN, MAX_POWER_OF_TEN]},
+     * normalized so that the most significant bit is set and rounded down, stored as pairs of the
+     * high and the low 64 bits.
+     */
+    private static final long[] POWERS_OF_TEN_128 = computePowersOfTen128();
+
+    /**
+     * Converts a decimal literal (optional sign, digits with an optional decimal point and an
+     * optional exponent) that has at most {@value #MAX_FAST_DIGITS} significant digits. Values that
+     * are exact products or quotients of two doubles are computed directly (Clinger's fast path),
+     * all others with the algorithm of Eisel and Lemire (D. Lemire, "Number Parsing at a Gigabyte
+     * per Second"). Both produce the correctly rounded result, i.e., the same one as
+     * {@link Double#parseDouble(String)} and CPython's {@code _Py_dg_strtod}.
+     *
+     * @return the value or {@code NaN} if the literal is not handled by the fast path
+     */
+    private static double parseDecimalFast(String str, int start, int end) {
+        int i = start;
+        boolean negative = false;
+        if (i < end && (str.charAt(i) == '-' || str.charAt(i) == '+')) {
+            negative = str.charAt(i) == '-';
+            i++;
+        }
+        // the significand is an unsigned 64-bit number
+        long significand = 0;
+        int digits = 0;
+        int exponent = 0;
+        char c;
+        while (i < end && (c = str.charAt(i)) >= '0' && c <= '9') {
+            if (significand != 0 || c != '0') {
+                if (digits == MAX_FAST_DIGITS) {
+                    return Double.NaN;
+                }
+                significand = significand * 10 + (c - '0');
+                digits++;
+            }
+            i++;
+        }
+        if (i < end && str.charAt(i) == '.') {
+            i++;
+            while (i < end && (c = str.charAt(i)) >= '0' && c <= '9') {
+                if (significand != 0 || c != '0') {
+                    if (digits == MAX_FAST_DIGITS) {
+                        return Double.NaN;
+                    }
+                    significand = significand * 10 + (c - '0');
+                    digits++;
+                }
+                exponent--;
+                i++;
+            }
+        }
+        if (i < end && (str.charAt(i) == 'e' || str.charAt(i) == 'E')) {
+            i++;
+            boolean negativeExponent = false;
+            if (i < end && (str.charAt(i) == '-' || str.charAt(i) == '+')) {
+                negativeExponent = str.charAt(i) == '-';
+                i++;
+            }
+            int explicitExponent = 0;
+            while (i < end && (c = str.charAt(i)) >= '0' && c <= '9') {
+                // anything this large is zero or infinity anyway
+                if (explicitExponent < 100000) {
+                    explicitExponent = explicitExponent * 10 + (c - '0');
+                }
+                i++;
+            }
+            exponent += negativeExponent ? -explicitExponent : explicitExponent;
+        }
+        if (i != end) {
+            return Double.NaN;
+        }
+        double result;
+        if (significand == 0) {
+            result = 0.0;
+        } else if (-MAX_EXACT_POWER_OF_TEN <= exponent && exponent <= MAX_EXACT_POWER_OF_TEN && significand > 0 && significand <= (1L << 53)) {
+            // both operands are exact, so there is only one rounding
+            result = exponent >= 0 ? significand * EXACT_POWERS_OF_TEN[exponent] : significand / EXACT_POWERS_OF_TEN[-exponent];
+        } else {
+            result = eiselLemire(significand, exponent);
+        }
+        return negative ? -result : result;
+    }
+
+    /**
+     * Computes {@code significand * 10^exponent} rounded to nearest even, where the significand is
+     * a non-zero unsigned 64-bit number. Returns {@code NaN} if the result cannot be decided
+     * without more precision, is subnormal, or overflows.
+     */
+    private static double eiselLemire(long significand, int exponent) {
+        if (exponent < MIN_POWER_OF_TEN || exponent > MAX_POWER_OF_TEN) {
+            return Double.NaN;
+        }
+        int index = (exponent - MIN_POWER_OF_TEN) << 1;
+        long powerHi = POWERS_OF_TEN_128[index];
+        long powerLo = POWERS_OF_TEN_128[index + 1];
+
+        int clz = Long.numberOfLeadingZeros(significand);
+        long w = significand << clz;
+        // the biased binary exponent, floor(exponent * log2(10)) is exact in this range
+        long binaryExponent = ((217706L * exponent) >> 16) + 64 + 1023 - clz;
+
+        long xHi = multiplyHighUnsigned(w, powerHi);
+        long xLo = w * powerHi;
+        if ((xHi & 0x1FF) == 0x1FF && Long.compareUnsigned(xLo + w, w) < 0) {
+            // the truncated product may be off in the bits that decide rounding, use 192 bits
+            long yHi = multiplyHighUnsigned(w, powerLo);
+            long yLo = w * powerLo;
+            long mergedHi = xHi;
+            long mergedLo = xLo + yHi;
+            if (Long.compareUnsigned(mergedLo, xLo) < 0) {
+                mergedHi++;
+            }
+            if ((mergedHi & 0x1FF) == 0x1FF && mergedLo + 1 == 0 && Long.compareUnsigned(yLo + w, w) < 0) {
+                return Double.NaN;
+            }
+            xHi = mergedHi;
+            xLo = mergedLo;
+        }
+
+        long msb = xHi >>> 63;
+        long mantissa = xHi >>> (msb + 9);
+        binaryExponent -= 1 ^ msb;
+
+        if (xLo == 0 && (xHi & 0x1FF) == 0 && (mantissa & 3) == 1) {
+            // exactly halfway between two doubles, the truncated power of ten cannot tell
+            return Double.NaN;
+        }
+
+        mantissa += mantissa & 1;
+        mantissa >>>= 1;
+        if ((mantissa >>> 53) > 0) {
+            mantissa >>>= 1;
+            binaryExponent++;
+        }
+        if (Long.compareUnsigned(binaryExponent - 1, 0x7FF - 1) >= 0) {
+            // subnormal or infinite
+            return Double.NaN;
+        }
+        return Double.longBitsToDouble(binaryExponent << 52 | mantissa & ((1L << 52) - 1));
+    }
+
+    private static long multiplyHighUnsigned(long x, long y) {
+        return Math.multiplyHigh(x, y) + ((x >> 63) & y) + ((y >> 63) & x);
+    }
+
+    private static long[] computePowersOfTen128() {
+        long[] table = new long[(MAX_POWER_OF_TEN - MIN_POWER_OF_TEN + 1) * 2];
+        for (int e = MIN_POWER_OF_TEN; e <= MAX_POWER_OF_TEN; e++) {
+            BigInteger mantissa;
+            if (e >= 0) {
+                BigInteger pow = BigInteger.TEN.pow(e);
+                int shift = pow.bitLength() - 128;
+                mantissa = shift >= 0 ? pow.shiftRight(shift) : pow.shiftLeft(-shift);
+            } else {
+                BigInteger pow = BigInteger.TEN.pow(-e);
+                mantissa = BigInteger.ONE.shiftLeft(127 + pow.bitLength()).divide(pow);
+                if (mantissa.bitLength() > 128) {
+                    mantissa = mantissa.shiftRight(1);
+                }
+            }
+            assert mantissa.bitLength() == 128;
+            int index = (e - MIN_POWER_OF_TEN) << 1;
+            table[index] = mantissa.shiftRight(64).longValue();
+            table[index + 1] = mantissa.longValue();
+        }
+        return table;
+    }
 }
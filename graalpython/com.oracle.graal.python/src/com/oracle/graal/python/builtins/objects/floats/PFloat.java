@@ -26,11 +26,13 @@
 // skip GIL
 package com.oracle.graal.python.builtins.objects.floats;
 
+import static com.oracle.graal.python.util.PythonUtils.TS_ENCODING;
 import static com.oracle.graal.python.util.PythonUtils.toTruffleStringUncached;
 
 import com.oracle.graal.python.PythonLanguage;
 import com.oracle.graal.python.builtins.PythonBuiltinClassType;
 import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
+import com.oracle.graal.python.runtime.formatting.DoubleToDecimal;
 import com.oracle.truffle.api.CompilerAsserts;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.interop.InteropLibrary;
@@ -41,6 +43,7 @@ import com.oracle.truffle.api.library.ExportMessage;
 import com.oracle.truffle.api.library.ExportMessage.Ignore;
 import com.oracle.truffle.api.object.Shape;
 import com.oracle.truffle.api.strings.TruffleString;
+import com.oracle.truffle.api.strings.TruffleStringBuilder;
 
 @SuppressWarnings("truffle-abstract-export")
 @ExportLibrary(InteropLibrary.class)
@@ -88,28 +91,12 @@ public class PFloat extends PythonBuiltinObject {
 
     @TruffleBoundary
     public static TruffleString doubleToString(double item) {
-        String d = Double.toString(item);
-        int exp = d.indexOf("E");
-        if (exp != -1) {
-            int l = d.length() - 1;
-            if (exp == (l - 2)) {
-                if (d.charAt(exp + 1) == '-') {
-                    if (Integer.valueOf(d.charAt(l) + "") == 4) {
-                        /*- Java convert double when 0.000###... while Python does it when 0.0000####... */
-                        d = Double.toString((item * 10)).replace(".", ".0");
-                    } else {
-                        d = d.substring(0, l) + "0" + d.substring(l);
-                    }
-
-                    exp = d.indexOf("E");
-                }
-            }
-            if (exp != -1 && d.charAt(exp + 1) != '-') {
-                d = d.substring(0, exp + 1) + "+" + d.substring(exp + 1, l + 1);
-            }
-            d = d.toLowerCase();
+        if (!Double.isFinite(item)) {
+            return toTruffleStringUncached(Double.isNaN(item) ? "nan" : item > 0 ? "inf" : "-inf");
         }
-        return toTruffleStringUncached(d);
+        TruffleStringBuilder sb = TruffleStringBuilder.create(TS_ENCODING, DoubleToDecimal.MAX_REPR_LENGTH);
+        DoubleToDecimal.appendRepr(sb, item, TruffleStringBuilder.AppendCodePointNode.getUncached(), TruffleStringBuilder.AppendLongNumberNode.getUncached());
+        return sb.toStringUncached();
     }
 
     @ExportMessage
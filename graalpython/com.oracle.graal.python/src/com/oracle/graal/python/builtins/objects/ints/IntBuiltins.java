@@ -117,6 +117,7 @@ import com.oracle.graal.python.builtins.objects.cext.PythonNativeVoidPtr;
 import com.oracle.graal.python.builtins.objects.cext.capi.CExtNodes;
 import com.oracle.graal.python.builtins.objects.cext.capi.CExtNodes.FromNativeSubclassNode;
 import com.oracle.graal.python.builtins.objects.common.FormatNodeBase;
+import com.oracle.graal.python.builtins.objects.common.ParseFormatSpecNode;
 import com.oracle.graal.python.builtins.objects.ints.IntBuiltinsClinicProviders.FormatNodeClinicProviderGen;
 import com.oracle.graal.python.builtins.objects.tuple.PTuple;
 import com.oracle.graal.python.builtins.objects.type.PythonBuiltinClass;
@@ -144,7 +145,6 @@ import com.oracle.graal.python.runtime.PythonContext;
 import com.oracle.graal.python.runtime.exception.PythonErrorType;
 import com.oracle.graal.python.runtime.formatting.FloatFormatter;
 import com.oracle.graal.python.runtime.formatting.IntegerFormatter;
-import com.oracle.graal.python.runtime.formatting.InternalFormat;
 import com.oracle.graal.python.runtime.formatting.InternalFormat.Spec;
 import com.oracle.graal.python.util.OverflowException;
 import com.oracle.graal.python.util.PythonUtils;
@@ -171,6 +171,7 @@ import com.oracle.truffle.api.profiles.InlinedBranchProfile;
 import com.oracle.truffle.api.profiles.InlinedConditionProfile;
 import com.oracle.truffle.api.profiles.InlinedIntValueProfile;
 import com.oracle.truffle.api.strings.TruffleString;
+import com.oracle.truffle.api.strings.TruffleStringBuilder;
 
 @CoreFunctions(extendClasses = PythonBuiltinClassType.PInt)
 public final class IntBuiltins extends PythonBuiltins {
@@ -2889,30 +2890,50 @@ public final class IntBuiltins extends PythonBuiltins {
         // We cannot use PythonArithmeticTypes, because for empty format string we need to call the
         // boolean's __str__ and not int's __str__ (that specialization is inherited)
         @Specialization(guards = "!formatString.isEmpty()")
-        TruffleString formatB(boolean self, TruffleString formatString) {
-            return formatI(self ? 1 : 0, formatString);
+        TruffleString formatB(boolean self, TruffleString formatString,
+                        @Shared("parseSpec") @Cached ParseFormatSpecNode parseSpecNode,
+                        @Shared("appendCP") @Cached TruffleStringBuilder.AppendCodePointNode appendCodePointNode,
+                        @Shared("appendLong") @Cached TruffleStringBuilder.AppendLongNumberNode appendLongNumberNode,
+                        @Shared("toString") @Cached TruffleStringBuilder.ToStringNode toStringNode) {
+            return formatI(self ? 1 : 0, formatString, parseSpecNode, appendCodePointNode, appendLongNumberNode, toStringNode);
         }
 
         @Specialization(guards = "!formatString.isEmpty()")
-        TruffleString formatI(int self, TruffleString formatString) {
+        TruffleString formatI(int self, TruffleString formatString,
+                        @Shared("parseSpec") @Cached ParseFormatSpecNode parseSpecNode,
+                        @Shared("appendCP") @Cached TruffleStringBuilder.AppendCodePointNode appendCodePointNode,
+                        @Shared("appendLong") @Cached TruffleStringBuilder.AppendLongNumberNode appendLongNumberNode,
+                        @Shared("toString") @Cached TruffleStringBuilder.ToStringNode toStringNode) {
             PRaiseNode raiseNode = getRaiseNode();
-            Spec spec = getSpec(formatString, raiseNode);
+            Spec spec = getSpec(formatString, parseSpecNode);
             if (isDoubleSpec(spec)) {
                 return formatDouble(raiseNode, spec, self);
             }
             validateIntegerSpec(raiseNode, spec);
+            if (isSimpleDecimalSpec(spec)) {
+                return formatSimpleDecimal(self, spec, appendCodePointNode, appendLongNumberNode, toStringNode);
+            }
             return formatInt(self, raiseNode, spec);
         }
 
         @Specialization(guards = "!formatString.isEmpty()")
-        TruffleString formatL(VirtualFrame frame, long self, TruffleString formatString) {
-            return formatPI(frame, factory().createInt(self), formatString);
+        TruffleString formatL(VirtualFrame frame, long self, TruffleString formatString,
+                        @Shared("parseSpec") @Cached ParseFormatSpecNode parseSpecNode,
+                        @Shared("appendCP") @Cached TruffleStringBuilder.AppendCodePointNode appendCodePointNode,
+                        @Shared("appendLong") @Cached TruffleStringBuilder.AppendLongNumberNode appendLongNumberNode,
+                        @Shared("toString") @Cached TruffleStringBuilder.ToStringNode toStringNode) {
+            Spec spec = getSpec(formatString, parseSpecNode);
+            if (isSimpleDecimalSpec(spec) && self != Long.MIN_VALUE) {
+                return formatSimpleDecimal(self, spec, appendCodePointNode, appendLongNumberNode, toStringNode);
+            }
+            return formatPI(frame, factory().createInt(self), formatString, parseSpecNode);
         }
 
         @Specialization(guards = "!formatString.isEmpty()")
-        TruffleString formatPI(VirtualFrame frame, PInt self, TruffleString formatString) {
+        TruffleString formatPI(VirtualFrame frame, PInt self, TruffleString formatString,
+                        @Shared("parseSpec") @Cached ParseFormatSpecNode parseSpecNode) {
             PRaiseNode raiseNode = getRaiseNode();
-            Spec spec = getSpec(formatString, raiseNode);
+            Spec spec = getSpec(formatString, parseSpecNode);
             if (isDoubleSpec(spec)) {
                 // lazy init of floatNode serves as branch profile
                 double doubleVal = asDouble(frame, self);
@@ -2931,8 +2952,29 @@ public final class IntBuiltins extends PythonBuiltins {
             return floatNode.execute(frame, self);
         }
 
-        private static Spec getSpec(TruffleString formatString, PRaiseNode raiseNode) {
-            return InternalFormat.fromText(raiseNode, formatString, 'd', '>');
+        private static Spec getSpec(TruffleString formatString, ParseFormatSpecNode parseSpecNode) {
+            return parseSpecNode.execute(formatString, 'd', '>');
+        }
+
+        /**
+         * Plain decimal output with at most fill, alignment, sign and width, which is what most
+         * f-strings and {@code format} calls on ints ask for.
+         */
+        private static boolean isSimpleDecimalSpec(Spec spec) {
+            return spec.type == 'd' && !Spec.specified(spec.grouping) && !spec.alternate && !Spec.specified(spec.precision);
+        }
+
+        private static TruffleString formatSimpleDecimal(long self, Spec spec, TruffleStringBuilder.AppendCodePointNode appendCodePointNode,
+                        TruffleStringBuilder.AppendLongNumberNode appendLongNumberNode, TruffleStringBuilder.ToStringNode toStringNode) {
+            assert self != Long.MIN_VALUE;
+            long abs = Math.abs(self);
+            int sign = signCharacter(spec, self < 0);
+            int length = (sign != 0 ? 1 : 0) + decimalLength(abs);
+            TruffleStringBuilder sb = TruffleStringBuilder.create(TS_ENCODING, PythonUtils.tsbCapacity(Math.max(length, spec.width)));
+            int rightPadding = appendLeftPaddingAndSign(sb, spec, sign, length, appendCodePointNode);
+            appendLongNumberNode.execute(sb, abs);
+            appendFill(sb, spec, rightPadding, appendCodePointNode);
+            return toStringNode.execute(sb);
         }
 
         private static boolean isDoubleSpec(Spec spec) {
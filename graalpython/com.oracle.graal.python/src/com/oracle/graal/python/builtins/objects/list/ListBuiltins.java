@@ -76,6 +76,7 @@ import com.oracle.graal.python.builtins.objects.PNotImplemented;
 import com.oracle.graal.python.builtins.objects.common.IndexNodes.NormalizeIndexNode;
 import com.oracle.graal.python.builtins.objects.common.SequenceNodes;
 import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes;
+import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes.CreateStorageFromHostArrayNode;
 import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes.CreateStorageFromIteratorNode;
 import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes.ListGeneralizationNode;
 import com.oracle.graal.python.builtins.objects.common.SortNodes.SortSequenceStorageNode;
@@ -248,10 +249,18 @@ public class ListBuiltins extends PythonBuiltins {
 
         @Specialization(guards = {"!isNoValue(iterable)", "!isString(iterable)"})
         static PNone listIterable(VirtualFrame frame, PList list, Object iterable,
+                        @Bind("this") Node inliningTarget,
+                        @Cached CreateStorageFromHostArrayNode hostArrayNode,
+                        @Cached InlinedConditionProfile hostArrayProfile,
                         @Cached IteratorNodes.GetLength lenNode,
                         @Cached PyObjectGetIter getIter,
                         @Cached CreateStorageFromIteratorNode storageNode) {
             clearStorage(list);
+            SequenceStorage hostStorage = hostArrayNode.execute(iterable);
+            if (hostArrayProfile.profile(inliningTarget, hostStorage != null)) {
+                list.setSequenceStorage(hostStorage);
+                return PNone.NONE;
+            }
             int len = lenNode.execute(frame, iterable);
             Object iterObj = getIter.execute(frame, iterable);
             list.setSequenceStorage(storageNode.execute(frame, iterObj, len));
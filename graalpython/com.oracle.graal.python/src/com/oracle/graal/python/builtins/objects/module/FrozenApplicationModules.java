@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2023, 2023, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.module;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Application modules frozen by {@code freeze_modules.py --app-path <dir> --app-modules <specs>}.
+ * Unlike the standard library modules in {@link FrozenModules}, these are not known when the
+ * sources are generated. They are listed in a resource index next to the frozen binaries, which is
+ * read once when this class is initialized, i.e., at image build time for native images. The
+ * larger standard library set frozen with {@code --extended-stdlib} is listed in the same index.
+ *
+ * The index also lists modules to import when a context is pre-initialized during the image build,
+ * so that the image starts with them already in {@code sys.modules}.
+ */
+public final class FrozenApplicationModules {
+    private static final String INDEX = "FrozenApplicationModules.txt";
+
+    private static final Map<String, PythonFrozenModule> MODULES = new HashMap<>();
+    private static final List<String> PRE_IMPORTED = new ArrayList<>();
+
+    static {
+        try (InputStream stream = FrozenApplicationModules.class.getResourceAsStream(INDEX)) {
+            if (stream != null) {
+                BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8));
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    String[] parts = line.split(" ");
+                    if (parts.length == 5 && parts[0].equals("module")) {
+                        // module <name> <symbol> <frozen id> <is package>
+                        MODULES.put(parts[1], new PythonFrozenModule(parts[2], parts[3], parts[4].equals("1")));
+                    } else if (parts.length == 2 && parts[0].equals("preimport")) {
+                        PRE_IMPORTED.add(parts[1]);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            // no application modules
+        }
+    }
+
+    private FrozenApplicationModules() {
+    }
+
+    static PythonFrozenModule lookup(String name) {
+        return MODULES.get(name);
+    }
+
+    public static List<String> getPreImportedModules() {
+        return Collections.unmodifiableList(PRE_IMPORTED);
+    }
+}
@@ -576,7 +576,7 @@ public final class FrozenModules {
             case "graalpy.sulong_support":
                 return Map.GRAALPY_SULONG_SUPPORT;
             default:
-                return null;
+                return FrozenApplicationModules.lookup(name);
         }
     }
 }
@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2023, 2023, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.operator;
+
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___CALL__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___REDUCE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___REPR__;
+import static com.oracle.graal.python.nodes.StringLiterals.T_COMMA_SPACE;
+import static com.oracle.graal.python.nodes.StringLiterals.T_ELLIPSIS;
+import static com.oracle.graal.python.nodes.StringLiterals.T_LPAREN;
+import static com.oracle.graal.python.nodes.StringLiterals.T_RPAREN;
+import static com.oracle.graal.python.util.PythonUtils.TS_ENCODING;
+
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.object.ObjectNodes;
+import com.oracle.graal.python.lib.PyObjectGetAttr;
+import com.oracle.graal.python.lib.PyObjectReprAsTruffleStringNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.object.GetClassNode;
+import com.oracle.graal.python.runtime.PythonContext;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Cached.Shared;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NeverDefault;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.strings.TruffleString;
+import com.oracle.truffle.api.strings.TruffleStringBuilder;
+
+@CoreFunctions(extendClasses = PythonBuiltinClassType.PAttrGetter)
+public final class AttrGetterBuiltins extends PythonBuiltins {
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return AttrGetterBuiltinsFactory.getFactories();
+    }
+
+    /**
+     * Resolves a chain of attribute names (i.e. a dotted name split at the dots). Every position
+     * in the chain gets its own {@link PyObjectGetAttr} so that the lookups of {@code a.b.c} are
+     * cached independently of each other. The nested nodes are created lazily, the depth of the
+     * tree is bounded by the longest chain that was actually executed.
+     */
+    static final class GetAttrChainNode extends Node {
+        @Child private PyObjectGetAttr getAttrNode = PyObjectGetAttr.create();
+        @Child private GetAttrChainNode nextNode;
+
+        Object execute(VirtualFrame frame, Object object, TruffleString[] chain) {
+            return execute(frame, object, chain, 0);
+        }
+
+        private Object execute(VirtualFrame frame, Object object, TruffleString[] chain, int index) {
+            Object result = getAttrNode.execute(frame, object, chain[index]);
+            if (index + 1 < chain.length) {
+                return ensureNextNode().execute(frame, result, chain, index + 1);
+            }
+            return result;
+        }
+
+        private GetAttrChainNode ensureNextNode() {
+            if (nextNode == null) {
+                CompilerDirectives.transferToInterpreterAndInvalidate();
+                nextNode = insert(new GetAttrChainNode());
+            }
+            return nextNode;
+        }
+
+        @NeverDefault
+        static GetAttrChainNode create() {
+            return new GetAttrChainNode();
+        }
+    }
+
+    @Builtin(name = J___CALL__, minNumOfPositionalArgs = 2, parameterNames = {"$self", "obj"})
+    @GenerateNodeFactory
+    public abstract static class AttrGetterCallNode extends PythonBinaryBuiltinNode {
+
+        @Specialization(guards = "self.isSimple()")
+        static Object doSimple(VirtualFrame frame, PAttrGetter self, Object obj,
+                        @Cached PyObjectGetAttr getAttr) {
+            return getAttr.execute(frame, obj, self.getChains()[0][0]);
+        }
+
+        @Specialization(guards = {"self.isSingle()", "!self.isSimple()"})
+        static Object doDotted(VirtualFrame frame, PAttrGetter self, Object obj,
+                        @Shared("chain") @Cached GetAttrChainNode chainNode) {
+            return chainNode.execute(frame, obj, self.getChains()[0]);
+        }
+
+        @Specialization(guards = "!self.isSingle()")
+        Object doMulti(VirtualFrame frame, PAttrGetter self, Object obj,
+                        @Shared("chain") @Cached GetAttrChainNode chainNode) {
+            TruffleString[][] chains = self.getChains();
+            Object[] result = new Object[chains.length];
+            for (int i = 0; i < chains.length; i++) {
+                result[i] = chainNode.execute(frame, obj, chains[i]);
+            }
+            return factory().createTuple(result);
+        }
+    }
+
+    @Builtin(name = J___REPR__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    public abstract static class AttrGetterReprNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static TruffleString repr(VirtualFrame frame, PAttrGetter self,
+                        @Cached ObjectNodes.GetFullyQualifiedClassNameNode classNameNode,
+                        @Cached PyObjectReprAsTruffleStringNode reprNode,
+                        @Cached TruffleStringBuilder.AppendStringNode appendStringNode,
+                        @Cached TruffleStringBuilder.ToStringNode toStringNode) {
+            PythonContext ctxt = PythonContext.get(classNameNode);
+            if (!ctxt.reprEnter(self)) {
+                return T_ELLIPSIS;
+            }
+            try {
+                TruffleStringBuilder sb = TruffleStringBuilder.create(TS_ENCODING);
+                appendStringNode.execute(sb, classNameNode.execute(frame, self));
+                appendStringNode.execute(sb, T_LPAREN);
+                Object[] names = self.getNames();
+                for (int i = 0; i < names.length; i++) {
+                    if (i > 0) {
+                        appendStringNode.execute(sb, T_COMMA_SPACE);
+                    }
+                    appendStringNode.execute(sb, reprNode.execute(frame, names[i]));
+                }
+                appendStringNode.execute(sb, T_RPAREN);
+                return toStringNode.execute(sb);
+            } finally {
+                ctxt.reprLeave(self);
+            }
+        }
+    }
+
+    @Builtin(name = J___REDUCE__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    public abstract static class AttrGetterReduceNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object reduce(PAttrGetter self,
+                        @Cached GetClassNode getClassNode) {
+            return factory().createTuple(new Object[]{getClassNode.execute(self), factory().createTuple(self.getNames())});
+        }
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2023, 2023, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.operator;
+
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___CALL__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___REDUCE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___REPR__;
+import static com.oracle.graal.python.nodes.StringLiterals.T_COMMA_SPACE;
+import static com.oracle.graal.python.nodes.StringLiterals.T_ELLIPSIS;
+import static com.oracle.graal.python.nodes.StringLiterals.T_EQ;
+import static com.oracle.graal.python.nodes.StringLiterals.T_LPAREN;
+import static com.oracle.graal.python.nodes.StringLiterals.T_RPAREN;
+import static com.oracle.graal.python.util.PythonUtils.TS_ENCODING;
+
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.function.PKeyword;
+import com.oracle.graal.python.builtins.objects.object.ObjectNodes;
+import com.oracle.graal.python.lib.PyObjectCallMethodObjArgs;
+import com.oracle.graal.python.lib.PyObjectGetAttr;
+import com.oracle.graal.python.lib.PyObjectReprAsTruffleStringNode;
+import com.oracle.graal.python.nodes.call.CallNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.object.GetClassNode;
+import com.oracle.graal.python.runtime.PythonContext;
+import com.oracle.graal.python.util.PythonUtils;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.strings.TruffleString;
+import com.oracle.truffle.api.strings.TruffleStringBuilder;
+
+@CoreFunctions(extendClasses = PythonBuiltinClassType.PMethodCaller)
+public final class MethodCallerBuiltins extends PythonBuiltins {
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return MethodCallerBuiltinsFactory.getFactories();
+    }
+
+    @Builtin(name = J___CALL__, minNumOfPositionalArgs = 2, parameterNames = {"$self", "obj"})
+    @GenerateNodeFactory
+    public abstract static class MethodCallerCallNode extends PythonBinaryBuiltinNode {
+
+        @Specialization(guards = "!self.hasKeywords()")
+        static Object doNoKeywords(VirtualFrame frame, PMethodCaller self, Object obj,
+                        @Cached PyObjectCallMethodObjArgs callMethod) {
+            // avoids creating the bound method object
+            return callMethod.execute(frame, obj, self.getName(), self.getArgs());
+        }
+
+        @Specialization(guards = "self.hasKeywords()")
+        static Object doKeywords(VirtualFrame frame, PMethodCaller self, Object obj,
+                        @Cached PyObjectGetAttr getAttr,
+                        @Cached CallNode callNode) {
+            Object method = getAttr.execute(frame, obj, self.getName());
+            return callNode.execute(frame, method, self.getArgs(), self.getKeywords());
+        }
+    }
+
+    @Builtin(name = J___REPR__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    public abstract static class MethodCallerReprNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static TruffleString repr(VirtualFrame frame, PMethodCaller self,
+                        @Cached ObjectNodes.GetFullyQualifiedClassNameNode classNameNode,
+                        @Cached PyObjectReprAsTruffleStringNode reprNode,
+                        @Cached TruffleStringBuilder.AppendStringNode appendStringNode,
+                        @Cached TruffleStringBuilder.ToStringNode toStringNode) {
+            PythonContext ctxt = PythonContext.get(classNameNode);
+            if (!ctxt.reprEnter(self)) {
+                return T_ELLIPSIS;
+            }
+            try {
+                TruffleStringBuilder sb = TruffleStringBuilder.create(TS_ENCODING);
+                appendStringNode.execute(sb, classNameNode.execute(frame, self));
+                appendStringNode.execute(sb, T_LPAREN);
+                appendStringNode.execute(sb, reprNode.execute(frame, self.getName()));
+                for (Object arg : self.getArgs()) {
+                    appendStringNode.execute(sb, T_COMMA_SPACE);
+                    appendStringNode.execute(sb, reprNode.execute(frame, arg));
+                }
+                for (PKeyword kw : self.getKeywords()) {
+                    appendStringNode.execute(sb, T_COMMA_SPACE);
+                    appendStringNode.execute(sb, kw.getName());
+                    appendStringNode.execute(sb, T_EQ);
+                    appendStringNode.execute(sb, reprNode.execute(frame, kw.getValue()));
+                }
+                appendStringNode.execute(sb, T_RPAREN);
+                return toStringNode.execute(sb);
+            } finally {
+                ctxt.reprLeave(self);
+            }
+        }
+    }
+
+    @Builtin(name = J___REDUCE__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    public abstract static class MethodCallerReduceNode extends PythonUnaryBuiltinNode {
+        @Specialization(guards = "!self.hasKeywords()")
+        Object reduce(PMethodCaller self,
+                        @Cached GetClassNode getClassNode) {
+            Object[] args = self.getArgs();
+            Object[] newArgs = new Object[args.length + 1];
+            newArgs[0] = self.getName();
+            PythonUtils.arraycopy(args, 0, newArgs, 1, args.length);
+            return factory().createTuple(new Object[]{getClassNode.execute(self), factory().createTuple(newArgs)});
+        }
+
+        @Specialization(guards = "self.hasKeywords()")
+        Object reduceWithKeywords(PMethodCaller self,
+                        @Cached GetClassNode getClassNode) {
+            // keyword arguments cannot be passed through the reduce tuple, so the constructor
+            // is wrapped in a partial object: (partial(type(self), name, **kwargs), args)
+            Object constructor = factory().createPartial(PythonBuiltinClassType.PPartial, getClassNode.execute(self), new Object[]{self.getName()}, factory().createDict(self.getKeywords()));
+            return factory().createTuple(new Object[]{constructor, factory().createTuple(self.getArgs())});
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2023, 2023, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.operator;
+
+import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
+import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
+import com.oracle.truffle.api.object.Shape;
+import com.oracle.truffle.api.strings.TruffleString;
+
+/**
+ * Native implementation of {@code operator.attrgetter}. Dotted attribute names are split into
+ * their components once at construction time, so that the call does not need to parse them.
+ */
+public final class PAttrGetter extends PythonBuiltinObject {
+    /** The attribute names as given by the user, used for {@code __repr__} and pickling. */
+    @CompilationFinal(dimensions = 1) private final Object[] names;
+    /** For each name, the chain of attributes to look up. */
+    @CompilationFinal(dimensions = 2) private final TruffleString[][] chains;
+
+    public PAttrGetter(Object cls, Shape instanceShape, Object[] names, TruffleString[][] chains) {
+        super(cls, instanceShape);
+        assert names.length > 0 && names.length == chains.length;
+        this.names = names;
+        this.chains = chains;
+    }
+
+    public Object[] getNames() {
+        return names;
+    }
+
+    public TruffleString[][] getChains() {
+        return chains;
+    }
+
+    public boolean isSingle() {
+        return chains.length == 1;
+    }
+
+    /**
+     * {@code true} if this getter looks up exactly one attribute without any dots.
+     */
+    public boolean isSimple() {
+        return chains.length == 1 && chains[0].length == 1;
+    }
+}
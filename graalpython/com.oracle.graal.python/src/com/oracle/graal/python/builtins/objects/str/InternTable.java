@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2023, 2023, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.str;
+
+import static com.oracle.graal.python.util.PythonUtils.TS_ENCODING;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.oracle.graal.python.compiler.CodeUnit;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.strings.TruffleString;
+
+/**
+ * The table of interned strings of a context. It maps each string to its canonical instance,
+ * using the hash code and equality of {@link TruffleString}. {@code sys.intern} and the names and
+ * identifier-like constants of every {@link CodeUnit} loaded in the context go through this table,
+ * so that equal attribute names and dictionary keys are usually the same instance. That lets the
+ * lookups that compare with {@code ==} first (dictionary storages, attribute caches keyed on the
+ * name) skip the character comparison.
+ *
+ * Code units are interned once, by the context that compiles or unmarshals them. When the engine
+ * is shared, the Truffle source cache and the {@link com.oracle.graal.python.runtime.CodeCache}
+ * hand the same code units to other contexts, which then see the canonical strings of the first
+ * context rather than their own. The code units are not interned again on such a cache hit, since
+ * that would rewrite arrays that another context may be reading. This only costs the identity fast
+ * path, because all users of the table fall back to comparing the characters when the instances
+ * differ.
+ *
+ * Like in CPython 3.12+, interned strings are never removed from the table.
+ */
+public final class InternTable {
+    private final ConcurrentHashMap<TruffleString, TruffleString> strings = new ConcurrentHashMap<>();
+
+    /* number of equal but distinct instances that were replaced by the canonical one */
+    private final AtomicLong duplicates = new AtomicLong();
+    /* the sum of the code point lengths of these duplicates */
+    private final AtomicLong duplicateCodePoints = new AtomicLong();
+
+    /**
+     * Returns the canonical instance of {@code string}, which becomes the canonical one if no equal
+     * string has been interned before.
+     */
+    @TruffleBoundary
+    public TruffleString intern(TruffleString string) {
+        TruffleString canonical = strings.putIfAbsent(string, string);
+        if (canonical == null) {
+            return string;
+        }
+        countDuplicate(canonical, string);
+        return canonical;
+    }
+
+    /**
+     * Returns the canonical instance of {@code string} if an equal string has been interned, or
+     * {@code string} itself otherwise. Unlike {@link #intern(TruffleString)}, this does not grow the
+     * table, so it is suitable for strings that come from data rather than from code.
+     */
+    @TruffleBoundary
+    public TruffleString lookup(TruffleString string) {
+        TruffleString canonical = strings.get(string);
+        if (canonical == null) {
+            return string;
+        }
+        countDuplicate(canonical, string);
+        return canonical;
+    }
+
+    private void countDuplicate(TruffleString canonical, TruffleString string) {
+        if (canonical != string) {
+            duplicates.incrementAndGet();
+            duplicateCodePoints.addAndGet(string.codePointLengthUncached(TS_ENCODING));
+        }
+    }
+
+    /**
+     * Canonicalizes the names of a code unit and its identifier-like string constants in place,
+     * which is what CPython does with {@code intern_strings} and {@code intern_string_constants}
+     * when it creates a code object. Nested code units are not visited.
+     */
+    @TruffleBoundary
+    public void internCodeUnit(CodeUnit code) {
+        internAll(code.names);
+        internAll(code.varnames);
+        internAll(code.cellvars);
+        internAll(code.freevars);
+        Object[] constants = code.constants;
+        for (int i = 0; i < constants.length; i++) {
+            Object constant = constants[i];
+            if (constant instanceof TruffleString ts) {
+                if (isIdentifierLike(ts)) {
+                    constants[i] = intern(ts);
+                }
+            } else if (constant instanceof TruffleString[] names) {
+                // keyword names, 'from' import names, match class attribute names
+                internAll(names);
+            } else if (constant instanceof Object[] elements) {
+                // constant tuples and lists
+                for (int j = 0; j < elements.length; j++) {
+                    if (elements[j] instanceof TruffleString ts && isIdentifierLike(ts)) {
+                        elements[j] = intern(ts);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Like {@link #internCodeUnit(CodeUnit)}, but also for all nested code units that have already
+     * been created. {@link com.oracle.graal.python.compiler.LazyCodeUnit Lazy} units are interned
+     * when they are deserialized.
+     */
+    @TruffleBoundary
+    public void internCodeUnitTree(CodeUnit code) {
+        internCodeUnit(code);
+        for (Object constant : code.constants) {
+            if (constant instanceof CodeUnit nested) {
+                internCodeUnitTree(nested);
+            }
+        }
+    }
+
+    private void internAll(TruffleString[] array) {
+        for (int i = 0; i < array.length; i++) {
+            array[i] = intern(array[i]);
+        }
+    }
+
+    /**
+     * Whether the string consists only of ASCII letters, digits and underscores, like CPython's
+     * {@code all_name_chars}.
+     */
+    private static boolean isIdentifierLike(TruffleString string) {
+        int length = string.codePointLengthUncached(TS_ENCODING);
+        if (length == 0) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            int c = string.codePointAtIndexUncached(i, TS_ENCODING);
+            if (!(c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9' || c == '_')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int size() {
+        return strings.size();
+    }
+
+    public long getDuplicates() {
+        return duplicates.get();
+    }
+
+    public long getDuplicateCodePoints() {
+        return duplicateCodePoints.get();
+    }
+}
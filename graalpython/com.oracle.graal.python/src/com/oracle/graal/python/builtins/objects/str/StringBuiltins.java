@@ -96,6 +96,7 @@ import com.oracle.graal.python.builtins.objects.bytes.PByteArray;
 import com.oracle.graal.python.builtins.objects.bytes.PBytes;
 import com.oracle.graal.python.builtins.objects.cext.PythonAbstractNativeObject;
 import com.oracle.graal.python.builtins.objects.common.FormatNodeBase;
+import com.oracle.graal.python.builtins.objects.common.ParseFormatSpecNode;
 import com.oracle.graal.python.builtins.objects.common.HashingCollectionNodes;
 import com.oracle.graal.python.builtins.objects.common.HashingStorage;
 import com.oracle.graal.python.builtins.objects.common.HashingStorageNodes.HashingStorageGetIterator;
@@ -158,8 +159,8 @@ import com.oracle.graal.python.nodes.util.CastToJavaIntExactNode;
 import com.oracle.graal.python.nodes.util.CastToTruffleStringNode;
 import com.oracle.graal.python.runtime.ExecutionContext.IndirectCallContext;
 import com.oracle.graal.python.runtime.PythonContext;
+import com.oracle.graal.python.runtime.PythonOptions;
 import com.oracle.graal.python.runtime.exception.PException;
-import com.oracle.graal.python.runtime.formatting.InternalFormat;
 import com.oracle.graal.python.runtime.formatting.InternalFormat.Spec;
 import com.oracle.graal.python.runtime.formatting.StringFormatProcessor;
 import com.oracle.graal.python.runtime.formatting.TextFormatter;
@@ -225,11 +226,12 @@ public final class StringBuiltins extends PythonBuiltins {
 
         @Specialization(guards = "!formatString.isEmpty()")
         TruffleString format(Object self, TruffleString formatString,
-                        @Cached CastToJavaStringCheckedNode castToJavaStringNode) {
+                        @Cached CastToJavaStringCheckedNode castToJavaStringNode,
+                        @Cached ParseFormatSpecNode parseSpecNode) {
             // We cannot cast self via argument clinic, because we need to keep it as-is for the
             // empty format string case, which should call __str__, which may be overridden
             String str = castToJavaStringNode.cast(self, ErrorMessages.REQUIRES_STR_OBJECT_BUT_RECEIVED_P, T___STR__, self);
-            return formatString(getRaiseNode(), getAndValidateSpec(formatString), str);
+            return formatString(getRaiseNode(), getAndValidateSpec(parseSpecNode.execute(formatString, 's', '<')), str);
         }
 
         @TruffleBoundary
@@ -239,8 +241,7 @@ public final class StringBuiltins extends PythonBuiltins {
             return formatter.pad().getResult();
         }
 
-        private Spec getAndValidateSpec(TruffleString formatString) {
-            Spec spec = InternalFormat.fromText(getRaiseNode(), formatString, 's', '<');
+        private Spec getAndValidateSpec(Spec spec) {
             if (Spec.specified(spec.type) && spec.type != 's') {
                 throw raise(TypeError, ErrorMessages.UNKNOWN_FORMAT_CODE, spec.type, "str");
             }
@@ -511,10 +512,22 @@ public final class StringBuiltins extends PythonBuiltins {
     @Builtin(name = J___ADD__, minNumOfPositionalArgs = 2)
     @GenerateNodeFactory
     public abstract static class AddNode extends PythonBinaryBuiltinNode {
+        /**
+         * Results shorter than this many bytes (64 code points in UTF-32) are copied eagerly, since a
+         * lazy concatenation would cost more than copying them. Longer results stay lazy and are
+         * flattened by TruffleString on the first access to their contents (e.g. indexing, hashing,
+         * comparison or conversion to native), which makes repeated {@code s += piece} linear.
+         */
+        private static final int LAZY_CONCAT_MIN_BYTES = 256;
+
         @Specialization
         TruffleString doIt(TruffleString self, TruffleString other,
                         @Shared("concat") @Cached TruffleString.ConcatNode concatNode) {
-            return concatNode.execute(self, other, TS_ENCODING, false);
+            return concatNode.execute(self, other, TS_ENCODING, isLazy(self, other));
+        }
+
+        private boolean isLazy(TruffleString self, TruffleString other) {
+            return getLanguage().getEngineOption(PythonOptions.LazyStrings) && self.byteLength(TS_ENCODING) + other.byteLength(TS_ENCODING) >= LAZY_CONCAT_MIN_BYTES;
         }
 
         @Specialization
@@ -1215,9 +1228,9 @@ public final class StringBuiltins extends PythonBuiltins {
                 partitioned[2] = T_EMPTY_STRING;
             } else {
                 int o = indexOf + codePointLengthNode.execute(sep, TS_ENCODING);
-                partitioned[0] = substringNode.execute(self, 0, indexOf, TS_ENCODING, false);
+                partitioned[0] = substringNode.execute(self, 0, indexOf, TS_ENCODING, StringUtils.isLazySubstring(selfLen, indexOf));
                 partitioned[1] = sep;
-                partitioned[2] = substringNode.execute(self, o, selfLen - o, TS_ENCODING, false);
+                partitioned[2] = substringNode.execute(self, o, selfLen - o, TS_ENCODING, StringUtils.isLazySubstring(selfLen, selfLen - o));
             }
             return factory().createTuple(partitioned);
         }
@@ -1251,9 +1264,9 @@ public final class StringBuiltins extends PythonBuiltins {
                 partitioned[2] = self;
             } else {
                 int o = lastIndexOf + codePointLengthNode.execute(sep, TS_ENCODING);
-                partitioned[0] = substringNode.execute(self, 0, lastIndexOf, TS_ENCODING, false);
+                partitioned[0] = substringNode.execute(self, 0, lastIndexOf, TS_ENCODING, StringUtils.isLazySubstring(selfLen, lastIndexOf));
                 partitioned[1] = sep;
-                partitioned[2] = substringNode.execute(self, o, selfLen - o, TS_ENCODING, false);
+                partitioned[2] = substringNode.execute(self, o, selfLen - o, TS_ENCODING, StringUtils.isLazySubstring(selfLen, selfLen - o));
             }
             return partitioned;
         }
@@ -1326,10 +1339,10 @@ public final class StringBuiltins extends PythonBuiltins {
                     break;
                 }
                 splits--;
-                appendNode.execute(list, substringNode.execute(self, lastEnd, nextIndex - lastEnd, TS_ENCODING, false));
+                appendNode.execute(list, substringNode.execute(self, lastEnd, nextIndex - lastEnd, TS_ENCODING, StringUtils.isLazySubstring(selfLen, nextIndex - lastEnd)));
                 lastEnd = nextIndex + sepLen;
             }
-            appendNode.execute(list, substringNode.execute(self, lastEnd, selfLen - lastEnd, TS_ENCODING, false));
+            appendNode.execute(list, substringNode.execute(self, lastEnd, selfLen - lastEnd, TS_ENCODING, StringUtils.isLazySubstring(selfLen, selfLen - lastEnd)));
             return list;
         }
 
@@ -1382,7 +1395,7 @@ public final class StringBuiltins extends PythonBuiltins {
                 }
 
                 // Make a piece from start up to index
-                appendNode.execute(list, substringNode.execute(s, start, index - start, TS_ENCODING, false));
+                appendNode.execute(list, substringNode.execute(s, start, index - start, TS_ENCODING, StringUtils.isLazySubstring(length, index - start)));
                 splits++;
 
                 // Start next segment search at that point
@@ -1422,7 +1435,8 @@ public final class StringBuiltins extends PythonBuiltins {
             }
             PList list = factory().createList();
             int splits = 0;
-            int end = codePointLengthNode.execute(self, TS_ENCODING);
+            int selfLen = codePointLengthNode.execute(self, TS_ENCODING);
+            int end = selfLen;
             int sepLength = codePointLengthNode.execute(sep, TS_ENCODING);
             while (splits < maxsplit && end > 0) {
                 int idx = lastIndexOfStringNode.execute(self, sep, end, 0, TS_ENCODING);
@@ -1431,12 +1445,12 @@ public final class StringBuiltins extends PythonBuiltins {
                     break;
                 }
 
-                appendNode.execute(list, substringNode.execute(self, idx + sepLength, end - (idx + sepLength), TS_ENCODING, false));
+                appendNode.execute(list, substringNode.execute(self, idx + sepLength, end - (idx + sepLength), TS_ENCODING, StringUtils.isLazySubstring(selfLen, end - (idx + sepLength))));
                 end = idx;
                 splits++;
             }
 
-            appendNode.execute(list, substringNode.execute(self, 0, end, TS_ENCODING, true));
+            appendNode.execute(list, substringNode.execute(self, 0, end, TS_ENCODING, StringUtils.isLazySubstring(selfLen, end)));
             reverseNode.execute(frame, list);
             return list;
         }
@@ -1469,7 +1483,7 @@ public final class StringBuiltins extends PythonBuiltins {
             for (int i = length - 1; i >= 0; i--) {
                 if (StringUtils.isSpace(codePointAtIndexNode.execute(s, i, TS_ENCODING))) {
                     if (hasSegment) {
-                        appendNode.execute(list, substringNode.execute(s, start, end - start, TS_ENCODING, false));
+                        appendNode.execute(list, substringNode.execute(s, start, end - start, TS_ENCODING, StringUtils.isLazySubstring(length, end - start)));
                         hasSegment = false;
                         splits++;
                     }
@@ -1483,7 +1497,7 @@ public final class StringBuiltins extends PythonBuiltins {
                 }
             }
             if (hasSegment) {
-                appendNode.execute(list, substringNode.execute(s, 0, end, TS_ENCODING, false));
+                appendNode.execute(list, substringNode.execute(s, 0, end, TS_ENCODING, StringUtils.isLazySubstring(length, end)));
             }
 
             reverseNode.execute(frame, list);
@@ -2489,10 +2503,10 @@ public final class StringBuiltins extends PythonBuiltins {
 
         @Specialization(guards = "isSimpleSlice(slice)")
         static TruffleString doStepOneStopGtStart(TruffleString value, SliceInfo slice,
+                        @Cached TruffleString.CodePointLengthNode codePointLengthNode,
                         @Cached TruffleString.SubstringNode substringNode) {
-            // TODO GR-37219: consider lazy substring when slice.stop - slice.start is close
-            // to value.codePointLength
-            return substringNode.execute(value, slice.start, slice.stop - slice.start, TS_ENCODING, false);
+            int length = slice.stop - slice.start;
+            return substringNode.execute(value, slice.start, length, TS_ENCODING, StringUtils.isLazySubstring(codePointLengthNode.execute(value, TS_ENCODING), length));
         }
 
         @Specialization(guards = "isEmptySlice(slice)")
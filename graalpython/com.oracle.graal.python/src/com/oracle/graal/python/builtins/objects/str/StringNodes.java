@@ -76,6 +76,7 @@ import com.oracle.graal.python.nodes.util.CannotCastException;
 import com.oracle.graal.python.nodes.util.CastToJavaIntExactNode;
 import com.oracle.graal.python.nodes.util.CastToJavaStringNode;
 import com.oracle.graal.python.nodes.util.CastToTruffleStringNode;
+import com.oracle.graal.python.runtime.PythonContext;
 import com.oracle.graal.python.runtime.PythonOptions;
 import com.oracle.graal.python.runtime.exception.PException;
 import com.oracle.graal.python.runtime.object.PythonObjectFactory;
@@ -488,9 +489,11 @@ public abstract class StringNodes {
 
         @Specialization
         static PString doString(TruffleString string,
+                        @Bind("this") Node inliningTarget,
                         @Shared("writeNode") @Cached WriteAttributeToDynamicObjectNode writeNode,
                         @Cached PythonObjectFactory factory) {
-            final PString interned = factory.createString(string);
+            TruffleString canonical = PythonContext.get(inliningTarget).getInternTable().intern(string);
+            final PString interned = factory.createString(canonical);
             writeNode.execute(interned, PString.INTERNED, true);
             return interned;
         }
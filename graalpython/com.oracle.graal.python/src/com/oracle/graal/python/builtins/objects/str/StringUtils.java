@@ -53,6 +53,8 @@ import org.graalvm.nativeimage.ImageInfo;
 import com.ibm.icu.lang.UCharacter;
 import com.ibm.icu.lang.UCharacterCategory;
 import com.ibm.icu.lang.UProperty;
+import com.oracle.graal.python.PythonLanguage;
+import com.oracle.graal.python.runtime.PythonOptions;
 import com.oracle.graal.python.util.PythonUtils;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Cached;
@@ -75,6 +77,19 @@ public final class StringUtils {
      */
     public static final int LAZY_CODEPOINT_THRESHOLD = 20;
 
+    /**
+     * The minimum length in code points of a substring that may share the storage of its source
+     * string.
+     */
+    public static final int LAZY_SUBSTRING_MIN_LENGTH = 512;
+
+    /**
+     * A substring view keeps its whole source alive, so it must cover at least
+     * {@code 1 / (1 << LAZY_SUBSTRING_MAX_WASTE_SHIFT)} of the source. This bounds the retained but
+     * unreachable memory to a small multiple of the size of the view.
+     */
+    private static final int LAZY_SUBSTRING_MAX_WASTE_SHIFT = 3;
+
     public enum StripKind {
         LEFT,
         RIGHT,
@@ -176,6 +191,17 @@ public final class StringUtils {
         return isUnicodeWhitespace(ch);
     }
 
+    /**
+     * Decides the {@code lazy} argument of {@link TruffleString.SubstringNode} when taking
+     * {@code length} code points out of a string of {@code sourceLength} code points. Long slices,
+     * split results and strip results then share the source's backing array instead of copying it.
+     * Small tokens cut out of a large document are still copied, so that the document does not stay
+     * alive for them.
+     */
+    public static boolean isLazySubstring(int sourceLength, int length) {
+        return length >= LAZY_SUBSTRING_MIN_LENGTH && length >= (sourceLength >>> LAZY_SUBSTRING_MAX_WASTE_SHIFT) && PythonLanguage.get(null).getEngineOption(PythonOptions.LazyStrings);
+    }
+
     public static TruffleString strip(TruffleString str, StripKind stripKind, TruffleString.CodePointLengthNode codePointLengthNode, TruffleString.CodePointAtIndexNode codePointAtIndexNode,
                     TruffleString.SubstringNode substringNode) {
         int i = 0;
@@ -203,7 +229,7 @@ public final class StringUtils {
             j++;
         }
 
-        return substringNode.execute(str, i, j - i, TS_ENCODING, false);
+        return substringNode.execute(str, i, j - i, TS_ENCODING, isLazySubstring(len, j - i));
     }
 
     public static TruffleString strip(TruffleString str, TruffleString chars, StripKind stripKind, TruffleString.CodePointLengthNode codePointLengthNode,
@@ -236,7 +262,7 @@ public final class StringUtils {
             j++;
         }
 
-        return substringNode.execute(str, i, j - i, TS_ENCODING, false);
+        return substringNode.execute(str, i, j - i, TS_ENCODING, isLazySubstring(len, j - i));
     }
 
     public static Object[] toCharacterArray(TruffleString arg, TruffleString.CodePointLengthNode codePointLengthNode, TruffleString.CreateCodePointIteratorNode createCodePointIteratorNode,
@@ -412,10 +438,10 @@ public final class StringUtils {
             if (nextIndex < 0) {
                 break;
             }
-            add(l, substringNode.execute(s, lastEnd, nextIndex - lastEnd, TS_ENCODING, false));
+            add(l, substringNode.execute(s, lastEnd, nextIndex - lastEnd, TS_ENCODING, isLazySubstring(selfLen, nextIndex - lastEnd)));
             lastEnd = nextIndex + sepLen;
         }
-        add(l, substringNode.execute(s, lastEnd, selfLen - lastEnd, TS_ENCODING, false));
+        add(l, substringNode.execute(s, lastEnd, selfLen - lastEnd, TS_ENCODING, isLazySubstring(selfLen, selfLen - lastEnd)));
         return l.toArray(new TruffleString[l.size()]);
     }
 
@@ -285,8 +285,8 @@ public final class CodeUnit {
                     case LOAD_CONST_COLLECTION:
                     case MAKE_KEYWORD: {
                         Object constant = constants[oparg];
-                        if (constant instanceof CodeUnit) {
-                            line[5] = ((CodeUnit) constant).qualname.toJavaStringUncached();
+                        if (LazyCodeUnit.isCodeUnit(constant)) {
+                            line[5] = LazyCodeUnit.resolve(constant).qualname.toJavaStringUncached();
                         } else {
                             if (constant instanceof TruffleString) {
                                 line[5] = StringNodes.StringReprNode.getUncached().execute((TruffleString) constant).toJavaStringUncached();
@@ -314,7 +314,7 @@ public final class CodeUnit {
                     }
                     case MAKE_FUNCTION: {
                         line[4] = String.format("% 2d", followingArgs[0]);
-                        CodeUnit codeUnit = (CodeUnit) constants[oparg];
+                        CodeUnit codeUnit = LazyCodeUnit.resolve(constants[oparg]);
                         line[5] = line[5] = codeUnit.qualname.toJavaStringUncached();
                         break;
                     }
@@ -483,9 +483,9 @@ public final class CodeUnit {
         }
 
         for (Object c : constants) {
-            if (c instanceof CodeUnit) {
+            if (LazyCodeUnit.isCodeUnit(c)) {
                 sb.append('\n');
-                sb.append(c);
+                sb.append(LazyCodeUnit.resolve(c));
             }
         }
 
@@ -144,6 +144,7 @@ import static com.oracle.graal.python.compiler.OpCodes.UNPACK_SEQUENCE;
 import static com.oracle.graal.python.compiler.OpCodes.UNWRAP_EXC;
 import static com.oracle.graal.python.compiler.OpCodes.YIELD_VALUE;
 import static com.oracle.graal.python.nodes.StringLiterals.T_EMPTY_STRING;
+import static com.oracle.graal.python.util.PythonUtils.TS_ENCODING;
 import static com.oracle.graal.python.util.PythonUtils.toTruffleStringUncached;
 import static com.oracle.truffle.api.CompilerDirectives.shouldNotReachHere;
 
@@ -196,12 +197,13 @@ import com.oracle.graal.python.runtime.object.PythonObjectFactory;
 import com.oracle.graal.python.util.PythonUtils;
 import com.oracle.truffle.api.memory.ByteArraySupport;
 import com.oracle.truffle.api.strings.TruffleString;
+import com.oracle.truffle.api.strings.TruffleStringBuilder;
 
 /**
  * Compiler for bytecode interpreter.
  */
 public class Compiler implements SSTreeVisitor<Void> {
-    public static final int BYTECODE_VERSION = 27;
+    public static final int BYTECODE_VERSION = 28;
 
     private final ErrorCallback errorCallback;
 
@@ -1343,7 +1345,12 @@ public class Compiler implements SSTreeVisitor<Void> {
                     throw shouldNotReachHere("Error callback did not throw an exception");
             }
             if (node.formatSpec != null) {
-                node.formatSpec.accept(this);
+                TruffleString constantSpec = constantFormatSpec(node.formatSpec);
+                if (constantSpec != null) {
+                    addOp(LOAD_STRING, addObject(unit.constants, constantSpec));
+                } else {
+                    node.formatSpec.accept(this);
+                }
                 oparg |= FormatOptions.FVS_HAVE_SPEC;
             }
             addOp(FORMAT_VALUE, oparg);
@@ -1353,6 +1360,34 @@ public class Compiler implements SSTreeVisitor<Void> {
         }
     }
 
+    /**
+     * The parser represents a format spec as a {@link ExprTy.JoinedStr}, which would be joined at
+     * runtime on every evaluation. If it has no replacement fields (e.g. {@code f"{x:>10.3f}"}), it
+     * is folded into a single string constant here. The same constant object then reaches
+     * {@code __format__} each time, where the parsed spec is cached.
+     */
+    private static TruffleString constantFormatSpec(ExprTy formatSpec) {
+        if (!(formatSpec instanceof ExprTy.JoinedStr)) {
+            return null;
+        }
+        ExprTy[] values = ((ExprTy.JoinedStr) formatSpec).values;
+        if (values.length == 1 && isStringConstant(values[0])) {
+            return ((ExprTy.Constant) values[0]).value.getRaw(TruffleString.class);
+        }
+        TruffleStringBuilder sb = TruffleStringBuilder.create(TS_ENCODING);
+        for (ExprTy value : values) {
+            if (!isStringConstant(value)) {
+                return null;
+            }
+            sb.appendStringUncached(((ExprTy.Constant) value).value.getRaw(TruffleString.class));
+        }
+        return sb.toStringUncached();
+    }
+
+    private static boolean isStringConstant(ExprTy expr) {
+        return expr instanceof ExprTy.Constant && ((ExprTy.Constant) expr).value.kind == Kind.RAW;
+    }
+
     @Override
     public Void visit(ExprTy.GeneratorExp node) {
         return visitComprehension(node, "<genexpr>", node.generators, node.element, null, ComprehensionType.GENEXPR);
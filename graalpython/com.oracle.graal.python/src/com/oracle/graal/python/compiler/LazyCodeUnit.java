@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2023, 2023, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.compiler;
+
+import com.oracle.graal.python.builtins.modules.MarshalModuleBuiltins;
+import com.oracle.truffle.api.CompilerAsserts;
+
+/**
+ * A nested code unit constant that has been read from marshalled data but not deserialized yet.
+ * Function bodies of modules loaded from frozen bytecode or {@code .pyc} files are kept in this
+ * form until the {@code MAKE_FUNCTION} instruction or an introspection of {@code co_consts} needs
+ * them, so that importing a module only pays for the functions that are actually defined and used.
+ * The materialized unit is cached, so every user sees the same {@link CodeUnit} instance.
+ */
+public final class LazyCodeUnit {
+    private final byte[] serialized;
+    private volatile CodeUnit materialized;
+
+    public LazyCodeUnit(byte[] serialized) {
+        this.serialized = serialized;
+    }
+
+    public byte[] getSerialized() {
+        return serialized;
+    }
+
+    public CodeUnit materialize() {
+        CompilerAsserts.neverPartOfCompilation();
+        CodeUnit result = materialized;
+        if (result == null) {
+            synchronized (this) {
+                result = materialized;
+                if (result == null) {
+                    result = MarshalModuleBuiltins.deserializeCodeUnit(serialized);
+                    materialized = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the code unit for a constant that is either a {@link CodeUnit} or a
+     * {@link LazyCodeUnit}.
+     */
+    public static CodeUnit resolve(Object constant) {
+        if (constant instanceof LazyCodeUnit lazy) {
+            return lazy.materialize();
+        }
+        return (CodeUnit) constant;
+    }
+
+    public static boolean isCodeUnit(Object constant) {
+        return constant instanceof CodeUnit || constant instanceof LazyCodeUnit;
+    }
+}
@@ -99,6 +99,7 @@ public abstract class ErrorMessages {
     public static final TruffleString KEY_IN_S_MUST_BE_STRING = tsLiteral("Key in %s.%s must be str, not %p");
     public static final TruffleString ITEM_IN_S_MUST_BE_STRING = tsLiteral("Item in %s.%s must be str, not %p");
     public static final TruffleString ATTR_NAME_MUST_BE_STRING = tsLiteral("attribute name must be string, not '%p'");
+    public static final TruffleString ATTRIBUTE_NAME_MUST_BE_A_STRING = tsLiteral("attribute name must be a string");
     public static final TruffleString S_MUST_BE_STRING_NOT_S = tsLiteral("\"%s\" must be string, not %.200s");
     public static final TruffleString S_MUST_BE_STRING_OR_NONE_NOT_S = tsLiteral("\"%s\" must be string or None, not %.200s");
     public static final TruffleString ATTR_S_OF_S_IS_NOT_READABLE = tsLiteral("attribute %s of %s objects is not readable");
@@ -350,6 +351,7 @@ public abstract class ErrorMessages {
     public static final TruffleString P_HAS_NO_ATTRS_S_TO_DELETE = tsLiteral("'%p' object has no attributes (del .%s)");
     public static final TruffleString P_HAS_RO_ATTRS_S_TO_ASSIGN = tsLiteral("'%p' object has only read-only attributes (assign to .%s)");
     public static final TruffleString P_HAS_RO_ATTRS_S_TO_DELETE = tsLiteral("'%p' object has only read-only attributes (del .%s)");
+    public static final TruffleString HEAP_ARGUMENT_MUST_BE_A_LIST = tsLiteral("heap argument must be a list");
     public static final TruffleString HASH_MISMATCH = tsLiteral("hash mismatch: known hash is different to computed hash");
     public static final TruffleString HASH_SHOULD_RETURN_INTEGER = tsLiteral("__hash__ method should return an integer");
     public static final TruffleString HEX_VALUE_TOO_LARGE_AS_FLOAT = tsLiteral("hexadecimal value too large to represent as a float");
@@ -448,6 +450,7 @@ public abstract class ErrorMessages {
     public static final TruffleString LIBRARY_VERSION_MISMATCH = tsLiteral("library version mismatch");
     public static final TruffleString LIST_ASSIGMENT_INDEX_OUT_OF_RANGE = tsLiteral("list assignment index out of range");
     public static final TruffleString LIST_CANNOT_BE_CONVERTED_TO_DICT = tsLiteral("list cannot be converted to dict");
+    public static final TruffleString LO_MUST_BE_NON_NEGATIVE = tsLiteral("lo must be non-negative");
     public static final TruffleString LIST_INDEX_OUT_OF_RANGE = tsLiteral("list index out of range");
     public static final TruffleString LIST_LENGTH_OUT_OF_RANGE = tsLiteral("list length out of range");
     public static final TruffleString LIST_DOES_NOT_ATTR_APPEND = tsLiteral("list does not have attribute 'append'");
@@ -492,6 +495,8 @@ public abstract class ErrorMessages {
     public static final TruffleString MEMORYVIEW_FORMAT_S_NOT_SUPPORTED = tsLiteral("memoryview: format %s not supported");
     public static final TruffleString METACLASS_CONFLICT = tsLiteral("metaclass conflict: the metaclass of a derived class must be a (non-strict) subclass of the metaclasses of all its bases");
     public static final TruffleString METHOD_NAME_MUST_BE = tsLiteral("method name must be string, not %p");
+    public static final TruffleString METHOD_NAME_MUST_BE_A_STRING = tsLiteral("method name must be a string");
+    public static final TruffleString METHODCALLER_NEEDS_AT_LEAST_ONE_ARG = tsLiteral("methodcaller needs at least one argument, the method name");
     public static final TruffleString MISSING_D_REQUIRED_S_ARGUMENT_S_POS = tsLiteral("%s() missing required argument '%s' (pos %d)");
     public static final TruffleString MISSING_D_REQUIRED_S_ARGUMENT_S_S = tsLiteral("%s() missing %d required %s argument%s: '%s'");
     public static final TruffleString MISSING_S = tsLiteral("Missing %s");
@@ -804,6 +809,7 @@ public abstract class ErrorMessages {
     public static final TruffleString EQUALS_ALIGNMENT_FLAG_NOT_ALLOWED_FOR_STRING_FMT = tsLiteral("'=' alignment not allowed in string format specifier");
     public static final TruffleString SIGN_NOT_ALLOWED_FOR_STRING_FMT = tsLiteral("Sign not allowed in string format specifier");
     public static final TruffleString SPACE_NOT_ALLOWED_IN_STRING_FORMAT_SPECIFIER = tsLiteral("Space not allowed in string format specifier");
+    public static final TruffleString YEAR_D_IS_OUT_OF_RANGE = tsLiteral("year %d is out of range");
     public static final TruffleString ZERO_PADDING_NOT_ALLOWED_FOR_COMPLEX_FMT = tsLiteral("Zero padding is not allowed in complex format specifier");
     public static final TruffleString POW_THIRD_ARG_CANNOT_BE_ZERO = tsLiteral("pow() 3rd argument cannot be 0");
     public static final TruffleString PRECISION_NOT_ALLOWED_FOR_INT = tsLiteral("Precision not allowed in integer format specifier");
@@ -1036,6 +1042,7 @@ public abstract class ErrorMessages {
     public static final TruffleString TOO_MANY_REMAINING_BYTES_TO_BE_STORED = tsLiteral("There are too many remaining bytes to be stored in a bytes object.");
     public static final TruffleString MMAP_CANNOT_MODIFY_READONLY_MEMORY = tsLiteral("mmap can't modify a readonly memory map.");
     public static final TruffleString DATA_OUT_OF_RANGE = tsLiteral("data out of range");
+    public static final TruffleString DAY_IS_OUT_OF_RANGE_FOR_MONTH = tsLiteral("day is out of range for month");
 
     // zlib errors
     public static final TruffleString WHILE_FLUSHING = tsLiteral("while flushing");
@@ -1446,6 +1453,8 @@ public abstract class ErrorMessages {
     public static final TruffleString EXPRESSION_MUST_HAVE_S_CONTEXT_BUT_HAS_S_INSTEAD = tsLiteral("expression must have %s context but has %s instead");
     public static final TruffleString EXPRESSION_WHICH_CANT_BE_ASSIGNED_TO_IN_S_CONTEXT = tsLiteral("expression which can't be assigned to in %s context");
     public static final TruffleString FIELD_S_IS_REQUIRED_FOR_S = tsLiteral("field '%s' is required for %s");
+    public static final TruffleString FOLD_MUST_BE_EITHER_0_OR_1 = tsLiteral("fold must be either 0 or 1");
+    public static final TruffleString FOREIGN_BUFFER_TOO_LARGE = tsLiteral("foreign buffer of %d bytes is too large");
     public static final TruffleString IDENTIFIER_FIELD_CANT_REPRESENT_S_CONSTANT = tsLiteral("identifier field can't represent '%s' constant");
     public static final TruffleString LENGTH_OF_KWONLYARGS_IS_NOT_THE_SAME_AS_KW_DEFAULTS_ON_ARGUMENTS = tsLiteral("length of kwonlyargs is not the same as kw_defaults on arguments");
     public static final TruffleString MORE_POSITIONAL_DEFAULTS_THAN_ARGS_ON_ARGUMENTS = tsLiteral("more positional defaults than args on arguments");
@@ -1487,7 +1496,9 @@ public abstract class ErrorMessages {
     public static final TruffleString ILLEGAL_MULTIBYTE_SEQUENCE = tsLiteral("illegal multibyte sequence");
     public static final TruffleString INCOMPLETE_MULTIBYTE_SEQUENCE = tsLiteral("incomplete multibyte sequence");
     public static final TruffleString INTERNAL_CODEC_ERROR = tsLiteral("internal codec error");
+    public static final TruffleString INVALID_ISOFORMAT_STRING_S = tsLiteral("Invalid isoformat string: '%s'");
     public static final TruffleString UNKNOWN_RUNTIME_ERROR = tsLiteral("unknown runtime error");
+    public static final TruffleString UNKNOWN_TIMESPEC_VALUE = tsLiteral("Unknown timespec value");
     public static final TruffleString ENCODING_ERROR_HANDLER_MUST_RETURN = tsLiteral("encoding error handler must return (str, int) tuple");
 
     public static final TruffleString DECODING_ERROR_HANDLER_MUST_RETURN = tsLiteral("decoding error handler must return (str, int) tuple");
@@ -1495,6 +1506,7 @@ public abstract class ErrorMessages {
 
     public static final TruffleString ARG_MUST_BE_A_SEQUENCE_OBJECT = tsLiteral("arg must be a sequence object");
     public static final TruffleString STREAM_FUNCTION_RETURNED_A_NON_BYTES_OBJECT_S = tsLiteral("stream function returned a non-bytes object (%s)");
+    public static final TruffleString S_MUST_BE_IN_D_D = tsLiteral("%s must be in %d..%d");
 
     public static final TruffleString DECODING_ERROR_HANDLER_MUST_RETURN_STR_INT_TUPLE = tsLiteral("decoding error handler must return (str, int) tuple");
     public static final TruffleString CANNOT_BUILD_PARAMETER = tsLiteral("cannot build parameter");
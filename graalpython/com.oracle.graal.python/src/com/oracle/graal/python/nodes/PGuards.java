@@ -157,7 +157,8 @@ public abstract class PGuards {
     }
 
     public static boolean stringEquals(TruffleString key, TruffleString cachedKey, TruffleString.EqualNode equalNode) {
-        return equalNode.execute(cachedKey, key, TS_ENCODING);
+        // names from code units are interned, so the cached key is usually the same instance
+        return key == cachedKey || equalNode.execute(cachedKey, key, TS_ENCODING);
     }
 
     public static boolean isSameObject(Object left, Object right) {
@@ -89,6 +89,7 @@ import com.oracle.truffle.api.frame.Frame;
 import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.nodes.Node;
 import com.oracle.truffle.api.profiles.BranchProfile;
+import com.oracle.truffle.api.profiles.InlinedConditionProfile;
 import com.oracle.truffle.api.strings.TruffleString;
 import com.oracle.truffle.api.strings.TruffleStringIterator;
 
@@ -144,11 +145,17 @@ public abstract class ListNodes {
 
         @Specialization(guards = {"!isNoValue(iterable)", "!isString(iterable)"})
         static PList listIterable(VirtualFrame frame, Object cls, Object iterable,
+                        @Bind("this") Node inliningTarget,
+                        @Cached SequenceStorageNodes.CreateStorageFromHostArrayNode hostArrayNode,
+                        @Cached InlinedConditionProfile hostArrayProfile,
                         @Cached PyObjectGetIter getIter,
                         @Cached SequenceStorageNodes.CreateStorageFromIteratorNode createStorageFromIteratorNode,
                         @Cached PythonObjectFactory factory) {
-            Object iterObj = getIter.execute(frame, iterable);
-            SequenceStorage storage = createStorageFromIteratorNode.execute(frame, iterObj);
+            SequenceStorage storage = hostArrayNode.execute(iterable);
+            if (!hostArrayProfile.profile(inliningTarget, storage != null)) {
+                Object iterObj = getIter.execute(frame, iterable);
+                storage = createStorageFromIteratorNode.execute(frame, iterObj);
+            }
             return factory.createList(cls, storage);
         }
 
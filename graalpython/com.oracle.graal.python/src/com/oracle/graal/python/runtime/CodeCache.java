@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2023, 2023, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.runtime;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import com.oracle.truffle.api.CallTarget;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.strings.TruffleString;
+
+/**
+ * Engine-wide cache of module code, shared by all contexts of a multi-context engine. Entries are
+ * keyed by the file name, the full source text or bytecode, and the compilation flags, so a module
+ * that is imported in many contexts is parsed once and every context runs the same, already
+ * quickened and compiled, root nodes. The least recently used entries are evicted once the cache
+ * holds more than {@link PythonOptions#CodeCacheSize} entries.
+ */
+public final class CodeCache {
+    private final int capacity;
+    private final LinkedHashMap<Key, CallTarget> entries;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public CodeCache(int capacity) {
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, CallTarget> eldest) {
+                if (size() > CodeCache.this.capacity) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached call target for the given code or creates it. The content is either a
+     * {@link TruffleString} with the source text or a {@code byte[]} with serialized bytecode, it
+     * must not be modified afterwards. The code is created outside of the lock, if two threads race
+     * for the same key, the first one to finish wins.
+     */
+    @TruffleBoundary
+    public CallTarget get(TruffleString filename, Object content, int flags, Supplier<CallTarget> createCode) {
+        if (capacity <= 0) {
+            return createCode.get();
+        }
+        Key key = new Key(filename, content, flags);
+        synchronized (this) {
+            CallTarget cached = entries.get(key);
+            if (cached != null) {
+                hits++;
+                return cached;
+            }
+            misses++;
+        }
+        CallTarget created = createCode.get();
+        synchronized (this) {
+            CallTarget cached = entries.putIfAbsent(key, created);
+            return cached != null ? cached : created;
+        }
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    private static final class Key {
+        private final TruffleString filename;
+        private final Object content;
+        private final int flags;
+        private final int hash;
+
+        Key(TruffleString filename, Object content, int flags) {
+            assert content instanceof TruffleString || content instanceof byte[];
+            this.filename = filename;
+            this.content = content;
+            this.flags = flags;
+            int contentHash = content instanceof byte[] ? Arrays.hashCode((byte[]) content) : content.hashCode();
+            this.hash = (filename.hashCode() * 31 + contentHash) * 31 + flags;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            if (hash != other.hash || flags != other.flags || !filename.equals(other.filename)) {
+                return false;
+            }
+            if (content instanceof byte[] && other.content instanceof byte[]) {
+                return Arrays.equals((byte[]) content, (byte[]) other.content);
+            }
+            return content.equals(other.content);
+        }
+    }
+}
@@ -302,6 +302,9 @@ import com.sun.security.auth.module.UnixSystem;
 @SuppressWarnings("unused")
 public final class EmulatedPosixSupport extends PosixResources {
 
+    // upper bound of a single sendfile/copy_file_range between channels that cannot transferTo
+    private static final int TRANSFER_CHUNK_SIZE = 1024 * 1024;
+
     private static final PosixFilePermission[][] otherBitsToPermission = new PosixFilePermission[][]{
                     new PosixFilePermission[]{},
                     new PosixFilePermission[]{PosixFilePermission.OTHERS_EXECUTE},
@@ -510,6 +513,82 @@ public final class EmulatedPosixSupport extends PosixResources {
         }
     }
 
+    @ExportMessage
+    @TruffleBoundary
+    public long sendfile(int outFd, int inFd, long offset, long count) throws PosixException {
+        return transfer(inFd, offset, outFd, -1, count);
+    }
+
+    @ExportMessage
+    @TruffleBoundary
+    public long copyFileRange(int srcFd, long srcOffset, int dstFd, long dstOffset, long count) throws PosixException {
+        return transfer(srcFd, srcOffset, dstFd, dstOffset, count);
+    }
+
+    /**
+     * Copies up to {@code count} bytes from {@code srcFd} to {@code dstFd}. File channels use
+     * {@link FileChannel#transferTo}, which lets the JDK pick sendfile or a similar kernel copy.
+     * Negative offsets mean the current position of the respective channel, which is advanced by
+     * the number of bytes copied. Other positions are left untouched.
+     */
+    private long transfer(int srcFd, long srcOffset, int dstFd, long dstOffset, long count) throws PosixException {
+        Channel src = getFileChannel(srcFd);
+        Channel dst = getFileChannel(dstFd);
+        if (src == null || dst == null) {
+            throw posixException(OSErrorEnum.EBADF);
+        }
+        if (!(src instanceof SeekableByteChannel) || !(dst instanceof WritableByteChannel)) {
+            throw posixException(OSErrorEnum.EINVAL);
+        }
+        if (dstOffset >= 0 && !(dst instanceof SeekableByteChannel)) {
+            throw posixException(OSErrorEnum.ESPIPE);
+        }
+        SeekableByteChannel in = (SeekableByteChannel) src;
+        WritableByteChannel out = (WritableByteChannel) dst;
+        try {
+            long srcPos = srcOffset < 0 ? in.position() : srcOffset;
+            long savedDstPos = -1;
+            if (dstOffset >= 0) {
+                savedDstPos = ((SeekableByteChannel) out).position();
+                ((SeekableByteChannel) out).position(dstOffset);
+            }
+            long n;
+            try {
+                if (in instanceof FileChannel) {
+                    n = ((FileChannel) in).transferTo(srcPos, count, out);
+                } else {
+                    n = transferChunk(in, srcPos, out, count);
+                }
+            } finally {
+                if (savedDstPos >= 0) {
+                    ((SeekableByteChannel) out).position(savedDstPos);
+                }
+            }
+            if (srcOffset < 0) {
+                in.position(srcPos + n);
+            }
+            return n;
+        } catch (Exception e) {
+            throw posixException(e, TruffleString.EqualNode.getUncached());
+        }
+    }
+
+    private static long transferChunk(SeekableByteChannel in, long pos, WritableByteChannel out, long count) throws IOException {
+        long savedPos = in.position();
+        try {
+            in.position(pos);
+            ByteBuffer buf = ByteBuffer.allocate((int) Math.min(count, TRANSFER_CHUNK_SIZE));
+            if (in.read(buf) <= 0) {
+                return 0;
+            }
+            buf.flip();
+            // like sendfile, a partial write to a non-blocking destination is reported as such
+            return out.write(buf);
+        } finally {
+            in.position(savedPos);
+        }
+    }
+
     @Override
     @ExportMessage
     public int dup(int fd) {
@@ -204,6 +204,20 @@ public class ImageBuildtimePosixSupport extends PosixSupport {
         return nativeLib.write(nativePosixSupport, fd, data);
     }
 
+    @ExportMessage
+    final long sendfile(int outFd, int inFd, long offset, long count,
+                    @CachedLibrary("this.nativePosixSupport") PosixSupportLibrary nativeLib) throws PosixException {
+        checkNotInImageBuildtime();
+        return nativeLib.sendfile(nativePosixSupport, outFd, inFd, offset, count);
+    }
+
+    @ExportMessage
+    final long copyFileRange(int srcFd, long srcOffset, int dstFd, long dstOffset, long count,
+                    @CachedLibrary("this.nativePosixSupport") PosixSupportLibrary nativeLib) throws PosixException {
+        checkNotInImageBuildtime();
+        return nativeLib.copyFileRange(nativePosixSupport, srcFd, srcOffset, dstFd, dstOffset, count);
+    }
+
     @ExportMessage
     final int dup(int fd,
                     @CachedLibrary("this.nativePosixSupport") PosixSupportLibrary nativeLib) throws PosixException {
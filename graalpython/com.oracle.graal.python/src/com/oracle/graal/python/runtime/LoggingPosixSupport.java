@@ -190,6 +190,28 @@ public class LoggingPosixSupport extends PosixSupport {
         }
     }
 
+    @ExportMessage
+    final long sendfile(int outFd, int inFd, long offset, long count,
+                    @CachedLibrary("this.delegate") PosixSupportLibrary lib) throws PosixException {
+        logEnter("sendfile", "%d, %d, %d, %d", outFd, inFd, offset, count);
+        try {
+            return logExit("sendfile", "%d", lib.sendfile(delegate, outFd, inFd, offset, count));
+        } catch (PosixException e) {
+            throw logException("sendfile", e);
+        }
+    }
+
+    @ExportMessage
+    final long copyFileRange(int srcFd, long srcOffset, int dstFd, long dstOffset, long count,
+                    @CachedLibrary("this.delegate") PosixSupportLibrary lib) throws PosixException {
+        logEnter("copyFileRange", "%d, %d, %d, %d, %d", srcFd, srcOffset, dstFd, dstOffset, count);
+        try {
+            return logExit("copyFileRange", "%d", lib.copyFileRange(delegate, srcFd, srcOffset, dstFd, dstOffset, count));
+        } catch (PosixException e) {
+            throw logException("copyFileRange", e);
+        }
+    }
+
     @ExportMessage
     final int dup(int fd,
                     @CachedLibrary("this.delegate") PosixSupportLibrary lib) throws PosixException {
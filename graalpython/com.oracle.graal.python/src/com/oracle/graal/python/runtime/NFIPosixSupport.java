@@ -152,6 +152,8 @@ public final class NFIPosixSupport extends PosixSupport {
         call_close("(sint32):sint32"),
         call_read("(sint32, [sint8], uint64):sint64"),
         call_write("(sint32, [sint8], uint64):sint64"),
+        call_sendfile("(sint32, sint32, sint64, sint64):sint64"),
+        call_copy_file_range("(sint32, sint64, sint32, sint64, sint64):sint64"),
         call_dup("(sint32):sint32"),
         call_dup2("(sint32, sint32, sint32):sint32"),
         call_pipe2("([sint32]):sint32"),
@@ -491,6 +493,26 @@ public final class NFIPosixSupport extends PosixSupport {
         return n;
     }
 
+    @ExportMessage
+    public long sendfile(int outFd, int inFd, long offset, long count,
+                    @Shared("invoke") @Cached InvokeNativeFunction invokeNode) throws PosixException {
+        long n = invokeNode.callLong(this, PosixNativeFunction.call_sendfile, outFd, inFd, offset, count);
+        if (n < 0) {
+            throw getErrnoAndThrowPosixException(invokeNode);
+        }
+        return n;
+    }
+
+    @ExportMessage
+    public long copyFileRange(int srcFd, long srcOffset, int dstFd, long dstOffset, long count,
+                    @Shared("invoke") @Cached InvokeNativeFunction invokeNode) throws PosixException {
+        long n = invokeNode.callLong(this, PosixNativeFunction.call_copy_file_range, srcFd, srcOffset, dstFd, dstOffset, count);
+        if (n < 0) {
+            throw getErrnoAndThrowPosixException(invokeNode);
+        }
+        return n;
+    }
+
     @ExportMessage
     public int dup(int fd,
                     @Shared("invoke") @Cached InvokeNativeFunction invokeNode) throws PosixException {
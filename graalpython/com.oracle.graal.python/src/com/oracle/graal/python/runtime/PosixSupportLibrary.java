@@ -95,6 +95,26 @@ public abstract class PosixSupportLibrary extends Library {
 
     public abstract long write(Object receiver, int fd, Buffer data) throws PosixException;
 
+    /**
+     * Performs operation of sendfile(outFd, inFd, offset, count) on Linux.
+     *
+     * @param offset the position in {@code inFd} to start reading from, or {@code -1} to read from
+     *            and advance the current file position of {@code inFd}
+     * @return the number of bytes copied
+     */
+    public abstract long sendfile(Object receiver, int outFd, int inFd, long offset, long count) throws PosixException;
+
+    /**
+     * Performs operation of copy_file_range(srcFd, srcOffset, dstFd, dstOffset, count, 0).
+     *
+     * @param srcOffset the position in {@code srcFd} to start reading from, or {@code -1} to use
+     *            and advance the current file position of {@code srcFd}
+     * @param dstOffset the position in {@code dstFd} to start writing to, or {@code -1} to use and
+     *            advance the current file position of {@code dstFd}
+     * @return the number of bytes copied
+     */
+    public abstract long copyFileRange(Object receiver, int srcFd, long srcOffset, int dstFd, long dstOffset, long count) throws PosixException;
+
     public abstract int dup(Object receiver, int fd) throws PosixException;
 
     public abstract int dup2(Object receiver, int fd, int fd2, boolean inheritable) throws PosixException;
@@ -123,7 +123,9 @@ import com.oracle.graal.python.builtins.objects.frame.PFrame.Reference;
 import com.oracle.graal.python.builtins.objects.function.PFunction;
 import com.oracle.graal.python.builtins.objects.function.PKeyword;
 import com.oracle.graal.python.builtins.objects.list.PList;
+import com.oracle.graal.python.builtins.objects.module.FrozenApplicationModules;
 import com.oracle.graal.python.builtins.objects.module.PythonModule;
+import com.oracle.graal.python.builtins.objects.str.InternTable;
 import com.oracle.graal.python.builtins.objects.str.PString;
 import com.oracle.graal.python.builtins.objects.str.StringNodes.StringReplaceNode;
 import com.oracle.graal.python.builtins.objects.thread.PLock;
@@ -604,6 +606,7 @@ public final class PythonContext extends Python3Core {
     private final List<ShutdownHook> shutdownHooks = new ArrayList<>();
     private final List<AtExitHook> atExitHooks = new ArrayList<>();
     private final List<Runnable> capiHooks = new ArrayList<>();
+    private boolean capiSamplerStarted;
     private final HashMap<PythonNativeClass, CyclicAssumption> nativeClassStableAssumptions = new HashMap<>();
     private final ThreadGroup threadGroup = new ThreadGroup(GRAALPYTHON_THREADS);
     private final IDUtils idUtils = new IDUtils();
@@ -703,6 +706,8 @@ public final class PythonContext extends Python3Core {
 
     private final ConcurrentHashMap<TruffleString, AtomicLong> deserializationId = new ConcurrentHashMap<>();
 
+    private final InternTable internTable = new InternTable();
+
     private final long perfCounterStart = ImageInfo.inImageBuildtimeCode() ? 0 : System.nanoTime();
 
     public static final String CHILD_CONTEXT_DATA = "childContextData";
@@ -1413,8 +1418,11 @@ public final class PythonContext extends Python3Core {
             postInitialize();
             if (!ImageInfo.inImageBuildtimeCode()) {
                 importSiteIfForced();
-            } else if (posixSupport instanceof ImageBuildtimePosixSupport) {
-                ((ImageBuildtimePosixSupport) posixSupport).checkLeakingResources();
+            } else {
+                importPreInitializedModules();
+                if (posixSupport instanceof ImageBuildtimePosixSupport) {
+                    ((ImageBuildtimePosixSupport) posixSupport).checkLeakingResources();
+                }
             }
         } finally {
             if (ImageInfo.inImageBuildtimeCode()) {
@@ -1441,6 +1449,22 @@ public final class PythonContext extends Python3Core {
         }
     }
 
+    /**
+     * Imports the modules that were declared for pre-initialization when the frozen modules were
+     * generated. This runs only while pre-initializing a context during the image build, so the
+     * modules end up in the image heap.
+     */
+    private void importPreInitializedModules() {
+        List<String> modules = FrozenApplicationModules.getPreImportedModules();
+        if (!modules.isEmpty()) {
+            for (String name : modules) {
+                AbstractImportNode.importModule(toTruffleStringUncached(name));
+            }
+            // stdlib modules imported as dependencies need their paths patched, too
+            patchPackagePaths(getStdlibHome(), T_STD_LIB_PLACEHOLDER);
+        }
+    }
+
     private void importSiteIfForced() {
         if (getOption(PythonOptions.ForceImportSite)) {
             AbstractImportNode.importModule(T_SITE);
@@ -1871,6 +1895,18 @@ public final class PythonContext extends Python3Core {
         atExitHooks.clear();
     }
 
+    /**
+     * Starts the engine's C API sampler if {@link PythonOptions#CApiSamplingInterval} is set. The
+     * sampler is stopped again when this context is finalized.
+     */
+    @TruffleBoundary
+    public void startCApiSampler() {
+        if (!capiSamplerStarted) {
+            PythonLanguage language = getLanguage();
+            capiSamplerStarted = language.getCApiSampler().start(language.getEngineOption(PythonOptions.CApiSamplingInterval));
+        }
+    }
+
     public void registerCApiHook(Runnable hook) {
         if (hasCApiContext()) {
             hook.run();
@@ -1903,6 +1939,12 @@ public final class PythonContext extends Python3Core {
             disposeThreadStates();
         }
         cleanupHPyResources();
+        if (capiSamplerStarted) {
+            capiSamplerStarted = false;
+            getLanguage().getCApiSampler().stop();
+        }
+        LOGGER.fine(() -> String.format("intern table: %d strings, %d duplicates with %d code points replaced", internTable.size(), internTable.getDuplicates(),
+                        internTable.getDuplicateCodePoints()));
         for (int fd : getChildContextFDs()) {
             if (!getSharedMultiprocessingData().decrementFDRefCount(fd)) {
                 getSharedMultiprocessingData().closePipe(fd);
@@ -2454,6 +2496,10 @@ public final class PythonContext extends Python3Core {
         return deserializationId.computeIfAbsent(fileName, f -> new AtomicLong()).incrementAndGet();
     }
 
+    public InternTable getInternTable() {
+        return internTable;
+    }
+
     @TruffleBoundary
     public TruffleString getSoAbi() {
         if (soABI == null) {
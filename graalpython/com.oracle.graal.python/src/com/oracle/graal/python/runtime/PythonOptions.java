@@ -274,6 +274,11 @@ public final class PythonOptions {
                     "or not specified, nothing will be printed (default).", stability = OptionStability.EXPERIMENTAL) //
     public static final OptionKey<Integer> HPyTraceUpcalls = new OptionKey<>(0);
 
+    @EngineOption @Option(category = OptionCategory.EXPERT, usageSyntax = "<time>", help = "Specifies the interval (ms) at which the C API and HPy upcalls and downcalls are sampled. " +
+                    "The results can be queried with '__graalpython__.capi_sampler_stats()' and '__graalpython__.capi_sampler_collapsed()'. If {@code 0} or not specified, " +
+                    "the sampler is disabled (default).") //
+    public static final OptionKey<Integer> CApiSamplingInterval = new OptionKey<>(0);
+
     @Option(category = OptionCategory.INTERNAL, usageSyntax = "<path>", help = "Specify the directory where the JNI library is located.", stability = OptionStability.EXPERIMENTAL) //
     public static final OptionKey<TruffleString> JNIHome = new OptionKey<>(T_EMPTY_STRING, TS_OPTION_TYPE);
 
@@ -321,7 +326,8 @@ public final class PythonOptions {
     @EngineOption @Option(category = OptionCategory.EXPERT, usageSyntax = "true|false", help = "Use the CPython sre engine as a fallback to the TRegex engine.") //
     public static final OptionKey<Boolean> TRegexUsesSREFallback = new OptionKey<>(true);
 
-    @Option(category = OptionCategory.EXPERT, usageSyntax = "true|false", help = "Switch on/off using lazy strings for performance reasons. Default true.") //
+    @EngineOption @Option(category = OptionCategory.EXPERT, usageSyntax = "true|false", help = "Switch on/off using lazy strings for performance reasons. If enabled, longer results of " +
+                    "string concatenation are only materialized on first access of their contents, and long slices and split results share the storage of their source string. Default true.") //
     public static final OptionKey<Boolean> LazyStrings = new OptionKey<>(true);
 
     @EngineOption @Option(category = OptionCategory.EXPERT, usageSyntax = "true|false", help = "Enable forced splitting (of builtins). Default false.") //
@@ -352,6 +358,9 @@ public final class PythonOptions {
     @EngineOption @Option(category = OptionCategory.EXPERT, usageSyntax = "<limit>", help = "Stop inlining of builtins if caller's cumulative tree size would exceed this limit") //
     public static final OptionKey<Integer> BuiltinsInliningMaxCallerSize = new OptionKey<>(2500);
 
+    @EngineOption @Option(category = OptionCategory.EXPERT, usageSyntax = "<entries>", help = "Maximum number of module code objects that are cached in a shared engine and reused by all its contexts. 0 disables the cache.") //
+    public static final OptionKey<Integer> CodeCacheSize = new OptionKey<>(1024);
+
     @Option(category = OptionCategory.EXPERT, usageSyntax = "true|false", help = "Disable weakref callback processing, signal handling, and other periodic async actions.") //
     public static final OptionKey<Boolean> NoAsyncActions = new OptionKey<>(false);
 
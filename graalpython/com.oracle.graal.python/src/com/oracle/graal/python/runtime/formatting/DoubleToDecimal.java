@@ -0,0 +1,337 @@
+/*
+ * Copyright (c) 2023, 2023, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.runtime.formatting;
+
+import java.math.BigInteger;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.CompilerDirectives.ValueType;
+import com.oracle.truffle.api.strings.TruffleStringBuilder;
+
+/**
+ * Conversion of a double to the shortest decimal that rounds back to it, which is what
+ * {@code float.__repr__} prints. The digits are computed with the Schubfach algorithm (R. Giulietti,
+ * "The Schubfach way to render doubles"), which needs a single 128-bit multiplication per bound
+ * and no big-number fallback. Ties between two equally short candidates are broken towards the
+ * one closer to the exact value, and then towards the even one, which matches the output of
+ * CPython's {@code repr} (David Gay's mode 0 of {@code _Py_dg_dtoa}).
+ */
+public final class DoubleToDecimal {
+
+    /** The length of the longest {@code repr} of a double, e.g. {@code -2.2250738585072014e-308}. */
+    public static final int MAX_REPR_LENGTH = 24;
+
+    private static final int P = 53;
+    private static final int Q_MIN = -1074;
+    private static final long C_MIN = 1L << (P - 1);
+    private static final long T_MASK = C_MIN - 1;
+    private static final long MASK_63 = (1L << 63) - 1;
+
+    private static final int K_MIN = -324;
+    private static final int K_MAX = 292;
+
+    /**
+     * For each {@code k} in {@code [K_MIN, K_MAX]}, the 126-bit value {@code g = floor(10^-k *
+     * 2^-r) + 1} with {@code 2^125 <= 10^-k * 2^-r < 2^126}, split into the high and the low 63
+     * bits.
+     */
+    private static final long[] G = computeG();
+
+    private static final long[] POWERS_OF_TEN = computePowersOfTen();
+
+    private DoubleToDecimal() {
+    }
+
+    /**
+     * A non-negative decimal {@code significand * 10^exponent} where the significand has no
+     * trailing zeros.
+     */
+    @ValueType
+    public static final class Decimal {
+        public final long significand;
+        public final int exponent;
+        public final int length;
+
+        Decimal(long significand, int exponent) {
+            long s = significand;
+            int e = exponent;
+            while (s % 10 == 0) {
+                s /= 10;
+                e++;
+            }
+            this.significand = s;
+            this.exponent = e;
+            this.length = decimalLength(s);
+        }
+
+        /**
+         * The exponent of the most significant digit, i.e., the exponent in scientific notation.
+         */
+        public int scientificExponent() {
+            return exponent + length - 1;
+        }
+    }
+
+    /**
+     * Computes the shortest decimal that rounds to {@code |value|}.
+     *
+     * @param value a finite, non-zero double
+     */
+    @TruffleBoundary
+    public static Decimal toDecimal(double value) {
+        assert Double.isFinite(value) && value != 0;
+        long bits = Double.doubleToRawLongBits(value);
+        long t = bits & T_MASK;
+        int bq = (int) (bits >>> (P - 1)) & 0x7ff;
+        if (bq != 0) {
+            int mq = -Q_MIN + 1 - bq;
+            long c = C_MIN | t;
+            if (0 < mq && mq < P) {
+                // fast path for integral values below 2^53
+                long f = c >> mq;
+                if (f << mq == c) {
+                    return new Decimal(f, 0);
+                }
+            }
+            return toDecimal(-mq, c);
+        }
+        // subnormal
+        return toDecimal(Q_MIN, t);
+    }
+
+    /**
+     * Computes the shortest decimal in the rounding interval of {@code c * 2^q}.
+     */
+    private static Decimal toDecimal(int q, long c) {
+        int out = (int) c & 0x1;
+        long cb = c << 2;
+        long cbr = cb + 2;
+        long cbl;
+        int k;
+        if (c != C_MIN || q == Q_MIN) {
+            // regular spacing
+            cbl = cb - 2;
+            k = floorLog10Pow2(q);
+        } else {
+            // the lower neighbour is closer at the boundary of a binade
+            cbl = cb - 1;
+            k = floorLog10ThreeQuartersPow2(q);
+        }
+        int h = q + floorLog2Pow10(-k) + 2;
+
+        int index = (k - K_MIN) << 1;
+        long g1 = G[index];
+        long g0 = G[index + 1];
+
+        long vb = roundToOdd(g1, g0, cb << h);
+        long vbl = roundToOdd(g1, g0, cbl << h);
+        long vbr = roundToOdd(g1, g0, cbr << h);
+
+        long s = vb >> 2;
+        if (s >= 10) {
+            /*
+             * Try the candidates with one digit less, i.e., s' * 10 and (s' + 1) * 10. The
+             * rounding interval is narrower than 10^(k+1), so at most one of them is inside. Unlike
+             * Java's Double.toString, we do not insist on two digits for the smallest subnormals.
+             */
+            long sp10 = 10 * (s / 10);
+            long tp10 = sp10 + 10;
+            boolean upin = vbl + out <= sp10 << 2;
+            boolean wpin = (tp10 << 2) + out <= vbr;
+            if (upin != wpin) {
+                return new Decimal(upin ? sp10 : tp10, k);
+            }
+        }
+        long tt = s + 1;
+        boolean uin = vbl + out <= s << 2;
+        boolean win = (tt << 2) + out <= vbr;
+        if (uin != win) {
+            return new Decimal(uin ? s : tt, k);
+        }
+        // both candidates are in the interval, pick the closer one and the even one on a tie
+        long cmp = vb - ((s + tt) << 1);
+        return new Decimal(cmp < 0 || cmp == 0 && (s & 0x1) == 0 ? s : tt, k);
+    }
+
+    /**
+     * Computes {@code g * cp * 2^-127} rounded to odd, where {@code g = g1 * 2^63 + g0}.
+     */
+    private static long roundToOdd(long g1, long g0, long cp) {
+        long x1 = multiplyHighUnsigned(g0, cp);
+        long y0 = g1 * cp;
+        long y1 = multiplyHighUnsigned(g1, cp);
+        long z = (y0 >>> 1) + x1;
+        long vbp = y1 + (z >>> 63);
+        return vbp | ((z & MASK_63) + MASK_63) >>> 63;
+    }
+
+    static long multiplyHighUnsigned(long x, long y) {
+        return Math.multiplyHigh(x, y) + ((x >> 63) & y) + ((y >> 63) & x);
+    }
+
+    /** {@code floor(e * log10(2))} for {@code |e| <= 5456721}. */
+    private static int floorLog10Pow2(int e) {
+        return (int) (e * 661_971_961_083L >> 41);
+    }
+
+    /** {@code floor(log10(3/4 * 2^e))} for {@code |e| <= 5456721}. */
+    private static int floorLog10ThreeQuartersPow2(int e) {
+        return (int) (e * 661_971_961_083L + -274_743_187_321L >> 41);
+    }
+
+    /** {@code floor(e * log2(10))} for {@code |e| <= 1838394}. */
+    private static int floorLog2Pow10(int e) {
+        return (int) (e * 913_124_641_741L >> 38);
+    }
+
+    private static long[] computeG() {
+        long[] g = new long[(K_MAX - K_MIN + 1) * 2];
+        BigInteger mask63 = BigInteger.ONE.shiftLeft(63).subtract(BigInteger.ONE);
+        for (int k = K_MIN; k <= K_MAX; k++) {
+            int e = -k;
+            int shift = 125 - floorLog2Pow10(e);
+            BigInteger beta;
+            if (e >= 0) {
+                BigInteger pow = BigInteger.TEN.pow(e);
+                beta = shift >= 0 ? pow.shiftLeft(shift) : pow.shiftRight(-shift);
+            } else {
+                beta = BigInteger.ONE.shiftLeft(shift).divide(BigInteger.TEN.pow(-e));
+            }
+            BigInteger value = beta.add(BigInteger.ONE);
+            assert value.bitLength() == 126 || value.bitLength() == 127 && value.equals(BigInteger.ONE.shiftLeft(126));
+            int index = (k - K_MIN) << 1;
+            g[index] = value.shiftRight(63).longValue();
+            g[index + 1] = value.and(mask63).longValue();
+        }
+        return g;
+    }
+
+    private static long[] computePowersOfTen() {
+        long[] powers = new long[19];
+        powers[0] = 1;
+        for (int i = 1; i < powers.length; i++) {
+            powers[i] = powers[i - 1] * 10;
+        }
+        return powers;
+    }
+
+    static int decimalLength(long nonNegative) {
+        int length = 1;
+        while (length < POWERS_OF_TEN.length && nonNegative >= POWERS_OF_TEN[length]) {
+            length++;
+        }
+        return length;
+    }
+
+    /**
+     * Appends the {@code repr} of a finite double, e.g. {@code 0.1}, {@code -0.0},
+     * {@code 1e+16} or {@code 1.5e-05}. Like CPython, fixed-point notation is used if the
+     * scientific exponent is in {@code [-4, 16)}, and the fixed-point notation always has a
+     * fractional part.
+     */
+    public static void appendRepr(TruffleStringBuilder sb, double value, TruffleStringBuilder.AppendCodePointNode appendCodePointNode,
+                    TruffleStringBuilder.AppendLongNumberNode appendLongNumberNode) {
+        assert Double.isFinite(value);
+        if (Double.doubleToRawLongBits(value) < 0) {
+            appendCodePointNode.execute(sb, '-', 1, true);
+        }
+        if (value == 0) {
+            appendLongNumberNode.execute(sb, 0);
+            appendCodePointNode.execute(sb, '.', 1, true);
+            appendLongNumberNode.execute(sb, 0);
+            return;
+        }
+        Decimal decimal = toDecimal(value);
+        long significand = decimal.significand;
+        int exponent = decimal.exponent;
+        int sciExponent = decimal.scientificExponent();
+        if (-4 <= sciExponent && sciExponent < 16) {
+            if (exponent >= 0) {
+                appendLongNumberNode.execute(sb, significand);
+                if (exponent > 0) {
+                    appendCodePointNode.execute(sb, '0', exponent, true);
+                }
+                appendCodePointNode.execute(sb, '.', 1, true);
+                appendLongNumberNode.execute(sb, 0);
+            } else if (sciExponent >= 0) {
+                appendWithPoint(sb, significand, -exponent, appendCodePointNode, appendLongNumberNode);
+            } else {
+                appendLongNumberNode.execute(sb, 0);
+                appendCodePointNode.execute(sb, '.', 1, true);
+                if (sciExponent < -1) {
+                    appendCodePointNode.execute(sb, '0', -sciExponent - 1, true);
+                }
+                appendLongNumberNode.execute(sb, significand);
+            }
+        } else {
+            if (decimal.length == 1) {
+                appendLongNumberNode.execute(sb, significand);
+            } else {
+                appendWithPoint(sb, significand, decimal.length - 1, appendCodePointNode, appendLongNumberNode);
+            }
+            appendCodePointNode.execute(sb, 'e', 1, true);
+            appendCodePointNode.execute(sb, sciExponent < 0 ? '-' : '+', 1, true);
+            int absExponent = Math.abs(sciExponent);
+            if (absExponent < 10) {
+                appendCodePointNode.execute(sb, '0', 1, true);
+            }
+            appendLongNumberNode.execute(sb, absExponent);
+        }
+    }
+
+    /**
+     * Appends {@code digits} with a decimal point before the last {@code fractionLength} digits.
+     * The fractional part must not be zero, which holds for significands without trailing zeros.
+     */
+    private static void appendWithPoint(TruffleStringBuilder sb, long digits, int fractionLength, TruffleStringBuilder.AppendCodePointNode appendCodePointNode,
+                    TruffleStringBuilder.AppendLongNumberNode appendLongNumberNode) {
+        long scale = POWERS_OF_TEN[fractionLength];
+        long fraction = digits % scale;
+        assert fraction != 0;
+        appendLongNumberNode.execute(sb, digits / scale);
+        appendCodePointNode.execute(sb, '.', 1, true);
+        int leadingZeros = fractionLength - decimalLength(fraction);
+        if (leadingZeros > 0) {
+            appendCodePointNode.execute(sb, '0', leadingZeros, true);
+        }
+        appendLongNumberNode.execute(sb, fraction);
+    }
+}
@@ -355,6 +355,71 @@ public class FloatFormatter extends InternalFormat.Formatter {
         }
     }
 
+    /** The largest precision accepted by {@link #toScaledFixed(double, int)}. */
+    public static final int MAX_SCALED_FIXED_PRECISION = 9;
+
+    private static final long[] POWERS_OF_TEN = {1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L, 10000000L, 100000000L, 1000000000L};
+
+    /**
+     * Rounds a finite, non-negative {@code value} to {@code precision} fractional digits and returns
+     * it multiplied by {@code 10^precision}, or {@code -1} if that does not fit into a {@code long}.
+     * Like {@link #format_f(double, String, int)}, this rounds the exact binary value half-to-even,
+     * but it uses 128-bit integer arithmetic on the mantissa instead of a {@link BigDecimal}.
+     *
+     * @param value the number to round, must be finite and not negative
+     * @param precision number of fractional digits, at most {@link #MAX_SCALED_FIXED_PRECISION}
+     */
+    public static long toScaledFixed(double value, int precision) {
+        assert Double.isFinite(value) && value >= 0 && precision >= 0 && precision <= MAX_SCALED_FIXED_PRECISION;
+        long bits = Double.doubleToRawLongBits(value);
+        int biasedExponent = (int) (bits >>> 52) & 0x7ff;
+        long mantissa = bits & 0xfffffffffffffL;
+        int exponent;
+        if (biasedExponent == 0) {
+            exponent = -1074;
+        } else {
+            mantissa |= 1L << 52;
+            exponent = biasedExponent - 1075;
+        }
+        if (exponent > 0) {
+            return -1;
+        }
+        // value * 10^precision == (hi:lo) >> shift, where (hi:lo) < 2^83
+        long scale = POWERS_OF_TEN[precision];
+        long lo = mantissa * scale;
+        long hi = Math.multiplyHigh(mantissa, scale);
+        int shift = -exponent;
+        if (shift == 0) {
+            return hi == 0 && lo >= 0 ? lo : -1;
+        }
+        if (shift > 83) {
+            // less than half a unit in the last place
+            return 0;
+        }
+        long quotient;
+        int cmpHalf;
+        if (shift < 64) {
+            if ((hi >>> (shift - 1)) != 0) {
+                return -1;
+            }
+            quotient = (hi << (64 - shift)) | (lo >>> shift);
+            cmpHalf = Long.compare(lo & ((1L << shift) - 1), 1L << (shift - 1));
+        } else if (shift == 64) {
+            quotient = hi;
+            cmpHalf = Long.compareUnsigned(lo, Long.MIN_VALUE);
+        } else {
+            int hiShift = shift - 64;
+            quotient = hi >>> hiShift;
+            long remainderHi = hi & ((1L << hiShift) - 1);
+            long halfHi = 1L << (hiShift - 1);
+            cmpHalf = remainderHi != halfHi ? Long.compare(remainderHi, halfHi) : (lo != 0 ? 1 : 0);
+        }
+        if (cmpHalf > 0 || (cmpHalf == 0 && (quotient & 1) != 0)) {
+            quotient++;
+        }
+        return quotient;
+    }
+
     /**
      * The f-format inner helper function of {@link #format(double, String)} that uses Java's
      * {@link BigDecimal} to provide conversion and rounding. The converted number is appended to
@@ -533,13 +598,11 @@ public class FloatFormatter extends InternalFormat.Formatter {
     }
 
     /**
-     * Implementation of r-format (<code>float.__repr__</code>) that uses Java's
-     * {@link Double#toString(double)} to provide conversion and rounding. That method gives us
-     * almost what we need, but not quite (sometimes it yields 18 digits): here we always round to
-     * 17 significant digits. Much of the formatting after conversion is shared with
-     * format_g(double, String, int, int, int). <code>minFracDigits</code> is consulted since while
-     * <code>float.__repr__</code> truncates to one digit, within <code>complex.__repr__</code> we
-     * truncate fully.
+     * Implementation of r-format (<code>float.__repr__</code>) that uses {@link DoubleToDecimal}
+     * to provide the shortest digits that round back to the value. Much of the formatting after
+     * conversion is shared with format_g(double, String, int, int, int). <code>minFracDigits</code>
+     * is consulted since while <code>float.__repr__</code> truncates to one digit, within
+     * <code>complex.__repr__</code> we truncate fully.
      *
      * @param value to convert
      * @param positivePrefix to use before positive values (e.g. "+") or null to default to ""
@@ -558,7 +621,7 @@ public class FloatFormatter extends InternalFormat.Formatter {
 
             // Generate digit sequence (with no decimal point) with custom rounding.
             FormattingBuffer.StringFormattingBuffer pointlessBuffer = new FormattingBuffer.StringFormattingBuffer(20);
-            int exp = reprDigits(Math.abs(value), precision, pointlessBuffer);
+            int exp = reprDigits(Math.abs(value), pointlessBuffer);
 
             if (-4 <= exp && exp < expThreshold) {
                 // Finish the job as f-format with variable-precision p-(exp+1).
@@ -703,115 +766,17 @@ public class FloatFormatter extends InternalFormat.Formatter {
 
     /**
      * Convert a double to digits and an exponent for use in <code>float.__repr__</code> (or
-     * r-format). This method takes advantage of (or assumes) a close correspondence between
-     * {@link Double#toString(double)} and Python <code>float.__repr__</code>. The correspondence
-     * appears to be exact, insofar as the Java method produces the minimal non-zero digit string.
-     * It mostly chooses the same number of digits (and the same digits) as the CPython repr, but in
-     * a few cases <code>Double.toString</code> produces more digits. This method truncates to the
-     * number <code>maxDigits</code>, which in practice is always 17.
+     * r-format). The digits are the shortest ones that round back to the value, as computed by
+     * {@link DoubleToDecimal}, which are never more than 17.
      *
-     * @param value to convert
-     * @param maxDigits maximum number of digits to return in <code>buf</code>.
+     * @param value to convert (positive and finite)
      * @param buf for digits of result (recommend size be 20)
      * @return the exponent
      */
-    private static int reprDigits(double value, int maxDigits, FormattingBuffer.StringFormattingBuffer buf) {
-
-        // Most of the work is done by Double.
-        String s = Double.toString(value);
-
-        // Variables for scanning the string
-        int p = 0, end = s.length(), first = 0, point = end, exp;
-        char c = 0;
-        boolean allZero = true;
-
-        // Scan whole part and fractional part digits
-        buf.ensureAdditionalCapacity(s.length()); // this may over-allocate a bit
-        while (p < end) {
-            c = s.charAt(p++);
-            if (Character.isDigit(c)) {
-                if (allZero) {
-                    if (c != '0') {
-                        // This is the first non-zero digit.
-                        buf.append(c);
-                        allZero = false;
-                        // p is one *after* the first non-zero digit.
-                        first = p;
-                    }
-                    // Only seen zeros so far: do nothing.
-                } else {
-                    // We've started, so every digit counts.
-                    buf.append(c);
-                }
-
-            } else if (c == '.') {
-                // We remember this location (one *after* '.') to calculate the exponent later.
-                point = p;
-
-            } else {
-                // Something after the mantissa. (c=='E' we hope.)
-                break;
-            }
-        }
-
-        // Possibly followed by an exponent. p has already advanced past the 'E'.
-        if (p < end && c == 'E') {
-            // If there is an exponent, the mantissa must be in standard form: m.mmmm
-            assert point == first + 1;
-            exp = Integer.parseInt(s.substring(p));
-
-        } else {
-            // Exponent is based on relationship of decimal point and first non-zero digit.
-            exp = point - first - 1;
-            // But that's only correct when the point is to the right (or absent).
-            if (exp < 0) {
-                // The point is to the left of the first digit
-                exp += 1; // = -(first-point)
-            }
-        }
-
-        /*
-         * XXX This still does not round in all the cases it could. I think Java stops generating
-         * digits when the residual is <= ulp/2. This is to neglect the possibility that the extra
-         * ulp/2 (before it becomes a different double) could take us to a rounder numeral. To fix
-         * this, we could express ulp/2 as digits in the same scale as those in the buffer, and
-         * consider adding them. But Java's behaviour here is probably a manifestation of bug
-         * JDK-4511638.
-         */
-
-        // Sometimes the result is more digits than we want for repr.
-        if (buf.length() > maxDigits) {
-            // Chop the trailing digits, remembering the most significant lost digit.
-            int d = buf.charAt(maxDigits);
-            buf.setLength(maxDigits);
-            // We round half up. Not absolutely correct since Double has already rounded.
-            if (d >= '5') {
-                // Treat this as a "carry one" into the numeral buf[0:maxDigits].
-                for (p = maxDigits - 1; p >= 0; p--) {
-                    // Each pass of the loop does one carry from buf[p+1] to buf[p].
-                    d = buf.charAt(p) + 1;
-                    if (d <= '9') {
-                        // Carry propagation stops here.
-                        buf.setCharAt(p, (char) d);
-                        break;
-                    } else {
-                        // 9 + 1 -> 0 carry 1. Keep looping.
-                        buf.setCharAt(p, '0');
-                    }
-                }
-                if (p < 0) {
-                    /*
-                     * We fell off the bottom of the buffer with one carry still to propagate. You
-                     * may expect: buf.insert(0, '1') here, but note that every digit in
-                     * buf[0:maxDigits] is currently '0', so all we need is:
-                     */
-                    buf.setCharAt(0, '1');
-                    exp += 1;
-                }
-            }
-        }
-
-        return exp;
+    private static int reprDigits(double value, FormattingBuffer.StringFormattingBuffer buf) {
+        DoubleToDecimal.Decimal decimal = DoubleToDecimal.toDecimal(value);
+        buf.append(Long.toString(decimal.significand));
+        return decimal.scientificExponent();
     }
 
     /**
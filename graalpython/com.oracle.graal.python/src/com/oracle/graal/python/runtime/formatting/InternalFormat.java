@@ -40,6 +40,16 @@ public class InternalFormat {
         return parser.parse(raiseNode, defaultType, defaultAlignment);
     }
 
+    /**
+     * Like {@link #fromText(PRaiseNode, TruffleString, char, char)}, but returns {@code null}
+     * instead of raising if the format specification is invalid.
+     */
+    @TruffleBoundary
+    public static Spec fromTextOrNull(TruffleString text, char defaultType, char defaultAlignment) {
+        Parser parser = new Parser(text.toJavaStringUncached());
+        return parser.parse(null, defaultType, defaultAlignment);
+    }
+
     /**
      * A class that provides the base for implementations of type-specific formatting. In a limited
      * way, it acts like a StringFormattingBuffer to which text and one or more numbers may be
@@ -805,7 +815,7 @@ public class InternalFormat {
                     width = scanInteger();
                 } catch (NumberFormatException ex) {
                     // CPython seems to happily parse big ints and then it chokes on the allocation
-                    throw raiseNode.raise(ValueError, ErrorMessages.WIDTH_TOO_BIG);
+                    return invalid(raiseNode, ErrorMessages.WIDTH_TOO_BIG);
                 }
             }
 
@@ -815,11 +825,11 @@ public class InternalFormat {
             }
             if (scanPast('_')) {
                 if (specified(grouping)) {
-                    throw raiseNode.raise(ValueError, ErrorMessages.CANNOT_SPECIFY_BOTH_COMMA_AND_UNDERSCORE);
+                    return invalid(raiseNode, ErrorMessages.CANNOT_SPECIFY_BOTH_COMMA_AND_UNDERSCORE);
                 }
                 grouping = '_';
                 if (scanPast(',')) {
-                    throw raiseNode.raise(ValueError, ErrorMessages.CANNOT_SPECIFY_BOTH_COMMA_AND_UNDERSCORE);
+                    return invalid(raiseNode, ErrorMessages.CANNOT_SPECIFY_BOTH_COMMA_AND_UNDERSCORE);
                 }
             }
 
@@ -829,10 +839,10 @@ public class InternalFormat {
                     try {
                         precision = scanInteger();
                     } catch (NumberFormatException ex) {
-                        throw raiseNode.raise(ValueError, ErrorMessages.PRECISION_TOO_BIG);
+                        return invalid(raiseNode, ErrorMessages.PRECISION_TOO_BIG);
                     }
                 } else {
-                    throw raiseNode.raise(ValueError, ErrorMessages.FMT_SPECIFIER_MISSING_PRECISION);
+                    return invalid(raiseNode, ErrorMessages.FMT_SPECIFIER_MISSING_PRECISION);
                 }
             }
 
@@ -843,7 +853,7 @@ public class InternalFormat {
 
             // If we haven't reached the end, something is wrong
             if (ptr != spec.length()) {
-                throw raiseNode.raise(ValueError, ErrorMessages.INVALID_CONVERSION_SPECIFICATION);
+                return invalid(raiseNode, ErrorMessages.INVALID_CONVERSION_SPECIFICATION);
             }
 
             // Some basic validation
@@ -874,7 +884,7 @@ public class InternalFormat {
                         valid = false;
                 }
                 if (!valid) {
-                    throw raiseNode.raise(ValueError, ErrorMessages.CANNOT_SPECIFY_C_WITH_C, grouping, type);
+                    return invalid(raiseNode, ErrorMessages.CANNOT_SPECIFY_C_WITH_C, grouping, type);
                 }
             }
 
@@ -882,6 +892,17 @@ public class InternalFormat {
             return new Spec(fill, align, sign, alternate, width, grouping, precision, type);
         }
 
+        /**
+         * Raises a {@code ValueError} with the given message, or returns {@code null} if there is
+         * no {@code raiseNode} to raise it with.
+         */
+        private static Spec invalid(PRaiseNode raiseNode, TruffleString message, Object... arguments) {
+            if (raiseNode == null) {
+                return null;
+            }
+            throw raiseNode.raise(ValueError, message, arguments);
+        }
+
         /**
          * Test that the next character is exactly the one specified, and advance past it if it is.
          */
@@ -159,6 +159,9 @@ import com.oracle.graal.python.builtins.objects.mmap.PMMap;
 import com.oracle.graal.python.builtins.objects.module.PythonModule;
 import com.oracle.graal.python.builtins.objects.namespace.PSimpleNamespace;
 import com.oracle.graal.python.builtins.objects.object.PythonObject;
+import com.oracle.graal.python.builtins.objects.operator.PAttrGetter;
+import com.oracle.graal.python.builtins.objects.operator.PItemGetter;
+import com.oracle.graal.python.builtins.objects.operator.PMethodCaller;
 import com.oracle.graal.python.builtins.objects.partial.PPartial;
 import com.oracle.graal.python.builtins.objects.posix.PDirEntry;
 import com.oracle.graal.python.builtins.objects.posix.PScandirIterator;
@@ -826,6 +829,18 @@ public abstract class PythonObjectFactory extends Node {
         return trace(new PPartial(cls, getShape(cls), function, args, kwDict));
     }
 
+    public final PItemGetter createItemGetter(Object cls, Object[] items) {
+        return trace(new PItemGetter(cls, getShape(cls), items));
+    }
+
+    public final PAttrGetter createAttrGetter(Object cls, Object[] names, TruffleString[][] chains) {
+        return trace(new PAttrGetter(cls, getShape(cls), names, chains));
+    }
+
+    public final PMethodCaller createMethodCaller(Object cls, TruffleString name, Object[] args, PKeyword[] keywords) {
+        return trace(new PMethodCaller(cls, getShape(cls), name, args, keywords));
+    }
+
     public final PDefaultDict createDefaultDict(Object cls) {
         return createDefaultDict(cls, PNone.NONE);
     }
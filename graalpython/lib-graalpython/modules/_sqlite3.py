@@ -1,4 +1,4 @@
-# Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+# Copyright (c) 2022, 2023, Oracle and/or its affiliates. All rights reserved.
 # DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
 #
 # The Universal Permissive License (UPL), Version 1.0
@@ -37,18 +37,25 @@
 # OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
 # SOFTWARE.
 
-# dummy implementation of _sqlite3 module allow "import sqlite3"
+try:
+    import _cpython_sqlite3
+except ImportError:
+    # dummy implementation of _sqlite3 module allow "import sqlite3" when the
+    # native module was not built because no SQLite library was available
 
-version = '2.6.0'
-sqlite_version = '3.35.4'
+    version = '2.6.0'
+    sqlite_version = '3.35.4'
 
-class Row(object):
-    pass
+    class Row(object):
+        pass
 
 
-def register_adapter(t, c):
-    pass
+    def register_adapter(t, c):
+        pass
 
 
-def register_converter(t, c):
-    pass
+    def register_converter(t, c):
+        pass
+else:
+    globals().update({k: v for k, v in _cpython_sqlite3.__dict__.items() if not k.startswith('__')})
+    del _cpython_sqlite3
@@ -156,6 +156,9 @@ __libmpdec_version__ = "2.4.2" # compatible libmpdec version
 import math as _math
 import numbers as _numbers
 import sys
+# Begin Truffle change
+import _decimal_truffle
+# End Truffle change
 
 try:
     from collections import namedtuple as _namedtuple
@@ -547,6 +550,12 @@ class Decimal(object):
         # From a string
         # REs insist on real strings, so we can too.
         if isinstance(value, str):
+            # Begin Truffle change
+            parsed = _decimal_truffle.parse(value)
+            if parsed is not None:
+                self._sign, self._int, self._exp, self._is_special = parsed
+                return self
+            # End Truffle change
             m = _parser(value.strip().replace("_", ""))
             if m is None:
                 if context is None:
@@ -1043,6 +1052,14 @@ class Decimal(object):
             else: # self._exp == 'N'
                 return sign + 'sNaN' + self._int
 
+        # Begin Truffle change
+        if context is None:
+            context = getcontext()
+        result = _decimal_truffle.to_string(self._sign, self._int, self._exp, eng, context.capitals)
+        if result is not None:
+            return result
+        # End Truffle change
+
         # number of digits of self._int to left of decimal point
         leftdigits = self._exp + len(self._int)
 
@@ -1179,6 +1196,15 @@ class Decimal(object):
             if other._isinfinity():
                 return Decimal(other)  # Can't both be infinity here
 
+        # Begin Truffle change
+        result = _decimal_truffle.add(self._sign, self._int, self._exp,
+                                      other._sign, other._int, other._exp,
+                                      context.prec, context.rounding,
+                                      context.Emin, context.Emax, context.clamp)
+        if result is not None:
+            return _fixed_result(context, result)
+        # End Truffle change
+
         exp = min(self._exp, other._exp)
         negativezero = 0
         if context.rounding == ROUND_FLOOR and self._sign != other._sign:
@@ -1293,6 +1319,15 @@ class Decimal(object):
                     return context._raise_error(InvalidOperation, '0 * (+-)INF')
                 return _SignedInfinity[resultsign]
 
+        # Begin Truffle change
+        result = _decimal_truffle.multiply(self._sign, self._int, self._exp,
+                                           other._sign, other._int, other._exp,
+                                           context.prec, context.rounding,
+                                           context.Emin, context.Emax, context.clamp)
+        if result is not None:
+            return _fixed_result(context, result)
+        # End Truffle change
+
         resultexp = self._exp + other._exp
 
         # Special case for multiplying by zero
@@ -1347,6 +1382,15 @@ class Decimal(object):
                 context._raise_error(Clamped, 'Division by infinity')
                 return _dec_from_triple(sign, '0', context.Etiny())
 
+        # Begin Truffle change
+        result = _decimal_truffle.divide(self._sign, self._int, self._exp,
+                                         other._sign, other._int, other._exp,
+                                         context.prec, context.rounding,
+                                         context.Emin, context.Emax, context.clamp)
+        if result is not None:
+            return _fixed_result(context, result)
+        # End Truffle change
+
         # Special cases for zeroes
         if not other:
             if not self:
@@ -1676,6 +1720,14 @@ class Decimal(object):
                 # self is +/-Infinity; return unaltered
                 return Decimal(self)
 
+        # Begin Truffle change
+        result = _decimal_truffle.fix(self._sign, self._int, self._exp,
+                                      context.prec, context.rounding,
+                                      context.Emin, context.Emax, context.clamp)
+        if result is not None:
+            return _fixed_result(context, result)
+        # End Truffle change
+
         # if self is zero then exponent should be between Etiny and
         # Emax if clamp==0, and between Etiny and Etop if clamp==1.
         Etiny = context.Etiny()
@@ -2622,6 +2674,11 @@ class Decimal(object):
         """
         if self._is_special:
             return Decimal(self)
+        # Begin Truffle change
+        coeff = _decimal_truffle.rescale(self._sign, self._int, self._exp, exp, rounding)
+        if coeff is not None:
+            return _dec_from_triple(self._sign, coeff, exp)
+        # End Truffle change
         if not self:
             return _dec_from_triple(self._sign, '0', exp)
 
@@ -3827,6 +3884,32 @@ class Decimal(object):
         # of the formatting to the _format_number function
         return _format_number(self._sign, intpart, fracpart, exp, spec)
 
+# Begin Truffle change
+def _fixed_result(context, result):
+    """Create a decimal instance from the result of one of the
+    _decimal_truffle functions that round to the context, raising the
+    signals that Decimal._fix would have raised, in the same order.
+    """
+    sign, coefficient, exponent, flags = result
+    if not flags:
+        return _dec_from_triple(sign, coefficient, exponent)
+    if flags & 1:
+        ans = context._raise_error(Overflow, 'above Emax', sign)
+    else:
+        ans = _dec_from_triple(sign, coefficient, exponent)
+    if flags & 2:
+        context._raise_error(Underflow)
+    if flags & 4:
+        context._raise_error(Subnormal)
+    if flags & 8:
+        context._raise_error(Inexact)
+    if flags & 16:
+        context._raise_error(Rounded)
+    if flags & 32:
+        context._raise_error(Clamped)
+    return ans
+# End Truffle change
+
 def _dec_from_triple(sign, coefficient, exponent, special=False):
     """Create a decimal instance directly, without any validation,
     normalization (e.g. removal of leading zeros) or argument
@@ -12,6 +12,9 @@ import time as _time
 import math as _math
 import sys
 from operator import index as _index
+# Begin Truffle change
+import _datetime_truffle
+# End Truffle change
 
 def _cmp(x, y):
     return 0 if x == y else 1 if x > y else -1
@@ -197,6 +200,19 @@ def _format_offset(off):
                 s += '.%06d' % ss.microseconds
     return s
 
+# Begin Truffle change
+_ymd2ord = _datetime_truffle.ymd2ord
+_ord2ymd = _datetime_truffle.ord2ymd
+
+def _format_time(hh, mm, ss, us, timespec='auto'):
+    return _datetime_truffle.format_time(hh, mm, ss, us, timespec)
+
+def _format_offset(off):
+    if off is None:
+        return ''
+    return _datetime_truffle.format_offset(off._days, off._seconds, off._microseconds)
+# End Truffle change
+
 # Correctly substitute for %z and %Z escapes in strftime formats.
 def _wrap_strftime(object, format, timetuple):
     # Don't call utcoffset() or tzname() unless actually needed.
@@ -356,6 +372,19 @@ def _parse_isoformat_time(tstr):
 
     return time_comps
 
+# Begin Truffle change
+_parse_isoformat_date = _datetime_truffle.parse_isoformat_date
+
+def _parse_isoformat_time(tstr):
+    time_comps = _datetime_truffle.parse_isoformat_time(tstr)
+    offset = time_comps[4]
+    if offset == 0:
+        time_comps[4] = timezone.utc
+    elif offset is not None:
+        time_comps[4] = timezone(timedelta(microseconds=offset))
+    return time_comps
+# End Truffle change
+
 
 # Just raise TypeError if the arg isn't None or a string.
 def _check_tzname(name):
@@ -411,6 +440,11 @@ def _check_time_fields(hour, minute, second, microsecond, fold):
         raise ValueError('fold must be either 0 or 1', fold)
     return hour, minute, second, microsecond, fold
 
+# Begin Truffle change
+_check_date_fields = _datetime_truffle.check_date_fields
+_check_time_fields = _datetime_truffle.check_time_fields
+# End Truffle change
+
 def _check_tzinfo_arg(tz):
     if tz is not None and not isinstance(tz, tzinfo):
         raise TypeError("tzinfo argument must be None or of a tzinfo subclass")
@@ -470,6 +504,16 @@ class timedelta:
 
         # XXX Check that all inputs are ints or floats.
 
+        # Begin Truffle change
+        normalized = _datetime_truffle.normalize_timedelta(days, seconds, microseconds,
+                                                           milliseconds, minutes, hours, weeks)
+        if normalized is not None:
+            self = object.__new__(cls)
+            self._days, self._seconds, self._microseconds = normalized
+            self._hashcode = -1
+            return self
+        # End Truffle change
+
         # Final values, all integer.
         # s and us fit in 32-bit signed ints; d isn't bounded.
         d = s = us = 0
@@ -826,7 +870,9 @@ class date:
     @classmethod
     def fromtimestamp(cls, t):
         "Construct a date from a POSIX timestamp (like time.time())."
-        y, m, d, hh, mm, ss, weekday, jday, dst = _time.localtime(t)
+        # Begin Truffle change
+        y, m, d = _datetime_truffle.timestamp_to_fields(_math.floor(t), False)[:3]
+        # End Truffle change
         return cls(y, m, d)
 
     @classmethod
@@ -944,7 +990,9 @@ class date:
         - http://www.w3.org/TR/NOTE-datetime
         - http://www.cl.cam.ac.uk/~mgk25/iso-time.html
         """
-        return "%04d-%02d-%02d" % (self._year, self._month, self._day)
+        # Begin Truffle change
+        return _datetime_truffle.format_date(self._year, self._month, self._day)
+        # End Truffle change
 
     __str__ = isoformat
 
@@ -1639,43 +1687,22 @@ class datetime(date):
 
         A timezone info object may be passed in as well.
         """
-        frac, t = _math.modf(t)
-        us = round(frac * 1e6)
-        if us >= 1000000:
-            t += 1
-            us -= 1000000
-        elif us < 0:
-            t -= 1
-            us += 1000000
-
-        converter = _time.gmtime if utc else _time.localtime
-        y, m, d, hh, mm, ss, weekday, jday, dst = converter(t)
-        ss = min(ss, 59)    # clamp out leap seconds if the platform has them
+        # Begin Truffle change
+        return cls._fromfields(_datetime_truffle.timestamp_to_fields(t, utc), utc, tz)
+
+    @classmethod
+    def _fromfields(cls, fields, utc, tz):
+        # the local time zone rules give us the fold directly, no need to
+        # probe for transitions
+        y, m, d, hh, mm, ss, us, fold = fields
         result = cls(y, m, d, hh, mm, ss, us, tz)
         if tz is None and not utc:
-            # As of version 2015f max fold in IANA database is
-            # 23 hours at 1969-09-30 13:00:00 in Kwajalein.
-            # Let's probe 24 hours in the past to detect a transition:
-            max_fold_seconds = 24 * 3600
-
-            # On Windows localtime_s throws an OSError for negative values,
-            # thus we can't perform fold detection for values of time less
-            # than the max time fold. See comments in _datetimemodule's
-            # version of this method for more details.
-            if t < max_fold_seconds and sys.platform.startswith("win"):
-                return result
-
-            y, m, d, hh, mm, ss = converter(t - max_fold_seconds)[:6]
-            probe1 = cls(y, m, d, hh, mm, ss, us, tz)
-            trans = result - probe1 - timedelta(0, max_fold_seconds)
-            if trans.days < 0:
-                y, m, d, hh, mm, ss = converter(t + trans // timedelta(0, 1))[:6]
-                probe2 = cls(y, m, d, hh, mm, ss, us, tz)
-                if probe2 == result:
-                    result._fold = 1
+            if fold:
+                result._fold = 1
         elif tz is not None:
             result = tz.fromutc(result)
         return result
+        # End Truffle change
 
     @classmethod
     def fromtimestamp(cls, t, tz=None):
@@ -1695,8 +1722,10 @@ class datetime(date):
     @classmethod
     def now(cls, tz=None):
         "Construct a datetime from time.time() and optional time zone info."
-        t = _time.time()
-        return cls.fromtimestamp(t, tz)
+        # Begin Truffle change
+        _check_tzinfo_arg(tz)
+        return cls._fromfields(_datetime_truffle.now_fields(tz is not None), tz is not None, tz)
+        # End Truffle change
 
     @classmethod
     def utcnow(cls):
@@ -1757,37 +1786,11 @@ class datetime(date):
 
     def _mktime(self):
         """Return integer POSIX timestamp."""
-        epoch = datetime(1970, 1, 1)
-        max_fold_seconds = 24 * 3600
-        t = (self - epoch) // timedelta(0, 1)
-        def local(u):
-            y, m, d, hh, mm, ss = _time.localtime(u)[:6]
-            return (datetime(y, m, d, hh, mm, ss) - epoch) // timedelta(0, 1)
-
-        # Our goal is to solve t = local(u) for u.
-        a = local(t) - t
-        u1 = t - a
-        t1 = local(u1)
-        if t1 == t:
-            # We found one solution, but it may not be the one we need.
-            # Look for an earlier solution (if `fold` is 0), or a
-            # later one (if `fold` is 1).
-            u2 = u1 + (-max_fold_seconds, max_fold_seconds)[self.fold]
-            b = local(u2) - u2
-            if a == b:
-                return u1
-        else:
-            b = t1 - u1
-            assert a != b
-        u2 = t - b
-        t2 = local(u2)
-        if t2 == t:
-            return u2
-        if t1 == t:
-            return u1
-        # We have found both offsets a and b, but neither t - a nor t - b is
-        # a solution.  This means t is in the gap.
-        return (max, min)[self.fold](u1, u2)
+        # Begin Truffle change
+        return _datetime_truffle.local_to_timestamp(self._year, self._month, self._day,
+                                                    self._hour, self._minute, self._second,
+                                                    self._fold)
+        # End Truffle change
 
 
     def timestamp(self):
@@ -1850,11 +1853,9 @@ class datetime(date):
             ts = self._mktime()
         else:
             ts = (self - _EPOCH) // timedelta(seconds=1)
-        localtm = _time.localtime(ts)
-        local = datetime(*localtm[:6])
-        # Extract TZ data
-        gmtoff = localtm.tm_gmtoff
-        zone = localtm.tm_zone
+        # Begin Truffle change
+        gmtoff, zone = _datetime_truffle.local_timezone_info(ts)
+        # End Truffle change
         return timezone(timedelta(seconds=gmtoff), zone)
 
     def astimezone(self, tz=None):
@@ -85,6 +85,11 @@ MICRO_BENCHMARKS = {
     'list-sort-objects': ITER_10 + ['10_000'],
     'list-sort-strings': ITER_10 + ['500_000'],
     'list-sort-keyed': ITER_10 + ['50_000'],
+    'list-sort-operator': ITER_10 + ['20_000'],
+    'heapq-bisect': ITER_10 + ['50'],
+    'datetime-ops': ITER_10 + ['20'],
+    'decimal-money': ITER_10 + ['50'],
+    'sqlite-bulk': ITER_10 + ['20'],
     'dict-getitem-sized': ITER_10 + ['50_000_000'],
     'math-sqrt': ITER_10 + ['500000000'],
     'object-allocate': ITER_10 + ['5000'],
@@ -108,6 +113,15 @@ MICRO_BENCHMARKS = {
     'tuple-indexing-from-literal': ITER_10 + ['10000000'],
     'repeated-import': ITER_10 + ['10000000'],
     'codeobject-interpretation': ITER_10 + ['2000'],
+    'startup-stdlib-imports': ITER_10 + ['5'],
+    'string-concat': ITER_10 + ['1000000'],
+    'file-copy': ITER_10 + ['10'],
+    'socket-sendfile': ITER_10 + ['10'],
+    'bytes-search': ITER_10 + ['20'],
+    'string-split': ITER_10 + ['5'],
+    'string-format': ITER_10 + ['1000000'],
+    'float-repr-parse': ITER_10 + ['1000000'],
+    'string-intern': ITER_10 + ['1000000'],
 }
 
 MICRO_BENCHMARKS_SMALL = {
@@ -186,6 +200,7 @@ MICRO_NATIVE_BENCHMARKS = {
     'c-issubtype-monorphic': ITER_10 + ['50000000'],
     'c-call-method': ITER_15 + ['5000000'],
     'c-instantiate-large': ITER_15 + ['1000'],
+    'c-native-transitions': ITER_10 + ['5000000'],
 }
 
 
@@ -261,6 +276,7 @@ INTEROP_BENCHMARKS = {
     'euler_java': ITER_10 + ['200'],
     'image-magix': ITER_10 + ['10000'],
     'image-magix-java': ITER_10 + ['10000'],
+    'java-array-list': ITER_10 + ['1000'],
 }
 
 
@@ -271,6 +287,7 @@ INTEROP_JAVA_BENCHMARKS = {
     'euler11': [_INTEROP_JAVA_PACKAGE + 'PyEuler11'] + MESO_BENCHMARKS['euler11'],
     'nbody3': [_INTEROP_JAVA_PACKAGE + 'PyNbody'] + MESO_BENCHMARKS['nbody3'],
     'fannkuchredux3': [_INTEROP_JAVA_PACKAGE + 'PyFannkuchredux'] + MESO_BENCHMARKS['fannkuchredux3'],
+    'buffer-read': [_INTEROP_JAVA_PACKAGE + 'PyBufferRead'] + ITER_10 + ['100'],
 }
 
 JAVA_EMBEDDING_MESO_BENCHMARKS = {